@@ -29,6 +29,12 @@ public class DSPLineBreakpoint extends LineBreakpoint {
 	/** Marker attribute key for hit condition expression. */
 	public static final String ATTR_HIT_CONDITION = "org.eclipse.lsp4e.debug.breakpoints.hitCondition";
 
+	/**
+	 * Marker attribute key for the verified state reported by the debug adapter in
+	 * its last <code>setBreakpoints</code> response.
+	 */
+	public static final String ATTR_VERIFIED = "org.eclipse.lsp4e.debug.breakpoints.verified";
+
 	public DSPLineBreakpoint() {
 	}
 
@@ -39,7 +45,7 @@ public DSPLineBreakpoint(final IResource resource, final int lineNumber) throws
 			marker.setAttribute(IBreakpoint.ENABLED, Boolean.TRUE);
 			marker.setAttribute(IMarker.LINE_NUMBER, lineNumber);
 			marker.setAttribute(IBreakpoint.ID, getModelIdentifier());
-			marker.setAttribute(IMarker.MESSAGE, resource.getName() + " [line: " + lineNumber + "]");
+			marker.setAttribute(IMarker.MESSAGE, getMessage(resource, lineNumber));
 		});
 	}
 
@@ -50,10 +56,17 @@ public DSPLineBreakpoint(final IResource resource, String fileName, final int li
 			marker.setAttribute(IBreakpoint.ENABLED, Boolean.TRUE);
 			marker.setAttribute(IMarker.LINE_NUMBER, lineNumber);
 			marker.setAttribute(IBreakpoint.ID, getModelIdentifier());
-			marker.setAttribute(IMarker.MESSAGE, resource.getName() + " [line: " + lineNumber + "]");
+			marker.setAttribute(IMarker.MESSAGE, getMessage(resource, lineNumber));
 		});
 	}
 
+	/**
+	 * @return the message of the marker of a breakpoint at the given line
+	 */
+	public static String getMessage(final IResource resource, final int lineNumber) {
+		return resource.getName() + " [line: " + lineNumber + "]";
+	}
+
 	@Override
 	public String getModelIdentifier() {
 		return DSPPlugin.ID_DSP_DEBUG_MODEL;
@@ -113,4 +126,13 @@ public void setHitCondition(final @Nullable String hitCondition) throws CoreExce
 			m.setAttribute(ATTR_HIT_CONDITION, hitCondition == null || hitCondition.isBlank() ? null : hitCondition);
 		}
 	}
+
+	/**
+	 * @return whether the debug adapter reported this breakpoint as verified. Defaults
+	 *         to {@code true} as long as no adapter reported otherwise.
+	 */
+	public boolean isVerified() {
+		final IMarker m = getMarker();
+		return m == null || m.getAttribute(ATTR_VERIFIED, true);
+	}
 }
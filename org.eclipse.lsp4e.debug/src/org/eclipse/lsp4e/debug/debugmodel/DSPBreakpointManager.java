@@ -10,19 +10,30 @@
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IMarkerDelta;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceRuleFactory;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
 import org.eclipse.debug.core.IBreakpointListener;
 import org.eclipse.debug.core.IBreakpointManager;
 import org.eclipse.debug.core.IBreakpointManagerListener;
@@ -31,6 +42,7 @@
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.lsp4e.debug.DSPPlugin;
 import org.eclipse.lsp4e.debug.breakpoints.DSPLineBreakpoint;
+import org.eclipse.lsp4j.debug.Breakpoint;
 import org.eclipse.lsp4j.debug.BreakpointEventArguments;
 import org.eclipse.lsp4j.debug.Capabilities;
 import org.eclipse.lsp4j.debug.SetBreakpointsArguments;
@@ -46,15 +58,43 @@
  * <ul>
  * <li>Function breakpoints
  * <li>Event points
- * <li>Update platform breakpoints based on adapter events and responses
+ * <li>Update platform breakpoints based on adapter events
  * <li>Support for line breakpoints not on IResource. For example CDT has
  * additional fields in the marker to specify full path
+ * </ul>
+ * <p>
+ * Only sources whose breakpoints changed since the last synchronization are
+ * re-sent to the debug adapter. The <code>setBreakpoints</code> responses are
+ * applied back to the {@link DSPLineBreakpoint} markers (verified state and
+ * adjusted line), unless a newer request was sent for the same source meanwhile.
+ * The sources of failed requests are sent again on the next synchronization.
+ * The markers are updated in a {@link WorkspaceJob} holding the marker rule,
+ * which belongs to the family of this manager, so the thread reading the
+ * messages of the debug adapter never waits for the workspace lock.
+ * The verified state is only meaningful during the debug session and is reset
+ * on {@link #shutdown()}.
  */
 public class DSPBreakpointManager implements IBreakpointManagerListener, IBreakpointListener {
-	private final Map<Source, List<SourceBreakpoint>> targetBreakpoints = new HashMap<>();
+
+	/**
+	 * A breakpoint as sent to the debug adapter together with the platform
+	 * breakpoint it was created from.
+	 */
+	private record TargetBreakpoint(ILineBreakpoint breakpoint, SourceBreakpoint sourceBreakpoint) {
+	}
+
+	private final Map<Source, List<TargetBreakpoint>> targetBreakpoints = new HashMap<>();
+	/** Sources whose breakpoints have not yet been sent to the debug adapter. */
+	private final Set<Source> dirtySources = new LinkedHashSet<>();
+	/** The number of the last request sent for each source. */
+	private final Map<Source, Long> latestRequests = new HashMap<>();
+	private long requestCount;
+	/** Breakpoints whose verified state was written from a response. */
+	private final Set<DSPLineBreakpoint> verifiedStateWritten = new HashSet<>();
 	private final IDebugProtocolServer debugProtocolServer;
 	private final IBreakpointManager platformBreakpointManager;
 	private final @Nullable Capabilities capabilities;
+	private boolean shutdown;
 
 	public DSPBreakpointManager(IBreakpointManager platformBreakpointManager, IDebugProtocolServer debugProtocolServer,
 			@Nullable Capabilities capabilities) {
@@ -81,6 +121,22 @@ public DSPBreakpointManager(IBreakpointManager platformBreakpointManager, IDebug
 	public void shutdown() {
 		platformBreakpointManager.removeBreakpointListener(this);
 		platformBreakpointManager.removeBreakpointManagerListener(this);
+		final List<DSPLineBreakpoint> written;
+		synchronized (targetBreakpoints) {
+			shutdown = true;
+			written = List.copyOf(verifiedStateWritten);
+			verifiedStateWritten.clear();
+		}
+		for (DSPLineBreakpoint breakpoint : written) {
+			final IMarker marker = breakpoint.getMarker();
+			if (marker != null && marker.exists()) {
+				try {
+					marker.setAttribute(DSPLineBreakpoint.ATTR_VERIFIED, null);
+				} catch (CoreException e) {
+					DSPPlugin.logError(e);
+				}
+			}
+		}
 	}
 
 	/**
@@ -104,19 +160,24 @@ public void breakpointManagerEnablementChanged(boolean enabled) {
 
 	private CompletableFuture<@Nullable Void> resendAllTargetBreakpoints(boolean enabled) {
 		IBreakpoint[] breakpoints = platformBreakpointManager.getBreakpoints();
-		for (IBreakpoint breakpoint : breakpoints) {
-			if (supportsBreakpoint(breakpoint)) {
-				try {
-					if (enabled && breakpoint.isEnabled()) {
-						addBreakpointToMap(breakpoint);
-					} else {
+		synchronized (targetBreakpoints) {
+			for (IBreakpoint breakpoint : breakpoints) {
+				if (supportsBreakpoint(breakpoint)) {
+					try {
+						if (enabled && breakpoint.isEnabled()) {
+							addBreakpointToMap(breakpoint);
+						} else {
+							deleteBreakpointFromMap(breakpoint);
+						}
+					} catch (CoreException e) {
+						DSPPlugin.logError(e);
 						deleteBreakpointFromMap(breakpoint);
 					}
-				} catch (CoreException e) {
-					DSPPlugin.logError(e);
-					deleteBreakpointFromMap(breakpoint);
 				}
 			}
+			// the adapter may have lost track of previously sent breakpoints, so
+			// synchronize every known source, not only the ones that changed
+			dirtySources.addAll(targetBreakpoints.keySet());
 		}
 		return sendBreakpoints();
 	}
@@ -126,7 +187,9 @@ public void breakpointAdded(IBreakpoint breakpoint) {
 		if (supportsBreakpoint(breakpoint)) {
 			try {
 				if ((breakpoint.isEnabled() && platformBreakpointManager.isEnabled()) || !breakpoint.isRegistered()) {
-					addBreakpointToMap(breakpoint);
+					synchronized (targetBreakpoints) {
+						addBreakpointToMap(breakpoint);
+					}
 					sendBreakpoints();
 				}
 			} catch (CoreException e) {
@@ -138,7 +201,9 @@ public void breakpointAdded(IBreakpoint breakpoint) {
 	@Override
 	public void breakpointRemoved(IBreakpoint breakpoint, @Nullable IMarkerDelta delta) {
 		if (supportsBreakpoint(breakpoint)) {
-			deleteBreakpointFromMap(breakpoint);
+			synchronized (targetBreakpoints) {
+				deleteBreakpointFromMap(breakpoint);
+			}
 			sendBreakpoints();
 		}
 	}
@@ -157,15 +222,12 @@ public void breakpointChanged(IBreakpoint breakpoint, @Nullable IMarkerDelta del
 		}
 	}
 
+	/**
+	 * Must be called while holding the lock on {@link #targetBreakpoints}.
+	 */
 	private void addBreakpointToMap(IBreakpoint breakpoint) {
 		Assert.isTrue(supportsBreakpoint(breakpoint) && breakpoint instanceof ILineBreakpoint);
 		if (breakpoint instanceof ILineBreakpoint lineBreakpoint) {
-			// Ensure we do not keep stale breakpoint entries for the same
-			// location (line/column) when attributes such as conditions change.
-			// This avoids sending multiple breakpoints for the same source
-			// location to the debug adapter.
-			deleteBreakpointFromMap(breakpoint);
-
 			IMarker marker = lineBreakpoint.getMarker();
 			IResource resource = marker.getResource();
 			IPath location = resource.getLocation();
@@ -182,8 +244,6 @@ private void addBreakpointToMap(IBreakpoint breakpoint) {
 			source.setName(name);
 			source.setPath(path);
 
-			List<SourceBreakpoint> sourceBreakpoints = targetBreakpoints.computeIfAbsent(source,
-					s -> new ArrayList<>());
 			final var sourceBreakpoint = new SourceBreakpoint();
 			sourceBreakpoint.setLine(lineNumber);
 
@@ -205,10 +265,28 @@ private void addBreakpointToMap(IBreakpoint breakpoint) {
 				sourceBreakpoint.setHitCondition(hitCondition);
 			}
 
-			sourceBreakpoints.add(sourceBreakpoint);
+			// Marker changes which do not affect what is sent to the adapter (e.g. the
+			// verified state we write back from a response) must not trigger a resync
+			final List<TargetBreakpoint> existing = targetBreakpoints.get(source);
+			if (existing != null && existing.contains(new TargetBreakpoint(lineBreakpoint, sourceBreakpoint))) {
+				return;
+			}
+
+			// Ensure we do not keep stale breakpoint entries for the same
+			// location (line/column) when attributes such as conditions change.
+			// This avoids sending multiple breakpoints for the same source
+			// location to the debug adapter.
+			deleteBreakpointFromMap(breakpoint);
+
+			targetBreakpoints.computeIfAbsent(source, s -> new ArrayList<>())
+					.add(new TargetBreakpoint(lineBreakpoint, sourceBreakpoint));
+			dirtySources.add(source);
 		}
 	}
 
+	/**
+	 * Must be called while holding the lock on {@link #targetBreakpoints}.
+	 */
 	private void deleteBreakpointFromMap(IBreakpoint breakpoint) {
 		Assert.isTrue(supportsBreakpoint(breakpoint) && breakpoint instanceof ILineBreakpoint);
 		if (breakpoint instanceof ILineBreakpoint lineBreakpoint) {
@@ -222,23 +300,26 @@ private void deleteBreakpointFromMap(IBreakpoint breakpoint) {
 			} catch (CoreException e) {
 				lineNumber = -1;
 			}
-			for (Entry<Source, List<SourceBreakpoint>> entry : targetBreakpoints.entrySet()) {
+			int markerColumn = lineBreakpoint.getMarker().getAttribute(DSPLineBreakpoint.ATTR_COLUMN, -1);
+			for (Entry<Source, List<TargetBreakpoint>> entry : targetBreakpoints.entrySet()) {
 				Source source = entry.getKey();
 				if (Objects.equals(name, source.getName()) && Objects.equals(path, source.getPath())) {
-					List<SourceBreakpoint> bps = entry.getValue();
-					for (Iterator<SourceBreakpoint> iterator = bps.iterator(); iterator.hasNext();) {
-						SourceBreakpoint sourceBreakpoint = iterator.next();
+					List<TargetBreakpoint> bps = entry.getValue();
+					for (Iterator<TargetBreakpoint> iterator = bps.iterator(); iterator.hasNext();) {
+						TargetBreakpoint targetBreakpoint = iterator.next();
+						SourceBreakpoint sourceBreakpoint = targetBreakpoint.sourceBreakpoint();
 
-						// Match by line and (if present) column
+						// Match by identity (the marker may have moved since it was sent) or by
+						// line and (if present) column
 						Integer bpColumn = sourceBreakpoint.getColumn();
-						int markerColumn = lineBreakpoint.getMarker().getAttribute(DSPLineBreakpoint.ATTR_COLUMN, -1);
 						final boolean lineMatches = Objects.equals(lineNumber, sourceBreakpoint.getLine());
 						final boolean columnMatches = (markerColumn <= 0
 								&& (bpColumn == null || bpColumn.intValue() <= 0))
 								|| (markerColumn > 0 && bpColumn != null && bpColumn.intValue() == markerColumn);
 
-						if (lineMatches && columnMatches) {
+						if (targetBreakpoint.breakpoint() == lineBreakpoint || (lineMatches && columnMatches)) {
 							iterator.remove();
+							dirtySources.add(source);
 						}
 					}
 				}
@@ -246,37 +327,188 @@ private void deleteBreakpointFromMap(IBreakpoint breakpoint) {
 		}
 	}
 
+	/**
+	 * Sends the breakpoints of all sources modified since the last call to the
+	 * debug adapter. The requests for the different sources are issued without
+	 * waiting for each other.
+	 */
 	private CompletableFuture<@Nullable Void> sendBreakpoints() {
-		final var all = new ArrayList<CompletableFuture<Void>>();
-		for (Iterator<Entry<Source, List<SourceBreakpoint>>> iterator = targetBreakpoints.entrySet()
-				.iterator(); iterator.hasNext();) {
-			Entry<Source, List<SourceBreakpoint>> entry = iterator.next();
-
-			Source source = entry.getKey();
-			List<SourceBreakpoint> bps = entry.getValue();
-			int[] lines = bps.stream().mapToInt(SourceBreakpoint::getLine).toArray();
-			SourceBreakpoint[] sourceBps = bps.toArray(SourceBreakpoint[]::new);
-
-			final var arguments = new SetBreakpointsArguments();
-			arguments.setSource(source);
-			arguments.setLines(lines);
-			arguments.setBreakpoints(sourceBps);
-			arguments.setSourceModified(false);
-			CompletableFuture<SetBreakpointsResponse> future = debugProtocolServer.setBreakpoints(arguments);
-			CompletableFuture<@Nullable Void> future2 = future.thenAccept((SetBreakpointsResponse bpResponse) -> {
-				// TODO update platform breakpoint with new info
-			});
-			all.add(future2);
+		final var requests = new ArrayList<SentRequest>();
+		synchronized (targetBreakpoints) {
+			for (Source source : dirtySources) {
+				List<TargetBreakpoint> bps = targetBreakpoints.getOrDefault(source, List.of());
+				List<TargetBreakpoint> sent = List.copyOf(bps);
+				int[] lines = sent.stream().mapToInt(bp -> bp.sourceBreakpoint().getLine()).toArray();
+				SourceBreakpoint[] sourceBps = sent.stream().map(TargetBreakpoint::sourceBreakpoint)
+						.toArray(SourceBreakpoint[]::new);
+
+				final var arguments = new SetBreakpointsArguments();
+				arguments.setSource(source);
+				arguments.setLines(lines);
+				arguments.setBreakpoints(sourceBps);
+				arguments.setSourceModified(false);
+				final long number = ++requestCount;
+				latestRequests.put(source, number);
+				requests.add(new SentRequest(source, number, arguments, sent));
 
-			// Once we told adapter there are no breakpoints for a source file, we can stop
-			// tracking that file
-			if (bps.isEmpty()) {
-				iterator.remove();
+				// Once we told adapter there are no breakpoints for a source file, we can stop
+				// tracking that file
+				if (bps.isEmpty()) {
+					targetBreakpoints.remove(source);
+				}
 			}
+			dirtySources.clear();
+		}
+
+		// requests are sent outside of the lock as responses update markers, which in
+		// turn notifies the breakpoint listeners
+		final var all = new ArrayList<CompletableFuture<@Nullable Void>>();
+		for (SentRequest request : requests) {
+			CompletableFuture<SetBreakpointsResponse> future = debugProtocolServer.setBreakpoints(request.arguments());
+			CompletableFuture<@Nullable Void> future2 = future
+					.thenAccept((SetBreakpointsResponse bpResponse) -> scheduleUpdate(request, bpResponse))
+					.whenComplete((v, t) -> {
+						if (t != null) {
+							requestFailed(request);
+						}
+					});
+			all.add(future2);
 		}
 		return CompletableFuture.allOf(all.toArray(CompletableFuture[]::new));
 	}
 
+	/**
+	 * A <code>setBreakpoints</code> request sent to the debug adapter.
+	 *
+	 * @param number the number of the request, increasing with each request sent
+	 * @param sent   the breakpoints in the order they were sent
+	 */
+	private record SentRequest(Source source, long number, SetBreakpointsArguments arguments,
+			List<TargetBreakpoint> sent) {
+	}
+
+	/**
+	 * Must be called while holding the lock on {@link #targetBreakpoints}.
+	 *
+	 * @return whether no request was sent for the same source after the given one
+	 */
+	private boolean isLatest(SentRequest request) {
+		return Objects.equals(latestRequests.get(request.source()), request.number());
+	}
+
+	/**
+	 * Marks the source of a failed request for being sent again, as the adapter
+	 * may still have its former breakpoints.
+	 */
+	private void requestFailed(SentRequest request) {
+		synchronized (targetBreakpoints) {
+			if (isLatest(request)) {
+				dirtySources.add(request.source());
+				if (request.sent().isEmpty()) {
+					targetBreakpoints.putIfAbsent(request.source(), new ArrayList<>());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Schedules the update of the platform breakpoints from the given response in
+	 * a job holding the marker rule of their resources.
+	 */
+	private void scheduleUpdate(SentRequest request, @Nullable SetBreakpointsResponse bpResponse) {
+		final IResourceRuleFactory ruleFactory = ResourcesPlugin.getWorkspace().getRuleFactory();
+		boolean hasMarkers = false;
+		ISchedulingRule rule = null;
+		for (TargetBreakpoint targetBreakpoint : request.sent()) {
+			final IMarker marker = targetBreakpoint.breakpoint().getMarker();
+			if (targetBreakpoint.breakpoint() instanceof DSPLineBreakpoint && marker != null) {
+				hasMarkers = true;
+				rule = MultiRule.combine(rule, ruleFactory.markerRule(marker.getResource()));
+			}
+		}
+		if (!hasMarkers) {
+			updatePlatformBreakpoints(request, bpResponse);
+			return;
+		}
+		final var job = new WorkspaceJob("Update breakpoints from debug adapter") { //$NON-NLS-1$
+			@Override
+			public boolean belongsTo(@Nullable Object family) {
+				return DSPBreakpointManager.this == family;
+			}
+
+			@Override
+			public IStatus runInWorkspace(@Nullable IProgressMonitor monitor) {
+				updatePlatformBreakpoints(request, bpResponse);
+				return Status.OK_STATUS;
+			}
+		};
+		job.setRule(rule);
+		job.setSystem(true);
+		job.schedule();
+	}
+
+	/**
+	 * Applies the verified state and the (possibly adjusted) line returned by the
+	 * debug adapter to the platform breakpoints, unless a newer request was sent
+	 * for the same source meanwhile.
+	 *
+	 * @param request    the request answered
+	 * @param bpResponse the response; the returned breakpoints are in the same
+	 *                   order as the request
+	 */
+	private void updatePlatformBreakpoints(SentRequest request, @Nullable SetBreakpointsResponse bpResponse) {
+		synchronized (targetBreakpoints) {
+			if (shutdown || !isLatest(request)) {
+				return;
+			}
+			if (request.sent().isEmpty()) {
+				latestRequests.remove(request.source());
+			}
+		}
+		final Breakpoint[] breakpoints = bpResponse == null ? null : bpResponse.getBreakpoints();
+		if (breakpoints == null) {
+			return;
+		}
+		final List<TargetBreakpoint> sent = request.sent();
+		for (int i = 0; i < Math.min(sent.size(), breakpoints.length); i++) {
+			final TargetBreakpoint targetBreakpoint = sent.get(i);
+			final Breakpoint breakpoint = breakpoints[i];
+			if (!(targetBreakpoint.breakpoint() instanceof DSPLineBreakpoint platformBreakpoint)) {
+				continue;
+			}
+			final IMarker marker = platformBreakpoint.getMarker();
+			if (marker == null || !marker.exists()) {
+				continue;
+			}
+
+			final Integer adjustedLine = breakpoint.getLine();
+			final int line = adjustedLine == null ? -1 : adjustedLine.intValue();
+			final boolean lineAdjusted = line > 0 && line != targetBreakpoint.sourceBreakpoint().getLine();
+			synchronized (targetBreakpoints) {
+				if (shutdown) {
+					return;
+				}
+				if (lineAdjusted) {
+					// Record the adjusted line first so that the resulting marker change
+					// is recognized as already known to the adapter
+					targetBreakpoint.sourceBreakpoint().setLine(line);
+				}
+				verifiedStateWritten.add(platformBreakpoint);
+			}
+			try {
+				if (platformBreakpoint.isVerified() != breakpoint.isVerified()) {
+					marker.setAttribute(DSPLineBreakpoint.ATTR_VERIFIED, breakpoint.isVerified());
+				}
+				if (lineAdjusted) {
+					marker.setAttributes(new String[] { IMarker.LINE_NUMBER, IMarker.MESSAGE },
+							new Object[] { line, DSPLineBreakpoint.getMessage(marker.getResource(), line) });
+				}
+			} catch (CoreException e) {
+				DSPPlugin.logError(e);
+			}
+		}
+	}
+
 	public void breakpointEvent(BreakpointEventArguments args) {
 		// TODO Implement updates to breakpoints that come from the server (e.g.
 		// breakpoints inserted/modified/removed from the CLI)
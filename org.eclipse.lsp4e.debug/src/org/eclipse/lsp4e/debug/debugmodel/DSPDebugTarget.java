@@ -22,24 +22,21 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
 
 import org.eclipse.core.resources.IMarkerDelta;
 import org.eclipse.core.runtime.CoreException;
@@ -85,24 +82,41 @@
 import org.eclipse.lsp4j.debug.TerminatedEventArguments;
 import org.eclipse.lsp4j.debug.Thread;
 import org.eclipse.lsp4j.debug.ThreadEventArguments;
+import org.eclipse.lsp4j.debug.ThreadEventArgumentsReason;
 import org.eclipse.lsp4j.debug.launch.DSPLauncher;
 import org.eclipse.lsp4j.debug.services.IDebugProtocolClient;
 import org.eclipse.lsp4j.debug.services.IDebugProtocolServer;
 import org.eclipse.lsp4j.jsonrpc.Launcher;
 import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.RemoteEndpoint;
+import org.eclipse.lsp4j.jsonrpc.messages.RequestMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseMessage;
 import org.eclipse.lsp4j.jsonrpc.validation.ReflectiveMessageValidator;
 
 public class DSPDebugTarget extends DSPDebugElement implements IDebugTarget, IDebugProtocolClient {
 	private static final boolean TRACE_IO = Platform.getDebugBoolean("org.eclipse.lsp4e.debug/trace/io"); //$NON-NLS-1$
 	private static final boolean TRACE_MESSAGES = Platform.getDebugBoolean("org.eclipse.lsp4e.debug/trace/messages"); //$NON-NLS-1$
 
+	/**
+	 * The executors shared with all child targets, see {@link SharedExecutors}.
+	 */
+	private final SharedExecutors executors;
+	private final AtomicBoolean executorsReleased = new AtomicBoolean();
 	/**
 	 * Any events we receive from the adapter that require further contact with the
 	 * adapter needs to be farmed off to another thread as the events arrive on the
 	 * same thread. (Note for requests, use the *Async versions on
-	 * completeablefuture to achieve the same effect.)
+	 * completeablefuture to achieve the same effect.) The events are handled in the
+	 * order they arrived.
+	 */
+	private final Executor threadPool;
+
+	/**
+	 * Number of requests sent to the debug adapter which have not been responded to
+	 * yet, and the maximum this number reached during the session.
 	 */
-	private final ExecutorService threadPool = Executors.newCachedThreadPool();
+	private final AtomicInteger pendingRequests = new AtomicInteger();
+	private final AtomicInteger maxPendingRequests = new AtomicInteger();
 
 	private final ILaunch launch;
 	private Future<?> debugProtocolFuture = lateNonNull();
@@ -125,14 +139,28 @@ public class DSPDebugTarget extends DSPDebugElement implements IDebugTarget, IDe
 	 * The debuggees that this target has spawned, for example when handling the
 	 * {@link #startDebugging(StartDebuggingRequestArguments)} notification
 	 */
-	private final Set<DSPDebugTarget> debuggees = new HashSet<>();
+	private final Set<DSPDebugTarget> debuggees = ConcurrentHashMap.newKeySet();
 
 	/**
 	 * The cached set of current threads. This should generally not be directly
-	 * accessed and instead accessed via {@link #getThreads()} which will ensure
-	 * they are up to date (against the {@link #refreshThreads} flag).
+	 * accessed and instead accessed via {@link #getThreads()}.
 	 */
-	private final Map<Integer, DSPThread> threads = Collections.synchronizedMap(new TreeMap<>());
+	private final ThreadTable threads = new ThreadTable();
+
+	/**
+	 * Guards {@link #threadsRefresh} and {@link #trailingThreadsRefresh}.
+	 */
+	private final Object threadsRefreshLock = new Object();
+	/**
+	 * The <code>threads</code> request currently in flight, if any.
+	 */
+	private @Nullable CompletableFuture<@Nullable Void> threadsRefresh;
+	/**
+	 * Completed once the refresh requested while {@link #threadsRefresh} was in
+	 * flight has finished. All refresh requests arriving in the meantime share this
+	 * single trailing refresh.
+	 */
+	private @Nullable CompletableFuture<@Nullable Void> trailingThreadsRefresh;
 
 	private volatile boolean exitedReceived = false;
 	private volatile boolean fTerminated = false;
@@ -168,8 +196,15 @@ public void close() {
 
 	public DSPDebugTarget(ILaunch launch, Supplier<TransportStreams> streamsSupplier,
 			Map<String, Object> dspParameters) {
+		this(launch, streamsSupplier, dspParameters, new SharedExecutors());
+	}
+
+	private DSPDebugTarget(ILaunch launch, Supplier<TransportStreams> streamsSupplier,
+			Map<String, Object> dspParameters, SharedExecutors executors) {
 		super(null);
 		this.transportStreams = streamsSupplier.get();
+		this.executors = executors.acquire();
+		this.threadPool = executors.newSerialExecutor();
 		this.streamsSupplier = streamsSupplier;
 		this.launch = launch;
 		this.dspParameters = dspParameters;
@@ -203,12 +238,12 @@ public void initialize(IProgressMonitor monitor) throws CoreException {
 				if (true) {
 					result = new ReflectiveMessageValidator(result);
 				}
-				return result;
+				return countPendingRequests(result, consumer instanceof RemoteEndpoint);
 			};
 
 			InputStream in2 = transportStreams.in;
 			OutputStream out2 = transportStreams.out;
-			ExecutorService threadPool2 = threadPool;
+			ExecutorService threadPool2 = executors.listeners();
 			Launcher<? extends IDebugProtocolServer> debugProtocolLauncher = createLauncher(wrapper, in2, out2,
 					threadPool2);
 
@@ -226,6 +261,33 @@ public void initialize(IProgressMonitor monitor) throws CoreException {
 		}
 	}
 
+	private MessageConsumer countPendingRequests(MessageConsumer consumer, boolean incoming) {
+		return message -> {
+			if (!incoming && message instanceof RequestMessage) {
+				maxPendingRequests.accumulateAndGet(pendingRequests.incrementAndGet(), Math::max);
+			} else if (incoming && message instanceof ResponseMessage) {
+				pendingRequests.decrementAndGet();
+			}
+			consumer.consume(message);
+		};
+	}
+
+	/**
+	 * @return the number of requests sent to the debug adapter of this session that
+	 *         have not been responded to yet
+	 */
+	public int getPendingRequestCount() {
+		return pendingRequests.get();
+	}
+
+	/**
+	 * @return the highest number of requests that were pending at the same time
+	 *         during this session
+	 */
+	public int getMaxPendingRequestCount() {
+		return maxPendingRequests.get();
+	}
+
 	/**
 	 * As the main reason for extending {@link DSPDebugTarget} is to interface to a
 	 * custom debug adapter that has more functionality than the protocol defines.
@@ -340,6 +402,13 @@ private void terminated() {
 			java.lang.Thread.interrupted();
 		}
 		transportStreams.close();
+		if (DSPPlugin.DEBUG && getPendingRequestCount() > 0) {
+			DSPPlugin.logWarning(targetName + " terminated with " + getPendingRequestCount() //
+					+ " pending requests (max " + getMaxPendingRequestCount() + ")", null);
+		}
+		if (executorsReleased.compareAndSet(false, true)) {
+			executors.release();
+		}
 	}
 
 	@Override
@@ -347,19 +416,27 @@ public void initialized() {
 		initialized.complete(null);
 	}
 
+	/**
+	 * Starts a child session sharing the executors of this target. The child is
+	 * initialized without blocking the message loop of this target, so several
+	 * child sessions can start in parallel.
+	 */
 	@Override
 	public CompletableFuture<Void> startDebugging(StartDebuggingRequestArguments args) {
 		final var parameters = new HashMap<String, Object>(/* dspParameters */);
 		parameters.putAll(args.getConfiguration());
-		try {
-			final var newTarget = new DSPDebugTarget(launch, streamsSupplier, parameters);
-			launch.addDebugTarget(newTarget);
-			newTarget.initialize(new NullProgressMonitor());
-			debuggees.add(newTarget);
-		} catch (CoreException e) {
-			DSPPlugin.logError(e);
-		}
-		return CompletableFuture.completedFuture(null);
+		final CompletableFuture<Void> started = CompletableFuture.completedFuture(null);
+		return started.thenApplyAsync(v -> {
+			try {
+				final var newTarget = new DSPDebugTarget(launch, streamsSupplier, parameters, executors);
+				launch.addDebugTarget(newTarget);
+				debuggees.add(newTarget);
+				newTarget.initialize(new NullProgressMonitor());
+			} catch (CoreException e) {
+				DSPPlugin.logError(e);
+			}
+			return v;
+		}, executors.listeners());
 	}
 
 	/**
@@ -567,7 +644,7 @@ public IMemoryBlock getMemoryBlock(long startAddress, long length) throws DebugE
 
 	@Override
 	public DSPThread[] getThreads() {
-		return threads.values().toArray(DSPThread[]::new);
+		return threads.values().clone();
 	}
 
 	/**
@@ -579,7 +656,7 @@ public DSPThread[] getThreads() {
 	 * @return
 	 */
 	private DSPThread getThread(Integer threadId) {
-		return threads.computeIfAbsent(threadId, id -> new DSPThread(this, threadId));
+		return threads.getOrCreate(threadId, this);
 	}
 
 	@Override
@@ -608,31 +685,93 @@ public void exited(ExitedEventArguments args) {
 		terminated();
 	}
 
+	/**
+	 * Applies thread events directly to the thread table. An exited thread is
+	 * removed without contacting the adapter. A started thread is added right away,
+	 * its name is fetched by a (coalesced) refresh of the threads.
+	 */
 	@Override
 	public void thread(ThreadEventArguments args) {
+		final int threadId = args.getThreadId();
+		if (ThreadEventArgumentsReason.EXITED.equals(args.getReason())) {
+			if (threads.remove(threadId) != null) {
+				fireChangeEvent(DebugEvent.CONTENT);
+			}
+			return;
+		}
+		if (ThreadEventArgumentsReason.STARTED.equals(args.getReason())
+				&& threads.putIfAbsent(threadId, new DSPThread(this, threadId))) {
+			fireChangeEvent(DebugEvent.CONTENT);
+		}
 		triggerUpdateThreads();
 	}
 
-	private CompletableFuture<?> triggerUpdateThreads() {
+	/**
+	 * Requests the threads from the debug adapter. Only one <code>threads</code>
+	 * request is in flight at any time: calls made while a request is running are
+	 * coalesced into a single trailing request, which is sent once the running one
+	 * completes, so that their callers still see the effects of everything that
+	 * happened before they called.
+	 *
+	 * @return future completed once the threads have been updated
+	 */
+	private CompletableFuture<@Nullable Void> triggerUpdateThreads() {
+		synchronized (threadsRefreshLock) {
+			if (threadsRefresh == null) {
+				final CompletableFuture<@Nullable Void> refresh = updateThreads();
+				threadsRefresh = refresh;
+				refresh.whenComplete((v, t) -> threadsRefreshDone());
+				return refresh;
+			}
+			CompletableFuture<@Nullable Void> trailing = trailingThreadsRefresh;
+			if (trailing == null) {
+				trailing = new CompletableFuture<>();
+				trailingThreadsRefresh = trailing;
+			}
+			return trailing;
+		}
+	}
+
+	private void threadsRefreshDone() {
+		final CompletableFuture<@Nullable Void> trailing;
+		synchronized (threadsRefreshLock) {
+			threadsRefresh = null;
+			trailing = trailingThreadsRefresh;
+			trailingThreadsRefresh = null;
+		}
+		if (trailing != null && !isTerminated()) {
+			triggerUpdateThreads().whenComplete((v, t) -> {
+				if (t != null) {
+					trailing.completeExceptionally(t);
+				} else {
+					trailing.complete(null);
+				}
+			});
+		} else if (trailing != null) {
+			trailing.complete(null);
+		}
+	}
+
+	private CompletableFuture<@Nullable Void> updateThreads() {
 		return getDebugProtocolServer().threads().thenAcceptAsync(threadsResponse -> {
-			var threadIds = Arrays.stream(threadsResponse.getThreads()).map(Thread::getId).collect(Collectors.toSet());
-			boolean contentChanged = false;
-			synchronized (threads) {
-				contentChanged = threads.keySet().removeIf(Predicate.not(threadIds::contains));
-				for (Thread thread : threadsResponse.getThreads()) {
-					DSPThread dspThread = threads.get(thread.getId());
-					if (dspThread == null) {
-						dspThread = new DSPThread(this, thread.getId());
-						threads.put(dspThread.getId(), dspThread);
-						contentChanged = true;
-					}
-					dspThread.update(thread);
+			final Thread[] responseThreads = threadsResponse.getThreads();
+			final var threadIds = new int[responseThreads.length];
+			for (int i = 0; i < responseThreads.length; i++) {
+				threadIds[i] = responseThreads[i].getId();
+			}
+			boolean contentChanged = threads.retainAll(threadIds);
+			for (final Thread thread : responseThreads) {
+				DSPThread dspThread = threads.get(thread.getId());
+				if (dspThread == null) {
+					dspThread = threads.getOrCreate(thread.getId(), this);
+					contentChanged = true;
 				}
+				dspThread.update(thread);
 			}
 			if (contentChanged) {
 				fireChangeEvent(DebugEvent.CONTENT);
 			}
-		});
+		}, threadPool);
 	}
 
 	@Override
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.debug.debugmodel;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Executors shared by a debug target and all the child targets started for it
+ * via <code>startDebugging</code>, so that debugging dozens of child sessions
+ * does not create dozens of thread pools.
+ * <ul>
+ * <li>The message loops of the adapter connections each run on their own
+ * virtual thread.
+ * <li>Event handling runs on a bounded pool of virtual threads. Each target
+ * gets its own {@link #newSerialExecutor() serial executor} on top of it, so the
+ * events of one target are handled in the order they arrived.
+ * </ul>
+ * The executors are shut down once all targets using them have
+ * {@link #release() released} them.
+ * <p>
+ * Internal class, only public to be accessible by test cases.
+ *
+ * @noreference
+ */
+public final class SharedExecutors {
+
+	private static final int MAX_WORKERS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+	private final ExecutorService listeners = Executors
+			.newThreadPerTaskExecutor(Thread.ofVirtual().name("DSP-Listener-", 1).factory()); //$NON-NLS-1$
+	private final ExecutorService workers = Executors.newFixedThreadPool(MAX_WORKERS,
+			Thread.ofVirtual().name("DSP-Worker-", 1).factory()); //$NON-NLS-1$
+	private final AtomicInteger users = new AtomicInteger();
+
+	public SharedExecutors acquire() {
+		users.incrementAndGet();
+		return this;
+	}
+
+	public void release() {
+		if (users.decrementAndGet() == 0) {
+			workers.shutdown();
+			listeners.shutdown();
+		}
+	}
+
+	/**
+	 * @return the executor running the message loops of the adapter connections
+	 */
+	public ExecutorService listeners() {
+		return listeners;
+	}
+
+	/**
+	 * @return a new executor running its tasks one after the other, in submission
+	 *         order, on the shared worker pool
+	 */
+	public Executor newSerialExecutor() {
+		return new SerialExecutor(workers);
+	}
+
+	private static final class SerialExecutor implements Executor {
+		private final Queue<Runnable> tasks = new ArrayDeque<>();
+		private final Executor executor;
+		private @Nullable Runnable active;
+
+		SerialExecutor(Executor executor) {
+			this.executor = executor;
+		}
+
+		@Override
+		public synchronized void execute(Runnable command) {
+			tasks.add(() -> {
+				try {
+					command.run();
+				} finally {
+					scheduleNext();
+				}
+			});
+			if (active == null) {
+				scheduleNext();
+			}
+		}
+
+		private synchronized void scheduleNext() {
+			final Runnable next = active = tasks.poll();
+			if (next != null) {
+				try {
+					executor.execute(next);
+				} catch (RejectedExecutionException ex) {
+					// all targets are terminated, drop the remaining tasks
+					tasks.clear();
+					active = null;
+				}
+			}
+		}
+	}
+}
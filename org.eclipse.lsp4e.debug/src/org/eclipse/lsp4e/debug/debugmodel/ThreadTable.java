@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.debug.debugmodel;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Thread-safe table of the {@link DSPThread}s of a target keyed by their
+ * primitive DAP thread id.
+ * <p>
+ * Uses open addressing so lookups do not box the id, and caches the array
+ * returned by {@link #values()} (sorted by id) until the table is modified, as
+ * the debug UI requests the threads far more often than they change.
+ * <p>
+ * Internal class, only public to be accessible by test cases.
+ *
+ * @noreference
+ */
+public final class ThreadTable {
+
+	private static final DSPThread[] NO_THREADS = new DSPThread[0];
+	private static final int FREE = Integer.MIN_VALUE;
+
+	private int[] keys;
+	private @Nullable DSPThread[] values;
+	/** the thread whose id is the {@link #FREE} marker, it is kept outside of the slots */
+	private @Nullable DSPThread freeKeyThread;
+	private int size;
+	private DSPThread @Nullable [] snapshot = NO_THREADS;
+
+	public ThreadTable() {
+		keys = new int[16];
+		Arrays.fill(keys, FREE);
+		values = new @Nullable DSPThread[16];
+	}
+
+	public synchronized @Nullable DSPThread get(int id) {
+		if (id == FREE) {
+			return freeKeyThread;
+		}
+		final int slot = find(id);
+		return slot < 0 ? null : values[slot];
+	}
+
+	/**
+	 * @return the thread with the given id, a new thread is added if there is none
+	 *         yet
+	 */
+	public synchronized DSPThread getOrCreate(int id, DSPDebugTarget target) {
+		final DSPThread existing = get(id);
+		if (existing != null) {
+			return existing;
+		}
+		final var thread = new DSPThread(target, id);
+		put(id, thread);
+		return thread;
+	}
+
+	/**
+	 * @return {@code true} if the table did not contain a thread with the given id
+	 */
+	public synchronized boolean putIfAbsent(int id, DSPThread thread) {
+		if (get(id) != null) {
+			return false;
+		}
+		put(id, thread);
+		return true;
+	}
+
+	/**
+	 * @return the removed thread, or {@code null} if there was no thread with the
+	 *         given id
+	 */
+	public synchronized @Nullable DSPThread remove(int id) {
+		if (id == FREE) {
+			final DSPThread removed = freeKeyThread;
+			if (removed != null) {
+				freeKeyThread = null;
+				size--;
+				snapshot = null;
+			}
+			return removed;
+		}
+		int slot = find(id);
+		if (slot < 0) {
+			return null;
+		}
+		final DSPThread removed = values[slot];
+		// backward shift deletion keeps the probe sequences intact without tombstones
+		final int mask = keys.length - 1;
+		int next = (slot + 1) & mask;
+		while (keys[next] != FREE) {
+			final int home = mix(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+		keys[slot] = FREE;
+		values[slot] = null;
+		size--;
+		snapshot = null;
+		return removed;
+	}
+
+	/**
+	 * Removes all threads whose id is not contained in the given ids.
+	 *
+	 * @param ids
+	 *            the ids of the threads to keep, in any order. The array is not
+	 *            modified.
+	 * @return {@code true} if any thread was removed
+	 */
+	public synchronized boolean retainAll(int[] ids) {
+		final int[] sortedIds = ids.clone();
+		Arrays.sort(sortedIds);
+		boolean removed = false;
+		int next = 0;
+		// both the ids and the values are sorted, so a single pass matches them
+		for (final DSPThread thread : values()) {
+			final int id = thread.getId();
+			while (next < sortedIds.length && sortedIds[next] < id) {
+				next++;
+			}
+			if (next == sortedIds.length || sortedIds[next] != id) {
+				remove(id);
+				removed = true;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * @return the threads sorted by id. The returned array must not be modified.
+	 */
+	public synchronized DSPThread[] values() {
+		DSPThread[] snapshot = this.snapshot;
+		if (snapshot == null) {
+			snapshot = new DSPThread[size];
+			int i = 0;
+			if (freeKeyThread != null) {
+				snapshot[i++] = freeKeyThread;
+			}
+			for (final DSPThread thread : values) {
+				if (thread != null) {
+					snapshot[i++] = thread;
+				}
+			}
+			Arrays.sort(snapshot, Comparator.comparingInt(DSPThread::getId));
+			this.snapshot = snapshot;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * @return the number of threads in the table
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	private void put(int id, DSPThread thread) {
+		if (id == FREE) {
+			freeKeyThread = thread;
+			size++;
+			snapshot = null;
+			return;
+		}
+		if ((size + 1) * 2 > keys.length) {
+			resize();
+		}
+		final int mask = keys.length - 1;
+		int slot = mix(id) & mask;
+		while (keys[slot] != FREE) {
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = id;
+		values[slot] = thread;
+		size++;
+		snapshot = null;
+	}
+
+	private int find(int id) {
+		final int mask = keys.length - 1;
+		int slot = mix(id) & mask;
+		while (keys[slot] != FREE) {
+			if (keys[slot] == id) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void resize() {
+		final int[] oldKeys = keys;
+		final @Nullable DSPThread[] oldValues = values;
+		keys = new int[oldKeys.length * 2];
+		Arrays.fill(keys, FREE);
+		values = new @Nullable DSPThread[oldKeys.length * 2];
+		size = freeKeyThread != null ? 1 : 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			final DSPThread thread = oldValues[i];
+			if (oldKeys[i] != FREE && thread != null) {
+				put(oldKeys[i], thread);
+			}
+		}
+	}
+
+	private static int mix(int id) {
+		final int h = id * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
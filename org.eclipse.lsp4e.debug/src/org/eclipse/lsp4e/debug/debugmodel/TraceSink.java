@@ -0,0 +1,632 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.debug.debugmodel;
+
+import static org.eclipse.lsp4e.internal.NullSafetyHelper.castNonNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.lsp4e.debug.DSPPlugin;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Asynchronous sink for tracing the data exchanged with a debug adapter.
+ * <p>
+ * The streams returned by {@link #incoming()} and {@link #outgoing()} only copy
+ * the traced bytes into a queue, so tracing does not slow down the I/O threads.
+ * A background thread splits the data into DAP messages, writes each message
+ * with a timestamp to the trace file (or {@link System#out}) and records the
+ * round-trip time of every request.
+ * <p>
+ * All sinks tracing to the same file, e.g. the sessions of a debug target and
+ * its child sessions, share one background thread, one writer and one rotation
+ * of the file. Each message is prefixed with the number of its session.
+ */
+public class TraceSink implements AutoCloseable {
+
+	private static final String OPTION_TRACE_FILE = "org.eclipse.lsp4e.debug/trace/io/file"; //$NON-NLS-1$
+	private static final String OPTION_TRACE_FILE_SIZE = "org.eclipse.lsp4e.debug/trace/io/fileSize"; //$NON-NLS-1$
+	private static final String OPTION_TRACE_FILE_COUNT = "org.eclipse.lsp4e.debug/trace/io/fileCount"; //$NON-NLS-1$
+
+	private static final long DEFAULT_MAX_FILE_SIZE = 10 * 1024 * 1024;
+	private static final int DEFAULT_MAX_FILES = 5;
+
+	private static final byte[] HEADER_END = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+	private static final String CONTENT_LENGTH = "Content-Length:";
+
+	/** the shared writers by absolute trace file path, "" for {@link System#out} */
+	private static final Map<String, TraceWriter> WRITERS = new HashMap<>();
+
+	private enum Direction {
+		IN("<-"), OUT("->");
+
+		private final String symbol;
+
+		Direction(String symbol) {
+			this.symbol = symbol;
+		}
+	}
+
+	/**
+	 * Traced bytes with the time they were captured on the I/O thread, or the
+	 * request to close the sink if {@code closed} is set.
+	 */
+	private record Chunk(TraceSink sink, Direction direction, Instant time, long nanoTime, byte[] data,
+			@Nullable CountDownLatch closed) {
+	}
+
+	/**
+	 * A framed message with the capture time of its first byte.
+	 */
+	private record Message(String content, Instant time, long nanoTime) {
+	}
+
+	private final TraceWriter traceWriter;
+	private final int session;
+	private volatile boolean closed;
+
+	// the following fields are only accessed by the writer thread
+	private final MessageFramer inFramer = new MessageFramer();
+	private final MessageFramer outFramer = new MessageFramer();
+	private final Map<Integer, PendingRequest> pendingRequests = new HashMap<>();
+
+	private final Map<String, LongSummaryStatistics> roundTripTimes = new TreeMap<>();
+
+	private record PendingRequest(String command, long nanoTime) {
+	}
+
+	/**
+	 * Creates a sink as configured by the <code>trace/io/file</code>,
+	 * <code>trace/io/fileSize</code> and <code>trace/io/fileCount</code> debug
+	 * options. Without a trace file the messages are written to
+	 * {@link System#out}.
+	 */
+	public static TraceSink fromDebugOptions() {
+		final String file = Platform.getDebugOption(OPTION_TRACE_FILE);
+		if (file == null || file.isBlank()) {
+			return new TraceSink(null, DEFAULT_MAX_FILE_SIZE, DEFAULT_MAX_FILES);
+		}
+		return new TraceSink(Path.of(file.trim()), parseOption(OPTION_TRACE_FILE_SIZE, DEFAULT_MAX_FILE_SIZE),
+				(int) parseOption(OPTION_TRACE_FILE_COUNT, DEFAULT_MAX_FILES));
+	}
+
+	private static long parseOption(String option, long defaultValue) {
+		final String value = Platform.getDebugOption(option);
+		if (value != null && !value.isBlank()) {
+			try {
+				return Long.parseLong(value.trim());
+			} catch (NumberFormatException ex) {
+				DSPPlugin.logWarning("Invalid value for debug option " + option + ": " + value, ex);
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * @param file
+	 *            the trace file or {@code null} to trace to {@link System#out}
+	 * @param maxFileSize
+	 *            the size in bytes after which the trace file is rotated, ignored
+	 *            if another open sink already traces to the file
+	 * @param maxFiles
+	 *            the number of trace files to keep, including the current one,
+	 *            ignored if another open sink already traces to the file
+	 */
+	public TraceSink(@Nullable Path file, long maxFileSize, int maxFiles) {
+		final Path absoluteFile = file == null ? null : file.toAbsolutePath().normalize();
+		final String key = absoluteFile == null ? "" : absoluteFile.toString(); //$NON-NLS-1$
+		synchronized (WRITERS) {
+			traceWriter = WRITERS.computeIfAbsent(key, k -> new TraceWriter(k, absoluteFile, maxFileSize, maxFiles));
+			session = traceWriter.acquire();
+		}
+	}
+
+	/**
+	 * @return the stream to copy the data received from the debug adapter to
+	 */
+	public OutputStream incoming() {
+		return new ChunkOutputStream(Direction.IN);
+	}
+
+	/**
+	 * @return the stream to copy the data sent to the debug adapter to
+	 */
+	public OutputStream outgoing() {
+		return new ChunkOutputStream(Direction.OUT);
+	}
+
+	/**
+	 * @return a snapshot of the round-trip times in milliseconds of the requests
+	 *         traced so far, by command
+	 */
+	public Map<String, LongSummaryStatistics> getRoundTripStatistics() {
+		synchronized (roundTripTimes) {
+			final var copy = new TreeMap<String, LongSummaryStatistics>();
+			roundTripTimes.forEach((command, stats) -> {
+				final var statsCopy = new LongSummaryStatistics();
+				statsCopy.combine(stats);
+				copy.put(command, statsCopy);
+			});
+			return copy;
+		}
+	}
+
+	/**
+	 * Writes all pending messages and the round-trip statistics of this sink. The
+	 * background thread is stopped when the last sink tracing to the same file is
+	 * closed.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		final var latch = new CountDownLatch(1);
+		traceWriter.queue.add(new Chunk(this, Direction.IN, Instant.EPOCH, 0, new byte[0], latch));
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void enqueue(Direction direction, byte[] b, int off, int len) {
+		if (!closed && len > 0) {
+			traceWriter.queue.add(new Chunk(this, direction, Instant.now(), System.nanoTime(),
+					Arrays.copyOfRange(b, off, off + len), null));
+		}
+	}
+
+	private void process(Chunk chunk) throws IOException {
+		final MessageFramer framer = chunk.direction() == Direction.IN ? inFramer : outFramer;
+		framer.append(chunk);
+		Message message;
+		while ((message = framer.next()) != null) {
+			write(chunk.direction(), message);
+		}
+	}
+
+	private void write(Direction direction, Message message) throws IOException {
+		final var line = new StringBuilder(message.content().length() + 64);
+		line.append(message.time()).append(" [").append(session).append("] ").append(direction.symbol).append(' ')
+				.append(message.content());
+		final String roundTrip = trackRoundTrip(direction, message.nanoTime(), message.content());
+		if (roundTrip != null) {
+			line.append(' ').append(roundTrip);
+		}
+		line.append(System.lineSeparator());
+		traceWriter.write(line.toString());
+	}
+
+	/**
+	 * @return a description of the round trip time if the message is a response to
+	 *         a traced request
+	 */
+	private @Nullable String trackRoundTrip(Direction direction, long nanoTime, String message) {
+		final JsonObject json;
+		try {
+			final JsonElement element = JsonParser.parseString(message);
+			if (!element.isJsonObject()) {
+				return null;
+			}
+			json = element.getAsJsonObject();
+		} catch (RuntimeException ex) {
+			return null;
+		}
+		final String type = getString(json, "type");
+		if (direction == Direction.OUT && "request".equals(type)) {
+			final Integer seq = getInt(json, "seq");
+			final String command = getString(json, "command");
+			if (seq != null && command != null) {
+				pendingRequests.put(seq, new PendingRequest(command, nanoTime));
+			}
+		} else if (direction == Direction.IN && "response".equals(type)) {
+			final Integer requestSeq = getInt(json, "request_seq");
+			final PendingRequest request = requestSeq == null ? null : pendingRequests.remove(requestSeq);
+			if (request != null) {
+				final long millis = TimeUnit.NANOSECONDS.toMillis(nanoTime - request.nanoTime());
+				synchronized (roundTripTimes) {
+					roundTripTimes.computeIfAbsent(request.command(), c -> new LongSummaryStatistics()).accept(millis);
+				}
+				return "(" + request.command() + " took " + millis + " ms)";
+			}
+		}
+		return null;
+	}
+
+	private static @Nullable String getString(JsonObject json, String member) {
+		final JsonElement element = json.get(member);
+		return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+	}
+
+	private static @Nullable Integer getInt(JsonObject json, String member) {
+		final JsonElement element = json.get(member);
+		if (element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isNumber()) {
+			return element.getAsInt();
+		}
+		return null;
+	}
+
+	private void writeStatistics() throws IOException {
+		final Map<String, LongSummaryStatistics> statistics = getRoundTripStatistics();
+		if (statistics.isEmpty()) {
+			return;
+		}
+		final var text = new StringBuilder();
+		text.append(Instant.now()).append(" [").append(session).append("] Round-trip times (ms):")
+				.append(System.lineSeparator());
+		for (final var entry : statistics.entrySet()) {
+			final LongSummaryStatistics stats = entry.getValue();
+			text.append(String.format("  %-30s count=%d avg=%.1f max=%d%n", entry.getKey(), stats.getCount(),
+					stats.getAverage(), stats.getMax()));
+		}
+		traceWriter.write(text.toString());
+	}
+
+	/**
+	 * The background thread and the writer shared by all sinks tracing to the same
+	 * file.
+	 */
+	private static final class TraceWriter {
+		private final String key;
+		private final @Nullable Path file;
+		private final long maxFileSize;
+		private final int maxFiles;
+		private final BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+
+		// guarded by WRITERS
+		private int openSinks;
+		private int lastSession;
+
+		// the following fields are only accessed by the writer thread
+		private @Nullable Writer writer;
+		private long writtenBytes;
+		private boolean stopped;
+		private boolean failed;
+
+		TraceWriter(String key, @Nullable Path file, long maxFileSize, int maxFiles) {
+			this.key = key;
+			this.file = file;
+			this.maxFileSize = maxFileSize;
+			this.maxFiles = Math.max(1, maxFiles);
+			final var thread = new Thread(this::drain, "DAP Trace Writer");
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		/**
+		 * @return the number of the new session
+		 */
+		int acquire() {
+			openSinks++;
+			return ++lastSession;
+		}
+
+		private void drain() {
+			try {
+				while (!stopped) {
+					Chunk chunk = queue.take();
+					handle(chunk);
+					// batch everything that is already available before flushing
+					while (!stopped && (chunk = queue.poll()) != null) {
+						handle(chunk);
+					}
+					if (!stopped) {
+						try {
+							flushWriter();
+						} catch (IOException e) {
+							failed(e);
+						}
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				synchronized (WRITERS) {
+					WRITERS.remove(key, this);
+					closeWriter();
+				}
+			}
+		}
+
+		/**
+		 * Logs the first failure and reopens the file for the next message, so a
+		 * failure does not stop the tracing of the other sessions.
+		 */
+		private void failed(IOException e) {
+			if (!failed) {
+				failed = true;
+				DSPPlugin.logError("Failed to write debug adapter trace", e);
+			}
+			closeWriter();
+		}
+
+		private void handle(Chunk chunk) {
+			final CountDownLatch closed = chunk.closed();
+			if (closed == null) {
+				try {
+					chunk.sink().process(chunk);
+				} catch (IOException e) {
+					failed(e);
+				}
+				return;
+			}
+			try {
+				chunk.sink().writeStatistics();
+				flushWriter();
+			} catch (IOException e) {
+				failed(e);
+			} finally {
+				synchronized (WRITERS) {
+					if (--openSinks == 0) {
+						// close the file before another sink can reopen it
+						WRITERS.remove(key, this);
+						closeWriter();
+						stopped = true;
+					}
+				}
+				closed.countDown();
+			}
+		}
+
+		void write(String text) throws IOException {
+			getWriter().write(text);
+			writtenBytes += text.getBytes(StandardCharsets.UTF_8).length;
+			if (file != null && writtenBytes >= maxFileSize) {
+				rotate();
+			}
+		}
+
+		private Writer getWriter() throws IOException {
+			Writer writer = this.writer;
+			if (writer == null) {
+				final Path file = this.file;
+				if (file == null) {
+					writer = new BufferedWriter(new OutputStreamWriter(new NonClosingOutputStream(System.out),
+							StandardCharsets.UTF_8));
+					writtenBytes = 0;
+				} else {
+					final Path parent = file.getParent();
+					if (parent != null) {
+						Files.createDirectories(parent);
+					}
+					// append to not lose the trace of sessions that ended before
+					writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+							StandardOpenOption.APPEND);
+					writtenBytes = Files.size(file);
+				}
+				this.writer = writer;
+			}
+			return writer;
+		}
+
+		/**
+		 * Renames <code>trace.log</code> to <code>trace.log.1</code>,
+		 * <code>trace.log.1</code> to <code>trace.log.2</code> and so on, dropping the
+		 * oldest file.
+		 */
+		private void rotate() throws IOException {
+			final Path file = this.file;
+			if (file == null) {
+				return;
+			}
+			closeWriter();
+			for (int i = maxFiles - 1; i > 0; i--) {
+				final Path source = i == 1 ? file : rotated(file, i - 1);
+				if (Files.exists(source)) {
+					Files.move(source, rotated(file, i), StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			if (maxFiles == 1) {
+				Files.deleteIfExists(file);
+			}
+		}
+
+		private static Path rotated(Path file, int index) {
+			return file.resolveSibling(file.getFileName() + "." + index);
+		}
+
+		private void flushWriter() throws IOException {
+			final Writer writer = this.writer;
+			if (writer != null) {
+				writer.flush();
+			}
+		}
+
+		private void closeWriter() {
+			final Writer writer = this.writer;
+			this.writer = null;
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException e) {
+					DSPPlugin.logError(e);
+				}
+			}
+		}
+	}
+
+	private final class ChunkOutputStream extends OutputStream {
+		private final Direction direction;
+
+		private ChunkOutputStream(Direction direction) {
+			this.direction = direction;
+		}
+
+		@Override
+		public void write(int b) {
+			enqueue(direction, new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			enqueue(direction, b, off, len);
+		}
+	}
+
+	private static final class NonClosingOutputStream extends OutputStream {
+		private final PrintStream out;
+
+		private NonClosingOutputStream(PrintStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void write(int b) {
+			out.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void flush() {
+			out.flush();
+		}
+
+		@Override
+		public void close() {
+			out.flush();
+		}
+	}
+
+	/**
+	 * Splits a byte stream into the content of the
+	 * <code>Content-Length</code>-framed messages used by DAP.
+	 */
+	private static final class MessageFramer {
+
+		/** the capture time of the bytes starting at the given stream offset */
+		private record Mark(long offset, Instant time, long nanoTime) {
+		}
+
+		private byte[] buffer = new byte[8192];
+		private int length;
+		/** stream offset of the first byte in the buffer */
+		private long consumed;
+		/** stream offset after the last byte in the buffer */
+		private long appended;
+		/** the mark of the chunk containing the first byte in the buffer */
+		private @Nullable Mark current;
+		/** the marks of the following chunks */
+		private final Deque<Mark> marks = new ArrayDeque<>();
+
+		void append(Chunk chunk) {
+			final byte[] data = chunk.data();
+			if (length + data.length > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + data.length));
+			}
+			System.arraycopy(data, 0, buffer, length, data.length);
+			length += data.length;
+			final var mark = new Mark(appended, chunk.time(), chunk.nanoTime());
+			if (current == null) {
+				current = mark;
+			} else {
+				marks.addLast(mark);
+			}
+			appended += data.length;
+		}
+
+		@Nullable
+		Message next() {
+			final long messageStart = consumed;
+			final String content = nextContent();
+			if (content == null) {
+				return null;
+			}
+			Mark mark = castNonNull(current);
+			while (!marks.isEmpty() && castNonNull(marks.peekFirst()).offset() <= messageStart) {
+				mark = marks.removeFirst();
+			}
+			current = mark;
+			return new Message(content, mark.time(), mark.nanoTime());
+		}
+
+		private @Nullable String nextContent() {
+			final int headerEnd = indexOf(HEADER_END);
+			if (headerEnd < 0) {
+				return null;
+			}
+			final String header = new String(buffer, 0, headerEnd, StandardCharsets.US_ASCII);
+			int contentLength = -1;
+			for (final String line : header.split("\r\n")) {
+				if (line.regionMatches(true, 0, CONTENT_LENGTH, 0, CONTENT_LENGTH.length())) {
+					try {
+						contentLength = Integer.parseInt(line.substring(CONTENT_LENGTH.length()).trim());
+					} catch (NumberFormatException ex) {
+						// handled below
+					}
+				}
+			}
+			final int contentStart = headerEnd + HEADER_END.length;
+			if (contentLength < 0) {
+				// not a valid frame, emit the header as is to not lose data
+				consume(contentStart);
+				return header;
+			}
+			if (length - contentStart < contentLength) {
+				return null;
+			}
+			final var content = new String(buffer, contentStart, contentLength, StandardCharsets.UTF_8);
+			consume(contentStart + contentLength);
+			return content;
+		}
+
+		private void consume(int count) {
+			System.arraycopy(buffer, count, buffer, 0, length - count);
+			length -= count;
+			consumed += count;
+		}
+
+		private int indexOf(byte[] pattern) {
+			outer: for (int i = 0; i <= length - pattern.length; i++) {
+				for (int j = 0; j < pattern.length; j++) {
+					if (buffer[i + j] != pattern[j]) {
+						continue outer;
+					}
+				}
+				return i;
+			}
+			return -1;
+		}
+	}
+}
@@ -13,7 +13,15 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.eclipse.lsp4e.internal.SocketStreams;
+import org.eclipse.lsp4e.internal.SocketStreams.Connection;
 
 public abstract class TransportStreams {
 
@@ -33,12 +41,25 @@ public void close() {
 		}
 	}
 
+	/**
+	 * @return streams tracing all data to the {@link TraceSink} configured by the
+	 *         debug options
+	 */
 	public TransportStreams withTrace() {
-		return new DefaultTransportStreams(new TraceInputStream(in, System.out),
-				new TraceOutputStream(out, System.out)) {
+		return withTrace(TraceSink.fromDebugOptions());
+	}
+
+	/**
+	 * @return streams tracing all data to the given sink, which is closed together
+	 *         with the returned streams
+	 */
+	public TransportStreams withTrace(TraceSink sink) {
+		return new DefaultTransportStreams(new TraceInputStream(in, sink.incoming()),
+				new TraceOutputStream(out, sink.outgoing())) {
 			@Override
 			public void close() {
 				TransportStreams.this.close();
+				sink.close();
 			}
 		};
 	}
@@ -50,26 +71,56 @@ public DefaultTransportStreams(InputStream in, OutputStream out) {
 		}
 	}
 
+	/**
+	 * Streams over a TCP or Unix domain socket connection to a debug adapter.
+	 * Refused connections are retried until {@link #DEFAULT_CONNECT_TIMEOUT}
+	 * elapsed, as adapters started right before often do not listen yet.
+	 */
 	public static class SocketTransportStreams extends TransportStreams {
-		private final Socket socket;
+		public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+		private final Connection connection;
 
 		public SocketTransportStreams(String host, int port) {
+			this(new InetSocketAddress(host, port), DEFAULT_CONNECT_TIMEOUT, SocketStreams.DEFAULT_BUFFER_SIZE);
+		}
+
+		/**
+		 * @param socketFile
+		 *            path of the Unix domain socket the adapter listens on
+		 */
+		public SocketTransportStreams(Path socketFile) {
+			this(UnixDomainSocketAddress.of(socketFile), DEFAULT_CONNECT_TIMEOUT,
+					SocketStreams.DEFAULT_BUFFER_SIZE);
+		}
+
+		/**
+		 * @param address
+		 *            an {@link InetSocketAddress} or a {@link UnixDomainSocketAddress}
+		 * @param connectTimeout
+		 *            how long to retry refused connections
+		 * @param bufferSize
+		 *            size of the socket and stream buffers
+		 * @throws UncheckedIOException
+		 *             if the connection could not be established
+		 */
+		public SocketTransportStreams(SocketAddress address, Duration connectTimeout, int bufferSize) {
 			try {
-				this.socket = new Socket(host, port);
-				in = socket.getInputStream();
-				out = socket.getOutputStream();
-			} catch (Exception ex) {
-				throw new RuntimeException(ex);
+				this.connection = SocketStreams.connect(address, bufferSize, connectTimeout);
+			} catch (IOException ex) {
+				throw new UncheckedIOException("Unable to connect to debug adapter at " + address, ex); //$NON-NLS-1$
 			}
+			in = connection.getInputStream();
+			out = connection.getOutputStream();
 		}
 
 		@Override
 		public void close() {
 			super.close();
 			try {
-				socket.close();
+				connection.close();
 			} catch (IOException e) {
-				throw new RuntimeException(e);
+				throw new UncheckedIOException(e);
 			}
 		}
 	}
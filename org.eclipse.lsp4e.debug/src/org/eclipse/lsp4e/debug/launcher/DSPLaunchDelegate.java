@@ -14,6 +14,7 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -48,6 +49,13 @@
 
 public class DSPLaunchDelegate implements ILaunchConfigurationDelegate {
 
+	/**
+	 * Prefix of a debug server host denoting the path of a Unix domain socket to
+	 * connect to instead of a TCP host, e.g. <code>unix:/tmp/adapter.sock</code>.
+	 * The port is ignored in that case.
+	 */
+	public static final String UNIX_SOCKET_PREFIX = "unix:"; //$NON-NLS-1$
+
 	/**
 	 * Structured arguments for the
 	 * {@link DSPLaunchDelegate#launch(DSPLaunchDelegateLaunchBuilder) method.
@@ -373,13 +381,19 @@ public void close() {
 				if (server == null || server.isBlank()) {
 					throw new CoreException(createErrorStatus("Debug server host unspecified.", null));
 				}
-				if (builder.port < 1 || builder.port > 65535) {
-					throw new CoreException(
-							createErrorStatus("Debug server port unspecified or out of range 1-65535.", null));
-				}
+				if (server.startsWith(UNIX_SOCKET_PREFIX)) {
+					final Path socketFile = Path.of(server.substring(UNIX_SOCKET_PREFIX.length()));
+					subMonitor.subTask(NLS.bind("Connecting to debug adapter: {0}", socketFile));
+					streamSupplier = () -> new SocketTransportStreams(socketFile);
+				} else {
+					if (builder.port < 1 || builder.port > 65535) {
+						throw new CoreException(
+								createErrorStatus("Debug server port unspecified or out of range 1-65535.", null));
+					}
 
-				subMonitor.subTask(NLS.bind("Connecting to debug adapter: {0}:{1}", builder.server, builder.port));
-				streamSupplier = () -> new SocketTransportStreams(server, builder.port);
+					subMonitor.subTask(NLS.bind("Connecting to debug adapter: {0}:{1}", builder.server, builder.port));
+					streamSupplier = () -> new SocketTransportStreams(server, builder.port);
+				}
 			}
 
 			subMonitor.setWorkRemaining(80);
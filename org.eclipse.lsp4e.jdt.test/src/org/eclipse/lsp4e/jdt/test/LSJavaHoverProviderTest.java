@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.jdt.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jdt.internal.ui.text.java.hover.JavadocBrowserInformationControlInput;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.Region;
+import org.eclipse.lsp4e.LSPEclipseUtils;
+import org.eclipse.lsp4e.LanguageServiceAccessor;
+import org.eclipse.lsp4e.jdt.LSJavaHoverProvider;
+import org.eclipse.lsp4e.tests.mock.MockConnectionProvider;
+import org.eclipse.lsp4e.tests.mock.MockLanguageServerFactory;
+import org.eclipse.lsp4e.ui.UI;
+import org.eclipse.lsp4j.Hover;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.ide.IDE;
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks how the hover of the language servers is combined with the JDT
+ * Javadoc hover, which is replaced by a controlled one.
+ */
+@SuppressWarnings("restriction")
+public class LSJavaHoverProviderTest {
+
+	private static final String LS_CONTENT = "Language server content";
+	private static final String JAVADOC_CONTENT = "Javadoc content";
+
+	@FunctionalInterface
+	private interface JavadocSupplier {
+		@Nullable
+		JavadocBrowserInformationControlInput get() throws Exception;
+	}
+
+	private static final class TestHoverProvider extends LSJavaHoverProvider {
+		private final JavadocSupplier javadoc;
+		final AtomicInteger javadocRequests = new AtomicInteger();
+
+		TestHoverProvider(JavadocSupplier javadoc) {
+			this.javadoc = javadoc;
+		}
+
+		@Override
+		protected @Nullable JavadocBrowserInformationControlInput getJavadocHoverInfo(ITextViewer textViewer,
+				IRegion hoverRegion) {
+			javadocRequests.incrementAndGet();
+			try {
+				return javadoc.get();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static JavadocBrowserInformationControlInput javadoc() {
+		return new JavadocBrowserInformationControlInput(null, null,
+				"<html><body>" + JAVADOC_CONTENT + "</body></html>", 0);
+	}
+
+	private final MockLanguageServerFactory factory = new MockLanguageServerFactory();
+	private IProject project;
+
+	@BeforeEach
+	public void setUp() throws CoreException {
+		MockConnectionProvider.factory = factory;
+		project = ResourcesPlugin.getWorkspace().getRoot()
+				.getProject(getClass().getSimpleName() + "_" + System.currentTimeMillis());
+		project.create(null);
+		project.open(null);
+	}
+
+	@AfterEach
+	public void tearDown() throws CoreException {
+		UI.getActivePage().closeAllEditors(false);
+		project.delete(IResource.FORCE | IResource.ALWAYS_DELETE_PROJECT_CONTENT, null);
+		LanguageServiceAccessor.clearStartedServers();
+		MockConnectionProvider.factory = new MockLanguageServerFactory();
+	}
+
+	private ITextViewer openViewer() throws CoreException {
+		final var hover = new Hover(List.of(Either.forLeft(LS_CONTENT)), new Range(new Position(0, 0), new Position(0, 5)));
+		factory.withConfiguration((idx, server) -> server.setHover(hover));
+		final IFile file = project.getFile("test.lsptjdt");
+		file.create(new ByteArrayInputStream("hover me".getBytes()), true, null);
+		final IEditorPart editor = IDE.openEditor(UI.getActivePage(), file,
+				"org.eclipse.ui.genericeditor.GenericEditor");
+		waitForAndAssertCondition(() -> LSPEclipseUtils.getTextViewer(editor) != null);
+		return LSPEclipseUtils.getTextViewer(editor);
+	}
+
+	private static void waitForAndAssertCondition(BooleanSupplier condition) {
+		assertTrue(new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return condition.getAsBoolean();
+			}
+		}.waitForCondition(UI.getDisplay(), 5_000, 50));
+	}
+
+	private static String html(@Nullable Object hoverInfo) {
+		assertInstanceOf(JavadocBrowserInformationControlInput.class, hoverInfo);
+		return ((JavadocBrowserInformationControlInput) hoverInfo).getHtml();
+	}
+
+	@Test
+	public void testLanguageServerHoverIsCompletedWithJavadoc() throws Exception {
+		final ITextViewer viewer = openViewer();
+		final var javadocRequested = new CountDownLatch(1);
+		final var javadocAvailable = new CountDownLatch(1);
+		final var provider = new TestHoverProvider(() -> {
+			javadocRequested.countDown();
+			javadocAvailable.await(5, TimeUnit.SECONDS);
+			return javadoc();
+		});
+
+		// the language server hover is shown before the Javadoc is computed
+		final Object hoverInfo = provider.getHoverInfo2(viewer, new Region(0, 5));
+		assertTrue(javadocRequested.await(5, TimeUnit.SECONDS));
+		assertTrue(html(hoverInfo).contains(LS_CONTENT));
+		assertFalse(html(hoverInfo).contains(JAVADOC_CONTENT));
+
+		javadocAvailable.countDown();
+		waitForAndAssertCondition(() -> html(hoverInfo).contains(JAVADOC_CONTENT));
+		assertTrue(html(hoverInfo).contains(LS_CONTENT));
+
+		// the combined hover is cached
+		final Object cachedHoverInfo = provider.getHoverInfo2(viewer, new Region(0, 5));
+		assertTrue(html(cachedHoverInfo).contains(LS_CONTENT));
+		assertTrue(html(cachedHoverInfo).contains(JAVADOC_CONTENT));
+		assertEquals(1, provider.javadocRequests.get());
+	}
+
+	@Test
+	public void testHoverIsNotCachedWhenJavadocFails() throws Exception {
+		final ITextViewer viewer = openViewer();
+		final var provider = new TestHoverProvider(() -> {
+			throw new IllegalStateException("Javadoc failure");
+		});
+
+		assertTrue(html(provider.getHoverInfo2(viewer, new Region(0, 5))).contains(LS_CONTENT));
+		assertTrue(html(provider.getHoverInfo2(viewer, new Region(0, 5))).contains(LS_CONTENT));
+		// the hover combined without Javadoc is not cached
+		waitForAndAssertCondition(() -> provider.javadocRequests.get() == 2);
+	}
+}
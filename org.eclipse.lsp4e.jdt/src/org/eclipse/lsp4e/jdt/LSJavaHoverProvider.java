@@ -11,27 +11,56 @@
  *******************************************************************************/
 package org.eclipse.lsp4e.jdt;
 
+import static org.eclipse.lsp4e.internal.NullSafetyHelper.castNonNull;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.internal.ui.text.java.hover.JavadocBrowserInformationControlInput;
 import org.eclipse.jdt.internal.ui.text.java.hover.JavadocHover;
 import org.eclipse.jdt.ui.PreferenceConstants;
+import org.eclipse.jface.internal.text.html.BrowserInformationControl;
 import org.eclipse.jface.internal.text.html.HTMLPrinter;
 import org.eclipse.jface.resource.ColorRegistry;
 import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.jface.text.IInformationControl;
+import org.eclipse.jface.text.IInformationControlCreator;
+import org.eclipse.jface.text.IInformationControlCreatorExtension;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.lsp4e.LSPEclipseUtils;
 import org.eclipse.lsp4e.LanguageServerPlugin;
+import org.eclipse.lsp4e.internal.DocumentUtil;
 import org.eclipse.lsp4e.operations.hover.LSPTextHover;
+import org.eclipse.lsp4e.ui.UI;
 import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Shell;
 
+/**
+ * Combines the hover of the language servers with the JDT Javadoc hover.
+ * <p>
+ * The hover shows whichever of the two arrives first, and the other one is
+ * added to the shown hover when it arrives. The combined hovers are cached by
+ * document version and hovered region. The JDT hovers are computed on a
+ * dedicated bounded executor instead of the common pool.
+ */
 @SuppressWarnings("restriction")
 public class LSJavaHoverProvider extends JavadocHover {
 
@@ -40,42 +69,127 @@ public class LSJavaHoverProvider extends JavadocHover {
 	private static final String BODY_CLOSE = "</body>";
 	private static final String SEPARATOR = "<hr/>";
 
+	private static final int HOVER_TIMEOUT_MS = 1000;
+	private static final int CACHE_SIZE = 32;
+
+	/**
+	 * A hovered region in a version of a document, i.e. the element hovered.
+	 */
+	private record CacheKey(URI uri, long version, int offset, int length) {
+	}
+
+	/**
+	 * The input of a hover shown before the results of both the language servers
+	 * and JDT were received. Its content is replaced by the combined hover once
+	 * complete, so it is up to date even if the hover control gets it late.
+	 */
+	private static final class ProgressiveHoverInput extends JavadocBrowserInformationControlInput {
+		private volatile JavadocBrowserInformationControlInput current;
+
+		ProgressiveHoverInput(JavadocBrowserInformationControlInput current) {
+			super((JavadocBrowserInformationControlInput) current.getPrevious(), current.getElement(), current.getHtml(),
+					current.getLeadingImageWidth());
+			this.current = current;
+		}
+
+		@Override
+		public String getHtml() {
+			return current.getHtml();
+		}
+
+		@Override
+		public IJavaElement getElement() {
+			return current.getElement();
+		}
+
+		@Override
+		public Object getInputElement() {
+			return current.getInputElement();
+		}
+
+		@Override
+		public String getInputName() {
+			return current.getInputName();
+		}
+
+		@Override
+		public int getLeadingImageWidth() {
+			return current.getLeadingImageWidth();
+		}
+	}
+
+	/**
+	 * Remembers the controls it creates, so hovers already shown can be updated.
+	 */
+	private final class ProgressiveHoverControlCreator
+			implements IInformationControlCreator, IInformationControlCreatorExtension {
+		private final IInformationControlCreator delegate;
+
+		ProgressiveHoverControlCreator(IInformationControlCreator delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public IInformationControl createInformationControl(@Nullable Shell parent) {
+			final IInformationControl control = delegate.createInformationControl(parent);
+			controls.put(control, Boolean.TRUE);
+			return control;
+		}
+
+		@Override
+		public boolean canReuse(@Nullable IInformationControl control) {
+			return delegate instanceof IInformationControlCreatorExtension extension && extension.canReuse(control);
+		}
+
+		@Override
+		public boolean canReplace(@Nullable IInformationControlCreator creator) {
+			return creator == this || delegate instanceof IInformationControlCreatorExtension extension
+					&& extension.canReplace(creator);
+		}
+	}
+
 	private final LSPTextHover lsBasedHover = new LSPTextHover();
+	/** the combined hovers, least recently used first */
+	private final Map<CacheKey, JavadocBrowserInformationControlInput> cache = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<CacheKey, JavadocBrowserInformationControlInput> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+	/** the hover controls created so far, accessed in the UI thread */
+	private final Map<IInformationControl, Boolean> controls = new WeakHashMap<>();
+	private @Nullable IInformationControlCreator hoverControlCreator;
 
 	@Override
 	public @Nullable Object getHoverInfo2(@Nullable ITextViewer textViewer, @Nullable IRegion hoverRegion) {
 		if (textViewer == null || hoverRegion == null) {
 			return null;
 		}
-		CompletableFuture<@Nullable String> lsHoverFuture = this.lsBasedHover.getHoverInfoFuture(textViewer, hoverRegion);
-		final var lsHtmlHoverContent = new AtomicReference<@Nullable String>();
-		final var jdtHoverControlInput = new AtomicReference<@Nullable JavadocBrowserInformationControlInput>();
+		final CacheKey key = getCacheKey(textViewer, hoverRegion);
+		if (key != null) {
+			synchronized (cache) {
+				final JavadocBrowserInformationControlInput cached = cache.get(key);
+				if (cached != null) {
+					return cached;
+				}
+			}
+		}
 
-		JavadocBrowserInformationControlInput input;
-		IJavaElement javaElement = null;
-		JavadocBrowserInformationControlInput previous = null;
-		int leadingImageWidth = 0;
-		String jdtHtmlHoverContent = "";
+		CompletableFuture<@Nullable String> lsHoverFuture = this.lsBasedHover.getHoverInfoFuture(textViewer, hoverRegion);
+		final @Nullable CompletableFuture<@Nullable JavadocBrowserInformationControlInput> computedJdtHover = computeJdtHover(textViewer, hoverRegion);
+		// only a hover combined with the JDT hover actually computed is cached
+		final @Nullable CacheKey cacheKey = computedJdtHover != null ? key : null;
+		CompletableFuture<@Nullable JavadocBrowserInformationControlInput> jdtHoverFuture = computedJdtHover != null
+				? computedJdtHover
+				: CompletableFuture.completedFuture(null);
+		// without JDT hover, wait for the LS hover
+		CompletableFuture<@Nullable Object> jdtHoverShown = jdtHoverFuture.exceptionally(error -> null).thenCompose(
+				input -> input != null ? CompletableFuture.completedFuture(input) : lsHoverFuture.thenApply(html -> null));
 
 		try {
-			CompletableFuture.allOf(
-					CompletableFuture
-					.runAsync(
-							() -> jdtHoverControlInput.set((JavadocBrowserInformationControlInput) super.getHoverInfo2(textViewer, hoverRegion))),
-					lsHoverFuture.thenAccept(lsHtmlHoverContent::set)
-			).get(1000, TimeUnit.MILLISECONDS);
-
-			if (lsHtmlHoverContent.get() == null) {
-				// No hover content from Language Servers. Return null to let JDT compute the hover using its own Hover Providers
-				return null;
-			}
-			input = jdtHoverControlInput.get();
-			if (input != null) {
-				previous = (JavadocBrowserInformationControlInput) input.getPrevious();
-				javaElement = input.getElement();
-				leadingImageWidth = input.getLeadingImageWidth();
-				jdtHtmlHoverContent = input.getHtml();
-			}
+			CompletableFuture.anyOf(lsHoverFuture, jdtHoverShown).get(HOVER_TIMEOUT_MS, TimeUnit.MILLISECONDS);
 		} catch (ExecutionException e) {
 			LanguageServerPlugin.logWarning("Javadoc unavailable. Failed to obtain it.", e);
 			// Return null to let JDT compute the hover using its own Hover Providers
@@ -91,12 +205,142 @@ public class LSJavaHoverProvider extends JavadocHover {
 			return null;
 		}
 
-		/*
-		 *  LS HTML and JDT HTML are two HTML docs that need to be combined. JDT HTML comes with embedded CSS.
-		 *  Therefore it is best to insert LS HTML body inside the body of JDT HTML to take advantage of the JDT CSS.
-		 */
-		String content = formatContent(lsHtmlHoverContent.get(), jdtHtmlHoverContent);
-		return new JavadocBrowserInformationControlInput(previous, javaElement, content, leadingImageWidth);
+		if (lsHoverFuture.isDone()) {
+			final @Nullable String lsHtmlHoverContent = getNow(lsHoverFuture);
+			if (lsHtmlHoverContent == null) {
+				// No hover content from Language Servers. Return null to let JDT compute the hover using its own Hover Providers
+				return null;
+			}
+			if (jdtHoverFuture.isDone()) {
+				final var combined = combine(lsHtmlHoverContent, getNow(jdtHoverFuture));
+				return jdtHoverFuture.isCompletedExceptionally() ? combined : cache(cacheKey, combined);
+			}
+			// show the LS hover, and add the Javadoc when available
+			final var input = new ProgressiveHoverInput(combine(lsHtmlHoverContent, null));
+			jdtHoverFuture.whenComplete((jdtInput, error) -> {
+				if (error == null && jdtInput != null) {
+					update(input, cache(cacheKey, combine(lsHtmlHoverContent, jdtInput)));
+				} else if (error == null) {
+					cache(cacheKey, input.current);
+				}
+			});
+			return input;
+		}
+
+		// show the Javadoc, and add the LS hover when available
+		final JavadocBrowserInformationControlInput jdtInput = castNonNull(getNow(jdtHoverFuture));
+		final var input = new ProgressiveHoverInput(jdtInput);
+		lsHoverFuture.whenComplete((lsHtmlHoverContent, error) -> {
+			if (error == null && lsHtmlHoverContent != null) {
+				update(input, cache(cacheKey, combine(lsHtmlHoverContent, jdtInput)));
+			}
+		});
+		return input;
+	}
+
+	/**
+	 * @return the JDT hover being computed, or <code>null</code> if it is not
+	 *         computed because too many hovers are pending or the bundle is
+	 *         stopped
+	 */
+	private @Nullable CompletableFuture<@Nullable JavadocBrowserInformationControlInput> computeJdtHover(ITextViewer textViewer,
+			IRegion hoverRegion) {
+		final LanguageServerJdtPlugin plugin = LanguageServerJdtPlugin.getDefault();
+		final ExecutorService executor = plugin == null ? null : plugin.getHoverExecutor();
+		if (executor == null) {
+			return null;
+		}
+		try {
+			return CompletableFuture.supplyAsync(() -> getJavadocHoverInfo(textViewer, hoverRegion), executor);
+		} catch (RejectedExecutionException e) {
+			// too many hovers pending, e.g. the mouse moving over many elements
+			return null;
+		}
+	}
+
+	/**
+	 * Computes the JDT Javadoc hover, called in a background thread.
+	 */
+	protected @Nullable JavadocBrowserInformationControlInput getJavadocHoverInfo(ITextViewer textViewer,
+			IRegion hoverRegion) {
+		return (JavadocBrowserInformationControlInput) super.getHoverInfo2(textViewer, hoverRegion);
+	}
+
+	private static <T> @Nullable T getNow(CompletableFuture<@Nullable T> future) {
+		try {
+			return future.getNow(null);
+		} catch (CompletionException | CancellationException e) {
+			return null;
+		}
+	}
+
+	private static @Nullable CacheKey getCacheKey(ITextViewer textViewer, IRegion hoverRegion) {
+		final IDocument document = textViewer.getDocument();
+		if (document == null) {
+			return null;
+		}
+		final long version = DocumentUtil.getDocumentModificationStamp(document);
+		final URI uri = LSPEclipseUtils.toUri(document);
+		if (uri == null || version == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+			return null;
+		}
+		return new CacheKey(uri, version, hoverRegion.getOffset(), hoverRegion.getLength());
+	}
+
+	private JavadocBrowserInformationControlInput cache(@Nullable CacheKey key,
+			JavadocBrowserInformationControlInput input) {
+		if (key != null) {
+			synchronized (cache) {
+				cache.put(key, input);
+			}
+		}
+		return input;
+	}
+
+	/**
+	 * Replaces the content of a hover shown before the results of both the
+	 * language servers and JDT were received.
+	 */
+	private void update(ProgressiveHoverInput input, JavadocBrowserInformationControlInput combined) {
+		input.current = combined;
+		UI.runOnUIThread(() -> {
+			for (final IInformationControl control : controls.keySet()) {
+				if (control instanceof BrowserInformationControl browserControl && browserControl.isVisible()
+						&& browserControl.getInput() == input) {
+					browserControl.setInput(input);
+					final Point hint = browserControl.computeSizeHint();
+					final Rectangle bounds = browserControl.getBounds();
+					browserControl.setSize(Math.max(bounds.width, hint.x), Math.max(bounds.height, hint.y));
+				}
+			}
+		});
+	}
+
+	/*
+	 *  LS HTML and JDT HTML are two HTML docs that need to be combined. JDT HTML comes with embedded CSS.
+	 *  Therefore it is best to insert LS HTML body inside the body of JDT HTML to take advantage of the JDT CSS.
+	 */
+	private JavadocBrowserInformationControlInput combine(String lsHtmlHoverContent,
+			@Nullable JavadocBrowserInformationControlInput jdtInput) {
+		if (jdtInput == null) {
+			return new JavadocBrowserInformationControlInput(null, null, formatContent(lsHtmlHoverContent, ""), 0);
+		}
+		return new JavadocBrowserInformationControlInput(
+				(JavadocBrowserInformationControlInput) jdtInput.getPrevious(), jdtInput.getElement(),
+				formatContent(lsHtmlHoverContent, jdtInput.getHtml()), jdtInput.getLeadingImageWidth());
+	}
+
+	@Override
+	public @Nullable IInformationControlCreator getHoverControlCreator() {
+		IInformationControlCreator creator = hoverControlCreator;
+		if (creator == null) {
+			final IInformationControlCreator delegate = super.getHoverControlCreator();
+			if (delegate == null) {
+				return null;
+			}
+			creator = hoverControlCreator = new ProgressiveHoverControlCreator(delegate);
+		}
+		return creator;
 	}
 
 	private String formatContent(@Nullable String lsContent, @Nullable String jdtContent) {
@@ -10,10 +10,13 @@
  *******************************************************************************/
 package org.eclipse.lsp4e.jdt;
 
+import java.util.concurrent.ExecutorService;
+
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
+import org.eclipse.lsp4e.internal.ExecutorUtil;
 import org.eclipse.lsp4e.jdt.preferences.PreferenceConstants;
 import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IEditorReference;
@@ -26,6 +29,9 @@
 public class LanguageServerJdtPlugin extends AbstractUIPlugin {
 	
 	private static @Nullable LanguageServerJdtPlugin plugin;
+
+	/** computes the JDT hovers, so slow Javadoc lookups do not starve the common pool */
+	private volatile @Nullable ExecutorService hoverExecutor;
 	
 	private final IPropertyChangeListener prefsLisetner = new IPropertyChangeListener() {
 		
@@ -51,16 +57,32 @@ public void propertyChange(PropertyChangeEvent event) {
 		return plugin;
 	}
 
+	/**
+	 * @return the executor computing the JDT hovers of
+	 *         {@link LSJavaHoverProvider}, or <code>null</code> once the bundle
+	 *         is stopped
+	 */
+	@Nullable
+	ExecutorService getHoverExecutor() {
+		return hoverExecutor;
+	}
+
 	@Override
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		plugin = this;
+		hoverExecutor = ExecutorUtil.newBoundedThreadPool("LS-JDT-Hover-", 2, 8); //$NON-NLS-1$
 		getPreferenceStore().addPropertyChangeListener(prefsLisetner);
 	}
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
 		getPreferenceStore().removePropertyChangeListener(prefsLisetner);
+		final ExecutorService executor = hoverExecutor;
+		if (executor != null) {
+			executor.shutdownNow();
+			hoverExecutor = null;
+		}
 		plugin = null;
 		super.stop(context);
 	}
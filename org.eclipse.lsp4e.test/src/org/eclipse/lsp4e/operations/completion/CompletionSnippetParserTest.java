@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.operations.completion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.link.LinkedPosition;
+import org.eclipse.jface.text.link.ProposalPosition;
+import org.eclipse.lsp4e.operations.completion.CompletionSnippet.Insertion;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Checks the text and the linked positions of snippets parsed once and
+ * inserted later. Lives in the package of the parser as the parsed snippet is
+ * internal.
+ */
+public class CompletionSnippetParserTest {
+
+	private static final int INSERTION_OFFSET = 5;
+
+	private static final String NEW_LINE = "\n";
+	/** A new line followed by the indentation of the insertion line */
+	private static final String INDENTED_NEW_LINE = "\n\t  ";
+
+	private static final Map<String, String> VARIABLES = Map.of( //
+			"TM_LINE_NUMBER", "1", //
+			"TM_CURRENT_WORD", "abc", //
+			"TM_FILENAME", "file.lspt", //
+			"TM_CURRENT_LINE", "line\nvalue");
+
+	private static String getVariableValue(String name) {
+		return VARIABLES.getOrDefault(name, ""); //$NON-NLS-1$
+	}
+
+	/**
+	 * @return the snippet, the new line to insert it with, the expected text and
+	 *         the expected linked positions as described by {@link #describe(Map)}
+	 */
+	static Stream<Arguments> expansion() {
+		return Stream.of( //
+				Arguments.of("plain text", INDENTED_NEW_LINE, "plain text", "{}"),
+				Arguments.of("$1 and ${2:foo}", INDENTED_NEW_LINE, " and foo", "{1=[5+0], 2=[10+3|foo]}"),
+				Arguments.of("1${1|a,b|}2", INDENTED_NEW_LINE, "1a2", "{1=[6+1|a|b]}"),
+				Arguments.of("${1:foo} and ${1:foo}", INDENTED_NEW_LINE, "foo and foo", "{1=[5+3|foo, 13+3|foo]}"),
+				Arguments.of("sum(${1:x}, ${2:y})$0", INDENTED_NEW_LINE, //
+						"sum(x, y)", "{1=[9+1|x], 2=[12+1|y], 0=[14+0]}"),
+				Arguments.of("method(${1:first}, ${2|a,b|})$0", INDENTED_NEW_LINE, //
+						"method(first, a)", "{1=[12+5|first], 2=[19+1|a|b], 0=[21+0]}"),
+				Arguments.of("$TM_LINE_NUMBER - \\$TM_LINE_NUMBER - ${TM_LINE_NUMBER} - \\${TM_LINE_NUMBER}", //
+						INDENTED_NEW_LINE, "1 - $TM_LINE_NUMBER - 1 - ${TM_LINE_NUMBER}", "{}"),
+				Arguments.of("${TM_SELECTED_TEXT:defaultval}", INDENTED_NEW_LINE, "defaultval", "{}"),
+				Arguments.of("${TM_SELECTED_TEXT:${1:nested} default}", INDENTED_NEW_LINE, "nested default", "{}"),
+				Arguments.of("${TM_FILENAME/(.*)/${1:/upcase}/}", INDENTED_NEW_LINE, "file.lspt", "{}"),
+				Arguments.of("\\$1 and \\$", INDENTED_NEW_LINE, "$1 and $", "{}"),
+				Arguments.of("\\\\$1 and ${3:foo}", INDENTED_NEW_LINE, "\\ and foo", "{1=[6+0], 3=[11+3|foo]}"),
+				Arguments.of("${2|a\\,b\\},c|}", INDENTED_NEW_LINE, "a,b}", "{2=[5+4|a,b}|c]}"),
+				Arguments.of("${1:$TM_CURRENT_WORD}", INDENTED_NEW_LINE, "abc", "{1=[5+3|abc]}"),
+				Arguments.of("${1:outer ${2:inner} $3 end}", INDENTED_NEW_LINE, //
+						"outer inner  end", "{1=[5+16|outer inner  end]}"),
+				Arguments.of("${1:${TM_SELECTED_TEXT:sel}} $TM_CURRENT_LINE", INDENTED_NEW_LINE, //
+						"sel line\nvalue", "{1=[5+3|sel]}"),
+				Arguments.of("${1|one,two,three|} then ${1|one,two,three|}", INDENTED_NEW_LINE, //
+						"one then one", "{1=[5+3|one|two|three, 14+3|one|two|three]}"),
+				Arguments.of("if (${1:condition}) {\n\t$0\n}", INDENTED_NEW_LINE, //
+						"if (condition) {\n\t  \t\n\t  }", "{1=[9+9|condition], 0=[26+0]}"),
+				Arguments.of("if (${1:condition}) {\n\t$0\n}", NEW_LINE, //
+						"if (condition) {\n\t\n}", "{1=[9+9|condition], 0=[23+0]}"),
+				Arguments.of("first\nsecond ${1:a\nb}\nthird ${2|x\ny,z|}", INDENTED_NEW_LINE, //
+						"first\n\t  second a\n\t  b\n\t  third x\n\t  y", "{1=[21+6|a\n\t  b], 2=[37+6|x\n\t  y|z]}"),
+				Arguments.of("first\nsecond ${1:a\nb}\nthird ${2|x\ny,z|}", NEW_LINE, //
+						"first\nsecond a\nb\nthird x\ny", "{1=[18+3|a\nb], 2=[28+3|x\ny|z]}"),
+				Arguments.of("$", INDENTED_NEW_LINE, "$", "{}"),
+				Arguments.of("${", INDENTED_NEW_LINE, "${", "{}"),
+				Arguments.of("$$", INDENTED_NEW_LINE, "$$", "{}"),
+				Arguments.of("$$TM_LINE_NUMBER", INDENTED_NEW_LINE, "$1", "{}"),
+				Arguments.of("${VARIABLE", INDENTED_NEW_LINE, "${VARIABLE", "{}"),
+				Arguments.of("${VARIABLE:", INDENTED_NEW_LINE, "${VARIABLE:", "{}"),
+				Arguments.of("${VARIABLE:foo", INDENTED_NEW_LINE, "${VARIABLE:foo", "{}"),
+				Arguments.of("${1|a", INDENTED_NEW_LINE, "${1|a", "{}"),
+				Arguments.of("${1|a,}", INDENTED_NEW_LINE, "${1|a,}", "{}"),
+				Arguments.of("${1:unterminated", INDENTED_NEW_LINE, "${1:unterminated", "{}"),
+				Arguments.of("${1|a,b|", INDENTED_NEW_LINE, "${1|a,b|", "{}"),
+				Arguments.of("${1|a,b}", INDENTED_NEW_LINE, "${1|a,b}", "{}"),
+				Arguments.of("${:x}", INDENTED_NEW_LINE, "${:x}", "{}"),
+				Arguments.of("${1x}", INDENTED_NEW_LINE, "${1x}", "{}"),
+				Arguments.of("\\", INDENTED_NEW_LINE, "\\", "{}"));
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void expansion(String snippet, String newLine, String expectedText, String expectedPositions) {
+		final IDocument document = new Document("0123456789");
+
+		final Insertion insertion = new CompletionSnippetParser(snippet).parse().insert(document, INSERTION_OFFSET,
+				newLine, CompletionSnippetParserTest::getVariableValue);
+
+		assertEquals(expectedText, insertion.text());
+		assertEquals(expectedPositions, describe(insertion.linkedPositions()).toString());
+	}
+
+	/**
+	 * @return the positions by key, each as <code>offset+length</code> followed by
+	 *         <code>|choice</code> for every proposal of the position
+	 */
+	private static Map<String, List<String>> describe(Map<String, List<LinkedPosition>> linkedPositions) {
+		final var descriptions = new LinkedHashMap<String, List<String>>();
+		linkedPositions.forEach((key, positions) -> descriptions.put(key, positions.stream().map(position -> {
+			final var description = new StringBuilder().append(position.getOffset()).append('+')
+					.append(position.getLength());
+			if (position instanceof ProposalPosition proposalPosition) {
+				for (final ICompletionProposal choice : proposalPosition.getChoices()) {
+					description.append('|').append(choice.getDisplayString());
+				}
+			}
+			return description.toString();
+		}).toList()));
+		return descriptions;
+	}
+}
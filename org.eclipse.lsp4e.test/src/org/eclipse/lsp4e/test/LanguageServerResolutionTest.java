@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.lsp4e.ContentTypeToLanguageServerDefinition;
+import org.eclipse.lsp4e.LanguageServerWrapper;
+import org.eclipse.lsp4e.LanguageServersRegistry;
+import org.eclipse.lsp4e.LanguageServersRegistry.LanguageServerDefinition;
+import org.eclipse.lsp4e.LanguageServiceAccessor;
+import org.eclipse.lsp4e.test.utils.AbstractTestWithProject;
+import org.eclipse.lsp4e.test.utils.TestUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the server resolution done on every hover, completion, reconcile and
+ * handler enablement check, which is cached per content type.
+ */
+public class LanguageServerResolutionTest extends AbstractTestWithProject {
+
+	private final LanguageServersRegistry registry = LanguageServersRegistry.getInstance();
+
+	private LanguageServerDefinition definition(String id) {
+		final LanguageServerDefinition definition = registry.getDefinition(id);
+		assertNotNull(definition, id);
+		return definition;
+	}
+
+	private static Set<LanguageServerWrapper> identitySet(List<LanguageServerWrapper> wrappers) {
+		final Set<LanguageServerWrapper> set = Collections.newSetFromMap(new IdentityHashMap<>());
+		set.addAll(wrappers);
+		return set;
+	}
+
+	@Test
+	public void testChildContentTypeResolvesServersOfBaseTypes() throws Exception {
+		final LanguageServerDefinition server = definition("org.eclipse.lsp4e.test.server");
+		final LanguageServerDefinition server2 = definition("org.eclipse.lsp4e.test.server2");
+
+		// no server mapped to the content type itself, only to its base type
+		final IFile baseTypeOnly = TestUtils.createUniqueTestFile(project, "lsptchildNoLS", "");
+		assertTrue(registry.canUseLanguageServer(baseTypeOnly));
+		assertTrue(registry.matches(baseTypeOnly, server));
+		assertFalse(registry.matches(baseTypeOnly, server2));
+
+		final IFile child = TestUtils.createUniqueTestFile(project, "lsptchild", "");
+		assertTrue(registry.matches(child, server));
+		assertTrue(registry.matches(child, server2));
+
+		assertFalse(registry.canUseLanguageServer(TestUtils.createUniqueTestFileOfUnknownType(project, "")));
+	}
+
+	@Test
+	public void testResolutionFollowsUserEnablement() throws Exception {
+		final ContentTypeToLanguageServerDefinition mapping = TestUtils.getDisabledLS();
+		final boolean wasEnabled = mapping.isUserEnabled();
+		final IFile file = TestUtils.createUniqueTestFile(project, "lspt-disabled", "");
+		try {
+			mapping.setUserEnabled(true);
+			assertTrue(registry.canUseLanguageServer(file));
+			// the cached resolution must not outlive the preference change
+			mapping.setUserEnabled(false);
+			assertFalse(registry.canUseLanguageServer(file));
+			mapping.setUserEnabled(true);
+			assertTrue(registry.canUseLanguageServer(file));
+		} finally {
+			mapping.setUserEnabled(wasEnabled);
+		}
+	}
+
+	@Test
+	public void testFilesOfProjectShareStartedWrappers() throws Exception {
+		final LanguageServerDefinition server = definition("org.eclipse.lsp4e.test.server");
+		final LanguageServerDefinition server2 = definition("org.eclipse.lsp4e.test.server2");
+		Set<LanguageServerWrapper> expected = null;
+		for (int i = 0; i < 20; i++) {
+			final IFile file = TestUtils.createFile(project, "file" + i + ".lsptmultils", "content " + i);
+			final List<LanguageServerWrapper> wrappers = LanguageServiceAccessor.getLSWrappers(file,
+					capabilities -> true);
+			assertEquals(Set.of(server, server2),
+					Set.copyOf(wrappers.stream().map(wrapper -> wrapper.serverDefinition).toList()));
+			if (expected == null) {
+				expected = identitySet(wrappers);
+			} else {
+				assertEquals(expected, identitySet(wrappers), "wrappers of the project must be reused");
+			}
+			assertEquals(expected, identitySet(LanguageServiceAccessor.getLSWrappers(file, capabilities -> true)));
+		}
+	}
+}
@@ -24,12 +24,15 @@
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Vector;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -43,12 +46,18 @@
 import org.eclipse.lsp4e.LanguageServerWrapper;
 import org.eclipse.lsp4e.LanguageServers;
 import org.eclipse.lsp4e.LanguageServers.LanguageServerDocumentExecutor;
+import org.eclipse.lsp4e.LanguageServiceAccessor;
+import org.eclipse.lsp4e.internal.LatencyTracker;
 import org.eclipse.lsp4e.internal.Pair;
 import org.eclipse.lsp4e.test.utils.AbstractTestWithProject;
 import org.eclipse.lsp4e.test.utils.TestUtils;
 import org.eclipse.lsp4e.tests.mock.MockLanguageServer;
 import org.eclipse.lsp4e.tests.mock.MockLanguageServerFactory;
 import org.eclipse.lsp4e.tests.mock.MockTextDocumentService;
+import org.eclipse.lsp4j.CodeAction;
+import org.eclipse.lsp4j.CodeActionContext;
+import org.eclipse.lsp4j.CodeActionParams;
+import org.eclipse.lsp4j.Command;
 import org.eclipse.lsp4j.DidChangeTextDocumentParams;
 import org.eclipse.lsp4j.Hover;
 import org.eclipse.lsp4j.HoverParams;
@@ -56,9 +65,15 @@
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.ReferenceParams;
+import org.eclipse.lsp4j.RenameParams;
 import org.eclipse.lsp4j.ServerCapabilities;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
 import org.eclipse.lsp4j.TextDocumentSyncKind;
+import org.eclipse.lsp4j.TextEdit;
+import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.jsonrpc.messages.RequestMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseMessage;
 import org.eclipse.lsp4j.services.LanguageServer;
 import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.widgets.Display;
@@ -67,6 +82,8 @@
 
 public class LanguageServersTest extends AbstractTestWithProject {
 
+	private static final AtomicInteger DEGRADING_REQUESTS = new AtomicInteger();
+
 	private final Predicate<ServerCapabilities> MATCH_ALL = sc -> true;
 
 	@Test
@@ -849,4 +866,251 @@ public void testCancellable(MockLanguageServerFactory factory) throws Exception
 		DisplayHelper.sleep(viewer.getTextWidget().getDisplay(), 100);
 		assertTrue(DisplayHelper.waitForCondition(display, 3000, () -> !factory.cancellations.isEmpty()));
 	}
+
+	@Test
+	public void testCollectAllWithDeadline(MockLanguageServerFactory factory) throws Exception {
+		final var internalResults = new Vector<CompletableFuture<?>>();
+		factory.withConfiguration((idx, server) -> {
+			server.setTextDocumentService(new MockTextDocumentService(server::buildMaybeDelayedFuture) {
+				@Override
+				public synchronized CompletableFuture<Hover> hover(HoverParams position) {
+					final var hoverResponse = new Hover(List.of(Either.forLeft("HoverContent" + idx)), new Range(new Position(0,  0), new Position(0, 10)));
+					CompletableFuture<Hover> result = CompletableFuture.completedFuture(hoverResponse).thenApplyAsync(t -> {
+						try {
+							Thread.sleep(idx * 3000L);
+						} catch (InterruptedException e) {
+
+						}
+						return t;
+					});
+					internalResults.add(result);
+					return result;
+				}
+			});
+		});
+
+		IFile testFile = TestUtils.createUniqueTestFileMultiLS(project, "Here is some content");
+		ITextViewer viewer = TestUtils.openTextViewer(testFile);
+		final IDocument document = viewer.getDocument();
+		final HoverParams params = hoverParams();
+
+		final long startTime = System.currentTimeMillis();
+		List<String> hovers = LanguageServers.forDocument(document)
+				.withCapability(ServerCapabilities::getHoverProvider)
+				.withDeadline(Duration.ofMillis(1000))
+				.collectAll(ls -> ls.getTextDocumentService().hover(params).thenApply(h -> h.getContents().getLeft().get(0).getLeft()))
+				.join();
+		final long responseTime = System.currentTimeMillis() - startTime;
+
+		assertEquals(List.of("HoverContent0"), hovers);
+		assertTrue(responseTime < 2500, "Result should have been returned at the deadline but took " + responseTime + " ms");
+		internalResults.forEach(CompletableFuture::join);
+	}
+
+	@Test
+	public void testStreamAll(MockLanguageServerFactory factory) throws Exception {
+		factory.withConfiguration((idx, server) -> {
+			server.setTextDocumentService(new MockTextDocumentService(server::buildMaybeDelayedFuture) {
+				@Override
+				public synchronized CompletableFuture<Hover> hover(HoverParams position) {
+					final var hoverResponse = new Hover(List.of(Either.forLeft("HoverContent" + idx)), new Range(new Position(0,  0), new Position(0, 10)));
+					return CompletableFuture.completedFuture(hoverResponse).thenApplyAsync(t -> {
+						try {
+							Thread.sleep(idx * 1000L);
+						} catch (InterruptedException e) {
+
+						}
+						return t;
+					});
+				}
+			});
+		});
+
+		IFile testFile = TestUtils.createUniqueTestFileMultiLS(project, "Here is some content");
+		ITextViewer viewer = TestUtils.openTextViewer(testFile);
+		final IDocument document = viewer.getDocument();
+		final HoverParams params = hoverParams();
+
+		final var hovers = new Vector<String>();
+		final var completed = new CompletableFuture<Void>();
+		LanguageServers.forDocument(document)
+				.withCapability(ServerCapabilities::getHoverProvider)
+				.streamAll(ls -> ls.getTextDocumentService().hover(params).thenApply(h -> h.getContents().getLeft().get(0).getLeft()))
+				.subscribe(new Flow.Subscriber<String>() {
+					@Override
+					public void onSubscribe(Flow.Subscription subscription) {
+						subscription.request(Long.MAX_VALUE);
+					}
+
+					@Override
+					public void onNext(String item) {
+						hovers.add(item);
+					}
+
+					@Override
+					public void onError(Throwable throwable) {
+						completed.completeExceptionally(throwable);
+					}
+
+					@Override
+					public void onComplete() {
+						completed.complete(null);
+					}
+				});
+
+		assertTrue(waitForCondition(2000, () -> hovers.contains("HoverContent0")));
+		assertFalse(completed.isDone(), "Stream should still wait for the slower server");
+		completed.get(5, TimeUnit.SECONDS);
+		assertEquals(List.of("HoverContent0", "HoverContent1"), hovers);
+	}
+
+	@Test
+	public void testComputeFirstWithHedging(MockLanguageServerFactory factory) throws Exception {
+		final var queries = new AtomicInteger();
+		final var internalResults = new Vector<CompletableFuture<?>>();
+		factory.withConfiguration((idx, server) -> {
+			server.setTextDocumentService(new MockTextDocumentService(server::buildMaybeDelayedFuture) {
+				@Override
+				public synchronized CompletableFuture<Hover> hover(HoverParams position) {
+					// the first server queried is slow
+					final boolean slow = queries.incrementAndGet() == 1;
+					final var hoverResponse = new Hover(List.of(Either.forLeft(slow ? "Slow" : "Fast")), new Range(new Position(0,  0), new Position(0, 10)));
+					CompletableFuture<Hover> result = CompletableFuture.completedFuture(hoverResponse).thenApplyAsync(t -> {
+						try {
+							Thread.sleep(slow ? 3000 : 0);
+						} catch (InterruptedException e) {
+
+						}
+						return t;
+					});
+					internalResults.add(result);
+					return result;
+				}
+			});
+		});
+
+		IFile testFile = TestUtils.createUniqueTestFileMultiLS(project, "Here is some content");
+		ITextViewer viewer = TestUtils.openTextViewer(testFile);
+		final IDocument document = viewer.getDocument();
+		final HoverParams params = hoverParams();
+
+		final long startTime = System.currentTimeMillis();
+		Optional<String> result = LanguageServers.forDocument(document)
+				.withCapability(ServerCapabilities::getHoverProvider)
+				.withHedging(Duration.ofMillis(300))
+				.computeFirst(ls -> ls.getTextDocumentService().hover(params).thenApply(h -> h.getContents().getLeft().get(0).getLeft()))
+				.join();
+		final long responseTime = System.currentTimeMillis() - startTime;
+
+		assertEquals(Optional.of("Fast"), result);
+		assertTrue(responseTime < 2000, "Slow server should have been hedged but took " + responseTime + " ms");
+		assertEquals(2, queries.get());
+		internalResults.forEach(CompletableFuture::join);
+
+		// a server answering within the threshold spares the other one
+		queries.set(1);
+		result = LanguageServers.forDocument(document)
+				.withCapability(ServerCapabilities::getHoverProvider)
+				.withHedging(Duration.ofMillis(2000))
+				.computeFirst(ls -> ls.getTextDocumentService().hover(params).thenApply(h -> h.getContents().getLeft().get(0).getLeft()))
+				.join();
+		assertEquals(Optional.of("Fast"), result);
+		assertEquals(2, queries.get());
+	}
+
+	@Test
+	public void testDegradedServerStillContributesEdits(MockLanguageServerFactory factory) throws Exception {
+		factory.withConfiguration((idx, server) -> {
+			server.setTextDocumentService(new MockTextDocumentService(server::buildMaybeDelayedFuture) {
+				@Override
+				public CompletableFuture<List<Either<Command, CodeAction>>> codeAction(CodeActionParams params) {
+					return CompletableFuture.completedFuture(List.of(Either.forLeft(new Command("Action" + idx, "action"))));
+				}
+
+				@Override
+				public CompletableFuture<WorkspaceEdit> rename(RenameParams params) {
+					return CompletableFuture.completedFuture(new WorkspaceEdit(Map.of(params.getTextDocument().getUri(),
+							List.of(new TextEdit(new Range(new Position(0, 0), new Position(0, 4)), "Renamed" + idx)))));
+				}
+
+				@Override
+				public synchronized CompletableFuture<Hover> hover(HoverParams position) {
+					return CompletableFuture.completedFuture(new Hover(List.of(Either.forLeft("HoverContent" + idx)),
+							new Range(new Position(0, 0), new Position(0, 10))));
+				}
+			});
+		});
+
+		IFile testFile = TestUtils.createUniqueTestFileMultiLS(project, "Here is some content");
+		ITextViewer viewer = TestUtils.openTextViewer(testFile);
+		final IDocument document = viewer.getDocument();
+		final List<LanguageServerWrapper> wrappers = LanguageServiceAccessor.getLSWrappers(testFile, MATCH_ALL);
+		assertEquals(2, wrappers.size());
+		final LanguageServerWrapper slow = wrappers.get(0);
+		final var codeActionParams = new CodeActionParams(
+				new TextDocumentIdentifier(testFile.getLocationURI().toString()),
+				new Range(new Position(0, 0), new Position(0, 4)), new CodeActionContext(List.of()));
+		final var renameParams = new RenameParams(new TextDocumentIdentifier(testFile.getLocationURI().toString()),
+				new Position(0, 0), "Renamed");
+
+		// slow workspace symbol searches do not drop the code actions nor the rename edits of the server
+		degrade(slow, LatencyTracker.WORKSPACE_SYMBOL);
+		List<List<Either<Command, CodeAction>>> codeActions = LanguageServers.forDocument(document)
+				.withCapability(ServerCapabilities::getCodeActionProvider)
+				.collectAll(ls -> ls.getTextDocumentService().codeAction(codeActionParams)).join();
+		assertEquals(2, codeActions.size());
+
+		degrade(slow, LatencyTracker.WORKSPACE_SYMBOL);
+		List<WorkspaceEdit> edits = LanguageServers.forDocument(document)
+				.withCapability(ServerCapabilities::getRenameProvider)
+				.collectAll(ls -> ls.getTextDocumentService().rename(renameParams)).join();
+		assertEquals(2, edits.size());
+
+		// queries opting in skip the server degraded for their method only
+		degrade(slow, LatencyTracker.WORKSPACE_SYMBOL);
+		List<String> hovers = LanguageServers.forDocument(document)
+				.withCapability(ServerCapabilities::getHoverProvider)
+				.withRoutingAroundDegraded(LatencyTracker.SIGNATURE_HELP)
+				.collectAll(ls -> ls.getTextDocumentService().hover(hoverParams()).thenApply(h -> h.getContents().getLeft().get(0).getLeft()))
+				.join();
+		assertEquals(2, hovers.size());
+
+		degrade(slow, LatencyTracker.WORKSPACE_SYMBOL);
+		hovers = LanguageServers.forDocument(document)
+				.withCapability(ServerCapabilities::getHoverProvider)
+				.withRoutingAroundDegraded(LatencyTracker.WORKSPACE_SYMBOL)
+				.collectAll((w, ls) -> ls.getTextDocumentService().hover(hoverParams()).thenApply(h -> h.getContents().getLeft().get(0).getLeft()))
+				.join();
+		assertEquals(1, hovers.size());
+	}
+
+	/**
+	 * Makes the requests of the given method of the server time out
+	 * {@value LatencyTracker#DEGRADED_THRESHOLD} times in a row.
+	 */
+	private static void degrade(LanguageServerWrapper wrapper, String method) throws InterruptedException {
+		final LatencyTracker tracker = wrapper.getLatencyTracker();
+		tracker.getTimeout(method, Duration.ofMillis(1));
+		for (int i = 0; i < LatencyTracker.DEGRADED_THRESHOLD; i++) {
+			final var request = new RequestMessage();
+			request.setId("degrade-" + DEGRADING_REQUESTS.incrementAndGet());
+			request.setMethod(method);
+			tracker.messageSent(request);
+			Thread.sleep(10);
+			final var response = new ResponseMessage();
+			response.setId(request.getId());
+			response.setResult(List.of());
+			tracker.messageReceived(response);
+		}
+		assertTrue(tracker.isDegraded(method));
+	}
+
+	private static HoverParams hoverParams() {
+		final var params = new HoverParams();
+		final var position = new Position();
+		position.setCharacter(10);
+		position.setLine(0);
+		params.setPosition(position);
+		return params;
+	}
 }
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test;
+
+import static org.eclipse.lsp4e.test.utils.TestUtils.waitForAndAssertCondition;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.lsp4e.LanguageServerWrapper;
+import org.eclipse.lsp4e.LanguageServiceAccessor;
+import org.eclipse.lsp4e.internal.ExecutorUtil;
+import org.eclipse.lsp4e.test.utils.AbstractTestWithProject;
+import org.eclipse.lsp4e.test.utils.TestUtils;
+import org.eclipse.lsp4j.HoverParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a server started with {@link ExecutorUtil#VIRTUAL_THREADS_PROPERTY}
+ * set does not hold any platform thread.
+ */
+public class VirtualThreadsTest extends AbstractTestWithProject {
+
+	@AfterEach
+	public void tearDown() {
+		System.clearProperty(ExecutorUtil.VIRTUAL_THREADS_PROPERTY);
+		// do not leak wrappers using virtual threads into other tests
+		LanguageServiceAccessor.clearStartedServers();
+	}
+
+	/**
+	 * @return the number of platform threads of the wrappers started for the test
+	 *         project. Thread.getAllStackTraces() only reports platform threads, the
+	 *         threads of the wrappers are named after their server and project.
+	 */
+	private long countServerPlatformThreads() {
+		return Thread.getAllStackTraces().keySet().stream()
+				.filter(thread -> thread.getName().startsWith("LS-")
+						&& thread.getName().contains("@" + project.getName()))
+				.count();
+	}
+
+	private LanguageServerWrapper startServerAndHover() throws Exception {
+		final IFile file = TestUtils.createUniqueTestFile(project, "content");
+		final List<LanguageServerWrapper> wrappers = LanguageServiceAccessor.getLSWrappers(file,
+				capabilities -> true);
+		assertEquals(1, wrappers.size());
+		final LanguageServerWrapper wrapper = wrappers.get(0);
+		waitForAndAssertCondition(5_000, wrapper::isActive);
+
+		final var params = new HoverParams(new TextDocumentIdentifier(file.getLocationURI().toString()),
+				new Position(0, 0));
+		wrapper.execute(ls -> ls.getTextDocumentService().hover(params)).get(5, TimeUnit.SECONDS);
+		return wrapper;
+	}
+
+	@Test
+	public void testServerRunsOnPlatformThreadsByDefault() throws Exception {
+		startServerAndHover();
+		assertTrue(countServerPlatformThreads() > 0);
+	}
+
+	@Test
+	public void testServerRunsOnVirtualThreadsWhenEnabled() throws Exception {
+		System.setProperty(ExecutorUtil.VIRTUAL_THREADS_PROPERTY, Boolean.TRUE.toString());
+		startServerAndHover();
+		assertEquals(0, countServerPlatformThreads());
+	}
+}
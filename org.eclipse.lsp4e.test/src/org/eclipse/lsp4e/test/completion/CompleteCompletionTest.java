@@ -744,4 +744,48 @@ public void testVariablesUseViewerLineNotEditRange(MockLanguageServerFactory fac
 		// Variables should reflect caret line (line 0)
 		assertEquals("0 1 line0", viewer.getDocument().get().split("\n")[2]);
 	}
+
+	@Test
+	public void testCompleteListIsReusedWhileTyping(MockLanguageServerFactory factory) throws Exception {
+		final List<CompletionItem> items = List.of(
+				createCompletionItemWithoutTextEdit("FirstClass", CompletionItemKind.Class),
+				createCompletionItemWithoutTextEdit("SecondClass", CompletionItemKind.Class));
+		factory.withConfiguration((idx, server) -> server.setCompletionList(new CompletionList(false, items)));
+
+		ITextViewer viewer = TestUtils.openTextViewer(TestUtils.createUniqueTestFile(project, ""));
+		assertEquals(2, contentAssistProcessor.computeCompletionProposals(viewer, 0).length);
+
+		factory.getServer().setCompletionList(new CompletionList(false,
+				List.of(createCompletionItemWithoutTextEdit("Other", CompletionItemKind.Class))));
+		viewer.getDocument().replace(0, 0, "Fi");
+		ICompletionProposal[] proposals = contentAssistProcessor.computeCompletionProposals(viewer, 2);
+		assertEquals(1, proposals.length);
+		assertEquals("FirstClass", ((LSCompletionProposal) proposals[0]).getItem().getLabel());
+
+		// a non-identifier character starts a new word, the server is queried again
+		viewer.getDocument().replace(2, 0, " ");
+		proposals = contentAssistProcessor.computeCompletionProposals(viewer, 3);
+		assertEquals(1, proposals.length);
+		assertEquals("Other", ((LSCompletionProposal) proposals[0]).getItem().getLabel());
+	}
+
+	@Test
+	public void testCompleteListIsNotReusedAfterOtherEdit(MockLanguageServerFactory factory) throws Exception {
+		final List<CompletionItem> items = List.of(
+				createCompletionItemWithoutTextEdit("FirstClass", CompletionItemKind.Class),
+				createCompletionItemWithoutTextEdit("SecondClass", CompletionItemKind.Class));
+		factory.withConfiguration((idx, server) -> server.setCompletionList(new CompletionList(false, items)));
+
+		ITextViewer viewer = TestUtils.openTextViewer(TestUtils.createUniqueTestFile(project, "abc "));
+		assertEquals(2, contentAssistProcessor.computeCompletionProposals(viewer, 4).length);
+
+		factory.getServer().setCompletionList(new CompletionList(false,
+				List.of(createCompletionItemWithoutTextEdit("Fine", CompletionItemKind.Class))));
+		// an edit before the caret which keeps the length of the document
+		viewer.getDocument().replace(0, 3, "xyz");
+		viewer.getDocument().replace(4, 0, "F");
+		ICompletionProposal[] proposals = contentAssistProcessor.computeCompletionProposals(viewer, 5);
+		assertEquals(1, proposals.length);
+		assertEquals("Fine", ((LSCompletionProposal) proposals[0]).getItem().getLabel());
+	}
 }
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.completion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.lsp4e.operations.completion.CompletionFilterIndex;
+import org.eclipse.lsp4e.operations.completion.CompletionProposalTools;
+import org.eclipse.lsp4j.CompletionItem;
+import org.junit.jupiter.api.Test;
+
+public class CompletionFilterIndexTest {
+
+	private static CompletionItem item(String label, String filterText) {
+		final var item = new CompletionItem(label);
+		item.setFilterText(filterText);
+		return item;
+	}
+
+	@Test
+	public void testFilter() {
+		final var index = new CompletionFilterIndex(List.of( //
+				new CompletionItem("getFirstName"), //
+				new CompletionItem("setFirstName"), //
+				item("label", "FirstClass"), //
+				new CompletionItem("")));
+
+		assertEquals(4, index.size());
+		assertArrayEquals(new int[] { 0, 1, 2, 3 }, index.filter(""));
+		assertArrayEquals(new int[] { 0, 1, 2 }, index.filter("First"));
+		assertArrayEquals(new int[] { 0 }, index.filter("gfn"));
+		// the filter text is used instead of the label
+		assertArrayEquals(new int[] { 2 }, index.filter("FCL"));
+		assertArrayEquals(new int[0], index.filter("label"));
+		// characters must be found in order
+		assertFalse(index.matches(0, "nameget"));
+	}
+
+	@Test
+	public void testSameResultAsProposalTools() {
+		final var random = new Random(42);
+		final String chars = "abcdeABCDE_$1";
+		final var items = new ArrayList<CompletionItem>();
+		for (int i = 0; i < 1_000; i++) {
+			items.add(new CompletionItem(randomString(random, chars, 12)));
+		}
+		final var index = new CompletionFilterIndex(items);
+		for (int n = 0; n < 200; n++) {
+			final String typed = randomString(random, chars, 4);
+			for (int i = 0; i < items.size(); i++) {
+				assertEquals(CompletionProposalTools.isSubstringFoundOrderedInString(typed, items.get(i).getLabel()),
+						index.matches(i, typed), typed + " in " + items.get(i).getLabel());
+			}
+		}
+	}
+
+	private static String randomString(Random random, String chars, int maxLength) {
+		final var sb = new StringBuilder();
+		final int length = random.nextInt(maxLength + 1);
+		for (int i = 0; i < length; i++) {
+			sb.append(chars.charAt(random.nextInt(chars.length())));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.completion;
+
+import static org.eclipse.lsp4e.test.utils.TestUtils.waitForAndAssertCondition;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jface.internal.text.html.BrowserInformationControl;
+import org.eclipse.jface.text.DefaultInformationControl;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IInformationControl;
+import org.eclipse.jface.text.IInformationControlExtension2;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.lsp4e.operations.completion.LSCompletionProposal;
+import org.eclipse.lsp4e.test.utils.TestUtils;
+import org.eclipse.lsp4e.tests.mock.MockLanguageServer;
+import org.eclipse.lsp4e.tests.mock.MockLanguageServerFactory;
+import org.eclipse.lsp4e.ui.UI;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionItemKind;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.CompletionOptions;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the background <code>completionItem/resolve</code> of the selected
+ * proposal and of its neighbours.
+ */
+public class CompletionItemResolveTest extends AbstractCompletionTest {
+
+	private static final String RESOLVED_DOCUMENTATION = "Resolved documentation";
+
+	private static void enableResolve(MockLanguageServerFactory factory) {
+		factory.withCapabilities(() -> {
+			final var capabilities = MockLanguageServer.defaultServerCapabilities();
+			capabilities.setCompletionProvider(new CompletionOptions(true, null));
+			return capabilities;
+		});
+	}
+
+	private static LSCompletionProposal proposal(ICompletionProposal[] proposals, String label) {
+		return Stream.of(proposals).map(LSCompletionProposal.class::cast)
+				.filter(proposal -> proposal.getItem().getLabel().equals(label)).findFirst().orElseThrow();
+	}
+
+	private static Set<String> resolvedLabels(MockLanguageServerFactory factory) {
+		return factory.getServer().getTextDocumentService().getResolvedCompletionItems().stream()
+				.map(CompletionItem::getLabel).collect(Collectors.toSet());
+	}
+
+	@Test
+	public void testNeighboursAreTakenFromFilteredProposals(MockLanguageServerFactory factory) throws Exception {
+		enableResolve(factory);
+		final var items = new ArrayList<CompletionItem>();
+		for (int i = 0; i < 5; i++) {
+			// sorted as aaa0, bbb0, aaa1, bbb1...
+			final CompletionItem a = createCompletionItemWithoutTextEdit("aaa" + i, CompletionItemKind.Method);
+			a.setSortText(String.format("%02d", 2 * i));
+			final CompletionItem b = createCompletionItemWithoutTextEdit("bbb" + i, CompletionItemKind.Method);
+			b.setSortText(String.format("%02d", 2 * i + 1));
+			items.add(a);
+			items.add(b);
+		}
+		factory.withConfiguration((idx, server) -> server.setCompletionList(new CompletionList(false, items)));
+
+		final ITextViewer viewer = TestUtils.openTextViewer(TestUtils.createUniqueTestFile(project, ""));
+		final IDocument document = viewer.getDocument();
+		final ICompletionProposal[] proposals = contentAssistProcessor.computeCompletionProposals(viewer, 0);
+		assertEquals(10, proposals.length);
+
+		// the popup filters its proposals while typing
+		document.replace(0, 0, "a");
+		for (final ICompletionProposal proposal : proposals) {
+			((LSCompletionProposal) proposal).validate(document, 1, null);
+		}
+		proposal(proposals, "aaa2").selected(viewer, false);
+
+		waitForAndAssertCondition(5_000, () -> resolvedLabels(factory).size() == 5);
+		assertEquals(Set.of("aaa0", "aaa1", "aaa2", "aaa3", "aaa4"), resolvedLabels(factory));
+	}
+
+	@Test
+	public void testInformationControlIsRefreshedWhenResolved(MockLanguageServerFactory factory) throws Exception {
+		enableResolve(factory);
+		factory.withConfiguration((idx, server) -> {
+			server.setCompletionList(new CompletionList(false,
+					List.of(createCompletionItemWithoutTextEdit("item", CompletionItemKind.Method))));
+			server.getTextDocumentService().setCompletionItemResolver(unresolved -> {
+				final var resolved = new CompletionItem(unresolved.getLabel());
+				resolved.setDocumentation(RESOLVED_DOCUMENTATION);
+				return resolved;
+			});
+		});
+
+		final ITextViewer viewer = TestUtils.openTextViewer(TestUtils.createUniqueTestFile(project, ""));
+		final var proposal = (LSCompletionProposal) contentAssistProcessor.computeCompletionProposals(viewer, 0)[0];
+		factory.getServer().setTimeToProceedQueries(300);
+
+		final var shell = new Shell(UI.getDisplay());
+		try {
+			final IInformationControl control = proposal.getInformationControlCreator().createInformationControl(shell);
+			proposal.selected(viewer, false);
+			// on the UI thread, the info is computed without waiting for the resolve
+			final Object info = proposal.getAdditionalProposalInfo(new NullProgressMonitor());
+			assertFalse(info.toString().contains(RESOLVED_DOCUMENTATION));
+			if (control instanceof IInformationControlExtension2 inputControl) {
+				inputControl.setInput(info);
+			} else {
+				control.setInformation(info.toString());
+			}
+			control.setVisible(true);
+
+			waitForAndAssertCondition(5_000, () -> shownText(control).contains(RESOLVED_DOCUMENTATION));
+			control.dispose();
+		} finally {
+			shell.dispose();
+		}
+	}
+
+	@Test
+	public void testLateResolveDoesNotReplaceInfoOfSelectedProposal(MockLanguageServerFactory factory)
+			throws Exception {
+		enableResolve(factory);
+		factory.withConfiguration((idx, server) -> {
+			server.setCompletionList(new CompletionList(false,
+					List.of(createCompletionItemWithoutTextEdit("aaa", CompletionItemKind.Method),
+							createCompletionItemWithoutTextEdit("bbb", CompletionItemKind.Method))));
+			server.getTextDocumentService().setCompletionItemResolver(unresolved -> {
+				final var resolved = new CompletionItem(unresolved.getLabel());
+				resolved.setDocumentation(RESOLVED_DOCUMENTATION + " of " + unresolved.getLabel());
+				return resolved;
+			});
+		});
+
+		final ITextViewer viewer = TestUtils.openTextViewer(TestUtils.createUniqueTestFile(project, ""));
+		final ICompletionProposal[] proposals = contentAssistProcessor.computeCompletionProposals(viewer, 0);
+		final LSCompletionProposal a = proposal(proposals, "aaa");
+		final LSCompletionProposal b = proposal(proposals, "bbb");
+		// the popup reuses the control of the first proposal for the others
+		assertSame(a.getInformationControlCreator(), b.getInformationControlCreator());
+		factory.getServer().setTimeToProceedQueries(300);
+
+		final var shell = new Shell(UI.getDisplay());
+		try {
+			final IInformationControl control = a.getInformationControlCreator().createInformationControl(shell);
+			a.selected(viewer, false);
+			showInfo(control, a.getAdditionalProposalInfo(new NullProgressMonitor()));
+			control.setVisible(true);
+
+			// the selection moves before the item of the first proposal is resolved
+			a.unselected(viewer);
+			b.selected(viewer, false);
+			showInfo(control, b.getAdditionalProposalInfo(new NullProgressMonitor()));
+
+			waitForAndAssertCondition(5_000, () -> shownText(control).contains(RESOLVED_DOCUMENTATION + " of bbb"));
+			assertFalse(shownText(control).contains(RESOLVED_DOCUMENTATION + " of aaa"));
+			control.dispose();
+		} finally {
+			shell.dispose();
+		}
+	}
+
+	private static void showInfo(IInformationControl control, Object info) {
+		if (control instanceof IInformationControlExtension2 inputControl) {
+			inputControl.setInput(info);
+		} else {
+			control.setInformation(info.toString());
+		}
+	}
+
+	private static String shownText(IInformationControl control) throws Exception {
+		if (control instanceof BrowserInformationControl browserControl) {
+			return browserControl.getInput().getHtml();
+		}
+		final Field text = DefaultInformationControl.class.getDeclaredField("fText");
+		text.setAccessible(true);
+		return ((StyledText) text.get(control)).getText();
+	}
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.completion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.lsp4e.operations.completion.LSCompletionProposal;
+import org.eclipse.lsp4e.operations.completion.LSContentAssistProcessor;
+import org.eclipse.lsp4e.test.utils.TestUtils;
+import org.eclipse.lsp4e.tests.mock.MockLanguageServerFactory;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionItemKind;
+import org.eclipse.lsp4j.CompletionList;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the proposals of a large complete list reused while typing a
+ * word are ranked like the proposals of a new request.
+ */
+public class CompletionRankingTest extends AbstractCompletionTest {
+
+	private static final int ITEMS = 2_000;
+	private static final String WORD = "getBuffer";
+
+	private static List<String> labels(ICompletionProposal[] proposals) {
+		return Stream.of(proposals).map(p -> ((LSCompletionProposal) p).getItem().getLabel()).toList();
+	}
+
+	@Test
+	public void testReusedListIsRankedLikeNewRequest(MockLanguageServerFactory factory) throws Exception {
+		final var random = new Random(42);
+		final String[] parts = { "get", "set", "Buffer", "Size", "Name", "is", "Valid", "to", "String", "File" };
+		final var items = new ArrayList<CompletionItem>(ITEMS);
+		for (int i = 0; i < ITEMS; i++) {
+			final var label = new StringBuilder();
+			for (int p = 0; p < 3; p++) {
+				label.append(parts[random.nextInt(parts.length)]);
+			}
+			items.add(createCompletionItemWithoutTextEdit(label.append(i).toString(), CompletionItemKind.Method));
+		}
+		factory.withConfiguration((idx, server) -> server.setCompletionList(new CompletionList(false, items)));
+
+		final ITextViewer viewer = TestUtils.openTextViewer(TestUtils.createUniqueTestFile(project, ""));
+		final IDocument document = viewer.getDocument();
+		assertEquals(ITEMS, contentAssistProcessor.computeCompletionProposals(viewer, 0).length);
+
+		int previousCount = ITEMS;
+		for (int i = 1; i <= WORD.length(); i++) {
+			document.replace(i - 1, 0, WORD.substring(i - 1, i));
+			final List<String> reused = labels(contentAssistProcessor.computeCompletionProposals(viewer, i));
+			final List<String> requested = labels(
+					new LSContentAssistProcessor(true, false).computeCompletionProposals(viewer, i));
+			assertEquals(requested, reused, "proposals after typing " + WORD.substring(0, i));
+			// each typed character narrows the proposals
+			assertTrue(reused.size() <= previousCount);
+			previousCount = reused.size();
+		}
+		assertTrue(previousCount > 0, "some items match " + WORD);
+	}
+}
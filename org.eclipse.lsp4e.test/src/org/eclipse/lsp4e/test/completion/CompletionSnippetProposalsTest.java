@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.completion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.contentassist.BoldStylerProvider;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.viewers.StyledString;
+import org.eclipse.lsp4e.operations.completion.LSCompletionProposal;
+import org.eclipse.lsp4e.test.utils.TestUtils;
+import org.eclipse.lsp4e.tests.mock.MockLanguageServerFactory;
+import org.eclipse.lsp4e.ui.UI;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionItemKind;
+import org.eclipse.lsp4j.CompletionItemLabelDetails;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.InsertTextFormat;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Checks that the proposals of a large list of snippet items are rendered and
+ * applied the same, whether they were prepared in the background for the
+ * first rows of the popup or only when rendered or applied.
+ */
+public class CompletionSnippetProposalsTest extends AbstractCompletionTest {
+
+	private static final int ITEMS = 1_000;
+
+	@ParameterizedTest
+	@ValueSource(ints = { 0, ITEMS / 2, ITEMS - 1 })
+	public void testProposalIsRenderedAndApplied(int row, MockLanguageServerFactory factory) throws Exception {
+		final var items = new ArrayList<CompletionItem>(ITEMS);
+		for (int i = 0; i < ITEMS; i++) {
+			final String label = "method" + i;
+			final CompletionItem item = createCompletionItem(label + "(${1:first}, ${2|a,b|})$0",
+					CompletionItemKind.Method, new Range(new Position(0, 0), new Position(0, 2)));
+			item.setLabel(label);
+			item.setFilterText(label);
+			item.setInsertTextFormat(InsertTextFormat.Snippet);
+			item.setLabelDetails(new CompletionItemLabelDetails());
+			item.getLabelDetails().setDetail("(String first, Choice second)");
+			item.getLabelDetails().setDescription("Type" + i % 10);
+			items.add(item);
+		}
+		factory.withConfiguration((idx, server) -> server.setCompletionList(new CompletionList(false, items)));
+
+		final ITextViewer viewer = TestUtils.openTextViewer(TestUtils.createUniqueTestFile(project, "me"));
+		final IDocument document = viewer.getDocument();
+		final ICompletionProposal[] proposals = contentAssistProcessor.computeCompletionProposals(viewer, 2);
+		assertEquals(ITEMS, proposals.length);
+
+		final var proposal = (LSCompletionProposal) proposals[row];
+		final String label = proposal.getItem().getLabel();
+		final var boldStylerProvider = new BoldStylerProvider(UI.getActiveShell().getFont());
+		try {
+			final StyledString displayString = proposal.getStyledDisplayString(document, 2, boldStylerProvider);
+			final int index = Integer.parseInt(label.substring("method".length()));
+			assertEquals(label + "(String first, Choice second) Type" + index % 10, displayString.getString());
+			// the typed characters are highlighted
+			assertTrue(displayString.getStyleRanges().length > 0);
+		} finally {
+			boldStylerProvider.dispose();
+		}
+
+		proposal.apply(viewer, '\n', 0, 2);
+		assertEquals(label + "(first, a)", document.get());
+	}
+}
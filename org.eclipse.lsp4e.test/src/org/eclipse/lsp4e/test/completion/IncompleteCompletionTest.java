@@ -737,4 +737,20 @@ public void testIncompleteIndicationWithEmptyList(MockLanguageServerFactory fact
 		ICompletionProposal[] proposalsWithIncompleteProposal = incompleIndicatingProcessor.computeCompletionProposals(viewer, 0);
 		assertEquals(0, proposalsWithIncompleteProposal.length);
 	}
+
+	@Test
+	public void testIncompleteListIsNotReusedWhileTyping(MockLanguageServerFactory factory) throws Exception {
+		factory.withConfiguration((idx, server) -> server.setCompletionList(new CompletionList(true,
+				List.of(createCompletionItemWithoutTextEdit("FirstClass", CompletionItemKind.Class)))));
+
+		ITextViewer viewer = TestUtils.openTextViewer(TestUtils.createUniqueTestFile(project, ""));
+		assertEquals(1, contentAssistProcessor.computeCompletionProposals(viewer, 0).length);
+
+		factory.getServer().setCompletionList(new CompletionList(true,
+				List.of(createCompletionItemWithoutTextEdit("FixedClass", CompletionItemKind.Class))));
+		viewer.getDocument().replace(0, 0, "Fi");
+		ICompletionProposal[] proposals = contentAssistProcessor.computeCompletionProposals(viewer, 2);
+		assertEquals(1, proposals.length);
+		assertEquals("FixedClass", ((LSCompletionProposal) proposals[0]).getItem().getLabel());
+	}
 }
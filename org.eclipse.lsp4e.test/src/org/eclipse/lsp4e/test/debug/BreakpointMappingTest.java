@@ -14,11 +14,19 @@
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.model.IBreakpoint;
 import org.eclipse.lsp4e.debug.breakpoints.DSPLineBreakpoint;
@@ -54,6 +62,68 @@ public CompletableFuture<SetBreakpointsResponse> setBreakpoints(SetBreakpointsAr
 		}
 	}
 
+	/**
+	 * Moves every breakpoint one line down and reports it as unverified, like
+	 * adapters do for breakpoints placed on lines without code.
+	 */
+	private static class AdjustingServer extends CapturingServer {
+		@Override
+		public CompletableFuture<SetBreakpointsResponse> setBreakpoints(SetBreakpointsArguments arguments) {
+			super.setBreakpoints(arguments);
+			var resp = new SetBreakpointsResponse();
+			resp.setBreakpoints(Arrays.stream(arguments.getBreakpoints()).map(sourceBreakpoint -> {
+				var breakpoint = new Breakpoint();
+				breakpoint.setLine(sourceBreakpoint.getLine() + 1);
+				breakpoint.setVerified(false);
+				return breakpoint;
+			}).toArray(Breakpoint[]::new));
+			return CompletableFuture.completedFuture(resp);
+		}
+	}
+
+	/**
+	 * Fails the requests while {@link #failing} is set.
+	 */
+	private static class FailingServer extends CapturingServer {
+		volatile boolean failing = true;
+
+		@Override
+		public CompletableFuture<SetBreakpointsResponse> setBreakpoints(SetBreakpointsArguments arguments) {
+			final CompletableFuture<SetBreakpointsResponse> response = super.setBreakpoints(arguments);
+			return failing ? CompletableFuture.failedFuture(new IllegalStateException("adapter failure")) : response;
+		}
+	}
+
+	/**
+	 * Answers the requests only when the test completes them.
+	 */
+	private static class DeferringServer extends CapturingServer {
+		final List<CompletableFuture<SetBreakpointsResponse>> responses = new ArrayList<>();
+
+		@Override
+		public CompletableFuture<SetBreakpointsResponse> setBreakpoints(SetBreakpointsArguments arguments) {
+			super.setBreakpoints(arguments);
+			final var response = new CompletableFuture<SetBreakpointsResponse>();
+			synchronized (responses) {
+				responses.add(response);
+			}
+			return response;
+		}
+
+		void answer(int index, int line, boolean verified) {
+			final var breakpoint = new Breakpoint();
+			breakpoint.setLine(line);
+			breakpoint.setVerified(verified);
+			final var response = new SetBreakpointsResponse();
+			response.setBreakpoints(new Breakpoint[] { breakpoint });
+			final CompletableFuture<SetBreakpointsResponse> future;
+			synchronized (responses) {
+				future = responses.get(index);
+			}
+			future.complete(response);
+		}
+	}
+
 	private List<IBreakpoint> created = new ArrayList<>();
 
 	@BeforeEach
@@ -160,4 +230,202 @@ void changing_breakpoint_condition_replaces_existing_entry() throws Exception {
 			manager.shutdown();
 		}
 	}
+
+	@Test
+	void only_modified_sources_are_resent() throws Exception {
+		IFile file1 = TestUtils.createUniqueTestFile(project, "txt", "first line\nsecond line\n");
+		IFile file2 = TestUtils.createUniqueTestFile(project, "txt", "first line\nsecond line\n");
+
+		var bp1 = new DSPLineBreakpoint(file1, 2);
+		var bp2 = new DSPLineBreakpoint(file2, 2);
+		created.add(bp1);
+		created.add(bp2);
+
+		var server = new CapturingServer();
+		var manager = new DSPBreakpointManager(DebugPlugin.getDefault().getBreakpointManager(), server, null);
+
+		try {
+			manager.initialize().join();
+			manager.breakpointAdded(bp1);
+			manager.breakpointAdded(bp2);
+
+			server.calls.clear();
+			bp2.setCondition("x > 1");
+			manager.breakpointChanged(bp2, null);
+
+			synchronized (server.calls) {
+				assertEquals(1, server.calls.size(), "Only the source of the changed breakpoint must be re-sent");
+				assertEquals(file2.getLocation().toOSString(), server.calls.get(0).getSource().getPath());
+			}
+
+			// a change that does not affect what the adapter knows must not be re-sent
+			server.calls.clear();
+			manager.breakpointChanged(bp2, null);
+			synchronized (server.calls) {
+				assertTrue(server.calls.isEmpty(), "Unmodified breakpoint must not be re-sent");
+			}
+		} finally {
+			manager.shutdown();
+		}
+	}
+
+	@Test
+	void response_is_applied_to_platform_breakpoint() throws Exception {
+		IFile file = TestUtils.createUniqueTestFile(project, "txt", "first line\nsecond line\nthird line\n");
+
+		var bp = new DSPLineBreakpoint(file, 2);
+		created.add(bp);
+
+		var server = new AdjustingServer();
+		var manager = new DSPBreakpointManager(DebugPlugin.getDefault().getBreakpointManager(), server, null);
+
+		try {
+			manager.initialize().join();
+			manager.breakpointAdded(bp);
+			Job.getJobManager().join(manager, null);
+
+			assertEquals(3, bp.getLineNumber());
+			assertFalse(bp.isVerified());
+
+			// the marker update caused by the response must not lead to another request
+			server.calls.clear();
+			manager.breakpointChanged(bp, null);
+			synchronized (server.calls) {
+				assertTrue(server.calls.isEmpty(), "Adjusted breakpoint must not be re-sent");
+			}
+		} finally {
+			manager.shutdown();
+		}
+	}
+
+	@Test
+	void adjusted_line_updates_message_and_verified_state_is_reset_on_shutdown() throws Exception {
+		IFile file = TestUtils.createUniqueTestFile(project, "txt", "first line\nsecond line\nthird line\n");
+
+		var bp = new DSPLineBreakpoint(file, 2);
+		created.add(bp);
+
+		var manager = new DSPBreakpointManager(DebugPlugin.getDefault().getBreakpointManager(), new AdjustingServer(),
+				null);
+		try {
+			manager.initialize().join();
+			manager.breakpointAdded(bp);
+			Job.getJobManager().join(manager, null);
+
+			assertEquals(3, bp.getLineNumber());
+			assertEquals(file.getName() + " [line: 3]", bp.getMarker().getAttribute(IMarker.MESSAGE, ""));
+			assertFalse(bp.isVerified());
+		} finally {
+			manager.shutdown();
+		}
+		// the next debug session starts without the verified state of this one
+		assertTrue(bp.isVerified());
+		assertNull(bp.getMarker().getAttribute(DSPLineBreakpoint.ATTR_VERIFIED));
+	}
+
+	@Test
+	void markers_are_not_updated_on_the_responding_thread() throws Exception {
+		IFile file = TestUtils.createUniqueTestFile(project, "txt", "first line\nsecond line\nthird line\n");
+
+		var bp = new DSPLineBreakpoint(file, 2);
+		created.add(bp);
+
+		final Set<Thread> updatingThreads = ConcurrentHashMap.newKeySet();
+		final IResourceChangeListener listener = event -> {
+			if (event.findMarkerDeltas(DSPLineBreakpoint.ID, true).length > 0) {
+				updatingThreads.add(Thread.currentThread());
+			}
+		};
+		var manager = new DSPBreakpointManager(DebugPlugin.getDefault().getBreakpointManager(), new AdjustingServer(),
+				null);
+		file.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		try {
+			manager.initialize().join();
+			// the response is completed on this thread, which must not wait for the
+			// workspace to update the markers
+			manager.breakpointAdded(bp);
+			Job.getJobManager().join(manager, null);
+
+			assertEquals(3, bp.getLineNumber());
+			assertFalse(updatingThreads.isEmpty());
+			assertFalse(updatingThreads.contains(Thread.currentThread()));
+		} finally {
+			file.getWorkspace().removeResourceChangeListener(listener);
+			manager.shutdown();
+		}
+	}
+
+	@Test
+	void failed_request_is_sent_again() throws Exception {
+		IFile file1 = TestUtils.createUniqueTestFile(project, "txt", "first line\nsecond line\n");
+		IFile file2 = TestUtils.createUniqueTestFile(project, "txt", "first line\nsecond line\n");
+
+		var bp1 = new DSPLineBreakpoint(file1, 2);
+		var bp2 = new DSPLineBreakpoint(file2, 2);
+		created.add(bp1);
+		created.add(bp2);
+
+		var server = new FailingServer();
+		var manager = new DSPBreakpointManager(DebugPlugin.getDefault().getBreakpointManager(), server, null);
+		try {
+			manager.initialize().exceptionally(t -> null).join();
+			manager.breakpointAdded(bp1);
+
+			// the next synchronization also re-sends the source of the failed request
+			server.failing = false;
+			server.calls.clear();
+			manager.breakpointAdded(bp2);
+			synchronized (server.calls) {
+				assertEquals(Set.of(file1.getLocation().toOSString(), file2.getLocation().toOSString()),
+						server.calls.stream().map(arguments -> arguments.getSource().getPath()).collect(Collectors.toSet()));
+			}
+
+			// removing the last breakpoint of a source must reach the adapter even if the
+			// first attempt failed
+			server.failing = true;
+			server.calls.clear();
+			manager.breakpointRemoved(bp1, null);
+			server.failing = false;
+			server.calls.clear();
+			bp2.setCondition("x > 1");
+			manager.breakpointChanged(bp2, null);
+			synchronized (server.calls) {
+				SetBreakpointsArguments removal = server.calls.stream()
+						.filter(arguments -> file1.getLocation().toOSString().equals(arguments.getSource().getPath()))
+						.findFirst().orElse(null);
+				assertNotNull(removal, "The failed removal must be sent again");
+				assertEquals(0, removal.getBreakpoints().length);
+			}
+		} finally {
+			manager.shutdown();
+		}
+	}
+
+	@Test
+	void response_of_older_request_is_dropped() throws Exception {
+		IFile file = TestUtils.createUniqueTestFile(project, "txt", "first line\nsecond line\nthird line\n");
+
+		var bp = new DSPLineBreakpoint(file, 2);
+		created.add(bp);
+
+		var server = new DeferringServer();
+		var manager = new DSPBreakpointManager(DebugPlugin.getDefault().getBreakpointManager(), server, null);
+		try {
+			manager.initialize();
+			manager.breakpointAdded(bp);
+			bp.setCondition("x > 1");
+			manager.breakpointChanged(bp, null);
+			assertEquals(2, server.responses.size());
+
+			// the newer request is answered first
+			server.answer(1, 2, true);
+			server.answer(0, 3, false);
+			Job.getJobManager().join(manager, null);
+
+			assertEquals(2, bp.getLineNumber());
+			assertTrue(bp.isVerified());
+		} finally {
+			manager.shutdown();
+		}
+	}
 }
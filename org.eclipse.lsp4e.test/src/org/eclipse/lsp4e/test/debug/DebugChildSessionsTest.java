@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.debug;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.function.UnaryOperator;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.debug.core.Launch;
+import org.eclipse.lsp4e.debug.debugmodel.DSPDebugTarget;
+import org.eclipse.lsp4e.debug.debugmodel.TransportStreams.SocketTransportStreams;
+import org.eclipse.lsp4e.test.utils.AbstractTestWithProject;
+import org.eclipse.lsp4e.test.utils.TestUtils;
+import org.eclipse.lsp4j.debug.Capabilities;
+import org.eclipse.lsp4j.debug.DisconnectArguments;
+import org.eclipse.lsp4j.debug.InitializeRequestArguments;
+import org.eclipse.lsp4j.debug.StartDebuggingRequestArguments;
+import org.eclipse.lsp4j.debug.StartDebuggingRequestArgumentsType;
+import org.eclipse.lsp4j.debug.Thread;
+import org.eclipse.lsp4j.debug.ThreadsResponse;
+import org.eclipse.lsp4j.debug.launch.DSPLauncher;
+import org.eclipse.lsp4j.debug.services.IDebugProtocolClient;
+import org.eclipse.lsp4j.debug.services.IDebugProtocolServer;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Debug sessions started by a debug adapter via <code>startDebugging</code>
+ * share the executors of their parent target.
+ */
+class DebugChildSessionsTest extends AbstractTestWithProject {
+
+	private static final int CHILD_SESSIONS = 3;
+
+	/**
+	 * Mock DAP server answering the <code>threads</code> requests only when the
+	 * test completes them. The first adapter connected starts child sessions when
+	 * launched.
+	 */
+	private static final class MockAdapter implements IDebugProtocolServer {
+		final int childSessions;
+		IDebugProtocolClient client;
+		final List<CompletableFuture<ThreadsResponse>> threadsRequests = new CopyOnWriteArrayList<>();
+
+		MockAdapter(int childSessions) {
+			this.childSessions = childSessions;
+		}
+
+		@Override
+		public CompletableFuture<Capabilities> initialize(InitializeRequestArguments args) {
+			client.initialized();
+			return CompletableFuture.completedFuture(new Capabilities());
+		}
+
+		@Override
+		public CompletableFuture<Void> launch(Map<String, Object> args) {
+			for (int i = 0; i < childSessions; i++) {
+				final var arguments = new StartDebuggingRequestArguments();
+				arguments.setRequest(StartDebuggingRequestArgumentsType.LAUNCH);
+				arguments.setConfiguration(Map.of("type", "mock", "request", "launch", "program", "child" + i));
+				client.startDebugging(arguments);
+			}
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public CompletableFuture<ThreadsResponse> threads() {
+			final var request = new CompletableFuture<ThreadsResponse>();
+			threadsRequests.add(request);
+			return request;
+		}
+
+		@Override
+		public CompletableFuture<Void> disconnect(DisconnectArguments args) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		void respondThreads() {
+			final var thread = new Thread();
+			thread.setId(1);
+			thread.setName("main");
+			final var response = new ThreadsResponse();
+			response.setThreads(new Thread[] { thread });
+			threadsRequests.forEach(request -> request.complete(response));
+		}
+	}
+
+	/**
+	 * Root target remembering the executor its message loop runs on, which is
+	 * shared with the child targets.
+	 */
+	private static final class RootTarget extends DSPDebugTarget {
+		volatile ExecutorService listeners;
+
+		RootTarget(ILaunch launch, int port) {
+			super(launch, () -> new SocketTransportStreams(InetAddress.getLoopbackAddress().getHostAddress(), port),
+					Map.of("type", "mock", "request", "launch", "program", "root"));
+		}
+
+		@Override
+		protected Launcher<? extends IDebugProtocolServer> createLauncher(UnaryOperator<MessageConsumer> wrapper,
+				InputStream in, OutputStream out, ExecutorService threadPool) {
+			listeners = threadPool;
+			return super.createLauncher(wrapper, in, out, threadPool);
+		}
+	}
+
+	private final List<MockAdapter> adapters = new CopyOnWriteArrayList<>();
+	/** the number of child sessions started by the first adapter */
+	private volatile int childSessions;
+	private ServerSocket serverSocket;
+
+	@BeforeEach
+	void startAdapters() throws IOException {
+		serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		java.lang.Thread.ofVirtual().start(() -> {
+			while (!serverSocket.isClosed()) {
+				try {
+					final Socket socket = serverSocket.accept();
+					final var adapter = new MockAdapter(adapters.isEmpty() ? childSessions : 0);
+					final Launcher<IDebugProtocolClient> launcher = DSPLauncher.createServerLauncher(adapter,
+							socket.getInputStream(), socket.getOutputStream());
+					adapter.client = launcher.getRemoteProxy();
+					adapters.add(adapter);
+					launcher.startListening();
+				} catch (IOException ex) {
+					// server socket closed
+				}
+			}
+		});
+	}
+
+	@AfterEach
+	void stopAdapters() throws IOException {
+		serverSocket.close();
+	}
+
+	private static ILaunch newLaunch() throws Exception {
+		ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager()
+				.getLaunchConfigurationType("org.eclipse.lsp4e.debug.launchType");
+		return new Launch(type.newInstance(null, "DebugChildSessionsTest-" + System.currentTimeMillis()),
+				ILaunchManager.RUN_MODE, null);
+	}
+
+	@Test
+	void testPendingRequestsAreCounted() throws Exception {
+		final var target = new RootTarget(newLaunch(), serverSocket.getLocalPort());
+		target.initialize(new NullProgressMonitor());
+		try {
+			final MockAdapter root = adapters.get(0);
+			TestUtils.waitForAndAssertCondition(5_000, () -> root.threadsRequests.size() == 1);
+			assertEquals(1, target.getPendingRequestCount(), "the threads request is not answered yet");
+
+			root.respondThreads();
+			TestUtils.waitForAndAssertCondition(5_000, () -> target.getPendingRequestCount() == 0);
+			assertTrue(target.getMaxPendingRequestCount() >= 1);
+		} finally {
+			target.disconnect();
+		}
+	}
+
+	@Test
+	void testChildSessionsShareExecutorsUntilAllTerminated() throws Exception {
+		childSessions = CHILD_SESSIONS;
+		final ILaunch launch = newLaunch();
+		final var target = new RootTarget(launch, serverSocket.getLocalPort());
+		target.initialize(new NullProgressMonitor());
+
+		// all child sessions get connected and initialized
+		TestUtils.waitForAndAssertCondition(10_000, () -> adapters.size() == 1 + CHILD_SESSIONS
+				&& adapters.stream().allMatch(adapter -> !adapter.threadsRequests.isEmpty()));
+		assertEquals(CHILD_SESSIONS, launch.getDebugTargets().length);
+		adapters.forEach(MockAdapter::respondThreads);
+		for (final var child : launch.getDebugTargets()) {
+			TestUtils.waitForAndAssertCondition(5_000, () -> child.getThreads().length == 1);
+		}
+		assertFalse(target.listeners.isShutdown());
+
+		// terminating the root target terminates the child sessions
+		target.disconnect();
+		TestUtils.waitForAndAssertCondition(5_000, () -> target.isTerminated()
+				&& List.of(launch.getDebugTargets()).stream().allMatch(child -> child.isTerminated()));
+		TestUtils.waitForAndAssertCondition(5_000, () -> target.listeners.isShutdown());
+	}
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.debug;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.function.UnaryOperator;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.debug.core.Launch;
+import org.eclipse.lsp4e.debug.debugmodel.DSPDebugTarget;
+import org.eclipse.lsp4e.debug.debugmodel.TransportStreams;
+import org.eclipse.lsp4e.test.utils.AbstractTestWithProject;
+import org.eclipse.lsp4e.test.utils.TestUtils;
+import org.eclipse.lsp4j.debug.Capabilities;
+import org.eclipse.lsp4j.debug.DisconnectArguments;
+import org.eclipse.lsp4j.debug.InitializeRequestArguments;
+import org.eclipse.lsp4j.debug.StoppedEventArguments;
+import org.eclipse.lsp4j.debug.Thread;
+import org.eclipse.lsp4j.debug.ThreadsResponse;
+import org.eclipse.lsp4j.debug.services.IDebugProtocolClient;
+import org.eclipse.lsp4j.debug.services.IDebugProtocolServer;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.RemoteEndpoint;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the <code>threads</code> requests triggered by DAP events are
+ * coalesced by {@link DSPDebugTarget}.
+ */
+class DebugThreadsRefreshTest extends AbstractTestWithProject {
+
+	/**
+	 * Mock DAP server answering the <code>threads</code> requests only when the
+	 * test completes them.
+	 */
+	private static final class MockDebugServer implements IDebugProtocolServer {
+		IDebugProtocolClient client;
+		final List<CompletableFuture<ThreadsResponse>> threadsRequests = new CopyOnWriteArrayList<>();
+
+		@Override
+		public CompletableFuture<Capabilities> initialize(InitializeRequestArguments args) {
+			client.initialized();
+			return CompletableFuture.completedFuture(new Capabilities());
+		}
+
+		@Override
+		public CompletableFuture<Void> launch(Map<String, Object> args) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public CompletableFuture<ThreadsResponse> threads() {
+			final var request = new CompletableFuture<ThreadsResponse>();
+			threadsRequests.add(request);
+			return request;
+		}
+
+		@Override
+		public CompletableFuture<Void> disconnect(DisconnectArguments args) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		void respond(int index) {
+			final var thread = new Thread();
+			thread.setId(1);
+			thread.setName("main");
+			final var response = new ThreadsResponse();
+			response.setThreads(new Thread[] { thread });
+			threadsRequests.get(index).complete(response);
+		}
+	}
+
+	private static final class TestDebugTarget extends DSPDebugTarget {
+		private final MockDebugServer server;
+
+		TestDebugTarget(ILaunch launch, MockDebugServer server) {
+			super(launch, () -> new TransportStreams.DefaultTransportStreams(InputStream.nullInputStream(),
+					OutputStream.nullOutputStream()), Map.of("type", "mock", "request", "launch", "program", "dummy"));
+			this.server = server;
+		}
+
+		@Override
+		protected Launcher<? extends IDebugProtocolServer> createLauncher(UnaryOperator<MessageConsumer> wrapper,
+				InputStream in, OutputStream out, ExecutorService threadPool) {
+			server.client = this;
+			return new Launcher<>() {
+				@Override
+				public RemoteEndpoint getRemoteEndpoint() {
+					return null;
+				}
+
+				@Override
+				public IDebugProtocolServer getRemoteProxy() {
+					return server;
+				}
+
+				@Override
+				public CompletableFuture<Void> startListening() {
+					return new CompletableFuture<>();
+				}
+			};
+		}
+	}
+
+	private static ILaunch newLaunch() throws Exception {
+		ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager()
+				.getLaunchConfigurationType("org.eclipse.lsp4e.debug.launchType");
+		return new Launch(type.newInstance(null, "DebugThreadsRefreshTest-" + System.currentTimeMillis()),
+				ILaunchManager.RUN_MODE, null);
+	}
+
+	@Test
+	void testBurstOfStoppedEventsSendsOneTrailingRefresh() throws Exception {
+		final var server = new MockDebugServer();
+		final var target = new TestDebugTarget(newLaunch(), server);
+		target.initialize(new NullProgressMonitor());
+		try {
+			// the threads are queried once the configuration is done
+			TestUtils.waitForAndAssertCondition(5_000, () -> server.threadsRequests.size() == 1);
+
+			for (int i = 0; i < 20; i++) {
+				final var stopped = new StoppedEventArguments();
+				stopped.setReason("step");
+				stopped.setThreadId(1);
+				target.stopped(stopped);
+			}
+			assertEquals(1, server.threadsRequests.size(), "no request must be sent while one is in flight");
+
+			server.respond(0);
+			TestUtils.waitForAndAssertCondition(5_000, () -> server.threadsRequests.size() == 2);
+			server.respond(1);
+
+			TestUtils.waitForAndAssertCondition(5_000,
+					() -> target.getThreads().length == 1 && target.getThreads()[0].isSuspended());
+			assertEquals(2, server.threadsRequests.size(), "the burst must be coalesced into one trailing request");
+		} finally {
+			target.disconnect();
+		}
+	}
+}
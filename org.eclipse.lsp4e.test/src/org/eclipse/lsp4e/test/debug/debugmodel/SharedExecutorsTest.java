@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.debug.debugmodel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import org.eclipse.lsp4e.debug.debugmodel.SharedExecutors;
+import org.junit.jupiter.api.Test;
+
+public class SharedExecutorsTest {
+
+	@Test
+	public void testSerialExecutorsKeepTheOrderOfEachTarget() throws Exception {
+		final int targets = 20;
+		final int tasks = 500;
+		final var executors = new SharedExecutors().acquire();
+		try {
+			final var done = new CountDownLatch(targets * tasks);
+			final var handled = new ArrayList<List<Integer>>();
+			final var producers = new ArrayList<Thread>();
+			for (int target = 0; target < targets; target++) {
+				final List<Integer> events = Collections.synchronizedList(new ArrayList<>());
+				handled.add(events);
+				final Executor serial = executors.newSerialExecutor();
+				// each target receives its events on its own thread, like the message loops
+				producers.add(Thread.ofVirtual().start(() -> {
+					for (int i = 0; i < tasks; i++) {
+						final int event = i;
+						serial.execute(() -> {
+							events.add(event);
+							done.countDown();
+						});
+					}
+				}));
+			}
+			for (final Thread producer : producers) {
+				producer.join();
+			}
+			assertTrue(done.await(10, TimeUnit.SECONDS));
+
+			final List<Integer> expected = IntStream.range(0, tasks).boxed().toList();
+			for (int target = 0; target < targets; target++) {
+				assertEquals(expected, handled.get(target), "events of target " + target);
+			}
+		} finally {
+			executors.release();
+		}
+	}
+
+	@Test
+	public void testExecutorsAreShutDownAfterLastRelease() throws Exception {
+		final var executors = new SharedExecutors();
+		executors.acquire();
+		executors.acquire();
+		final Executor serial = executors.newSerialExecutor();
+
+		executors.release();
+		assertFalse(executors.listeners().isShutdown(), "still used by the other target");
+		final var ran = new CountDownLatch(1);
+		serial.execute(ran::countDown);
+		assertTrue(ran.await(5, TimeUnit.SECONDS));
+
+		executors.release();
+		assertTrue(executors.listeners().isShutdown());
+		assertTrue(executors.listeners().awaitTermination(5, TimeUnit.SECONDS));
+
+		// events arriving after the last target terminated are dropped
+		final var dropped = new AtomicBoolean();
+		serial.execute(() -> dropped.set(true));
+		Thread.sleep(100);
+		assertFalse(dropped.get());
+	}
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.debug.debugmodel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import org.eclipse.lsp4e.debug.debugmodel.DSPThread;
+import org.eclipse.lsp4e.debug.debugmodel.ThreadTable;
+import org.junit.jupiter.api.Test;
+
+public class ThreadTableTest {
+
+	private static DSPThread thread(int id) {
+		return new DSPThread(null, id);
+	}
+
+	private static int[] ids(ThreadTable table) {
+		return Arrays.stream(table.values()).mapToInt(DSPThread::getId).toArray();
+	}
+
+	@Test
+	public void testPutGetRemove() {
+		final var table = new ThreadTable();
+		final DSPThread one = thread(1);
+		assertTrue(table.putIfAbsent(1, one));
+		assertFalse(table.putIfAbsent(1, thread(1)));
+		assertSame(one, table.get(1));
+		assertSame(one, table.getOrCreate(1, null));
+		assertNull(table.get(2));
+
+		assertSame(one, table.remove(1));
+		assertNull(table.remove(1));
+		assertNull(table.get(1));
+		assertEquals(0, table.size());
+	}
+
+	@Test
+	public void testResizeKeepsAllThreads() {
+		final var table = new ThreadTable();
+		for (int id = 100; id > 0; id--) {
+			table.getOrCreate(id * 16, null);
+		}
+		assertEquals(100, table.size());
+		for (int id = 1; id <= 100; id++) {
+			assertNotNull(table.get(id * 16), "thread " + id * 16);
+		}
+		assertArrayEquals(IntStream.rangeClosed(1, 100).map(id -> id * 16).toArray(), ids(table));
+	}
+
+	@Test
+	public void testRemoveShiftsCollidingThreadsBack() {
+		// compared against a reference map, removing threads in the middle of probe
+		// sequences must keep all the other threads reachable
+		final var random = new Random(42);
+		final var table = new ThreadTable();
+		final var expected = new TreeMap<Integer, DSPThread>();
+		for (int i = 0; i < 20_000; i++) {
+			final int id = random.nextInt(64);
+			if (random.nextBoolean()) {
+				final DSPThread thread = thread(id);
+				assertEquals(expected.putIfAbsent(id, thread) == null, table.putIfAbsent(id, thread));
+			} else {
+				assertSame(expected.remove(id), table.remove(id));
+			}
+			if (i % 100 == 0) {
+				for (int other = 0; other < 64; other++) {
+					assertSame(expected.get(other), table.get(other), "thread " + other);
+				}
+			}
+		}
+		assertEquals(expected.size(), table.size());
+		assertArrayEquals(expected.keySet().stream().mapToInt(Integer::intValue).toArray(), ids(table));
+	}
+
+	@Test
+	public void testMinValueIdIsNotMistakenForFreeSlot() {
+		final var table = new ThreadTable();
+		assertNull(table.get(Integer.MIN_VALUE));
+		final DSPThread min = table.getOrCreate(Integer.MIN_VALUE, null);
+		table.getOrCreate(0, null);
+		table.getOrCreate(Integer.MAX_VALUE, null);
+		assertSame(min, table.get(Integer.MIN_VALUE));
+		assertEquals(3, table.size());
+		assertArrayEquals(new int[] { Integer.MIN_VALUE, 0, Integer.MAX_VALUE }, ids(table));
+
+		// resizing must keep it
+		for (int id = 1; id <= 32; id++) {
+			table.getOrCreate(id, null);
+		}
+		assertSame(min, table.get(Integer.MIN_VALUE));
+
+		assertSame(min, table.remove(Integer.MIN_VALUE));
+		assertNull(table.get(Integer.MIN_VALUE));
+		assertEquals(34, table.size());
+		assertEquals(0, ids(table)[0]);
+	}
+
+	@Test
+	public void testRetainAll() {
+		final var table = new ThreadTable();
+		for (int id = 0; id < 10; id++) {
+			table.getOrCreate(id, null);
+		}
+		final DSPThread[] before = table.values();
+		assertSame(before, table.values(), "values are cached until the table is modified");
+
+		final int[] kept = { 9, 42, 3, 0, 6 };
+		assertTrue(table.retainAll(kept));
+		assertArrayEquals(new int[] { 0, 3, 6, 9 }, ids(table));
+		assertArrayEquals(new int[] { 9, 42, 3, 0, 6 }, kept, "the given ids must not be modified");
+		assertFalse(table.retainAll(new int[] { 0, 3, 6, 9 }));
+		assertNotSame(before, table.values());
+		assertEquals(10, before.length, "returned values must not be modified by later changes");
+	}
+}
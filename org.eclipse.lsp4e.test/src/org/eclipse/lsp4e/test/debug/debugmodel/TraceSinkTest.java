@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.debug.debugmodel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+
+import org.eclipse.lsp4e.debug.debugmodel.TraceSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TraceSinkTest {
+
+	@TempDir
+	Path tempDir;
+
+	private static byte[] frame(String json) {
+		byte[] content = json.getBytes(StandardCharsets.UTF_8);
+		byte[] header = ("Content-Length: " + content.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+		byte[] result = new byte[header.length + content.length];
+		System.arraycopy(header, 0, result, 0, header.length);
+		System.arraycopy(content, 0, result, header.length, content.length);
+		return result;
+	}
+
+	@Test
+	public void testMessagesAreFramedAndRoundTripsRecorded() throws IOException {
+		Path file = tempDir.resolve("trace.log");
+		var sink = new TraceSink(file, Long.MAX_VALUE, 1);
+		OutputStream outgoing = sink.outgoing();
+		OutputStream incoming = sink.incoming();
+
+		outgoing.write(frame("{\"seq\":1,\"type\":\"request\",\"command\":\"threads\"}"));
+		byte[] response = frame("{\"seq\":7,\"type\":\"response\",\"request_seq\":1,\"command\":\"threads\"}");
+		// split the response to verify messages spanning several reads are framed
+		incoming.write(response, 0, 10);
+		incoming.write(response, 10, response.length - 10);
+		sink.close();
+
+		List<String> lines = Files.readAllLines(file);
+		assertTrue(lines.get(0).contains("-> {\"seq\":1,\"type\":\"request\""), lines.get(0));
+		assertTrue(lines.get(1).contains("<- {\"seq\":7,\"type\":\"response\""), lines.get(1));
+		assertTrue(lines.get(1).contains("(threads took "), lines.get(1));
+
+		Map<String, LongSummaryStatistics> statistics = sink.getRoundTripStatistics();
+		assertEquals(1, statistics.get("threads").getCount());
+	}
+
+	@Test
+	public void testTraceFileIsRotated() throws IOException {
+		Path file = tempDir.resolve("trace.log");
+		var sink = new TraceSink(file, 10, 3);
+		OutputStream outgoing = sink.outgoing();
+		for (int i = 0; i < 5; i++) {
+			outgoing.write(frame("{\"seq\":" + i + ",\"type\":\"event\"}"));
+		}
+		sink.close();
+
+		assertTrue(Files.exists(tempDir.resolve("trace.log.1")));
+		assertTrue(Files.exists(tempDir.resolve("trace.log.2")));
+		assertFalse(Files.exists(tempDir.resolve("trace.log.3")));
+	}
+
+	@Test
+	public void testMessagesAreTimestampedWhenCaptured() throws Exception {
+		Path file = tempDir.resolve("trace.log");
+		var sink = new TraceSink(file, Long.MAX_VALUE, 1);
+		OutputStream outgoing = sink.outgoing();
+		byte[] request = frame("{\"seq\":1,\"type\":\"request\",\"command\":\"threads\"}");
+
+		outgoing.write(request, 0, 10);
+		Thread.sleep(50);
+		Instant afterFirstBytes = Instant.now();
+		Thread.sleep(50);
+		outgoing.write(request, 10, request.length - 10);
+		sink.close();
+
+		String line = Files.readAllLines(file).get(0);
+		Instant timestamp = Instant.parse(line.substring(0, line.indexOf(' ')));
+		assertTrue(timestamp.isBefore(afterFirstBytes), line);
+	}
+
+	@Test
+	public void testRotationCountsEncodedBytes() throws IOException {
+		Path file = tempDir.resolve("trace.log");
+		String text = "\u00e9".repeat(100);
+		// 100 characters but 200 bytes in UTF-8
+		var sink = new TraceSink(file, 150, 2);
+		sink.outgoing().write(frame("\"" + text + "\""));
+		sink.close();
+
+		assertTrue(Files.exists(tempDir.resolve("trace.log.1")));
+		assertTrue(Files.readString(tempDir.resolve("trace.log.1"), StandardCharsets.UTF_8).contains(text));
+	}
+
+	@Test
+	public void testSessionsShareTheTraceFile() throws IOException {
+		Path file = tempDir.resolve("trace.log");
+		var first = new TraceSink(file, Long.MAX_VALUE, 1);
+		var second = new TraceSink(file, Long.MAX_VALUE, 1);
+		first.outgoing().write(frame("{\"seq\":1,\"type\":\"event\"}"));
+		second.outgoing().write(frame("{\"seq\":2,\"type\":\"event\"}"));
+		first.close();
+		second.outgoing().write(frame("{\"seq\":3,\"type\":\"event\"}"));
+		second.close();
+		// a later session appends to the trace of the earlier ones
+		var third = new TraceSink(file, Long.MAX_VALUE, 1);
+		third.outgoing().write(frame("{\"seq\":4,\"type\":\"event\"}"));
+		third.close();
+
+		String trace = Files.readString(file);
+		for (int seq = 1; seq <= 4; seq++) {
+			assertTrue(trace.contains("{\"seq\":" + seq + ","), trace);
+		}
+		assertEquals(4, Files.readAllLines(file).size(), trace);
+	}
+}
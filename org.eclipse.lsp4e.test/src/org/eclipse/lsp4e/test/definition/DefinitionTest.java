@@ -12,6 +12,7 @@
 package org.eclipse.lsp4e.test.definition;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.file.Files;
@@ -21,6 +22,7 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.filesystem.EFS;
@@ -161,4 +163,45 @@ public void testReturnsPromptly(MockLanguageServerFactory factory) throws Except
 		duration = System.currentTimeMillis() - duration;
 		assertTrue(duration < 500);
 	}
+
+	@Test
+	public void testPrefetchedDefinitionIsUsed(MockLanguageServerFactory factory) throws Exception {
+		factory.withConfiguration((idx, server)-> {
+			final var location = new Location("file://prefetched", new Range(new Position(0, 0), new Position(0, 10)));
+			server.setDefinition(List.of(location));
+		});
+
+		IFile file = TestUtils.createUniqueTestFile(project, "Example Text");
+		ITextViewer viewer = TestUtils.openTextViewer(file);
+
+		// caret in the middle of the word, the hyperlink is detected at its start
+		OpenDeclarationHyperlinkDetector.prefetchDefinitions(viewer.getDocument(), 3).get(5, TimeUnit.SECONDS);
+		factory.getServer().setDefinition(
+				List.of(new Location("file://changed", new Range(new Position(0, 0), new Position(0, 10)))));
+
+		IHyperlink[] hyperlinks = hyperlinkDetector.detectHyperlinks(viewer, new Region(0, 0), false);
+		assertEquals(1, hyperlinks.length);
+		assertEquals("file://prefetched", ((LSBasedHyperlink) hyperlinks[0]).getLocation().getLeft().getUri());
+	}
+
+	@Test
+	public void testPrefetchedDefinitionDoesNotHideOtherLocations(MockLanguageServerFactory factory) throws Exception {
+		factory.withConfiguration((idx, server)-> {
+			final var range = new Range(new Position(0, 0), new Position(0, 10));
+			server.setDefinition(List.of(new Location("file://prefetched", range)));
+			server.setTypeDefinitions(List.of(new LocationLink("file://typeDefinition", range, range)));
+		});
+
+		IFile file = TestUtils.createUniqueTestFile(project, "Example Text");
+		ITextViewer viewer = TestUtils.openTextViewer(file);
+
+		OpenDeclarationHyperlinkDetector.prefetchDefinitions(viewer.getDocument(), 0).get(5, TimeUnit.SECONDS);
+		// the type definition is still in flight when the hyperlinks are detected
+		factory.getServer().setTimeToProceedQueries(1_000);
+
+		IHyperlink[] hyperlinks = hyperlinkDetector.detectHyperlinks(viewer, new Region(0, 0), true);
+		assertEquals(2, hyperlinks.length);
+		assertEquals("file://prefetched", ((LSBasedHyperlink) hyperlinks[0]).getLocation().getLeft().getUri());
+		assertFalse(hyperlinks[1] instanceof LSBasedHyperlink, "the other locations are resolved when opened");
+	}
 }
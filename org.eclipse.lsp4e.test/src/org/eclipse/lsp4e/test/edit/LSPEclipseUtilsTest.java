@@ -31,7 +31,9 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
@@ -43,6 +45,7 @@
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -50,6 +53,7 @@
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.lsp4e.LSPEclipseUtils;
+import org.eclipse.lsp4e.refactoring.LSPTextChange;
 import org.eclipse.lsp4e.test.utils.AbstractTestWithProject;
 import org.eclipse.lsp4e.test.utils.NoErrorLoggedRule;
 import org.eclipse.lsp4e.test.utils.TestUtils;
@@ -69,6 +73,9 @@
 import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.WorkspaceFolder;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+import org.eclipse.ltk.core.refactoring.PerformChangeOperation;
 import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.ui.IEditorPart;
@@ -139,6 +146,44 @@ public void testWorkspaceEditMultipleChanges() throws Exception {
 				editor.getDocumentProvider().getDocument(editor.getEditorInput()).get());
 	}
 
+	@Test
+	public void testWorkspaceEditGroupsTextEditsPerFile() throws Exception {
+		final var content = new StringBuilder();
+		for (int line = 0; line < 10; line++) {
+			content.append("int oldName = oldName + ").append(line).append(";\n");
+		}
+		final var files = new ArrayList<IFile>();
+		final var changes = new LinkedHashMap<String, List<TextEdit>>();
+		for (int i = 0; i < 5; i++) {
+			final IFile file = TestUtils.createUniqueTestFile(project, content.toString());
+			files.add(file);
+			final var edits = new ArrayList<TextEdit>();
+			// sent from the bottom to the top, with insertions at the same position
+			for (int line = 9; line >= 0; line--) {
+				edits.add(new TextEdit(new Range(new Position(line, 14), new Position(line, 21)), "newName"));
+				edits.add(new TextEdit(new Range(new Position(line, 4), new Position(line, 11)), "newName"));
+				edits.add(new TextEdit(new Range(new Position(line, 0), new Position(line, 0)), "final "));
+				edits.add(new TextEdit(new Range(new Position(line, 0), new Position(line, 0)), "static "));
+			}
+			changes.put(LSPEclipseUtils.toUri(file).toString(), edits);
+		}
+
+		final CompositeChange change = LSPEclipseUtils.toCompositeChange(new WorkspaceEdit(changes), "rename");
+		// one change per file, listing each text edit in the preview
+		final Change[] fileChanges = change.getChildren();
+		assertEquals(files.size(), fileChanges.length);
+		for (int i = 0; i < fileChanges.length; i++) {
+			assertEquals(files.get(i), fileChanges[i].getModifiedElement());
+			assertEquals(40, ((LSPTextChange) fileChanges[i]).getTextEditChangeGroups().length);
+		}
+
+		ResourcesPlugin.getWorkspace().run(new PerformChangeOperation(change), new NullProgressMonitor());
+		final String expected = content.toString().replace("int oldName = oldName", "final static int newName = newName");
+		for (final IFile file : files) {
+			assertEquals(expected, new String(file.getContents().readAllBytes(), file.getCharset()));
+		}
+	}
+
 	@Test
 	public void testWorkspaceEdit_CreateAndPopulateFile() throws Exception {
 		IFile file = project.getFile("test-file.test");
@@ -157,6 +202,64 @@ public void testWorkspaceEdit_CreateAndPopulateFile() throws Exception {
 		assertEquals("abcHere\nabcHere2", Files.readString(file.getLocation().toPath()));
 	}
 
+	@Test
+	public void testWorkspaceEdit_CancelledRestoresFiles() throws Exception {
+		IFile first = TestUtils.createUniqueTestFile(project, "first");
+		IFile second = TestUtils.createUniqueTestFile(project, "second");
+		final var changes = new LinkedHashMap<String, List<TextEdit>>();
+		changes.put(LSPEclipseUtils.toUri(first).toString(),
+				List.of(new TextEdit(new Range(new Position(0, 0), new Position(0, 5)), "changed")));
+		changes.put(LSPEclipseUtils.toUri(second).toString(),
+				List.of(new TextEdit(new Range(new Position(0, 0), new Position(0, 6)), "changed")));
+		final var monitor = new NullProgressMonitor() {
+			private int files;
+
+			@Override
+			public void subTask(String name) {
+				// cancel before the second file is changed
+				if (++files == 2) {
+					setCanceled(true);
+				}
+			}
+		};
+
+		assertFalse(LSPEclipseUtils.applyWorkspaceEdit(new WorkspaceEdit(changes), null, monitor));
+		assertEquals(2, monitor.files);
+		assertEquals("first", LSPEclipseUtils.getDocument(first).get());
+		assertEquals("second", LSPEclipseUtils.getDocument(second).get());
+	}
+
+	@Test
+	public void testWorkspaceEdit_CancelledRestoresOpenEditors() throws Exception {
+		IFile first = TestUtils.createUniqueTestFile(project, "first");
+		IFile second = TestUtils.createUniqueTestFile(project, "second");
+		final var firstEditor = (AbstractTextEditor) TestUtils.openEditor(first);
+		final var secondEditor = (AbstractTextEditor) TestUtils.openEditor(second);
+		final var changes = new LinkedHashMap<String, List<TextEdit>>();
+		changes.put(LSPEclipseUtils.toUri(first).toString(),
+				List.of(new TextEdit(new Range(new Position(0, 0), new Position(0, 5)), "changed")));
+		changes.put(LSPEclipseUtils.toUri(second).toString(),
+				List.of(new TextEdit(new Range(new Position(0, 0), new Position(0, 6)), "changed")));
+		final var monitor = new NullProgressMonitor() {
+			private int files;
+
+			@Override
+			public void subTask(String name) {
+				// cancel before the second file is changed
+				if (++files == 2) {
+					setCanceled(true);
+				}
+			}
+		};
+
+		assertFalse(LSPEclipseUtils.applyWorkspaceEdit(new WorkspaceEdit(changes), null, monitor));
+		assertEquals(2, monitor.files);
+		assertEquals("first", firstEditor.getDocumentProvider().getDocument(firstEditor.getEditorInput()).get());
+		assertEquals("second", secondEditor.getDocumentProvider().getDocument(secondEditor.getEditorInput()).get());
+		assertEquals("first", new String(first.getContents().readAllBytes(), first.getCharset()));
+		assertEquals("second", new String(second.getContents().readAllBytes(), second.getCharset()));
+	}
+
 	@Test
 	public void testURIToResourceMapping() throws CoreException { // bug 508841
 		IFile file = project.getFile("res");
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.folding;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.lsp4e.internal.DocumentUtil;
+import org.eclipse.lsp4e.operations.folding.FoldingRangeCache;
+import org.eclipse.lsp4j.FoldingRange;
+import org.eclipse.lsp4j.FoldingRangeKind;
+import org.junit.jupiter.api.Test;
+
+public class FoldingRangeCacheTest {
+
+	private static final String CONTENT = """
+			import a
+			import b
+			class A {
+				void a() {
+				}
+			}
+			""";
+
+	private static FoldingRange range(int startLine, int endLine) {
+		return new FoldingRange(startLine, endLine);
+	}
+
+	private static List<String> lines(List<FoldingRange> ranges) {
+		return ranges.stream().map(range -> range.getStartLine() + "-" + range.getEndLine()).toList();
+	}
+
+	@Test
+	public void testRangesOfCurrentVersionAreCached() {
+		final var document = new Document(CONTENT);
+		final var cache = new FoldingRangeCache(document);
+		assertNull(cache.get());
+
+		final var ranges = List.of(range(0, 1), range(2, 5));
+		assertEquals(ranges, cache.put(DocumentUtil.getDocumentModificationStamp(document), ranges));
+		assertEquals(ranges, cache.get());
+
+		document.set(CONTENT + "\n");
+		assertNull(cache.get(), "ranges of a modified document must be requested again");
+		cache.dispose();
+	}
+
+	@Test
+	public void testStaleRangesAreShiftedByInsertedAndRemovedLines() throws Exception {
+		final var document = new Document(CONTENT);
+		final var cache = new FoldingRangeCache(document);
+		final long requested = DocumentUtil.getDocumentModificationStamp(document);
+		final var imports = range(0, 1);
+		imports.setKind(FoldingRangeKind.Imports);
+
+		// lines inserted before the class and inside the method, while the request is pending
+		document.replace(document.getLineOffset(2), 0, "\n\n");
+		document.replace(document.getLineOffset(6), 0, "\t\treturn;\n");
+		// the first import removed
+		document.replace(0, document.getLineOffset(1), "");
+
+		final List<FoldingRange> shifted = cache.put(requested, List.of(imports, range(2, 5), range(3, 4)));
+		assertNotNull(shifted);
+		// the imports range became a single line
+		assertEquals(List.of("3-7", "4-6"), lines(shifted));
+		assertEquals("class A {", document.get(document.getLineOffset(3), document.getLineLength(3)).trim());
+		assertEquals("}", document.get(document.getLineOffset(6), document.getLineLength(6)).trim());
+		cache.dispose();
+	}
+
+	@Test
+	public void testRangesOfUnknownVersionAreDropped() throws Exception {
+		final var document = new Document(CONTENT);
+		final var cache = new FoldingRangeCache(document);
+		document.replace(0, 0, "\n");
+		assertNull(cache.put(-42, List.of(range(0, 1))));
+		cache.dispose();
+	}
+}
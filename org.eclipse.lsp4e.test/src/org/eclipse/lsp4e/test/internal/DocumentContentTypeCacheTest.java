@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.ITextFileBufferManager;
+import org.eclipse.core.filebuffers.LocationKind;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.lsp4e.LSPEclipseUtils;
+import org.eclipse.lsp4e.internal.DocumentContentTypeCache;
+import org.eclipse.lsp4e.test.utils.AbstractTestWithProject;
+import org.eclipse.lsp4e.test.utils.TestUtils;
+import org.junit.jupiter.api.Test;
+
+public class DocumentContentTypeCacheTest extends AbstractTestWithProject {
+
+	@Test
+	public void testContentTypesAreDetectedAgainOnlyAfterModification() throws Exception {
+		final IDocument document = LSPEclipseUtils.getDocument(TestUtils.createUniqueTestFile(project, "content"));
+		final IContentType contentType = Platform.getContentTypeManager()
+				.getContentType("org.eclipse.lsp4e.test.content-type");
+		final var detections = new AtomicInteger();
+		final Function<IDocument, List<IContentType>> detector = doc -> {
+			detections.incrementAndGet();
+			return List.of(contentType);
+		};
+
+		assertEquals(List.of(contentType), DocumentContentTypeCache.get(document, detector));
+		assertEquals(List.of(contentType), DocumentContentTypeCache.get(document, detector));
+		assertEquals(1, detections.get());
+
+		document.replace(0, 0, "modified ");
+		DocumentContentTypeCache.get(document, detector);
+		assertEquals(2, detections.get());
+	}
+
+	@Test
+	public void testEntriesOfReleasedDocumentsAreCollected() throws Exception {
+		final ITextFileBufferManager bufferManager = FileBuffers.getTextFileBufferManager();
+		final int initialSize = DocumentContentTypeCache.size();
+		for (int i = 0; i < 10; i++) {
+			final IFile file = TestUtils.createUniqueTestFile(project, "content " + i);
+			bufferManager.connect(file.getFullPath(), LocationKind.IFILE, null);
+			try {
+				final IDocument document = bufferManager.getTextFileBuffer(file.getFullPath(), LocationKind.IFILE)
+						.getDocument();
+				DocumentContentTypeCache.get(document, doc -> List.of());
+			} finally {
+				bufferManager.disconnect(file.getFullPath(), LocationKind.IFILE, null);
+			}
+		}
+		assertTrue(DocumentContentTypeCache.size() >= initialSize + 10);
+
+		// the cached file buffers must not keep their documents reachable
+		TestUtils.waitForAndAssertCondition(5_000, () -> {
+			System.gc();
+			return DocumentContentTypeCache.size() <= initialSize;
+		});
+	}
+
+	@Test
+	public void testDocumentContentTypes() throws Exception {
+		final IDocument document = LSPEclipseUtils.getDocument(TestUtils.createUniqueTestFile(project, "content"));
+		final List<IContentType> contentTypes = LSPEclipseUtils.getDocumentContentTypes(document);
+		assertTrue(contentTypes.stream().anyMatch(type -> type.getId().equals("org.eclipse.lsp4e.test.content-type")));
+		// callers get their own modifiable copy
+		contentTypes.clear();
+		assertFalse(LSPEclipseUtils.getDocumentContentTypes(document).isEmpty());
+	}
+}
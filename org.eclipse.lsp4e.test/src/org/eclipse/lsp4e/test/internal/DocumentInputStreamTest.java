@@ -109,6 +109,17 @@ public void testReadIntoByteArray() throws IOException {
 		}
 	}
 
+	@Test
+	public void testMaxChars() throws IOException {
+		document.set(TEST_ASCII);
+		try (var is = new DocumentInputStream(document, 5)) {
+			assertEquals("Hello", new String(is.readAllBytes(), UTF_8));
+		}
+		try (var is = new DocumentInputStream(document, 1000)) {
+			assertEquals(TEST_ASCII, new String(is.readAllBytes(), UTF_8));
+		}
+	}
+
 	@Test
 	public void testSkip() throws IOException {
 		try (var is = new DocumentInputStream(document)) {
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler.Priority;
+import org.junit.jupiter.api.Test;
+
+public class DocumentRefreshSchedulerTest {
+
+	private final DocumentRefreshScheduler scheduler = new DocumentRefreshScheduler(Duration.ofMillis(50));
+	private final List<String> sent = new CopyOnWriteArrayList<>();
+
+	private CompletableFuture<String> schedule(IDocument document, String requester, Priority priority) {
+		return scheduler.schedule(document, null, requester, priority, () -> {
+			sent.add(requester);
+			return CompletableFuture.completedFuture(requester);
+		});
+	}
+
+	@Test
+	public void testRequestsAreSentInPriorityOrder() throws Exception {
+		final var document = new Document("content");
+		final var outline = schedule(document, "outline", Priority.OUTLINE);
+		final var minings = schedule(document, "minings", Priority.CODE_MININGS);
+		final var tokens = schedule(document, "tokens", Priority.TEXT_PRESENTATION);
+		final var folding = schedule(document, "folding", Priority.ANNOTATIONS);
+		assertTrue(sent.isEmpty(), "requests must be debounced");
+
+		CompletableFuture.allOf(outline, minings, tokens, folding).get(5, TimeUnit.SECONDS);
+		assertEquals(List.of("tokens", "folding", "minings", "outline"), sent);
+		assertEquals(0, scheduler.getPendingCount(document));
+	}
+
+	@Test
+	public void testNewVersionCancelsStaleRequests() throws Exception {
+		final var document = new Document("content");
+		final var tokens = schedule(document, "tokens", Priority.TEXT_PRESENTATION);
+		final var outline = schedule(document, "outline", Priority.OUTLINE);
+		document.replace(0, 0, "new ");
+		final var newTokens = schedule(document, "tokens", Priority.TEXT_PRESENTATION);
+
+		assertTrue(tokens.isCancelled());
+		assertTrue(outline.isCancelled());
+		assertEquals("tokens", newTokens.get(5, TimeUnit.SECONDS));
+		assertEquals(List.of("tokens"), sent);
+	}
+
+	@Test
+	public void testSameRequesterReplacesPreviousRequest() throws Exception {
+		final var document = new Document("content");
+		final var first = schedule(document, "minings", Priority.CODE_MININGS);
+		final var second = schedule(document, "minings", Priority.CODE_MININGS);
+
+		assertTrue(first.isCancelled());
+		assertEquals("minings", second.get(5, TimeUnit.SECONDS));
+		assertEquals(List.of("minings"), sent);
+		assertEquals(new DocumentRefreshScheduler.Statistics(1, 0, 1), scheduler.getStatistics());
+	}
+
+	@Test
+	public void testRequestsOfModifiedDocumentAreNotSent() throws Exception {
+		final var document = new Document("content");
+		final var tokens = schedule(document, "tokens", Priority.TEXT_PRESENTATION);
+		final var folding = schedule(document, "folding", Priority.ANNOTATIONS);
+		// e.g. a refactoring modifying a document whose reconciler did not run yet
+		document.replace(0, 0, "new ");
+
+		assertThrows(CancellationException.class, () -> tokens.get(5, TimeUnit.SECONDS));
+		assertThrows(CancellationException.class, () -> folding.get(5, TimeUnit.SECONDS));
+		assertTrue(sent.isEmpty());
+		assertEquals(new DocumentRefreshScheduler.Statistics(0, 0, 2), scheduler.getStatistics());
+	}
+
+	@Test
+	public void testDocumentsAreIndependent() throws Exception {
+		final var document1 = new Document("one");
+		final var document2 = new Document("two");
+		final var first = schedule(document1, "tokens", Priority.TEXT_PRESENTATION);
+		final var second = schedule(document2, "tokens", Priority.TEXT_PRESENTATION);
+
+		assertEquals("tokens", first.get(5, TimeUnit.SECONDS));
+		assertEquals("tokens", second.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testCancellingResultCancelsRequest() throws Exception {
+		final var document = new Document("content");
+		final var request = new CompletableFuture<String>();
+		final var result = scheduler.schedule(document, null, "outline", Priority.OUTLINE, () -> request);
+		// wait for the request to be sent
+		for (int i = 0; i < 100 && scheduler.getPendingCount(document) > 0; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, scheduler.getPendingCount(document));
+		assertFalse(request.isDone());
+
+		result.cancel(true);
+		assertTrue(request.isCancelled());
+	}
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler.Priority;
+import org.eclipse.lsp4e.test.utils.AbstractTestWithProject;
+import org.eclipse.lsp4e.test.utils.TestUtils;
+import org.eclipse.lsp4e.ui.UI;
+import org.eclipse.ui.IEditorPart;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies that the refreshes of a background editor are only sent once it is
+ * visible again.
+ */
+public class DocumentRefreshSchedulerVisibilityTest extends AbstractTestWithProject {
+
+	private final DocumentRefreshScheduler scheduler = new DocumentRefreshScheduler(Duration.ofMillis(10));
+
+	@Test
+	public void testHiddenEditorGetsSingleCatchUpRefresh() throws Exception {
+		IFile file1 = TestUtils.createUniqueTestFile(project, "txt", "one");
+		IFile file2 = TestUtils.createUniqueTestFile(project, "txt", "two");
+		IEditorPart editor1 = TestUtils.openEditor(file1);
+		ITextViewer viewer1 = TestUtils.openTextViewer(file1);
+		TestUtils.openTextViewer(file2);
+		assertFalse(viewer1.getTextWidget().isVisible());
+
+		IDocument document = viewer1.getDocument();
+		var requests = new AtomicInteger();
+		CompletableFuture<Integer> result = null;
+		for (int i = 0; i < 5; i++) {
+			document.replace(0, 0, "x");
+			result = scheduler.schedule(document, viewer1.getTextWidget(), this, Priority.CODE_MININGS,
+					() -> CompletableFuture.completedFuture(requests.incrementAndGet()));
+			TestUtils.waitForCondition(50, () -> false);
+		}
+		assertEquals(0, requests.get(), "hidden editor must not be refreshed");
+		assertEquals(1, scheduler.getPendingCount(document));
+
+		UI.getActivePage().activate(editor1);
+		final var lastResult = result;
+		TestUtils.waitForAndAssertCondition(5_000, () -> lastResult.isDone());
+		assertEquals(1, lastResult.get());
+		assertEquals(1, requests.get());
+		var statistics = scheduler.getStatistics();
+		assertEquals(1, statistics.sent());
+		assertEquals(4, statistics.saved());
+		assertTrue(statistics.deferred() > 0);
+	}
+}
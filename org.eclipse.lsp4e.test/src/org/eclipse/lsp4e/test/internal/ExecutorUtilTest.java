@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4e.internal.ExecutorUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class ExecutorUtilTest {
+
+	@AfterEach
+	public void tearDown() {
+		System.clearProperty(ExecutorUtil.VIRTUAL_THREADS_PROPERTY);
+	}
+
+	private static Thread threadOf(ExecutorService executor) throws Exception {
+		try {
+			return executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void assertExecutorThreads(boolean virtual) throws Exception {
+		final Thread singleThread = threadOf(ExecutorUtil.newSingleThreadExecutor("LS-test#dispatcher"));
+		assertEquals(virtual, singleThread.isVirtual());
+		assertEquals("LS-test#dispatcher", singleThread.getName());
+
+		final Thread cachedThread = threadOf(ExecutorUtil.newCachedThreadPool("LS-test#listener-"));
+		assertEquals(virtual, cachedThread.isVirtual());
+		assertEquals("LS-test#listener-0", cachedThread.getName());
+
+		final Thread boundedThread = threadOf(ExecutorUtil.newBoundedThreadPool("LS-test#bounded-", 2, 10));
+		assertEquals(virtual, boundedThread.isVirtual());
+		assertTrue(boundedThread.getName().startsWith("LS-test#bounded-"), boundedThread.getName());
+
+		final Thread asyncThread = CompletableFuture.supplyAsync(Thread::currentThread, ExecutorUtil.asyncExecutor())
+				.get(5, TimeUnit.SECONDS);
+		assertEquals(virtual, asyncThread.isVirtual());
+	}
+
+	@Test
+	public void testPlatformThreadsByDefault() throws Exception {
+		assertFalse(ExecutorUtil.isVirtualThreadsEnabled());
+		assertExecutorThreads(false);
+	}
+
+	@Test
+	public void testVirtualThreadsWhenEnabled() throws Exception {
+		System.setProperty(ExecutorUtil.VIRTUAL_THREADS_PROPERTY, Boolean.TRUE.toString());
+		assertTrue(ExecutorUtil.isVirtualThreadsEnabled());
+		assertExecutorThreads(true);
+	}
+}
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.lsp4e.internal.LatencyTracker;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.jsonrpc.messages.CancelParams;
+import org.eclipse.lsp4j.jsonrpc.messages.NotificationMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.RequestMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseMessage;
+import org.eclipse.lsp4j.jsonrpc.services.JsonRequest;
+import org.junit.jupiter.api.Test;
+
+public class LatencyTrackerTest {
+
+	private static final String METHOD = LatencyTracker.SIGNATURE_HELP;
+	private static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(1000);
+
+	public interface EchoEndpoint {
+		@JsonRequest("test/echo")
+		CompletableFuture<String> echo(String text);
+	}
+
+	private static final EchoEndpoint ECHO = CompletableFuture::completedFuture;
+
+	private long now;
+	private final AtomicInteger ids = new AtomicInteger();
+	private final LatencyTracker tracker = new LatencyTracker(() -> now);
+
+	private String send(String method) {
+		final var request = new RequestMessage();
+		request.setId(ids.incrementAndGet());
+		request.setMethod(method);
+		tracker.messageSent(request);
+		return request.getId();
+	}
+
+	private void receive(String id) {
+		final var response = new ResponseMessage();
+		response.setId(id);
+		response.setResult("result");
+		tracker.messageReceived(response);
+	}
+
+	private void cancel(String id) {
+		final var notification = new NotificationMessage();
+		notification.setMethod("$/cancelRequest");
+		final var params = new CancelParams();
+		params.setId(id);
+		notification.setParams(params);
+		tracker.messageSent(notification);
+	}
+
+	private void answer(String method, long latencyMillis) {
+		final String id = send(method);
+		now += Duration.ofMillis(latencyMillis).toNanos();
+		receive(id);
+	}
+
+	@Test
+	public void testTimeoutAdaptsToLatencies() {
+		assertEquals(DEFAULT_TIMEOUT, tracker.getTimeout(METHOD, DEFAULT_TIMEOUT));
+		for (int i = 0; i < 20; i++) {
+			answer(METHOD, 100 + i);
+		}
+		final LatencyTracker.Statistics statistics = tracker.getStatistics(METHOD);
+		assertEquals(20, statistics.samples());
+		assertEquals(Duration.ofMillis(118), statistics.percentile());
+		// fast server: twice the 95th percentile, but not less than half the default
+		assertEquals(Duration.ofMillis(500), tracker.getTimeout(METHOD, DEFAULT_TIMEOUT));
+		assertEquals(Duration.ofMillis(236), tracker.getTimeout(METHOD, Duration.ofMillis(400)));
+
+		// slow server: not more than twice the default
+		for (int i = 0; i < 64; i++) {
+			answer(METHOD, 1200);
+		}
+		assertEquals(Duration.ofMillis(2000), tracker.getTimeout(METHOD, DEFAULT_TIMEOUT));
+	}
+
+	@Test
+	public void testRepeatedTimeoutsDegrade() {
+		tracker.getTimeout(METHOD, DEFAULT_TIMEOUT);
+		for (int i = 0; i < LatencyTracker.DEGRADED_THRESHOLD; i++) {
+			assertFalse(tracker.isDegraded(METHOD));
+			answer(METHOD, 1500);
+		}
+		assertTrue(tracker.isDegraded(METHOD));
+		assertEquals(LatencyTracker.DEGRADED_THRESHOLD, tracker.getStatistics(METHOD).timeouts());
+		assertFalse(tracker.isDegraded(LatencyTracker.WORKSPACE_SYMBOL));
+
+		// a response in time clears the degradation
+		answer(METHOD, 10);
+		assertFalse(tracker.isDegraded(METHOD));
+	}
+
+	@Test
+	public void testDegradationExpires() {
+		tracker.getTimeout(METHOD, DEFAULT_TIMEOUT);
+		for (int i = 0; i < LatencyTracker.DEGRADED_THRESHOLD; i++) {
+			answer(METHOD, 1500);
+		}
+		assertTrue(tracker.isDegraded(METHOD));
+		now += Duration.ofMinutes(1).toNanos();
+		assertFalse(tracker.isDegraded(METHOD));
+		// on probation: a single timeout degrades it again
+		answer(METHOD, 1500);
+		assertTrue(tracker.isDegraded(METHOD));
+	}
+
+	@Test
+	public void testPendingRequestsTimeOut() {
+		tracker.getTimeout(METHOD, DEFAULT_TIMEOUT);
+		// a server which stopped answering is noticed when new requests are sent
+		for (int i = 0; i < LatencyTracker.DEGRADED_THRESHOLD; i++) {
+			send(METHOD);
+			now += Duration.ofMillis(1500).toNanos();
+		}
+		assertFalse(tracker.isDegraded(METHOD));
+		send(METHOD);
+		assertTrue(tracker.isDegraded(METHOD));
+		assertEquals(0, tracker.getStatistics(METHOD).samples());
+	}
+
+	@Test
+	public void testCancelledRequestsAreNotTimeouts() {
+		tracker.getTimeout(METHOD, DEFAULT_TIMEOUT);
+		for (int i = 0; i < 10; i++) {
+			final String id = send(METHOD);
+			now += Duration.ofMillis(100).toNanos();
+			cancel(id);
+			// the server may still answer after the cancellation
+			now += Duration.ofMillis(2000).toNanos();
+			receive(id);
+		}
+		final LatencyTracker.Statistics statistics = tracker.getStatistics(METHOD);
+		assertEquals(0, statistics.samples());
+		assertEquals(0, statistics.timeouts());
+		assertFalse(tracker.isDegraded(METHOD));
+	}
+
+	@Test
+	public void testMethodsWithoutTimeoutNeverTimeOut() {
+		for (int i = 0; i < 10; i++) {
+			answer(LatencyTracker.WORKSPACE_SYMBOL, 60_000);
+		}
+		assertEquals(10, tracker.getStatistics(LatencyTracker.WORKSPACE_SYMBOL).samples());
+		assertFalse(tracker.isDegraded(LatencyTracker.WORKSPACE_SYMBOL));
+	}
+
+	@Test
+	public void testMessageDirectionWithValidatingLauncher() throws IOException {
+		final var clientIn = new PipedInputStream();
+		final var serverIn = new PipedInputStream();
+		final var clientOut = new PipedOutputStream(serverIn);
+		final var serverOut = new PipedOutputStream(clientIn);
+		final Launcher<EchoEndpoint> server = new Launcher.Builder<EchoEndpoint>() //
+				.setLocalService(ECHO) //
+				.setRemoteInterface(EchoEndpoint.class) //
+				.setInput(serverIn) //
+				.setOutput(serverOut) //
+				.create();
+		// the consumers handed to the wrapper are neither the stream consumer nor the remote endpoint
+		final Launcher<EchoEndpoint> client = new Launcher.Builder<EchoEndpoint>() //
+				.setLocalService(ECHO) //
+				.setRemoteInterface(EchoEndpoint.class) //
+				.setInput(clientIn) //
+				.setOutput(clientOut) //
+				.validateMessages(true) //
+				.traceMessages(new PrintWriter(new StringWriter())) //
+				.wrapMessages(tracker.createMessageWrapper()) //
+				.create();
+		server.startListening();
+		client.startListening();
+		try {
+			// the server requests use the same ids as the client ones, their responses must not be mixed up
+			for (int i = 0; i < 3; i++) {
+				assertEquals("server", server.getRemoteProxy().echo("server").join());
+				assertEquals("client", client.getRemoteProxy().echo("client").join());
+			}
+			assertEquals(3, tracker.getStatistics("test/echo").samples());
+		} finally {
+			clientOut.close();
+			serverOut.close();
+		}
+	}
+}
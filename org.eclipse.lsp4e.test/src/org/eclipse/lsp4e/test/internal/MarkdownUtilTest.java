@@ -11,17 +11,86 @@
  *******************************************************************************/
 package org.eclipse.lsp4e.test.internal;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
+import org.commonmark.Extension;
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
 import org.eclipse.lsp4e.internal.MarkdownUtil;
+import org.eclipse.lsp4e.internal.MarkdownUtil.IncrementalHtml;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 public class MarkdownUtilTest {
 
+	private static final List<Extension> EXTENSIONS = List.of(TablesExtension.create());
+
+	// hover contents as sent by language servers: a function signature with its
+	// documentation, a type with a table of its members, and the documentation of
+	// a whole module
+	private static final String FUNCTION_HOVER = """
+			```rust
+			core::option::Option
+
+			pub fn map<U, F>(self, f: F) -> Option<U>
+			where
+			    F: FnOnce(T) -> U,
+			```
+
+			---
+
+			Maps an `Option<T>` to `Option<U>` by applying a function to a contained value (if `Some`) or returns `None` (if `None`).
+
+			# Examples
+
+			Calculates the length of an `Option<String>` as an `Option<usize>`, consuming the original:
+
+			```rust
+			let maybe_some_string = Some(String::from("Hello, World!"));
+			// `Option::map` takes self *by value*, consuming `maybe_some_string`
+			let maybe_some_len = maybe_some_string.map(|s| s.len());
+			assert_eq!(maybe_some_len, Some(13));
+			```
+			""";
+
+	private static final String TYPE_HOVER = """
+			```typescript
+			interface RequestInit
+			```
+
+			| Property | Type | Description |
+			|----------|------|-------------|
+			| `body` | `BodyInit \\| null` | A BodyInit object or null to set request's body. |
+			| `cache` | `RequestCache` | A string indicating how the request will interact with the browser's cache. |
+			| `headers` | `HeadersInit` | A Headers object, an object literal, or an array of two-item arrays to set request's headers. |
+			| `method` | `string` | A string to set request's method. |
+			| `signal` | `AbortSignal \\| null` | An AbortSignal to set request's signal. |
+
+			*@see* [MDN Reference](https://developer.mozilla.org/docs/Web/API/RequestInit)
+			""";
+
+	private static String moduleHover() {
+		final var markdown = new StringBuilder("```python\n(module) collections\n```\n\n");
+		for (int i = 0; markdown.length() < 100_000; i++) {
+			markdown.append("## class `Container").append(i).append("`\n\n") //
+					.append("A container with **fast** appends and pops on either end, see [the tutorial](https://docs.python.org/3/tutorial/datastructures.html#section-")
+					.append(i).append(").\n\n") //
+					.append("- `append(x)`: add *x* to the right side\n") //
+					.append("- `appendleft(x)`: add *x* to the left side\n") //
+					.append("- `pop()`: remove and return an element from the right side\n\n") //
+					.append("```python\n>>> d = Container").append(i).append("('ghi')\n\n>>> d.append('j')\n") //
+					.append(">>> d\nContainer").append(i).append("(['g', 'h', 'i', 'j'])\n```\n\n");
+		}
+		return markdown.toString();
+	}
+
 	public static Stream<Arguments> renderToHtml() {
 		return Stream.of( //
 				Arguments.argumentSet("Simple", """
@@ -61,4 +130,58 @@ void renderToHtml(String markdown, String expectedHtml) throws Exception {
 		assertEquals(expectedHtml, MarkdownUtil.renderToHtml(markdown));
 	}
 
+	@Test
+	void renderedHtmlIsCached() {
+		final String markdown = "# Cached " + System.nanoTime();
+		final String html = MarkdownUtil.renderToHtml(markdown);
+		assertSame(html, MarkdownUtil.renderToHtml(new String(markdown)));
+	}
+
+	@Test
+	void smallContentIsRenderedAtOnce() {
+		final String markdown = "Small *content*";
+		final IncrementalHtml html = MarkdownUtil.renderToHtmlIncrementally(markdown);
+		assertTrue(html.complete().isDone());
+		assertEquals(MarkdownUtil.renderToHtml(markdown), html.firstScreen());
+	}
+
+	@Test
+	void largeContentIsRenderedIncrementally() throws Exception {
+		final var markdown = new StringBuilder();
+		for (int i = 0; markdown.length() <= MarkdownUtil.INCREMENTAL_THRESHOLD; i++) {
+			markdown.append("## Section ").append(i).append("\n\n```java\nvoid method").append(i)
+					.append("() {\n\n\treturn;\n}\n```\n\n");
+		}
+		final String content = markdown.toString() + System.nanoTime();
+		final IncrementalHtml html = MarkdownUtil.renderToHtmlIncrementally(content);
+		final String complete = html.complete().get(5, TimeUnit.SECONDS);
+
+		assertTrue(html.firstScreen().length() < complete.length());
+		assertTrue(complete.startsWith(html.firstScreen()), "code blocks must not be split");
+		assertEquals(MarkdownUtil.renderToHtml(content), complete);
+		// once rendered, the whole content is shown at once
+		assertSame(complete, MarkdownUtil.renderToHtmlIncrementally(content).firstScreen());
+	}
+
+	public static Stream<Arguments> hoverIsRenderedIncrementallyLikeAtOnce() {
+		return Stream.of( //
+				Arguments.argumentSet("Function", FUNCTION_HOVER), //
+				Arguments.argumentSet("Type", TYPE_HOVER), //
+				Arguments.argumentSet("Module", moduleHover()));
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void hoverIsRenderedIncrementallyLikeAtOnce(String markdown) throws Exception {
+		// a distinct content, as in a new hover, so it is not cached yet
+		final String content = markdown + "\n\n" + System.nanoTime();
+		final IncrementalHtml html = MarkdownUtil.renderToHtmlIncrementally(content);
+		final String complete = html.complete().get(5, TimeUnit.SECONDS);
+
+		assertEquals(content.length() <= MarkdownUtil.INCREMENTAL_THRESHOLD, html.firstScreen() == complete);
+		assertTrue(complete.startsWith(html.firstScreen()), "blocks must not be split");
+		assertSame(complete, MarkdownUtil.renderToHtml(content));
+		assertEquals(HtmlRenderer.builder().extensions(EXTENSIONS).build()
+				.render(Parser.builder().extensions(EXTENSIONS).build().parse(content)), complete);
+	}
 }
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.lsp4e.internal.RequestCache;
+import org.eclipse.lsp4j.HoverParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.junit.jupiter.api.Test;
+
+public class RequestCacheTest {
+
+	private static final String URI = "file:///test.lspt";
+
+	private final AtomicInteger version = new AtomicInteger(1);
+	private final AtomicInteger sentRequests = new AtomicInteger();
+	private final RequestCache cache = new RequestCache(uri -> version.get());
+
+	private static HoverParams params(int line) {
+		return new HoverParams(new TextDocumentIdentifier(URI), new Position(line, 0));
+	}
+
+	private CompletableFuture<String> send(CompletableFuture<String> response) {
+		sentRequests.incrementAndGet();
+		return response;
+	}
+
+	@Test
+	public void testInFlightRequestIsShared() throws Exception {
+		final var response = new CompletableFuture<String>();
+		final CompletableFuture<String> first = cache.get(RequestCache.HOVER, params(0), () -> send(response));
+		final CompletableFuture<String> second = cache.get(RequestCache.HOVER, params(0), () -> send(response));
+		assertNotSame(first, second);
+		assertEquals(1, sentRequests.get());
+
+		response.complete("hover");
+		assertEquals("hover", first.get());
+		assertEquals("hover", second.get());
+		assertEquals(new RequestCache.Statistics(1, 1), cache.getStatistics(RequestCache.HOVER));
+		assertEquals(0.5, cache.getStatistics(RequestCache.HOVER).hitRate());
+	}
+
+	@Test
+	public void testResultIsReusedUntilDocumentChanges() throws Exception {
+		cache.get(RequestCache.HOVER, params(0), () -> send(CompletableFuture.completedFuture("v1"))).get();
+		assertEquals("v1", cache.get(RequestCache.HOVER, params(0), () -> send(CompletableFuture.completedFuture("x"))).get());
+		assertEquals(1, sentRequests.get());
+
+		version.incrementAndGet();
+		assertEquals("v2", cache.get(RequestCache.HOVER, params(0), () -> send(CompletableFuture.completedFuture("v2"))).get());
+		assertEquals("v3", cache.get(RequestCache.HOVER, params(1), () -> send(CompletableFuture.completedFuture("v3"))).get());
+		assertEquals(3, sentRequests.get());
+	}
+
+	@Test
+	public void testResultIsNotReusedWithoutTimeToLive() throws Exception {
+		cache.setTimeToLive(RequestCache.HOVER, Duration.ZERO);
+		cache.get(RequestCache.HOVER, params(0), () -> send(CompletableFuture.completedFuture("a"))).get();
+		assertEquals("b", cache.get(RequestCache.HOVER, params(0), () -> send(CompletableFuture.completedFuture("b"))).get());
+		assertEquals(2, sentRequests.get());
+	}
+
+	@Test
+	public void testFailedRequestIsNotReused() throws Exception {
+		cache.get(RequestCache.HOVER, params(0),
+				() -> send(CompletableFuture.failedFuture(new IllegalStateException()))).exceptionally(t -> null);
+		assertEquals("ok", cache.get(RequestCache.HOVER, params(0), () -> send(CompletableFuture.completedFuture("ok"))).get());
+		assertEquals(2, sentRequests.get());
+	}
+
+	@Test
+	public void testRequestIsCancelledWhenAllCallersCancel() {
+		final var response = new CompletableFuture<String>();
+		final CompletableFuture<String> first = cache.get(RequestCache.HOVER, params(0), () -> send(response));
+		final CompletableFuture<String> second = cache.get(RequestCache.HOVER, params(0), () -> send(response));
+
+		first.cancel(true);
+		assertFalse(response.isCancelled());
+		assertFalse(second.isDone());
+
+		second.cancel(true);
+		assertTrue(response.isCancelled());
+
+		// a cancelled request is not shared with later callers
+		final var next = new CompletableFuture<String>();
+		assertFalse(cache.get(RequestCache.HOVER, params(0), () -> send(next)).isDone());
+		assertEquals(2, sentRequests.get());
+	}
+
+	@Test
+	public void testRequestIsSentOutsideOfTheCacheLock() throws Exception {
+		final var response = new CompletableFuture<String>();
+		final var nested = new CompletableFuture<CompletableFuture<String>>();
+		final CompletableFuture<String> first = cache.get(RequestCache.HOVER, params(0), () -> {
+			// e.g. a request sent by a listener of a request in flight for the same position
+			nested.complete(cache.get(RequestCache.HOVER, params(0), () -> send(new CompletableFuture<>())));
+			return send(response);
+		});
+		assertEquals(1, sentRequests.get(), "the nested call joins the published request");
+
+		response.complete("hover");
+		assertEquals("hover", first.get());
+		assertEquals("hover", nested.get().get());
+	}
+
+	@Test
+	public void testRequestFailingToBeSentIsNotReused() throws Exception {
+		final CompletableFuture<String> failed = cache.get(RequestCache.HOVER, params(0), () -> {
+			throw new IllegalStateException();
+		});
+		assertTrue(failed.isCompletedExceptionally());
+		assertEquals("ok", cache.get(RequestCache.HOVER, params(0), () -> send(CompletableFuture.completedFuture("ok"))).get());
+	}
+}
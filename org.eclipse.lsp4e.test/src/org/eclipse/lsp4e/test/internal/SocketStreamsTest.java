@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4e.internal.SocketStreams;
+import org.eclipse.lsp4e.internal.SocketStreams.Connection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SocketStreamsTest {
+
+	private static final int BUFFER_SIZE = 1024;
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Echoes everything received on the first accepted connection.
+	 */
+	private static CompletableFuture<Void> echo(ServerSocketChannel server) {
+		return CompletableFuture.runAsync(() -> {
+			try (server; Connection connection = SocketStreams.open(server.accept(), BUFFER_SIZE)) {
+				final InputStream in = connection.getInputStream();
+				final OutputStream out = connection.getOutputStream();
+				final var chunk = new byte[BUFFER_SIZE / 3];
+				int n;
+				while ((n = in.read(chunk)) >= 0) {
+					out.write(chunk, 0, n);
+					out.flush();
+				}
+			} catch (IOException ex) {
+				throw new RuntimeException(ex);
+			}
+		});
+	}
+
+	private static byte[] data() {
+		// larger than the buffers to exercise partial reads and writes
+		final var data = new byte[BUFFER_SIZE * 5 + 7];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		return data;
+	}
+
+	private static void assertRoundTrip(SocketAddress address) throws Exception {
+		final byte[] data = data();
+		try (Connection connection = SocketStreams.connect(address, BUFFER_SIZE, Duration.ofSeconds(5))) {
+			final OutputStream out = connection.getOutputStream();
+			final InputStream in = connection.getInputStream();
+			out.write(data[0]);
+			out.write(data, 1, data.length - 1);
+			out.flush();
+			assertArrayEquals(data, in.readNBytes(data.length));
+		}
+	}
+
+	/**
+	 * Writes from an interrupted thread, which must neither close the connection
+	 * nor clear the interrupt status.
+	 */
+	private static void assertInterruptedWriterKeepsConnection(SocketAddress address) throws Exception {
+		final byte[] data = data();
+		try (Connection connection = SocketStreams.connect(address, BUFFER_SIZE, Duration.ofSeconds(5))) {
+			final OutputStream out = connection.getOutputStream();
+			final InputStream in = connection.getInputStream();
+			final CompletableFuture<Boolean> writer = CompletableFuture.supplyAsync(() -> {
+				Thread.currentThread().interrupt();
+				try {
+					out.write(data);
+					out.flush();
+				} catch (IOException ex) {
+					throw new RuntimeException(ex);
+				}
+				return Thread.interrupted();
+			});
+			assertTrue(writer.get(5, TimeUnit.SECONDS), "interrupt status must be kept");
+			assertArrayEquals(data, in.readNBytes(data.length));
+
+			// the connection is still usable afterwards
+			assertRoundTrip(out, in, data);
+		}
+	}
+
+	private static void assertRoundTrip(OutputStream out, InputStream in, byte[] data) throws IOException {
+		out.write(data);
+		out.flush();
+		assertArrayEquals(data, in.readNBytes(data.length));
+	}
+
+	@Test
+	public void testTcpRoundTrip() throws Exception {
+		final var server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+		final CompletableFuture<Void> echo = echo(server);
+		assertRoundTrip(server.getLocalAddress());
+		echo.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	@DisabledOnOs(OS.WINDOWS)
+	public void testUnixDomainSocketRoundTrip() throws Exception {
+		final var address = UnixDomainSocketAddress.of(tempDir.resolve("test.sock"));
+		final var server = ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(address);
+		final CompletableFuture<Void> echo = echo(server);
+		assertRoundTrip(address);
+		echo.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testTcpConnectionSurvivesInterruptedWriter() throws Exception {
+		final var server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+		final CompletableFuture<Void> echo = echo(server);
+		assertInterruptedWriterKeepsConnection(server.getLocalAddress());
+		echo.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	@DisabledOnOs(OS.WINDOWS)
+	public void testUnixDomainSocketConnectionSurvivesInterruptedWriter() throws Exception {
+		final var address = UnixDomainSocketAddress.of(tempDir.resolve("test.sock"));
+		final var server = ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(address);
+		final CompletableFuture<Void> echo = echo(server);
+		assertInterruptedWriterKeepsConnection(address);
+		echo.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testConnectIsRetriedUntilServerListens() throws Exception {
+		final SocketAddress address;
+		try (var probe = ServerSocketChannel.open()) {
+			probe.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			address = probe.getLocalAddress();
+		}
+		final CompletableFuture<Void> echo = CompletableFuture.runAsync(() -> {
+			try {
+				Thread.sleep(300);
+				echo(ServerSocketChannel.open().bind(address)).get(5, TimeUnit.SECONDS);
+			} catch (Exception ex) {
+				throw new RuntimeException(ex);
+			}
+		});
+		assertRoundTrip(address);
+		echo.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testConnectFailsAfterTimeout() throws Exception {
+		final SocketAddress address;
+		try (var probe = ServerSocketChannel.open()) {
+			probe.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			address = probe.getLocalAddress();
+		}
+		assertThrows(ConnectException.class,
+				() -> SocketStreams.connect(address, BUFFER_SIZE, Duration.ofMillis(200)));
+	}
+}
@@ -16,6 +16,7 @@
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.net.URI;
+import java.util.List;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -31,9 +32,13 @@
 import org.eclipse.lsp4e.tests.mock.MockWorkspaceService;
 import org.eclipse.lsp4j.FileOperationOptions;
 import org.eclipse.lsp4j.FileOperationsServerCapabilities;
+import org.eclipse.lsp4j.FileRename;
 import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.WorkspaceServerCapabilities;
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
 import org.eclipse.ltk.core.refactoring.participants.MoveArguments;
+import org.eclipse.ltk.core.refactoring.resource.MoveResourceChange;
 import org.junit.jupiter.api.Test;
 
 class LSPMoveParticipantTest extends AbstractTestWithProject {
@@ -125,4 +130,49 @@ void computesNewUriFromDestinationPath(MockLanguageServerFactory factory) throws
 		assertEquals(oldUri.toString(), ws.getLastWillRename().getFiles().get(0).getOldUri());
 		assertEquals(expectedNewUri.toString(), ws.getLastWillRename().getFiles().get(0).getNewUri());
 	}
+
+	@Test
+	void undoNotifiesReverseMoveOnceMovedBack(MockLanguageServerFactory factory) throws Exception {
+		factory.withCapabilities(() -> {
+			ServerCapabilities caps = capabilities();
+			caps.getWorkspace().getFileOperations().setDidRename(new FileOperationOptions());
+			return caps;
+		});
+		IFile file = TestUtils.createUniqueTestFile(project, "content");
+		TestUtils.openTextViewer(file); // start LS
+		assertTrue(LanguageServers.forProject(project).anyMatching());
+
+		IFolder dest = project.getFolder("undoDest");
+		if (!dest.exists()) {
+			dest.create(true, true, null);
+		}
+		String oldUri = LSPEclipseUtils.toUri(file).toString();
+
+		var participant = new TestableMoveParticipant();
+		participant.setArgs(new MoveArguments(dest, false));
+		assertTrue(participant.initialize(file));
+		// composed like the change of a move refactoring
+		var refactoring = new CompositeChange("move", new Change[] {
+				participant.createPreChange(new NullProgressMonitor()), new MoveResourceChange(file, dest),
+				participant.createChange(new NullProgressMonitor()) });
+
+		var undo = (CompositeChange) refactoring.perform(new NullProgressMonitor());
+		assertNotNull(undo);
+		MockWorkspaceService ws = factory.getServer().getWorkspaceService();
+		TestUtils.waitForAndAssertCondition(5_000, () -> ws.getDidRenameEvents().size() == 1);
+		FileRename move = ws.getDidRenameEvents().get(0).getFiles().get(0);
+		assertEquals(oldUri, move.getOldUri());
+		String newUri = move.getNewUri();
+
+		// the undo changes of the participant are performed around moving the file back
+		Change[] undoSteps = undo.getChildren();
+		assertEquals(3, undoSteps.length);
+		undoSteps[0].perform(new NullProgressMonitor());
+		undoSteps[1].perform(new NullProgressMonitor());
+		assertTrue(file.exists());
+		assertEquals(1, ws.getDidRenameEvents().size());
+		undoSteps[2].perform(new NullProgressMonitor());
+		TestUtils.waitForAndAssertCondition(5_000, () -> ws.getDidRenameEvents().size() == 2);
+		assertEquals(List.of(new FileRename(newUri, oldUri)), ws.getDidRenameEvents().get(1).getFiles());
+	}
 }
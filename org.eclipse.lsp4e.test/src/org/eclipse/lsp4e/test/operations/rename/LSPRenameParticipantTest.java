@@ -16,6 +16,7 @@
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.net.URI;
+import java.util.List;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
@@ -30,10 +31,15 @@
 import org.eclipse.lsp4e.tests.mock.MockLanguageServer;
 import org.eclipse.lsp4e.tests.mock.MockLanguageServerFactory;
 import org.eclipse.lsp4e.tests.mock.MockWorkspaceService;
+import org.eclipse.lsp4j.FileOperationFilter;
 import org.eclipse.lsp4j.FileOperationOptions;
+import org.eclipse.lsp4j.FileOperationPattern;
+import org.eclipse.lsp4j.FileOperationPatternKind;
 import org.eclipse.lsp4j.FileOperationsServerCapabilities;
+import org.eclipse.lsp4j.FileRename;
 import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.WorkspaceServerCapabilities;
+import org.eclipse.ltk.core.refactoring.Change;
 import org.eclipse.ltk.core.refactoring.participants.RenameArguments;
 import org.junit.jupiter.api.Test;
 
@@ -137,4 +143,42 @@ void computesNewUriForFolderFromNewName(MockLanguageServerFactory factory) throw
 		assertEquals(oldUri.toString(), ws.getLastWillRename().getFiles().get(0).getOldUri());
 		assertEquals(expectedNewUri.toString(), ws.getLastWillRename().getFiles().get(0).getNewUri());
 	}
+
+	@Test
+	void batchesRenamedResourcesIntoSingleRequestAndNotification(MockLanguageServerFactory factory) throws Exception {
+		factory.withCapabilities(() -> {
+			ServerCapabilities caps = capabilities();
+			var pattern = new FileOperationPattern("**/*.lspt");
+			pattern.setMatches(FileOperationPatternKind.File);
+			caps.getWorkspace().getFileOperations()
+					.setDidRename(new FileOperationOptions(List.of(new FileOperationFilter(pattern, "file"))));
+			return caps;
+		});
+		IFile first = TestUtils.createUniqueTestFile(project, "first");
+		IFile second = TestUtils.createUniqueTestFile(project, "second");
+		IFile other = TestUtils.createUniqueTestFile(project, "txt", "other");
+		TestUtils.openTextViewer(first); // start LS
+		assertTrue(LanguageServers.forProject(project).anyMatching());
+
+		var participant = new TestableRenameParticipant();
+		participant.setArgs(new RenameArguments("renamed1.lspt", false));
+		assertTrue(participant.initialize(first));
+		participant.addElement(second, new RenameArguments("renamed2.lspt", false));
+		participant.addElement(other, new RenameArguments("renamed.txt", false));
+		participant.createPreChange(new NullProgressMonitor());
+
+		MockWorkspaceService ws = factory.getServer().getWorkspaceService();
+		assertEquals(List.of(LSPEclipseUtils.toUri(first).toString(), LSPEclipseUtils.toUri(second).toString(),
+				LSPEclipseUtils.toUri(other).toString()),
+				ws.getLastWillRename().getFiles().stream().map(FileRename::getOldUri).toList());
+
+		Change change = participant.createChange(new NullProgressMonitor());
+		assertNotNull(change);
+		change.perform(new NullProgressMonitor());
+		TestUtils.waitForAndAssertCondition(5_000, () -> !ws.getDidRenameEvents().isEmpty());
+		assertEquals(1, ws.getDidRenameEvents().size());
+		// only the files matching the didRename filter are notified
+		assertEquals(List.of(LSPEclipseUtils.toUri(first).toString(), LSPEclipseUtils.toUri(second).toString()),
+				ws.getDidRenameEvents().get(0).getFiles().stream().map(FileRename::getOldUri).toList());
+	}
 }
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.progress;
+
+import static org.eclipse.lsp4e.test.utils.TestUtils.waitForAndAssertCondition;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.IJobChangeListener;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.lsp4e.LanguageServerPlugin;
+import org.eclipse.lsp4e.progress.LSPProgressManager;
+import org.eclipse.lsp4e.test.utils.AbstractTestWithProject;
+import org.eclipse.lsp4e.test.utils.TestUtils;
+import org.eclipse.lsp4e.tests.mock.MockLanguageServerFactory;
+import org.eclipse.lsp4j.ProgressParams;
+import org.eclipse.lsp4j.WorkDoneProgressBegin;
+import org.eclipse.lsp4j.WorkDoneProgressCreateParams;
+import org.eclipse.lsp4j.WorkDoneProgressEnd;
+import org.eclipse.lsp4j.WorkDoneProgressNotification;
+import org.eclipse.lsp4j.WorkDoneProgressReport;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LSPProgressManagerTest extends AbstractTestWithProject {
+
+	private static final int PROGRESSES = 1_000;
+	private static final int REPORTS = 5;
+
+	private final Set<Job> progressJobs = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+	private final IJobChangeListener listener = new JobChangeAdapter() {
+		@Override
+		public void scheduled(IJobChangeEvent event) {
+			if (event.getJob().belongsTo(LanguageServerPlugin.FAMILY_PROGRESS)) {
+				progressJobs.add(event.getJob());
+			}
+		}
+	};
+
+	@BeforeEach
+	public void addJobListener() {
+		Job.getJobManager().addJobChangeListener(listener);
+	}
+
+	@AfterEach
+	public void removeJobListener() {
+		Job.getJobManager().removeJobChangeListener(listener);
+	}
+
+	private static ProgressParams progress(String token, WorkDoneProgressNotification notification) {
+		return new ProgressParams(Either.forLeft(token), Either.forLeft(notification));
+	}
+
+	private static WorkDoneProgressBegin begin(String title) {
+		final var begin = new WorkDoneProgressBegin();
+		begin.setTitle(title);
+		begin.setPercentage(0);
+		return begin;
+	}
+
+	private static WorkDoneProgressReport report(int percentage) {
+		final var report = new WorkDoneProgressReport();
+		report.setMessage(percentage + "%");
+		report.setPercentage(percentage);
+		return report;
+	}
+
+	private static void assertNoProgressJob() {
+		waitForAndAssertCondition(5_000, () -> Job.getJobManager().find(LanguageServerPlugin.FAMILY_PROGRESS).length == 0);
+	}
+
+	@Test
+	public void testLongProgressIsShownUntilItEnds() throws Exception {
+		final var manager = new LSPProgressManager();
+		manager.createProgress(new WorkDoneProgressCreateParams(Either.forLeft("indexing"))).get();
+		manager.notifyProgress(progress("indexing", begin("Indexing")));
+		for (int i = 1; i <= 100; i++) {
+			manager.notifyProgress(progress("indexing", report(i)));
+		}
+		waitForAndAssertCondition(5_000, () -> Job.getJobManager().find(LanguageServerPlugin.FAMILY_PROGRESS).length == 1);
+
+		manager.notifyProgress(progress("indexing", new WorkDoneProgressEnd()));
+		assertNoProgressJob();
+		assertEquals(1, progressJobs.size());
+	}
+
+	@Test
+	public void testTokenCancelledByUserCanBeCreatedAgain() throws Exception {
+		final var manager = new LSPProgressManager();
+		manager.createProgress(new WorkDoneProgressCreateParams(Either.forLeft("indexing"))).get();
+		manager.notifyProgress(progress("indexing", begin("Indexing")));
+		waitForAndAssertCondition(5_000, () -> Job.getJobManager().find(LanguageServerPlugin.FAMILY_PROGRESS).length == 1);
+
+		Job.getJobManager().find(LanguageServerPlugin.FAMILY_PROGRESS)[0].cancel();
+		assertNoProgressJob();
+		// the server ends the cancelled progress, then reuses its token
+		manager.notifyProgress(progress("indexing", new WorkDoneProgressEnd()));
+		manager.createProgress(new WorkDoneProgressCreateParams(Either.forLeft("indexing"))).get();
+		manager.notifyProgress(progress("indexing", begin("Indexing again")));
+		waitForAndAssertCondition(5_000, () -> Job.getJobManager().find(LanguageServerPlugin.FAMILY_PROGRESS).length == 1);
+
+		manager.notifyProgress(progress("indexing", new WorkDoneProgressEnd()));
+		assertNoProgressJob();
+		assertEquals(1, progressJobs.size(), "the job must be reused");
+		manager.dispose();
+	}
+
+	@Test
+	public void testShortProgressesReuseJobs() throws Exception {
+		final var manager = new LSPProgressManager();
+		for (int i = 0; i < PROGRESSES; i++) {
+			final String token = "token" + i;
+			manager.createProgress(new WorkDoneProgressCreateParams(Either.forLeft(token))).get();
+			manager.notifyProgress(progress(token, begin("Task " + i)));
+			for (int report = 1; report <= REPORTS; report++) {
+				manager.notifyProgress(progress(token, report(report * 100 / REPORTS)));
+			}
+			manager.notifyProgress(progress(token, new WorkDoneProgressEnd()));
+		}
+		assertNoProgressJob();
+		assertTrue(progressJobs.size() < 10, "progress jobs must be reused, got " + progressJobs.size());
+		manager.dispose();
+	}
+
+	@Test
+	public void testStressFromServer(MockLanguageServerFactory factory) throws Exception {
+		IFile file = TestUtils.createUniqueTestFile(project, "");
+		TestUtils.openTextViewer(file);
+		waitForAndAssertCondition(5_000, () -> factory.getServerCount() == 1);
+		LanguageClient client = factory.getServer().getRemoteProxy();
+
+		for (int i = 0; i < PROGRESSES; i++) {
+			final String token = "server" + i;
+			client.createProgress(new WorkDoneProgressCreateParams(Either.forLeft(token))).get(5, TimeUnit.SECONDS);
+			client.notifyProgress(progress(token, begin("Task " + i)));
+			for (int report = 1; report <= REPORTS; report++) {
+				client.notifyProgress(progress(token, report(report * 100 / REPORTS)));
+			}
+			client.notifyProgress(progress(token, new WorkDoneProgressEnd()));
+		}
+		assertNoProgressJob();
+		assertTrue(progressJobs.size() < 10, "progress jobs must be reused, got " + progressJobs.size());
+	}
+}
@@ -16,6 +16,7 @@
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -61,4 +62,20 @@ public void testPerformOperationExternalFile(@TempDir Path tempDir) throws Excep
 		operation.run(new NullProgressMonitor());
 		assertEquals(edit.getNewText(), Files.readString(file));
 	}
+
+	@Test
+	public void testPerformOperationMultipleEdits() throws Exception {
+		IFile file = TestUtils.createUniqueTestFile(project, "first\nsecond\nthird");
+		final List<TextEdit> edits = List.of( //
+				new TextEdit(new Range(new Position(2, 0), new Position(2, 5)), "3"),
+				new TextEdit(new Range(new Position(0, 0), new Position(0, 0)), "a"),
+				new TextEdit(new Range(new Position(0, 0), new Position(0, 0)), "b"),
+				new TextEdit(new Range(new Position(1, 0), new Position(2, 0)), ""));
+		final var change = new LSPTextChange("test", LSPEclipseUtils.toUri(file), edits);
+		assertEquals("abfirst\n3", change.getPreviewDocument(new NullProgressMonitor()).get());
+		new PerformChangeOperation(change).run(new NullProgressMonitor());
+		IDocument document = LSPEclipseUtils.getDocument(file);
+		assertNotNull(document);
+		assertEquals("abfirst\n3", document.get());
+	}
 }
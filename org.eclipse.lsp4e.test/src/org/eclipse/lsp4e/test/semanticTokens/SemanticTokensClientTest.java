@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.test.semanticTokens;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.lsp4e.internal.RequestCache;
+import org.eclipse.lsp4e.operations.semanticTokens.SemanticTokensClient;
+import org.eclipse.lsp4e.test.utils.AbstractTestWithProject;
+import org.eclipse.lsp4e.test.utils.TestUtils;
+import org.eclipse.lsp4e.tests.mock.MockLanguageServerFactory;
+import org.eclipse.lsp4j.SemanticTokens;
+import org.junit.jupiter.api.Test;
+
+public class SemanticTokensClientTest extends AbstractTestWithProject {
+
+	@Test
+	public void testTokensAreSharedPerDocumentVersion(MockLanguageServerFactory factory) throws Exception {
+		SemanticTokensTestUtil.setSemanticTokensLegend(List.of("keyword"), List.of("obsolete"), factory);
+		final var semanticTokens = new SemanticTokens();
+		semanticTokens.setData(SemanticTokensTestUtil.keywordSemanticTokens());
+		factory.withConfiguration((idx, server) -> server.getTextDocumentService().setSemanticTokens(semanticTokens));
+
+		IFile file = TestUtils.createUniqueTestFile(project, "lsptm", SemanticTokensTestUtil.keywordText);
+		IDocument document = TestUtils.openTextViewer(file).getDocument();
+		document.replace(0, 0, " ");
+
+		SemanticTokensClient client = SemanticTokensClient.DEFAULT;
+		RequestCache.Statistics before = client.getStatistics();
+		// e.g. the JDT semantic tokens provider and the editor reconciler
+		var first = client.requestFullSemanticTokens(document, (legend, tokens) -> tokens.getData());
+		var second = client.requestFullSemanticTokens(document, (legend, tokens) -> tokens.getData().size());
+		assertEquals(Optional.of(semanticTokens.getData()), first.get(5, TimeUnit.SECONDS));
+		assertEquals(Optional.of(semanticTokens.getData().size()), second.get(5, TimeUnit.SECONDS));
+		var third = client.requestFullSemanticTokens(document, (legend, tokens) -> tokens);
+		assertEquals(Optional.of(semanticTokens), third.get(5, TimeUnit.SECONDS));
+
+		RequestCache.Statistics after = client.getStatistics();
+		// the reconciler may request the modified document first, only one request is sent
+		assertTrue(after.misses() - before.misses() <= 1);
+		assertTrue(after.hits() - before.hits() >= 2);
+	}
+
+	@Test
+	public void testCancellingOneCallerKeepsSharedRequest(MockLanguageServerFactory factory) throws Exception {
+		SemanticTokensTestUtil.setSemanticTokensLegend(List.of("keyword"), List.of("obsolete"), factory);
+		final var semanticTokens = new SemanticTokens();
+		semanticTokens.setData(SemanticTokensTestUtil.keywordSemanticTokens());
+		factory.withConfiguration((idx, server) -> server.getTextDocumentService().setSemanticTokens(semanticTokens));
+
+		IFile file = TestUtils.createUniqueTestFile(project, "lsptm", SemanticTokensTestUtil.keywordText);
+		IDocument document = TestUtils.openTextViewer(file).getDocument();
+		document.replace(0, 0, " ");
+
+		var first = SemanticTokensClient.DEFAULT.requestFullSemanticTokens(document, (legend, tokens) -> tokens);
+		var second = SemanticTokensClient.DEFAULT.requestFullSemanticTokens(document, (legend, tokens) -> tokens);
+		first.cancel(true);
+		assertEquals(Optional.of(semanticTokens), second.get(5, TimeUnit.SECONDS));
+	}
+}
@@ -24,6 +24,7 @@
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -127,6 +128,8 @@ public class MockTextDocumentService implements TextDocumentService {
 	private SemanticTokens mockSemanticTokens;
 	private List<FoldingRange> foldingRanges;
 	public int codeActionRequests = 0;
+	private Function<CompletionItem, CompletionItem> completionItemResolver;
+	private final List<CompletionItem> resolvedCompletionItems = new CopyOnWriteArrayList<>();
 
 	public <U> MockTextDocumentService(Function<U, CompletableFuture<U>> futureFactory) {
 		this._futureFactory = futureFactory;
@@ -153,7 +156,9 @@ public CompletableFuture<Either<List<CompletionItem>, CompletionList>> completio
 
 	@Override
 	public CompletableFuture<CompletionItem> resolveCompletionItem(CompletionItem unresolved) {
-		return CompletableFuture.completedFuture(null);
+		resolvedCompletionItems.add(unresolved);
+		final Function<CompletionItem, CompletionItem> resolver = this.completionItemResolver;
+		return resolver == null ? CompletableFuture.completedFuture(null) : futureFactory(resolver.apply(unresolved));
 	}
 
 	@Override
@@ -343,6 +348,17 @@ public void setMockCompletionList(CompletionList completionList) {
 		this.mockCompletionList = completionList;
 	}
 
+	public void setCompletionItemResolver(Function<CompletionItem, CompletionItem> resolver) {
+		this.completionItemResolver = resolver;
+	}
+
+	/**
+	 * @return the items received by <code>completionItem/resolve</code>
+	 */
+	public List<CompletionItem> getResolvedCompletionItems() {
+		return resolvedCompletionItems;
+	}
+
 	public void setDidOpenCallback(CompletableFuture<DidOpenTextDocumentParams> didOpenExpectation) {
 		this.didOpenCallback = didOpenExpectation;
 	}
@@ -15,6 +15,7 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
 import org.eclipse.lsp4j.CreateFilesParams;
@@ -41,6 +42,7 @@ public class MockWorkspaceService implements WorkspaceService {
 	private volatile CreateFilesParams lastWillCreate;
 	private volatile RenameFilesParams lastWillRename;
 	private volatile DeleteFilesParams lastWillDelete;
+	private final List<RenameFilesParams> didRenameEvents = new CopyOnWriteArrayList<>();
 
 	public <U> MockWorkspaceService(Function<U, CompletableFuture<U>> futureFactory) {
 		this._futureFactory = futureFactory;
@@ -117,6 +119,11 @@ public CompletableFuture<org.eclipse.lsp4j.WorkspaceEdit> willDeleteFiles(Delete
 		return futureFactory(new org.eclipse.lsp4j.WorkspaceEdit());
 	}
 
+	@Override
+	public void didRenameFiles(RenameFilesParams params) {
+		didRenameEvents.add(params);
+	}
+
 	public CreateFilesParams getLastWillCreate() {
 		return lastWillCreate;
 	}
@@ -128,4 +135,8 @@ public RenameFilesParams getLastWillRename() {
 	public DeleteFilesParams getLastWillDelete() {
 		return lastWillDelete;
 	}
+
+	public List<RenameFilesParams> getDidRenameEvents() {
+		return didRenameEvents;
+	}
 }
@@ -17,6 +17,7 @@
 
 import java.io.File;
 import java.net.URI;
+import java.time.Duration;
 import java.util.ConcurrentModificationException;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +47,7 @@
 import org.eclipse.lsp4e.format.IFormatRegionsProvider;
 import org.eclipse.lsp4e.internal.DocumentUtil;
 import org.eclipse.lsp4e.internal.FormatRegionsProviderUtil;
+import org.eclipse.lsp4e.internal.LatencyTracker;
 import org.eclipse.lsp4e.operations.format.LSPFormatter;
 import org.eclipse.lsp4e.ui.Messages;
 import org.eclipse.lsp4j.DidChangeTextDocumentParams;
@@ -248,16 +250,22 @@ public void documentAboutToBeSaved() {
 		}
 
 		final var identifier = LSPEclipseUtils.toTextDocumentIdentifier(fileUri);
-		if (WILL_SAVE_WAIT_UNTIL_TIMEOUT_MAP.getOrDefault(identifier.getUri(), 0) > WILL_SAVE_WAIT_UNTIL_COUNT_THRESHOLD) {
+		final LatencyTracker latencyTracker = languageServerWrapper.getLatencyTracker();
+		if (WILL_SAVE_WAIT_UNTIL_TIMEOUT_MAP.getOrDefault(identifier.getUri(), 0) > WILL_SAVE_WAIT_UNTIL_COUNT_THRESHOLD
+				|| latencyTracker.isDegraded(LatencyTracker.WILL_SAVE_WAIT_UNTIL)) {
 			return;
 		}
+		// the configured timeout is the upper bound, servers answering quickly are not waited for as long
+		final Duration configuredTimeout = Duration.ofSeconds(lsToWillSaveWaitUntilTimeout());
+		final Duration adaptiveTimeout = latencyTracker.getTimeout(LatencyTracker.WILL_SAVE_WAIT_UNTIL, configuredTimeout);
+		final Duration timeout = adaptiveTimeout.compareTo(configuredTimeout) < 0 ? adaptiveTimeout : configuredTimeout;
 
 		// Use @link{TextDocumentSaveReason.Manual} as the platform does not give enough information to be accurate
 		final var params = new WillSaveTextDocumentParams(identifier, TextDocumentSaveReason.Manual);
 
 		try {
 			List<TextEdit> edits = languageServerWrapper.executeImpl(ls -> ls.getTextDocumentService().willSaveWaitUntil(params))
-				.get(lsToWillSaveWaitUntilTimeout(), TimeUnit.SECONDS);
+				.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
 			try {
 				LSPEclipseUtils.applyEdits(document, edits);
 			} catch (BadLocationException e) {
@@ -271,7 +279,7 @@ public void documentAboutToBeSaved() {
 			String message = timeoutCount > WILL_SAVE_WAIT_UNTIL_COUNT_THRESHOLD ?
 					Messages.DocumentContentSynchronizer_TimeoutThresholdMessage:
 						Messages.DocumentContentSynchronizer_TimeoutMessage;
-			String boundMessage = NLS.bind(message, Integer.toString(lsToWillSaveWaitUntilTimeout()), identifier.getUri());
+			String boundMessage = NLS.bind(message, Long.toString(timeout.plusMillis(999).toSeconds()), identifier.getUri());
 			ServerMessageHandler.showMessage(Messages.DocumentContentSynchronizer_OnSaveActionTimeout, new MessageParams(MessageType.Error, boundMessage));
 		} catch (InterruptedException e) {
 			LanguageServerPlugin.logError(e);
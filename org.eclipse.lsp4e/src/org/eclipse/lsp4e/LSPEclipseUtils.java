@@ -29,6 +29,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.nio.file.FileSystemNotFoundException;
@@ -36,7 +37,6 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -63,6 +63,7 @@
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceStatus;
+import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourceAttributes;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -75,8 +76,10 @@
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.content.IContentType;
 import org.eclipse.core.runtime.content.IContentTypeManager;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jface.dialogs.MessageDialog;
@@ -90,6 +93,7 @@
 import org.eclipse.jface.text.TextSelection;
 import org.eclipse.jface.viewers.ISelectionProvider;
 import org.eclipse.lsp4e.internal.ArrayUtil;
+import org.eclipse.lsp4e.internal.DocumentContentTypeCache;
 import org.eclipse.lsp4e.internal.DocumentInputStream;
 import org.eclipse.lsp4e.internal.MarkdownUtil;
 import org.eclipse.lsp4e.internal.ResourceForUriCache;
@@ -131,7 +135,6 @@
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.ltk.core.refactoring.Change;
 import org.eclipse.ltk.core.refactoring.CompositeChange;
-import org.eclipse.ltk.core.refactoring.DocumentChange;
 import org.eclipse.ltk.core.refactoring.PerformChangeOperation;
 import org.eclipse.ltk.core.refactoring.Refactoring;
 import org.eclipse.ltk.core.refactoring.RefactoringCore;
@@ -143,6 +146,7 @@
 import org.eclipse.ltk.ui.refactoring.RefactoringWizardOpenOperation;
 import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.graphics.RGBA;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.text.edits.MalformedTreeException;
 import org.eclipse.text.edits.MultiTextEdit;
 import org.eclipse.text.edits.ReplaceEdit;
@@ -185,6 +189,8 @@ public final class LSPEclipseUtils {
 	private static final String MARKDOWN = "markdown"; //$NON-NLS-1$
 	private static final String MD = "md"; //$NON-NLS-1$
 	private static final int MAX_BROWSER_NAME_LENGTH = 30;
+	/** Number of text edits and resource operations from which a workspace edit changing several files is applied in the background */
+	private static final int LARGE_WORKSPACE_EDIT_SIZE = 100;
 	private static Set<IPath> connectedFiles = new HashSet<IPath>();
 
 	private LSPEclipseUtils() {
@@ -1008,6 +1014,9 @@ public static void applyWorkspaceEdit(@Nullable WorkspaceEdit wsEdit) {
 	/**
 	 * Applies a workspace edit. It does simply change the underlying documents if all are currently
 	 * open in an editor, otherwise, it performs a refactoring that will result on filesystem changes.
+	 * <p>
+	 * When called from the UI thread, a large edit changing several files is applied in the background
+	 * while the workbench shows a busy cursor, then a cancellable progress dialog if it takes long.
 	 *
 	 * @param wsEdit
 	 * @param label
@@ -1016,40 +1025,129 @@ public static void applyWorkspaceEdit(@Nullable WorkspaceEdit wsEdit, @Nullable
 		if (wsEdit == null) {
 			return;
 		}
+		// the background thread could not get the scheduling rules held by the UI thread
+		if (Display.getCurrent() != null && PlatformUI.isWorkbenchRunning() && Job.getJobManager().currentRule() == null
+				&& isLargeWorkspaceEdit(wsEdit)) {
+			try {
+				PlatformUI.getWorkbench().getProgressService()
+						.busyCursorWhile(monitor -> applyWorkspaceEdit(wsEdit, label, monitor));
+			} catch (InvocationTargetException e) {
+				LanguageServerPlugin.logError(e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		} else {
+			applyWorkspaceEdit(wsEdit, label, new NullProgressMonitor());
+		}
+	}
+
+	/**
+	 * @return whether the edit changes several files with at least {@link #LARGE_WORKSPACE_EDIT_SIZE} text
+	 *         edits and resource operations
+	 */
+	private static boolean isLargeWorkspaceEdit(WorkspaceEdit wsEdit) {
+		final var documentUris = new HashSet<String>();
+		int resourceOperations = 0;
+		int size = 0;
+		if (wsEdit.getChanges() != null) {
+			for (Entry<String, List<TextEdit>> change : wsEdit.getChanges().entrySet()) {
+				documentUris.add(change.getKey());
+				size += change.getValue().size();
+			}
+		}
+		if (wsEdit.getDocumentChanges() != null) {
+			for (Either<TextDocumentEdit, ResourceOperation> change : wsEdit.getDocumentChanges()) {
+				if (change.isLeft()) {
+					documentUris.add(change.getLeft().getTextDocument().getUri());
+					size += change.getLeft().getEdits().size();
+				} else {
+					resourceOperations++;
+				}
+			}
+		}
+		size += resourceOperations;
+		return documentUris.size() + resourceOperations > 1 && size >= LARGE_WORKSPACE_EDIT_SIZE;
+	}
+
+	/**
+	 * Applies a workspace edit like {@link #applyWorkspaceEdit(WorkspaceEdit, String)}, reporting the
+	 * progress file by file to the given monitor.
+	 * <p>
+	 * The files are changed in a single workspace operation, so the resource change listeners are
+	 * notified once of all the changes. When the monitor is cancelled, the files already changed are
+	 * restored.
+	 *
+	 * @param wsEdit
+	 * @param label
+	 * @param monitor
+	 * @return <code>false</code> if the edit was cancelled or could not be applied, <code>true</code> otherwise
+	 */
+	public static boolean applyWorkspaceEdit(@Nullable WorkspaceEdit wsEdit, @Nullable String label, IProgressMonitor monitor) {
+		if (wsEdit == null) {
+			return true;
+		}
 
 		String name = label == null ? DEFAULT_LABEL : label;
 
 		if (wsEdit.getChangeAnnotations() != null && wsEdit.getChangeAnnotations().values().stream().anyMatch(ca -> ca.getNeedsConfirmation() != null && ca.getNeedsConfirmation())) {
 			runRefactorWizardOperation(toCompositeChange(wsEdit, name));
-		} else {
+			return true;
+		}
 
-			if (applyWorkspaceEditIfSingleOpenFile(wsEdit)) {
-				return;
-			}
+		if (applyWorkspaceEditIfSingleOpenFile(wsEdit)) {
+			return true;
+		}
+
+		// multiple documents or some ResourceChanges => create a refactoring
+		final var changedURIs = new HashMap<URI, Range>();
+		CompositeChange change = toCompositeChange(wsEdit, name, changedURIs);
+		if (!performChange(change, name, monitor)) {
+			return false;
+		}
 
-			// multiple documents or some ResourceChanges => create a refactoring
-			final var changedURIs = new HashMap<URI, Range>();
-			CompositeChange change = toCompositeChange(wsEdit, name, changedURIs);
+		// Open the resource in editor if there is the only one URI
+		if (changedURIs.size() == 1) {
+			changedURIs.entrySet().stream().findFirst().ifPresent(e -> {
+				// Select the only start position of the range or the document start
+				final var uri = e.getKey();
+				final var range = e.getValue();
+				Position start = range.getStart() != null ? range.getStart() : new Position(0, 0);
+				UI.runOnUIThread(() -> open(uri.toString(), new Range(start, start)));
+			});
+		}
+		return true;
+	}
 
-			final var changeOperation = new PerformChangeOperation(change);
-			changeOperation.setUndoManager(RefactoringCore.getUndoManager(), name);
-			try {
-				ResourcesPlugin.getWorkspace().run(changeOperation, new NullProgressMonitor());
-
-				// Open the resource in editor if there is the only one URI
-				if (changedURIs.size() == 1) {
-					changedURIs.entrySet().stream().findFirst().ifPresent(e -> {
-						// Select the only start position of the range or the document start
-						final var uri = e.getKey();
-						final var range = e.getValue();
-						Position start = range.getStart() != null ? range.getStart() : new Position(0, 0);
-						UI.runOnUIThread(() -> open(uri.toString(), new Range(start, start)));
-					});
+	/**
+	 * Performs the change as a single workspace operation, adding it to the refactoring undo history.
+	 * When cancelled, the changes already performed are undone.
+	 *
+	 * @return whether the change was performed
+	 */
+	private static boolean performChange(CompositeChange change, String name, IProgressMonitor monitor) {
+		final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		final var changeOperation = new PerformChangeOperation(change);
+		changeOperation.setUndoManager(RefactoringCore.getUndoManager(), name);
+		try {
+			// resource change events are only broadcast at the end of the operation
+			workspace.run(changeOperation, workspace.getRoot(), IWorkspace.AVOID_UPDATE,
+					SubMonitor.convert(monitor, name, 1).newChild(1));
+			return !changeOperation.changeExecutionFailed();
+		} catch (OperationCanceledException e) {
+			final Change undo = change.getUndoUntilException();
+			if (undo != null) {
+				try {
+					undo.initializeValidationData(new NullProgressMonitor());
+					workspace.run(new PerformChangeOperation(undo), workspace.getRoot(), IWorkspace.AVOID_UPDATE,
+							new NullProgressMonitor());
+				} catch (CoreException ex) {
+					LanguageServerPlugin.logError(ex);
 				}
-			} catch (CoreException e) {
-				LanguageServerPlugin.logError(e);
 			}
+		} catch (CoreException e) {
+			LanguageServerPlugin.logError(e);
 		}
+		return false;
 	}
 
 	private static void runRefactorWizardOperation(Change change) {
@@ -1333,21 +1431,16 @@ private static boolean rangeStartIsLessThan(@Nullable Range range, @Nullable Ran
 
 
 	/**
-	 * Transform LSP {@link TextEdit} list into ltk {@link DocumentChange} and add
-	 * it in the given ltk {@link CompositeChange}.
+	 * Transform LSP {@link TextEdit} list into a single ltk change applying all
+	 * the edits of the document at once.
 	 *
 	 * @param uri
 	 *            document URI to update
 	 * @param textEdits
-	 *            CompositeChange with LSP text edits
+	 *            LSP text edits of the document
 	 */
 	private static Change toChanges(URI uri, List<TextEdit> textEdits) {
-		LSPTextChange[] changes = textEdits.stream()
-				.sorted(Comparator.comparing((TextEdit edit) -> edit.getRange().getStart(),
-						Comparator.comparingInt(Position::getLine).thenComparingInt(Position::getCharacter).reversed()))
-				.map(te -> new LSPTextChange("Line: %d".formatted(te.getRange().getStart().getLine() + 1), uri, te)) //$NON-NLS-1$
-				.toArray(LSPTextChange[]::new);
-		return new CompositeChange(uri.toString(), changes);
+		return new LSPTextChange(uri.toString(), uri, textEdits);
 	}
 
 	public static URI toUri(IPath absolutePath) {
@@ -1463,7 +1556,15 @@ private static String getFileName(@Nullable ITextFileBuffer buffer) {
 		return null;
 	}
 
+	/**
+	 * @return the content-types of the document, cached until the document or the
+	 *         underlying file is modified
+	 */
 	public static List<IContentType> getDocumentContentTypes(IDocument document) {
+		return new ArrayList<>(DocumentContentTypeCache.get(document, LSPEclipseUtils::detectDocumentContentTypes));
+	}
+
+	private static List<IContentType> detectDocumentContentTypes(IDocument document) {
 		final var contentTypes = new ArrayList<IContentType>();
 
 		ITextFileBuffer buffer = toBuffer(document);
@@ -1486,7 +1587,7 @@ public static List<IContentType> getDocumentContentTypes(IDocument document) {
 
 		String fileName = getFileName(buffer);
 		if (fileName != null) {
-			try (var contents = new DocumentInputStream(document)) {
+			try (var contents = new DocumentInputStream(document, DocumentContentTypeCache.SNIFF_WINDOW_CHARS)) {
 				contentTypes.addAll(List.of(Platform.getContentTypeManager().findContentTypesFor(contents, fileName)));
 			} catch (IOException e) {
 				LanguageServerPlugin.logError(e);
@@ -46,6 +46,8 @@ public class LanguageServerPlugin extends AbstractUIPlugin {
 	public static final Object FAMILY_UPDATE_MARKERS = new Object();
 	/** Job family identifier for the "initialize language server" job. */
 	public static final Object FAMILY_INITIALIZE_LANGUAGE_SERVER = new Object();
+	/** Job family identifier for the jobs showing the work done progress of language servers. */
+	public static final Object FAMILY_PROGRESS = new Object();
 
 	public static final String PLUGIN_ID = "org.eclipse.lsp4e"; //$NON-NLS-1$
 	private static final String TRACE_ID = PLUGIN_ID + "/trace"; //$NON-NLS-1$
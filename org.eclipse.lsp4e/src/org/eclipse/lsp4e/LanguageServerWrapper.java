@@ -38,7 +38,6 @@
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -82,8 +81,11 @@
 import org.eclipse.lsp4e.client.DefaultLanguageClient;
 import org.eclipse.lsp4e.internal.ArrayUtil;
 import org.eclipse.lsp4e.internal.CancellationUtil;
+import org.eclipse.lsp4e.internal.ExecutorUtil;
 import org.eclipse.lsp4e.internal.FileBufferListenerAdapter;
 import org.eclipse.lsp4e.internal.JsonUtil;
+import org.eclipse.lsp4e.internal.LatencyTracker;
+import org.eclipse.lsp4e.internal.RequestCache;
 import org.eclipse.lsp4e.internal.SupportedFeatures;
 import org.eclipse.lsp4e.internal.files.FileSystemWatcherManager;
 import org.eclipse.lsp4e.server.StreamConnectionProvider;
@@ -133,7 +135,6 @@
 import org.eclipse.swt.widgets.Display;
 
 import com.google.common.base.Functions;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.JsonObject;
 
 public class LanguageServerWrapper {
@@ -288,6 +289,9 @@ synchronized void close() {
 	private final IResourceChangeListener workspaceFolderUpdater = new WorkspaceFolderListener();
 
 	private final FileSystemWatcherManager fileSystemWatcherManager;
+	private final RequestCache requestCache = new RequestCache(
+			uri -> getTextDocumentVersion(LSPEclipseUtils.toUri(uri)));
+	private final LatencyTracker latencyTracker = new LatencyTracker();
 	private final WatchedFilesListener watchedFilesListener = new WatchedFilesListener();
 
 	/* Backwards compatible constructor */
@@ -309,25 +313,21 @@ private LanguageServerWrapper(@Nullable IProject project, LanguageServerDefiniti
 		String projectName = (project != null && !serverDefinition.isSingleton) ? ("@" + project.getName()) : "";  //$NON-NLS-1$//$NON-NLS-2$
 		final var formatPrefix = "LS-" + serverDefinition.id + projectName; //$NON-NLS-1$
 		final var dispatcherThreadNameFormat = formatPrefix + "#dispatcher"; //$NON-NLS-1$
-		this.dispatcher = Executors
-				.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(dispatcherThreadNameFormat).build());
+		this.dispatcher = ExecutorUtil.newSingleThreadExecutor(dispatcherThreadNameFormat);
 
 		// Executor service passed through to the LSP4j layer when we attempt to start the LS. It will be used
 		// to create a listener that sits on the input stream and processes inbound messages (responses, or server-initiated
 		// requests).
-		final var listenerThreadNameFormat = formatPrefix + "#listener-%d"; //$NON-NLS-1$
-		this.listener = Executors
-				.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat(listenerThreadNameFormat).build());
+		final var listenerThreadNamePrefix = formatPrefix + "#listener-"; //$NON-NLS-1$
+		this.listener = ExecutorUtil.newCachedThreadPool(listenerThreadNamePrefix);
 
 		// Executor service to run a thread waiting for the LS launcher to terminate.
 		final var livenessThreadNameFormat = formatPrefix + "#cleaner"; //$NON-NLS-1$
-		this.cleaner = Executors
-				.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(livenessThreadNameFormat).build());
+		this.cleaner = ExecutorUtil.newSingleThreadExecutor(livenessThreadNameFormat);
 
 		// Executor service to run a thread processing the LS error stream.
 		final var errorsThreadNameFormat = formatPrefix + "#errorProcessor"; //$NON-NLS-1$
-		this.errorProcessor = Executors
-				.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(errorsThreadNameFormat).build());
+		this.errorProcessor = ExecutorUtil.newSingleThreadExecutor(errorsThreadNameFormat);
 
 		this.fileSystemWatcherManager = new FileSystemWatcherManager(initialProject);
 		// Read preference to determine whether to enable the workspace resource fallback for this server.
@@ -441,7 +441,7 @@ private synchronized void start(boolean forceRestart) {
 					}
 				}
 				return null;
-			}).thenRun(() -> {
+			}, ExecutorUtil.asyncExecutor()).thenRun(() -> {
 				synchronized (workingContext) {
 					markInitializationProgress(workingContext);
 					final var languageClient = this.languageClient = serverDefinition.createLanguageClient();
@@ -453,7 +453,8 @@ private synchronized void start(boolean forceRestart) {
 						initParams.setRootPath(rootURI.getPath());
 					}
 
-					UnaryOperator<MessageConsumer> wrapper = consumer -> message -> {
+					final UnaryOperator<MessageConsumer> latencyWrapper = latencyTracker.createMessageWrapper();
+					UnaryOperator<MessageConsumer> wrapper = consumer -> latencyWrapper.apply(message -> {
 						logMessage(message);
 						consumer.consume(message);
 						final var lspStreamProvider = workingContext.lspStreamProvider;
@@ -461,7 +462,7 @@ private synchronized void start(boolean forceRestart) {
 						if (lspStreamProvider != null && isActive() && languageServer != null) {
 							lspStreamProvider.handleMessage(message, languageServer, rootURI);
 						}
-					};
+					});
 					initParams.setWorkspaceFolders(getRelevantWorkspaceFolders());
 					final var lspStreamProvider = castNonNull(workingContext.lspStreamProvider);
 					Launcher<LanguageServer> launcher = serverDefinition.createLauncherBuilder() //
@@ -763,8 +764,10 @@ private void shutdown(LanguageServerContext workingContext) {
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(workspaceFolderUpdater);
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(watchedFilesListener);
 		fileSystemWatcherManager.clear();
+		requestCache.clear();
+		latencyTracker.clearPending();
 
-		CompletableFuture.runAsync(workingContext::close);
+		CompletableFuture.runAsync(workingContext::close, ExecutorUtil.asyncExecutor());
 
 		while (!this.connectedDocuments.isEmpty()) {
 			disconnect(this.connectedDocuments.keySet().iterator().next());
@@ -1022,11 +1025,12 @@ public void sendNotification(Consumer<LanguageServer> fn) {
 	public <@Nullable T> CompletableFuture<T> execute(Function<LanguageServer, ? extends CompletableFuture<T>> fn) {
 		// Send the request on the dispatch thread
 		CompletableFuture<T> lsRequest = executeImpl(fn);
-		// then additionally make sure the response is delivered on a thread from the default ForkJoinPool.
+		// then additionally make sure the response is delivered on a thread from the default ForkJoinPool
+		// (or a virtual thread, see ExecutorUtil).
 		// This makes sure the user can't chain on an arbitrary
 		// long-running block of code that would tie up the server response listener and prevent any more
 		// inbound messages being read
-		CompletableFuture<T> future = lsRequest.thenApplyAsync(Function.identity());
+		CompletableFuture<T> future = lsRequest.thenApplyAsync(Function.identity(), ExecutorUtil.asyncExecutor());
 		// and ensure cancellation of the returned future cancels the LS request (send cancel event via
 		// LSP4J)
 		future.exceptionally(t -> {
@@ -1363,6 +1367,24 @@ void unregisterCommands(List<String> cmds) {
 		}
 	}
 
+	/**
+	 * @return the cache sharing the requests of the different features for the
+	 *         same document position
+	 * @noreference internal so far
+	 */
+	public RequestCache getRequestCache() {
+		return requestCache;
+	}
+
+	/**
+	 * @return the latencies of the requests sent to this server, to adapt the
+	 *         timeouts to it and to detect when it stops answering in time
+	 * @noreference internal so far
+	 */
+	public LatencyTracker getLatencyTracker() {
+		return latencyTracker;
+	}
+
 	/**
 	 * return the TextDocument version, suitable to build a TextDocumentIndentifier
 	 */
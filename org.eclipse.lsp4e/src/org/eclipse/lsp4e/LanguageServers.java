@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.lsp4e;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -21,8 +22,12 @@
 import java.util.Optional;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -34,6 +39,8 @@
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.lsp4e.LanguageServersRegistry.LanguageServerDefinition;
 import org.eclipse.lsp4e.internal.ArrayUtil;
+import org.eclipse.lsp4e.internal.ExecutorUtil;
+import org.eclipse.lsp4e.internal.LatencyTracker;
 import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.LanguageServer;
@@ -54,9 +61,9 @@ private static void forwardCancellation(CompletableFuture<?> from, CompletableFu
 		});
 	}
 
-	/** creates a future that is running on the common async pool, ensuring it's not blocking UI Thread */
+	/** creates a future that is running on the common async pool (see {@link ExecutorUtil#asyncExecutor()}), ensuring it's not blocking UI Thread */
 	private static <T> CompletableFuture<T> onCommonPool(CompletableFuture<T> source) {
-		CompletableFuture<T> res = source.thenApplyAsync(Function.identity());
+		CompletableFuture<T> res = source.thenApplyAsync(Function.identity(), ExecutorUtil.asyncExecutor());
 		forwardCancellation(res, source);
 		return res;
 	}
@@ -88,10 +95,175 @@ public <T> CompletableFuture<List<T>> collectAll(Function<LanguageServer, ? exte
 	 * @return Async result
 	 */
 	public <T> CompletableFuture<List<T>> collectAll(BiFunction<? super LanguageServerWrapper, LanguageServer, ? extends CompletableFuture<T>> fn) {
+		final Duration deadline = this.deadline;
+		if (deadline != null) {
+			return onCommonPool(collectUntil(executeOnServers(fn).toList(), deadline));
+		}
 		final CompletableFuture<List<T>> init = CompletableFuture.completedFuture(new ArrayList<T>());
 		return onCommonPool(executeOnServers(fn).reduce(init, LanguageServers::add, LanguageServers::addAll));
 	}
 
+	/**
+	 * Collects the non-null results of the given requests, in order, until all
+	 * of them completed or the deadline passed, whichever comes first. The
+	 * requests still pending at the deadline are cancelled.
+	 */
+	private static <T> CompletableFuture<List<T>> collectUntil(List<CompletableFuture<@Nullable T>> requests,
+			Duration deadline) {
+		final var result = new CompletableFuture<List<T>>();
+		final var results = new AtomicReferenceArray<@Nullable T>(requests.size());
+		final var stored = new CompletableFuture<?>[requests.size()];
+		for (int i = 0; i < stored.length; i++) {
+			final int index = i;
+			stored[i] = requests.get(i).thenAccept(t -> results.set(index, t));
+		}
+		CompletableFuture.allOf(stored).whenComplete((v, t) -> {
+			if (t != null) {
+				result.completeExceptionally(t);
+			} else {
+				result.complete(arrived(results));
+			}
+		});
+		CompletableFuture.delayedExecutor(deadline.toNanos(), TimeUnit.NANOSECONDS, ExecutorUtil.asyncExecutor())
+				.execute(() -> result.complete(arrived(results)));
+		// canceled or complete result cancels the pending requests
+		result.whenComplete((v, t) -> requests.forEach(request -> request.cancel(true)));
+		return result;
+	}
+
+	private static <T> List<T> arrived(AtomicReferenceArray<@Nullable T> results) {
+		final var list = new ArrayList<T>(results.length());
+		for (int i = 0; i < results.length(); i++) {
+			final T t = results.get(i);
+			if (t != null) {
+				list.add(t);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Runs an operation on all applicable language servers, publishing the
+	 * non-empty individual results as they arrive, so the first ones can be
+	 * shown without waiting for the slowest server.
+	 * <p>
+	 * The operation is run again for each subscriber. The publisher completes
+	 * once all the servers answered or at the {@link #withDeadline(Duration)
+	 * deadline}, and fails as soon as one of the servers fails. Cancelling the
+	 * subscription cancels the pending requests.
+	 *
+	 * @param <T> Type of result being computed on the language server(s)
+	 * @param fn An individual operation to be performed on the language server, which following the LSP4j API
+	 * will return a <code>CompletableFuture&lt;T&gt;</code>
+	 *
+	 * @return Publisher of the results
+	 */
+	public <T> Flow.Publisher<T> streamAll(Function<LanguageServer, ? extends CompletableFuture<T>> fn) {
+		return streamAll((w, ls) -> fn.apply(ls));
+	}
+
+	/**
+	 * Runs an operation on all applicable language servers, publishing the
+	 * non-empty individual results as they arrive, so the first ones can be
+	 * shown without waiting for the slowest server.
+	 * <p>
+	 * The operation is run again for each subscriber. The publisher completes
+	 * once all the servers answered or at the {@link #withDeadline(Duration)
+	 * deadline}, and fails as soon as one of the servers fails. Cancelling the
+	 * subscription cancels the pending requests.
+	 *
+	 * @param <T> Type of result being computed on the language server(s)
+	 * @param fn An individual operation to be performed on the language server, which following the LSP4j API
+	 * will return a <code>CompletableFuture&lt;T&gt;</code>. This function additionally receives a {@link LanguageServerWrapper }
+	 * allowing fine-grained interrogation of server capabilities, or the construction of objects that can use this
+	 * handle to make further calls on the same server
+	 *
+	 * @return Publisher of the results
+	 */
+	public <T> Flow.Publisher<T> streamAll(BiFunction<? super LanguageServerWrapper, LanguageServer, ? extends CompletableFuture<T>> fn) {
+		return subscriber -> {
+			final List<CompletableFuture<@Nullable LanguageServerWrapper>> servers = routeAroundDegraded(getServers());
+			// at most one item per server: large enough a buffer that submit() never blocks the thread completing a request
+			final var publisher = new SubmissionPublisher<T>(ExecutorUtil.asyncExecutor(),
+					Math.max(Flow.defaultBufferSize(), servers.size()));
+			final var cancelled = new CompletableFuture<@Nullable Void>();
+			publisher.subscribe(new CancellingSubscriber<>(subscriber, cancelled));
+			final List<CompletableFuture<@Nullable T>> requests = servers.stream()
+					.map(server -> executeOnServer(server, fn)).toList();
+			final var published = new CompletableFuture<?>[requests.size()];
+			for (int i = 0; i < published.length; i++) {
+				published[i] = requests.get(i).whenComplete((t, error) -> {
+					if (error != null) {
+						publisher.closeExceptionally(error);
+						cancelled.complete(null);
+					} else if (t != null && !isEmptyCollection(t)) {
+						try {
+							publisher.submit(t);
+						} catch (IllegalStateException e) {
+							// closed at the deadline or on the failure of another server
+						}
+					}
+				});
+			}
+			CompletableFuture.allOf(published).whenComplete((v, t) -> publisher.close());
+			final Duration deadline = this.deadline;
+			if (deadline != null) {
+				CompletableFuture.delayedExecutor(deadline.toNanos(), TimeUnit.NANOSECONDS, ExecutorUtil.asyncExecutor())
+						.execute(() -> {
+							publisher.close();
+							cancelled.complete(null);
+						});
+			}
+			cancelled.thenRun(() -> requests.forEach(request -> request.cancel(true)));
+		};
+	}
+
+	/**
+	 * Forwards the cancellation of a subscription to the requests producing the
+	 * published items.
+	 */
+	private static final class CancellingSubscriber<T> implements Flow.Subscriber<T> {
+
+		private final Flow.Subscriber<? super T> subscriber;
+		private final CompletableFuture<@Nullable Void> cancelled;
+
+		CancellingSubscriber(Flow.Subscriber<? super T> subscriber, CompletableFuture<@Nullable Void> cancelled) {
+			this.subscriber = subscriber;
+			this.cancelled = cancelled;
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(long n) {
+					subscription.request(n);
+				}
+
+				@Override
+				public void cancel() {
+					subscription.cancel();
+					cancelled.complete(null);
+				}
+			});
+		}
+
+		@Override
+		public void onNext(T item) {
+			subscriber.onNext(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			subscriber.onError(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			subscriber.onComplete();
+		}
+	}
+
 
 	/**
 	 * Runs an operation on all applicable language servers, returning a list of asynchronous responses that can
@@ -121,7 +293,7 @@ public <T> CompletableFuture<List<T>> collectAll(BiFunction<? super LanguageServ
 	 * @return A list of pending results (note that these may be null or empty)
 	 */
 	public <T> List<CompletableFuture<@Nullable T>> computeAll(BiFunction<? super LanguageServerWrapper, LanguageServer, ? extends CompletableFuture<T>> fn) {
-		return getServers().stream().map(serverFuture -> {
+		return routeAroundDegraded(getServers()).stream().map(serverFuture -> {
 					CompletableFuture<CompletableFuture<T>> requestFuture = serverFuture
 						.thenApply(w -> w == null ? CompletableFuture.completedFuture(null) : w.executeImpl(ls -> fn.apply(w, ls)));
 					CompletableFuture<T> res = requestFuture.thenCompose(Function.identity());
@@ -160,6 +332,16 @@ public <T> CompletableFuture<Optional<T>> computeFirst(Function<LanguageServer,
 	 */
 	public <T> CompletableFuture<Optional<T>> computeFirst(BiFunction<? super LanguageServerWrapper, LanguageServer, ? extends CompletableFuture<T>> queryLS) {
 		final var result = new CompletableFuture<Optional<T>>();
+		final Duration deadline = this.deadline;
+		if (deadline != null) {
+			// completing the result cancels all the requests
+			result.completeOnTimeout(Optional.empty(), deadline.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		final Duration hedgingThreshold = this.hedgingThreshold;
+		if (hedgingThreshold != null) {
+			new HedgedRequest<>(routeAroundDegraded(getServers()), queryLS, hedgingThreshold, result).sendNext();
+			return onCommonPool(result);
+		}
 
 		// Dispatch the request to the servers, appending a step to each such that
 		// the first to return a non-null result will be the overall result.
@@ -183,6 +365,149 @@ public <T> CompletableFuture<Optional<T>> computeFirst(BiFunction<? super Langua
 		return onCommonPool(result);
 	}
 
+	/**
+	 * Sends a request to the servers one after the other, in order, so only the
+	 * first server does the work when it answers in time. The next server is
+	 * queried when the previous one did not answer within the threshold, or
+	 * answered with an empty result; the first non-empty result wins and cancels
+	 * the other requests.
+	 */
+	private static final class HedgedRequest<T> {
+
+		private final List<CompletableFuture<@Nullable LanguageServerWrapper>> servers;
+		private final BiFunction<? super LanguageServerWrapper, LanguageServer, ? extends CompletableFuture<T>> queryLS;
+		private final Duration threshold;
+		private final CompletableFuture<Optional<T>> result;
+		private final List<CompletableFuture<@Nullable T>> requests = new ArrayList<>();
+		private int next;
+		private int running;
+		private @Nullable Throwable failure;
+
+		HedgedRequest(List<CompletableFuture<@Nullable LanguageServerWrapper>> servers,
+				BiFunction<? super LanguageServerWrapper, LanguageServer, ? extends CompletableFuture<T>> queryLS,
+				Duration threshold, CompletableFuture<Optional<T>> result) {
+			this.servers = servers;
+			this.queryLS = queryLS;
+			this.threshold = threshold;
+			this.result = result;
+			// canceled or complete requests cancels all initial requests
+			result.whenComplete((v, t) -> {
+				final List<CompletableFuture<@Nullable T>> sent;
+				synchronized (this) {
+					sent = List.copyOf(requests);
+				}
+				sent.forEach(request -> request.cancel(true));
+			});
+		}
+
+		void sendNext() {
+			final CompletableFuture<@Nullable T> request;
+			synchronized (this) {
+				if (result.isDone() || next >= servers.size()) {
+					completeIfDone();
+					return;
+				}
+				request = executeOnServer(servers.get(next++), queryLS);
+				requests.add(request);
+				running++;
+			}
+			// the next server is queried only once, on timeout or on an empty answer
+			final var hedged = new AtomicBoolean();
+			final Runnable hedge = () -> {
+				if (hedged.compareAndSet(false, true)) {
+					sendNext();
+				}
+			};
+			request.whenComplete((t, error) -> {
+				// some LS methods return null objects when they have nothing to report, and some return an empty List
+				if (error == null && t != null && !isEmptyCollection(t)) {
+					result.complete(Optional.of(t));
+					return;
+				}
+				synchronized (this) {
+					running--;
+					if (error != null && !(error instanceof CancellationException) && failure == null) {
+						failure = error;
+					}
+				}
+				hedge.run();
+				completeIfDone();
+			});
+			if (!request.isDone()) {
+				CompletableFuture.delayedExecutor(threshold.toNanos(), TimeUnit.NANOSECONDS, ExecutorUtil.asyncExecutor())
+						.execute(hedge);
+			}
+		}
+
+		private synchronized void completeIfDone() {
+			if (running == 0 && next >= servers.size()) {
+				final Throwable failure = this.failure;
+				if (failure != null) {
+					result.completeExceptionally(failure);
+				} else {
+					result.complete(Optional.empty());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Bounds the time spent waiting for the servers: at the deadline,
+	 * {@link #collectAll(BiFunction)} completes with the results received so far,
+	 * {@link #computeFirst(BiFunction)} with an empty result if none was received
+	 * and {@link #streamAll(BiFunction)} completes. The requests still pending are
+	 * cancelled.
+	 *
+	 * @param deadline
+	 *            how long to wait for the servers, from the time the request is
+	 *            sent
+	 */
+	@SuppressWarnings("unchecked")
+	public E withDeadline(final Duration deadline) {
+		Assert.isLegal(this.deadline == null && !deadline.isNegative());
+		this.deadline = deadline;
+		return (E) this;
+	}
+
+	/**
+	 * Makes {@link #computeFirst(BiFunction)} query the servers one after the
+	 * other instead of all at once: the request is sent to the preferred server
+	 * first, then re-issued to the next capable server if no result was received
+	 * within the given threshold, and so on. So a slow server does not delay the
+	 * result more than the threshold, while a fast one spares the others the
+	 * work.
+	 *
+	 * @param threshold
+	 *            how long to wait for a server before also querying the next one,
+	 *            typically a high percentile of the server latency
+	 */
+	@SuppressWarnings("unchecked")
+	public E withHedging(final Duration threshold) {
+		Assert.isLegal(this.hedgingThreshold == null && !threshold.isNegative());
+		this.hedgingThreshold = threshold;
+		return (E) this;
+	}
+
+	/**
+	 * Skips the servers whose requests of the given method
+	 * {@link LatencyTracker#isDegraded(String) stopped being answered in time},
+	 * as long as another server known to answer them in time can answer instead.
+	 * The preferred server is never skipped. Only meant for read-only queries
+	 * for which the answer of the other servers is good enough, e.g. signature
+	 * help or workspace symbols: the edits of a rename or a formatting must not
+	 * be dropped because a server is slow.
+	 *
+	 * @param method
+	 *            the JSON-RPC method of the request, e.g.
+	 *            {@link LatencyTracker#SIGNATURE_HELP}
+	 */
+	@SuppressWarnings("unchecked")
+	public E withRoutingAroundDegraded(final String method) {
+		Assert.isLegal(this.degradedMethod == null);
+		this.degradedMethod = method;
+		return (E) this;
+	}
+
 	@SuppressWarnings("unchecked")
 	public E withPreferredServer(final @Nullable LanguageServerDefinition serverDefinition) {
 		Assert.isLegal(this.serverDefinition == null);
@@ -438,15 +763,76 @@ public static <T> CompletableFuture<List<T>> addAll(CompletableFuture<List<T>> a
 	 */
 	private <@Nullable T> Stream<CompletableFuture<T>> executeOnServers(
 			BiFunction<? super LanguageServerWrapper, LanguageServer, ? extends CompletableFuture<T>> fn) {
-		return getServers().stream().map(serverFuture -> {
-			// wrap in AtomicReference to allow dereferencing in downstream future
-			CompletableFuture<CompletableFuture<T>> lsRequestFuture = serverFuture.thenApply(w -> w == null
-				? CompletableFuture.completedFuture(null)
-				: w.executeImpl(ls -> fn.apply(w, ls)));
-			CompletableFuture<T> res = lsRequestFuture.thenCompose(Function.identity());
-			lsRequestFuture.thenAccept(request -> forwardCancellation(res, request));
-			return res;
-		});
+		return routeAroundDegraded(getServers()).stream().map(serverFuture -> executeOnServer(serverFuture, fn));
+	}
+
+	private static <@Nullable T> CompletableFuture<T> executeOnServer(
+			CompletableFuture<@Nullable LanguageServerWrapper> serverFuture,
+			BiFunction<? super LanguageServerWrapper, LanguageServer, ? extends CompletableFuture<T>> fn) {
+		// wrap in AtomicReference to allow dereferencing in downstream future
+		CompletableFuture<CompletableFuture<T>> lsRequestFuture = serverFuture.thenApply(w -> w == null
+			? CompletableFuture.completedFuture(null)
+			: w.executeImpl(ls -> fn.apply(w, ls)));
+		CompletableFuture<T> res = lsRequestFuture.thenCompose(Function.identity());
+		lsRequestFuture.thenAccept(request -> forwardCancellation(res, request));
+		return res;
+	}
+
+	/**
+	 * Skips the servers degraded for the method given to
+	 * {@link #withRoutingAroundDegraded(String)}, if any.
+	 */
+	private List<CompletableFuture<@Nullable LanguageServerWrapper>> routeAroundDegraded(
+			List<CompletableFuture<@Nullable LanguageServerWrapper>> servers) {
+		final String method = this.degradedMethod;
+		if (method == null || servers.size() < 2 || servers.stream().noneMatch(
+				server -> isStartedAnd(server, wrapper -> !wrapper.getLatencyTracker().isDegraded(method)))) {
+			return servers;
+		}
+		return servers.stream().map(server -> server.thenApply(wrapper -> wrapper != null
+				&& wrapper.getLatencyTracker().isDegraded(method)
+				&& !Objects.equals(serverDefinition, wrapper.serverDefinition) ? null : wrapper)).toList();
+	}
+
+	private static boolean isStartedAnd(CompletableFuture<@Nullable LanguageServerWrapper> server,
+			Predicate<LanguageServerWrapper> predicate) {
+		if (!server.isDone() || server.isCompletedExceptionally()) {
+			return false;
+		}
+		final LanguageServerWrapper wrapper = server.getNow(null);
+		return wrapper != null && predicate.test(wrapper);
+	}
+
+	/**
+	 * @param method
+	 *            a JSON-RPC method, e.g. <code>workspace/symbol</code>
+	 * @param defaultTimeout
+	 *            the timeout to use for servers without enough observed responses
+	 * @return how long to wait for the active servers to answer a request of the
+	 *         given method: the longest of their
+	 *         {@link LatencyTracker#getTimeout(String, Duration) adaptive
+	 *         timeouts}, only considering servers which already answered such
+	 *         requests, or the default timeout
+	 */
+	public static Duration getTimeout(String method, Duration defaultTimeout) {
+		return getTimeout(LanguageServiceAccessor.getStartedWrappers(null, true), method, defaultTimeout);
+	}
+
+	/**
+	 * @see #getTimeout(String, Duration)
+	 */
+	public static Duration getTimeout(Collection<LanguageServerWrapper> wrappers, String method,
+			Duration defaultTimeout) {
+		Duration timeout = null;
+		for (final LanguageServerWrapper wrapper : wrappers) {
+			final LatencyTracker latencyTracker = wrapper.getLatencyTracker();
+			final Duration serverTimeout = latencyTracker.getTimeout(method, defaultTimeout);
+			if (latencyTracker.getStatistics(method).samples() > 0
+					&& (timeout == null || serverTimeout.compareTo(timeout) > 0)) {
+				timeout = serverTimeout;
+			}
+		}
+		return timeout != null ? timeout : defaultTimeout;
 	}
 
 	/*
@@ -484,4 +870,8 @@ public static LanguageServerProjectExecutor forProject(final @Nullable IProject
 	private Predicate<ServerCapabilities> filter = NO_FILTER;
 
 	protected @Nullable LanguageServerDefinition serverDefinition;
+
+	private @Nullable Duration deadline;
+	private @Nullable Duration hedgingThreshold;
+	private @Nullable String degradedMethod;
 }
@@ -25,6 +25,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 import org.eclipse.core.expressions.ExpressionConverter;
@@ -256,12 +257,32 @@ public static LanguageServersRegistry getInstance() {
 		return LazyHolder.INSTANCE;
 	}
 
-	private final List<ContentTypeToLanguageServerDefinition> connections = new ArrayList<>();
+	private final List<ContentTypeToLanguageServerDefinition> connections = new CopyOnWriteArrayList<>();
 	private final IPreferenceStore preferenceStore;
 
+	/**
+	 * The mappings of {@link #connections} <strong>directly</strong> associated to a
+	 * content-type, in the order returned by {@link #findProviderFor(IContentType)}
+	 */
+	private final Map<IContentType, List<ContentTypeToLanguageServerDefinition>> providersIndex = new ConcurrentHashMap<>();
+
+	/**
+	 * The user enabled mappings of {@link #connections} associated to a
+	 * content-type or any of its base types
+	 */
+	private final Map<IContentType, List<ContentTypeToLanguageServerDefinition>> hierarchyIndex = new ConcurrentHashMap<>();
+
 	private LanguageServersRegistry() {
 		this.preferenceStore = LanguageServerPlugin.getDefault().getPreferenceStore();
 		initialize();
+		// the indexes depend on the user enablement preferences and the content-type hierarchy
+		preferenceStore.addPropertyChangeListener(event -> invalidateIndexes());
+		Platform.getContentTypeManager().addContentTypeChangeListener(event -> invalidateIndexes());
+	}
+
+	private void invalidateIndexes() {
+		providersIndex.clear();
+		hierarchyIndex.clear();
 	}
 
 	private void initialize() {
@@ -353,6 +374,10 @@ private void persistContentTypeToLaunchConfigurationMapping() {
 	 * This does <strong>not</strong> include the one that match transitively as per content-type hierarchy
 	 */
 	List<ContentTypeToLanguageServerDefinition> findProviderFor(final IContentType contentType) {
+		return providersIndex.computeIfAbsent(contentType, this::computeProvidersFor);
+	}
+
+	private List<ContentTypeToLanguageServerDefinition> computeProvidersFor(final IContentType contentType) {
 		return connections.stream()
 			.filter(entry -> entry.getKey().equals(contentType))
 			.sorted((mapping1, mapping2) -> {
@@ -372,6 +397,7 @@ public void registerAssociation(IContentType contentType, ILaunchConfiguration l
 		final var mapping = new ContentTypeToLSPLaunchConfigEntry(contentType, launchConfig,
 				launchMode);
 		connections.add(mapping);
+		invalidateIndexes();
 		persistContentTypeToLaunchConfigurationMapping();
 	}
 
@@ -382,11 +408,13 @@ public void registerAssociation(IContentType contentType, LanguageServerDefiniti
 		}
 
 		connections.add(new ContentTypeToLanguageServerDefinition(contentType, serverDefinition, enablement));
+		invalidateIndexes();
 	}
 
 	public void setAssociations(List<ContentTypeToLSPLaunchConfigEntry> wc) {
 		this.connections.removeIf(ContentTypeToLSPLaunchConfigEntry.class::isInstance);
 		this.connections.addAll(wc);
+		invalidateIndexes();
 		persistContentTypeToLaunchConfigurationMapping();
 	}
 
@@ -469,27 +497,27 @@ public boolean canUseLanguageServer(IFile file) {
 	 * @param contentTypes content-types to check against LS registry. Base types are checked too.
 	 * @return definitions that can support the following content-types
 	 */
-	private Set<LanguageServerDefinition> getAvailableLSFor(Collection<IContentType> contentTypes, @Nullable URI uri) {
+	Set<LanguageServerDefinition> getAvailableLSFor(Collection<IContentType> contentTypes, @Nullable URI uri) {
 		final var res = new HashSet<LanguageServerDefinition>();
-		contentTypes = expandToSuperTypes(contentTypes);
-		for (ContentTypeToLanguageServerDefinition mapping : this.connections) {
-			if (contentTypes.contains(mapping.getKey()) && mapping.isEnabled(uri)) {
-				res.add(mapping.getValue());
+		for (IContentType contentType : contentTypes) {
+			for (ContentTypeToLanguageServerDefinition mapping : hierarchyIndex.computeIfAbsent(contentType,
+					this::computeUserEnabledProvidersForHierarchy)) {
+				if (!res.contains(mapping.getValue()) && mapping.isExtensionEnabled(uri)) {
+					res.add(mapping.getValue());
+				}
 			}
 		}
 		return res;
 	}
 
-	private Collection<IContentType> expandToSuperTypes(Collection<IContentType> contentTypes) {
-		final var res = new ArrayList<IContentType>(contentTypes);
-		for (int i = 0; i < res.size(); i++) {
-			IContentType current = res.get(i);
-			IContentType base = current.getBaseType();
-			if (base != null && !res.contains(base)) {
-				res.add(base);
-			}
+	private List<ContentTypeToLanguageServerDefinition> computeUserEnabledProvidersForHierarchy(IContentType contentType) {
+		final var contentTypes = new ArrayList<IContentType>();
+		for (IContentType current = contentType; current != null && !contentTypes.contains(current); current = current.getBaseType()) {
+			contentTypes.add(current);
 		}
-		return res;
+		return connections.stream()
+				.filter(mapping -> contentTypes.contains(mapping.getKey()) && mapping.isUserEnabled())
+				.toList();
 	}
 
 }
@@ -29,6 +29,7 @@
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -64,6 +65,12 @@ private LanguageServiceAccessor() {
 
 	private static final Set<LanguageServerWrapper> startedServers = new CopyOnWriteArraySet<>();
 
+	/**
+	 * {@link #startedServers} indexed by their definition, so looking up the
+	 * wrapper of a definition does not test every started server
+	 */
+	private static final Map<LanguageServerDefinition, Set<LanguageServerWrapper>> startedServersByDefinition = new ConcurrentHashMap<>();
+
 	/**
 	 * This is meant for test code to clear state that might have leaked from other
 	 * tests. It isn't meant to be used in production code.
@@ -72,10 +79,26 @@ public static void clearStartedServers() {
 		startedServers.removeIf(server -> {
 			server.stop();
 			server.stopDispatcher();
+			startedServersByDefinition.computeIfPresent(server.serverDefinition,
+					(definition, wrappers) -> wrappers.remove(server) && wrappers.isEmpty() ? null : wrappers);
 			return true;
 		});
 	}
 
+	/**
+	 * Must be called while holding the lock on {@link #startedServers}.
+	 */
+	private static void addStartedServer(LanguageServerWrapper wrapper) {
+		startedServersByDefinition.computeIfAbsent(wrapper.serverDefinition, definition -> new CopyOnWriteArraySet<>())
+				.add(wrapper);
+		startedServers.add(wrapper);
+	}
+
+	private static Set<LanguageServerWrapper> getStartedServers(LanguageServerDefinition serverDefinition) {
+		final Set<LanguageServerWrapper> wrappers = startedServersByDefinition.get(serverDefinition);
+		return wrappers == null ? Collections.emptySet() : wrappers;
+	}
+
 	/**
 	 * A bean storing association of a Document/File with a language server wrapper.
 	 *
@@ -132,8 +155,8 @@ public boolean isActive() {
 
 	public static void disableLanguageServerContentType(
 			ContentTypeToLanguageServerDefinition contentTypeToLSDefinition) {
-		Optional<LanguageServerWrapper> result = startedServers.stream()
-				.filter(server -> server.serverDefinition.equals(contentTypeToLSDefinition.getValue())).findFirst();
+		Optional<LanguageServerWrapper> result = getStartedServers(contentTypeToLSDefinition.getValue()).stream()
+				.findFirst();
 		if (result.isPresent()) {
 			IContentType contentType = contentTypeToLSDefinition.getKey();
 			result.get().disconnectContentType(contentType);
@@ -251,12 +274,13 @@ public static List<LanguageServerWrapper> getLSWrappers(final IFile file,
 			return Collections.emptyList();
 		}
 
+		final var directContentTypes = LSPEclipseUtils.getFileContentTypes(file);
+		final Set<LanguageServerDefinition> availableDefinitions = lsRegistry.getAvailableLSFor(directContentTypes, fileURI);
 		List<LanguageServerWrapper> wrappers = getStartedWrappers(file.getProject(), request, true);
 		wrappers.removeIf(
-				wrapper -> !wrapper.isConnectedTo(fileURI) || !lsRegistry.matches(file, wrapper.serverDefinition));
+				wrapper -> !wrapper.isConnectedTo(fileURI) || !availableDefinitions.contains(wrapper.serverDefinition));
 
 		// look for running language servers via content-type
-		final var directContentTypes = LSPEclipseUtils.getFileContentTypes(file);
 		final var contentTypesToProcess = new ArrayDeque<IContentType>(directContentTypes);
 		final var processedContentTypes = new HashSet<IContentType>(directContentTypes.size());
 
@@ -292,12 +316,14 @@ protected static Collection<LanguageServerWrapper> getLSWrappers(final IDocument
 		}
 
 		final var lsRegistry = LanguageServersRegistry.getInstance();
+		final var directContentTypes = LSPEclipseUtils.getDocumentContentTypes(document);
+		final Set<LanguageServerDefinition> availableDefinitions = lsRegistry.getAvailableLSFor(directContentTypes, uri);
 
 		// look for already started compatible servers suitable for the given document
 		final Predicate<LanguageServerWrapper> selectServersForDocument = wrapper -> {
 			try {
 				return wrapper.isConnectedTo(uri)
-						|| (lsRegistry.matches(document, wrapper.serverDefinition) && wrapper.canOperate(document));
+						|| (availableDefinitions.contains(wrapper.serverDefinition) && wrapper.canOperate(document));
 			} catch (Exception ex) {
 				LanguageServerPlugin.logError(ex);
 				return false;
@@ -308,7 +334,6 @@ protected static Collection<LanguageServerWrapper> getLSWrappers(final IDocument
 				.collect(Collectors.toCollection(LinkedHashSet::new));
 
 		// look for running language servers via content-type
-		final var directContentTypes = LSPEclipseUtils.getDocumentContentTypes(document);
 		final var contentTypesToProcess = new ArrayDeque<IContentType>(directContentTypes);
 		final var processedContentTypes = new HashSet<IContentType>(directContentTypes.size());
 		final var file = LSPEclipseUtils.getFile(document);
@@ -333,7 +358,7 @@ protected static Collection<LanguageServerWrapper> getLSWrappers(final IDocument
 
 				synchronized (startedServers) {
 					// check again while holding the write lock
-					startedServers.stream().filter(selectServersForDocument).forEach(res::add);
+					getStartedServers(serverDefinition).stream().filter(selectServersForDocument).forEach(res::add);
 					if (res.stream().anyMatch(selectServersWithEqualDefinition)) {
 						// we already found a compatible LS with this definition
 						continue;
@@ -344,7 +369,7 @@ protected static Collection<LanguageServerWrapper> getLSWrappers(final IDocument
 					final var wrapper = fileProject != null //
 							? new LanguageServerWrapper(fileProject, serverDefinition)
 							: new LanguageServerWrapper(serverDefinition, path);
-					startedServers.add(wrapper);
+					addStartedServer(wrapper);
 					res.add(wrapper);
 				}
 			}
@@ -374,17 +399,16 @@ public static LanguageServerWrapper getLSWrapper(@Nullable IProject project,
 	private static LanguageServerWrapper getLSWrapper(@Nullable IProject project,
 			LanguageServerDefinition serverDefinition, @Nullable IPath initialPath) {
 
-		final Predicate<LanguageServerWrapper> serverSelector = wrapper -> wrapper.canOperate(project)
-				&& wrapper.serverDefinition.equals(serverDefinition);
+		final Predicate<LanguageServerWrapper> serverSelector = wrapper -> wrapper.canOperate(project);
 
-		var matchingServer = startedServers.stream().filter(serverSelector).findFirst();
+		var matchingServer = getStartedServers(serverDefinition).stream().filter(serverSelector).findFirst();
 		if (matchingServer.isPresent()) {
 			return matchingServer.get();
 		}
 
 		synchronized (startedServers) {
 			// check again while holding the write lock
-			matchingServer = startedServers.stream().filter(serverSelector).findFirst();
+			matchingServer = getStartedServers(serverDefinition).stream().filter(serverSelector).findFirst();
 			if (matchingServer.isPresent()) {
 				return matchingServer.get();
 			}
@@ -394,19 +418,18 @@ private static LanguageServerWrapper getLSWrapper(@Nullable IProject project,
 					: new LanguageServerWrapper(serverDefinition, initialPath);
 			wrapper.start();
 
-			startedServers.add(wrapper);
+			addStartedServer(wrapper);
 			return wrapper;
 		}
 	}
 
 	public static LanguageServerWrapper startLanguageServer(LanguageServerDefinition serverDefinition) {
 		synchronized (startedServers) {
-			LanguageServerWrapper wrapper = startedServers.stream().filter(w -> w.serverDefinition == serverDefinition)
-					.findFirst().orElseGet(() -> {
-						final var w = new LanguageServerWrapper(serverDefinition, null);
-						startedServers.add(w);
-						return w;
-					});
+			LanguageServerWrapper wrapper = getStartedServers(serverDefinition).stream().findFirst().orElseGet(() -> {
+				final var w = new LanguageServerWrapper(serverDefinition, null);
+				addStartedServer(w);
+				return w;
+			});
 			if (!wrapper.isActive()) {
 				wrapper.start();
 			}
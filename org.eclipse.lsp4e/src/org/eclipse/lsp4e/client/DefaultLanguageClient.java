@@ -18,6 +18,7 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import org.eclipse.core.runtime.Adapters;
@@ -128,17 +129,18 @@ public void notifyProgress(final ProgressParams params) {
 	@Override
 	public final CompletableFuture<ApplyWorkspaceEditResponse> applyEdit(ApplyWorkspaceEditParams params) {
 		return CompletableFuture.supplyAsync(() -> {
+			final var applied = new AtomicBoolean();
 			final var job = new Job(Messages.serverEdit) {
 				@Override
 				public IStatus run(IProgressMonitor monitor) {
-					LSPEclipseUtils.applyWorkspaceEdit(params.getEdit(), params.getLabel());
-					return Status.OK_STATUS;
+					applied.set(LSPEclipseUtils.applyWorkspaceEdit(params.getEdit(), params.getLabel(), monitor));
+					return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
 				}
 			};
 			job.schedule();
 			try {
 				job.join();
-				return new ApplyWorkspaceEditResponse(true);
+				return new ApplyWorkspaceEditResponse(applied.get());
 			} catch (InterruptedException e) {
 				LanguageServerPlugin.logError(e);
 				Thread.currentThread().interrupt();
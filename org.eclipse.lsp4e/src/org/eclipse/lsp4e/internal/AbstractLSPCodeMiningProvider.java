@@ -24,6 +24,7 @@
 import org.eclipse.jface.text.codemining.AbstractCodeMiningProvider;
 import org.eclipse.jface.text.codemining.ICodeMining;
 import org.eclipse.lsp4e.LSPEclipseUtils;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler.Priority;
 import org.eclipse.lsp4j.TextDocumentIdentifier;
 
 /**
@@ -32,6 +33,8 @@
  * <li>compute code minings asynchronously per document using LSP requests</li>
  * <li>track at most one in-flight request per document and cancel the previous
  * one when a new computation starts</li>
+ * <li>send the requests through the {@link DocumentRefreshScheduler}, along with
+ * the other features refreshed after a document change</li>
  * </ul>
  */
 public abstract class AbstractLSPCodeMiningProvider extends AbstractCodeMiningProvider {
@@ -61,16 +64,17 @@ public abstract class AbstractLSPCodeMiningProvider extends AbstractCodeMiningPr
 
 		final TextDocumentIdentifier docId = LSPEclipseUtils.toTextDocumentIdentifier(docURI);
 
-		final var current = doProvideCodeMinings(document, docId);
-		final CompletableFuture<List<? extends ICodeMining>> previous;
-		if (current == null) {
-			previous = pendingRequests.remove(document);
-		} else {
-			previous = pendingRequests.put(document, current);
-		}
+		final CompletableFuture<List<? extends ICodeMining>> current = DocumentRefreshScheduler.DEFAULT.schedule(document,
+				viewer.getTextWidget(), this, Priority.CODE_MININGS, () -> {
+					final var minings = doProvideCodeMinings(document, docId);
+					return minings == null ? CompletableFuture.completedFuture(List.of()) : minings;
+				});
+		final CompletableFuture<List<? extends ICodeMining>> previous = pendingRequests.put(document, current);
 		if (previous != null && !previous.isDone()) {
 			previous.cancel(true);
 		}
+		// forget the request once done, so closed documents are not retained
+		current.whenComplete((minings, error) -> pendingRequests.remove(document, current));
 
 		return current;
 	}
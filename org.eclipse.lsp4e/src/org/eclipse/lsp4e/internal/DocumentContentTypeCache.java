@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.lsp4e.LSPEclipseUtils;
+
+/**
+ * Caches the content-types detected for a document, so the content describers
+ * do not run on every language server lookup.
+ * <p>
+ * Entries are weakly keyed by the document and only valid as long as the
+ * document is backed by the same file buffer and neither the document nor the
+ * underlying file has been modified. Documents without a modification stamp
+ * are not cached. The cache is cleared when the content-type registry changes.
+ */
+public final class DocumentContentTypeCache {
+
+	/**
+	 * Number of characters at the beginning of a document passed to the content
+	 * describers. They only look at the head of a file (BOM, XML prolog and root
+	 * element, shebang...), so multi-megabyte documents are not streamed entirely.
+	 */
+	public static final int SNIFF_WINDOW_CHARS = 64 * 1024;
+
+	/**
+	 * The file buffer is only weakly referenced, as it strongly references the
+	 * document used as key, which would otherwise never be collected.
+	 */
+	private record Entry(@Nullable WeakReference<ITextFileBuffer> buffer, long documentStamp, long fileStamp,
+			List<IContentType> contentTypes) {
+
+		boolean isBackedBy(@Nullable ITextFileBuffer other) {
+			final var buffer = this.buffer;
+			return buffer == null ? other == null : buffer.get() == other;
+		}
+	}
+
+	private static final Map<IDocument, Entry> cache = Collections.synchronizedMap(new WeakHashMap<>());
+
+	static {
+		Platform.getContentTypeManager().addContentTypeChangeListener(event -> cache.clear());
+	}
+
+	private DocumentContentTypeCache() {
+		// this class shouldn't be instantiated
+	}
+
+	/**
+	 * @return the cached content-types of the document, computed with the given
+	 *         function if there are none or the document has been modified
+	 */
+	public static List<IContentType> get(IDocument document,
+			Function<IDocument, List<IContentType>> contentTypesComputer) {
+		final ITextFileBuffer buffer = LSPEclipseUtils.toBuffer(document);
+		final long documentStamp = DocumentUtil.getDocumentModificationStamp(document);
+		final long fileStamp = buffer != null ? buffer.getModificationStamp()
+				: IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+
+		final Entry entry = cache.get(document);
+		if (entry != null && entry.isBackedBy(buffer) && entry.documentStamp == documentStamp
+				&& entry.fileStamp == fileStamp) {
+			return entry.contentTypes;
+		}
+
+		final List<IContentType> contentTypes = List.copyOf(contentTypesComputer.apply(document));
+		if (documentStamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP
+				&& documentStamp == DocumentUtil.getDocumentModificationStamp(document)) {
+			cache.put(document, new Entry(buffer != null ? new WeakReference<>(buffer) : null, documentStamp,
+					fileStamp, contentTypes));
+		}
+		return contentTypes;
+	}
+
+	/**
+	 * @return the number of documents in the cache, for testing
+	 */
+	public static int size() {
+		return cache.size();
+	}
+}
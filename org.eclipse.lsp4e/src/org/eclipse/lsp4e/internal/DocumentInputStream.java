@@ -18,4 +18,13 @@ public final class DocumentInputStream extends CharsInputStream {
 	public DocumentInputStream(final IDocument doc) {
 		super(doc::getChar, doc::getLength, DocumentUtil.getCharset(doc));
 	}
+
+	/**
+	 * @param maxChars
+	 *            the number of characters at the beginning of the document to
+	 *            provide at most
+	 */
+	public DocumentInputStream(final IDocument doc, final int maxChars) {
+		super(doc::getChar, () -> Math.min(doc.getLength(), maxChars), DocumentUtil.getCharset(doc));
+	}
 }
@@ -0,0 +1,349 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.lsp4e.LanguageServerPlugin;
+import org.eclipse.lsp4e.ui.UI;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Listener;
+
+/**
+ * Schedules the requests refreshing the features of a document after it was
+ * modified, e.g. semantic highlighting, folding, document links, code minings
+ * and the outline, so they are sent together instead of each feature deciding
+ * on its own when to query the language servers.
+ * <p>
+ * Refreshes scheduled for the same document version are debounced once and
+ * then sent in {@link Priority} order. A refresh scheduled for a newer version
+ * of the document cancels all the refreshes of the previous versions at once,
+ * and a refresh cancels the previous one of the same requester. The refreshes
+ * of a control which is not visible, e.g. an editor in a background tab, are
+ * deferred until the control is painted again, and cancelled when it is
+ * disposed. Refreshes still pending when the document was modified again,
+ * e.g. by a refactoring touching the documents of background editors, are
+ * cancelled without being sent, so a hidden editor gets a single catch-up
+ * refresh per feature once visible.
+ */
+public final class DocumentRefreshScheduler {
+
+	/**
+	 * The order in which the refreshes of a document version are sent: features
+	 * which are visible in the editor first.
+	 */
+	public enum Priority {
+		/** styles of the text, e.g. semantic highlighting and document links */
+		TEXT_PRESENTATION,
+		/** annotations, e.g. folding */
+		ANNOTATIONS,
+		/** code minings, e.g. inlay hints, code lenses and colors */
+		CODE_MININGS,
+		/** views showing the document, e.g. the outline */
+		OUTLINE
+	}
+
+	/**
+	 * Counts of the refreshes scheduled so far.
+	 *
+	 * @param sent
+	 *            number of refreshes whose request was sent to the servers
+	 * @param deferred
+	 *            number of refreshes which were deferred because their control was
+	 *            hidden
+	 * @param saved
+	 *            number of refreshes cancelled before their request was sent,
+	 *            because they were superseded, stale or their control disposed
+	 */
+	public record Statistics(long sent, long deferred, long saved) {
+	}
+
+	static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(50);
+
+	public static final DocumentRefreshScheduler DEFAULT = new DocumentRefreshScheduler(DEFAULT_DEBOUNCE);
+
+	private final class Refresh<T> {
+		final Object requester;
+		final Priority priority;
+		final @Nullable Control control;
+		final Supplier<CompletableFuture<T>> request;
+		final CompletableFuture<T> result = new CompletableFuture<>();
+		private boolean sent;
+		private boolean deferred;
+
+		Refresh(Object requester, Priority priority, @Nullable Control control,
+				Supplier<CompletableFuture<T>> request) {
+			this.requester = requester;
+			this.priority = priority;
+			this.control = control;
+			this.request = request;
+		}
+
+		void send() {
+			synchronized (this) {
+				if (sent || result.isDone()) {
+					return;
+				}
+				sent = true;
+			}
+			sentCount.increment();
+			final CompletableFuture<T> future;
+			try {
+				future = request.get();
+			} catch (RuntimeException ex) {
+				result.completeExceptionally(ex);
+				return;
+			}
+			// cancelling the result, e.g. for a newer version, cancels the request
+			result.whenComplete((r, t) -> future.cancel(true));
+			future.whenComplete((r, t) -> {
+				if (t == null) {
+					result.complete(r);
+				} else {
+					result.completeExceptionally(t);
+				}
+			});
+		}
+
+		synchronized boolean isSent() {
+			return sent;
+		}
+
+		void defer() {
+			synchronized (this) {
+				if (deferred) {
+					return;
+				}
+				deferred = true;
+			}
+			deferredCount.increment();
+		}
+	}
+
+	/**
+	 * The refreshes scheduled for the current version of one document.
+	 */
+	private static final class DocumentRefreshes {
+		long version;
+		final Map<Object, Refresh<?>> refreshes = new LinkedHashMap<>();
+		/** controls waiting to be painted to send their deferred refreshes */
+		final Set<Control> hiddenControls = new HashSet<>();
+		boolean dispatchScheduled;
+	}
+
+	private final Executor debounceExecutor;
+	private final Map<IDocument, DocumentRefreshes> documents = new WeakHashMap<>();
+	private final LongAdder sentCount = new LongAdder();
+	private final LongAdder deferredCount = new LongAdder();
+	private final LongAdder savedCount = new LongAdder();
+
+	public DocumentRefreshScheduler(Duration debounce) {
+		this.debounceExecutor = CompletableFuture.delayedExecutor(debounce.toMillis(), TimeUnit.MILLISECONDS,
+				ExecutorUtil.asyncExecutor());
+	}
+
+	/**
+	 * Schedules the refresh of a feature of the given document.
+	 *
+	 * @param document
+	 *            the document to refresh the feature of
+	 * @param control
+	 *            the control showing the feature, the request is only sent once
+	 *            it is visible. <code>null</code> if the feature is not shown in
+	 *            a particular control
+	 * @param requester
+	 *            identifies the feature, a new refresh of the same requester
+	 *            cancels its previous one
+	 * @param priority
+	 *            the order in which the request is sent among the other requests
+	 *            refreshing the same document version
+	 * @param request
+	 *            sends the request to the language servers
+	 * @return the result of the request. It is cancelled when the request gets
+	 *         stale, and cancelling it cancels the request
+	 */
+	public <T> CompletableFuture<T> schedule(IDocument document, @Nullable Control control, Object requester,
+			Priority priority, Supplier<CompletableFuture<T>> request) {
+		final var refresh = new Refresh<>(requester, priority, control, request);
+		final long version = DocumentUtil.getDocumentModificationStamp(document);
+		final var cancelled = new ArrayList<Refresh<?>>();
+		boolean dispatch = false;
+		synchronized (documents) {
+			final DocumentRefreshes state = documents.computeIfAbsent(document, d -> new DocumentRefreshes());
+			if (state.version != version) {
+				cancelled.addAll(state.refreshes.values());
+				state.refreshes.clear();
+				state.version = version;
+			}
+			final Refresh<?> previous = state.refreshes.put(requester, refresh);
+			if (previous != null) {
+				cancelled.add(previous);
+			}
+			if (!state.dispatchScheduled) {
+				state.dispatchScheduled = true;
+				dispatch = true;
+			}
+		}
+		cancelled.forEach(stale -> stale.result.cancel(true));
+		refresh.result.whenComplete((r, t) -> {
+			if (refresh.result.isCancelled() && !refresh.isSent()) {
+				savedCount.increment();
+				if (LanguageServerPlugin.DEBUG) {
+					LanguageServerPlugin.logInfo("Refresh of " + refresh.requester.getClass().getSimpleName() //$NON-NLS-1$
+							+ " cancelled before being sent, " + getStatistics()); //$NON-NLS-1$
+				}
+			}
+			remove(document, refresh);
+		});
+		if (dispatch) {
+			debounceExecutor.execute(() -> dispatch(document));
+		}
+		return refresh.result;
+	}
+
+	private void remove(IDocument document, Refresh<?> refresh) {
+		synchronized (documents) {
+			final DocumentRefreshes state = documents.get(document);
+			if (state != null) {
+				state.refreshes.remove(refresh.requester, refresh);
+			}
+		}
+	}
+
+	/**
+	 * Sends the pending refreshes of the given document, deferring the ones of
+	 * hidden controls. Refreshes of a version older than the document are
+	 * cancelled instead: modifying the document triggers new refreshes.
+	 */
+	private void dispatch(IDocument document) {
+		final List<Refresh<?>> pending;
+		final boolean stale;
+		synchronized (documents) {
+			final DocumentRefreshes state = documents.get(document);
+			if (state == null) {
+				return;
+			}
+			state.dispatchScheduled = false;
+			pending = state.refreshes.values().stream() //
+					.filter(refresh -> !refresh.isSent() && !refresh.result.isDone()) //
+					.sorted(Comparator.comparing(refresh -> refresh.priority)) //
+					.toList();
+			stale = state.version != DocumentUtil.getDocumentModificationStamp(document);
+		}
+		if (pending.isEmpty()) {
+			return;
+		}
+		if (stale) {
+			pending.forEach(refresh -> refresh.result.cancel(true));
+			return;
+		}
+		if (pending.stream().allMatch(refresh -> refresh.control == null)) {
+			pending.forEach(Refresh::send);
+			return;
+		}
+		// visibility must be checked in the UI thread, then the requests are sent in the background
+		UI.getDisplay().asyncExec(() -> {
+			final var visible = new ArrayList<Refresh<?>>(pending.size());
+			for (final Refresh<?> refresh : pending) {
+				final Control refreshControl = refresh.control;
+				if (refreshControl == null) {
+					visible.add(refresh);
+				} else if (refreshControl.isDisposed()) {
+					refresh.result.cancel(true);
+				} else if (refreshControl.isVisible()) {
+					visible.add(refresh);
+				} else {
+					refresh.defer();
+					deferUntilVisible(document, refreshControl);
+				}
+			}
+			if (!visible.isEmpty()) {
+				ExecutorUtil.asyncExecutor().execute(() -> visible.forEach(Refresh::send));
+			}
+		});
+	}
+
+	/**
+	 * Dispatches the refreshes of the given document again when the control is
+	 * painted, or cancels them when it is disposed. Must be called in the UI
+	 * thread.
+	 */
+	private void deferUntilVisible(IDocument document, Control control) {
+		synchronized (documents) {
+			final DocumentRefreshes state = documents.get(document);
+			if (state == null || !state.hiddenControls.add(control)) {
+				return;
+			}
+		}
+		final var listener = new Listener[1];
+		listener[0] = event -> {
+			control.removeListener(SWT.Paint, listener[0]);
+			control.removeListener(SWT.Dispose, listener[0]);
+			final var disposed = new ArrayList<Refresh<?>>();
+			synchronized (documents) {
+				final DocumentRefreshes state = documents.get(document);
+				if (state == null) {
+					return;
+				}
+				state.hiddenControls.remove(control);
+				if (event.type == SWT.Dispose) {
+					state.refreshes.values().stream().filter(refresh -> refresh.control == control)
+							.forEach(disposed::add);
+				}
+			}
+			if (event.type == SWT.Dispose) {
+				disposed.forEach(refresh -> refresh.result.cancel(true));
+			} else {
+				ExecutorUtil.asyncExecutor().execute(() -> dispatch(document));
+			}
+		};
+		control.addListener(SWT.Paint, listener[0]);
+		control.addListener(SWT.Dispose, listener[0]);
+	}
+
+	/**
+	 * @return the number of refreshes of the given document not sent yet, e.g.
+	 *         because their control is not visible
+	 */
+	public int getPendingCount(IDocument document) {
+		synchronized (documents) {
+			final DocumentRefreshes state = documents.get(document);
+			return state == null ? 0
+					: (int) state.refreshes.values().stream().filter(refresh -> !refresh.isSent()).count();
+		}
+	}
+
+	/**
+	 * @return the counts of the refreshes scheduled so far. They are also logged
+	 *         each time a refresh is cancelled before being sent when the
+	 *         <code>org.eclipse.lsp4e/debug</code> tracing option is enabled
+	 */
+	public Statistics getStatistics() {
+		return new Statistics(sentCount.sum(), deferredCount.sum(), savedCount.sum());
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Creates the executors of the language server wrappers.
+ * <p>
+ * By default they run on platform threads. Setting the system property
+ * {@value #VIRTUAL_THREADS_PROPERTY} to <code>true</code> makes them run on
+ * virtual threads instead, so idle servers do not hold on to platform threads,
+ * and makes the responses delivered to the callers, which often block waiting
+ * on other futures, continue on virtual threads instead of the common
+ * {@link java.util.concurrent.ForkJoinPool ForkJoinPool}. The property is read
+ * when an executor is created.
+ * <p>
+ * The property does not apply to the callers blocking on a response, e.g. in
+ * {@code LSContentAssistProcessor}, {@code LSPFormatFilesHandler} or
+ * {@code LSCompletionProposal.resolveItem}. They wait on threads owned by the
+ * platform, i.e. the UI thread, the workers of the job manager or the threads
+ * of the content assist popup, which would stay blocked just as long if the
+ * wait was handed over to a virtual thread.
+ */
+public final class ExecutorUtil {
+
+	public static final String VIRTUAL_THREADS_PROPERTY = "org.eclipse.lsp4e.virtualThreads"; //$NON-NLS-1$
+
+	/** the executor used by the async methods of {@link CompletableFuture} when none is given */
+	private static final Executor DEFAULT_ASYNC_EXECUTOR = new CompletableFuture<>().defaultExecutor();
+
+	private static final class VirtualAsyncExecutorHolder {
+		static final ExecutorService INSTANCE = Executors
+				.newThreadPerTaskExecutor(Thread.ofVirtual().name("LS-Async-", 1).factory()); //$NON-NLS-1$
+	}
+
+	private ExecutorUtil() {
+		// this class shouldn't be instantiated
+	}
+
+	public static boolean isVirtualThreadsEnabled() {
+		return Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY);
+	}
+
+	/**
+	 * @return an executor running its tasks one after the other on a thread of the
+	 *         given name
+	 */
+	public static ExecutorService newSingleThreadExecutor(String threadName) {
+		if (isVirtualThreadsEnabled()) {
+			return Executors.newSingleThreadExecutor(Thread.ofVirtual().name(threadName).factory());
+		}
+		return Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(threadName).build());
+	}
+
+	/**
+	 * @return an executor running its tasks on as many threads as needed, named
+	 *         with the given prefix followed by a counter
+	 */
+	public static ExecutorService newCachedThreadPool(String threadNamePrefix) {
+		if (isVirtualThreadsEnabled()) {
+			return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+		}
+		return Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat(threadNamePrefix + "%d").build()); //$NON-NLS-1$
+	}
+
+	/**
+	 * @return an executor running its tasks on at most the given number of
+	 *         threads, named with the given prefix followed by a counter, and
+	 *         rejecting the tasks submitted while the given number of tasks are
+	 *         already waiting for a thread
+	 */
+	public static ExecutorService newBoundedThreadPool(String threadNamePrefix, int maxThreads, int maxWaitingTasks) {
+		final ThreadFactory threadFactory = isVirtualThreadsEnabled()
+				? Thread.ofVirtual().name(threadNamePrefix, 0).factory()
+				: new ThreadFactoryBuilder().setNameFormat(threadNamePrefix + "%d").build(); //$NON-NLS-1$
+		final var executor = new ThreadPoolExecutor(maxThreads, maxThreads, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(maxWaitingTasks), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * @return the executor to run asynchronous continuations on, so they do not
+	 *         block the thread that completed the future (e.g. a listener thread
+	 *         reading the server messages)
+	 */
+	public static Executor asyncExecutor() {
+		return isVirtualThreadsEnabled() ? VirtualAsyncExecutorHolder.INSTANCE : DEFAULT_ASYNC_EXECUTOR;
+	}
+}
@@ -0,0 +1,321 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.internal;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.messages.CancelParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Message;
+import org.eclipse.lsp4j.jsonrpc.messages.NotificationMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.RequestMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseMessage;
+
+/**
+ * Tracks the latency of the requests sent to one language server, by method,
+ * from the JSON-RPC messages exchanged with it.
+ * <p>
+ * Callers waiting for a response with a timeout ask for it with
+ * {@link #getTimeout(String, Duration)}: once enough responses were observed,
+ * the timeout is derived from the recent latencies of the method, within bounds
+ * of the default timeout. A request still pending after the timeout of its
+ * method counts as timed out. A method timing out
+ * {@value #DEGRADED_THRESHOLD} times in a row is degraded for a while. Any
+ * response of the method received in time clears this count.
+ */
+public final class LatencyTracker {
+
+	public static final String SIGNATURE_HELP = "textDocument/signatureHelp"; //$NON-NLS-1$
+	public static final String COMPLETION_RESOLVE = "completionItem/resolve"; //$NON-NLS-1$
+	public static final String WILL_SAVE_WAIT_UNTIL = "textDocument/willSaveWaitUntil"; //$NON-NLS-1$
+	public static final String WORKSPACE_SYMBOL = "workspace/symbol"; //$NON-NLS-1$
+
+	private static final String CANCEL_REQUEST = "$/cancelRequest"; //$NON-NLS-1$
+
+	/** number of recent latencies the timeouts are derived from */
+	static final int WINDOW = 64;
+	/** number of latencies needed before the default timeout is adapted */
+	static final int MIN_SAMPLES = 8;
+	static final int PERCENTILE = 95;
+	/** factor applied to the percentile, so only outliers time out */
+	static final int HEADROOM = 2;
+	/** number of consecutive timeouts after which a method is degraded */
+	public static final int DEGRADED_THRESHOLD = 3;
+	static final Duration DEGRADED_PERIOD = Duration.ofSeconds(30);
+
+	/**
+	 * Latencies and timeouts of the requests of one method.
+	 *
+	 * @param samples
+	 *            number of latencies the percentiles are computed from
+	 * @param median
+	 *            median latency, or {@link Duration#ZERO} without samples
+	 * @param percentile
+	 *            {@value #PERCENTILE}th percentile latency, or
+	 *            {@link Duration#ZERO} without samples
+	 * @param timeouts
+	 *            number of requests which timed out so far
+	 * @param degraded
+	 *            whether the method is currently degraded
+	 */
+	public record Statistics(int samples, Duration median, Duration percentile, long timeouts, boolean degraded) {
+	}
+
+	private static final class PendingRequest {
+		final String method;
+		final long sentAt;
+		boolean timedOut;
+
+		PendingRequest(String method, long sentAt) {
+			this.method = method;
+			this.sentAt = sentAt;
+		}
+	}
+
+	/**
+	 * Consecutive timeouts of a method.
+	 */
+	private final class Health {
+		private int consecutiveTimeouts;
+		private long degradedUntil;
+
+		synchronized void onTime() {
+			consecutiveTimeouts = 0;
+		}
+
+		synchronized void timedOut() {
+			if (++consecutiveTimeouts >= DEGRADED_THRESHOLD) {
+				degradedUntil = clock.getAsLong() + DEGRADED_PERIOD.toNanos();
+				// still on probation after the degraded period: one more timeout degrades it again
+				consecutiveTimeouts = DEGRADED_THRESHOLD - 1;
+			}
+		}
+
+		synchronized boolean isDegraded() {
+			return consecutiveTimeouts > 0 && degradedUntil - clock.getAsLong() > 0;
+		}
+	}
+
+	private final class MethodStatistics {
+		final Health health = new Health();
+		/** ring buffer of the recent latencies in nanoseconds */
+		private final long[] latencies = new long[WINDOW];
+		private int count;
+		private int next;
+		private long timeouts;
+		/** set once a caller waits for the method with a timeout, 0 until then */
+		volatile long defaultTimeout;
+
+		synchronized void addLatency(long latency) {
+			latencies[next] = latency;
+			next = (next + 1) % WINDOW;
+			count = Math.min(count + 1, WINDOW);
+		}
+
+		synchronized void addTimeout() {
+			timeouts++;
+		}
+
+		synchronized long percentile(int percentile) {
+			if (count == 0) {
+				return 0;
+			}
+			final long[] sorted = Arrays.copyOf(latencies, count);
+			Arrays.sort(sorted);
+			return sorted[Math.max(0, (int) Math.ceil(percentile / 100.0 * count) - 1)];
+		}
+
+		long getTimeout(long defaultTimeout) {
+			final int count;
+			synchronized (this) {
+				count = this.count;
+			}
+			if (count < MIN_SAMPLES) {
+				return defaultTimeout;
+			}
+			final long adaptive = percentile(PERCENTILE) * HEADROOM;
+			return Math.clamp(adaptive, defaultTimeout / 2, defaultTimeout * 2);
+		}
+
+		synchronized Statistics getStatistics() {
+			return new Statistics(count, Duration.ofNanos(percentile(50)), Duration.ofNanos(percentile(PERCENTILE)),
+					timeouts, health.isDegraded());
+		}
+	}
+
+	private final LongSupplier clock;
+	private final Map<String, MethodStatistics> methods = new ConcurrentHashMap<>();
+	/** requests sent and not answered yet, by id */
+	private final Map<String, PendingRequest> pending = new ConcurrentHashMap<>();
+
+	public LatencyTracker() {
+		this(System::nanoTime);
+	}
+
+	/**
+	 * @param clock
+	 *            the current time in nanoseconds
+	 */
+	public LatencyTracker(LongSupplier clock) {
+		this.clock = clock;
+	}
+
+	private MethodStatistics getMethod(String method) {
+		return methods.computeIfAbsent(method, m -> new MethodStatistics());
+	}
+
+	/**
+	 * Creates the message wrapper of one {@link Launcher}, to be passed to
+	 * {@link Launcher.Builder#wrapMessages(java.util.function.Function)}, which
+	 * tracks the messages exchanged through the launcher.
+	 * <p>
+	 * The builder first wraps the consumer writing the outgoing messages, then
+	 * the remote endpoint consuming the incoming ones. The direction is told
+	 * from this order, not from the type of the consumers: a builder validating
+	 * or tracing the messages hands over consumers it already wrapped.
+	 */
+	public UnaryOperator<MessageConsumer> createMessageWrapper() {
+		final var wrapped = new AtomicInteger();
+		return consumer -> {
+			final boolean incoming = wrapped.getAndIncrement() > 0;
+			return message -> {
+				if (incoming) {
+					messageReceived(message);
+				} else {
+					messageSent(message);
+				}
+				consumer.consume(message);
+			};
+		};
+	}
+
+	/**
+	 * To be called for each message sent to the server.
+	 */
+	public void messageSent(Message message) {
+		if (message instanceof RequestMessage request) {
+			final long now = clock.getAsLong();
+			checkTimeouts(request.getMethod(), now);
+			final @Nullable String id = request.getId();
+			if (id != null) {
+				pending.put(id, new PendingRequest(request.getMethod(), now));
+			}
+		} else if (message instanceof NotificationMessage notification
+				&& CANCEL_REQUEST.equals(notification.getMethod())
+				&& notification.getParams() instanceof CancelParams params) {
+			final PendingRequest request = pending.remove(params.getId());
+			if (request != null) {
+				// a cancelled request has no latency, but it may have been waited for too long
+				checkTimeout(request, clock.getAsLong());
+			}
+		}
+	}
+
+	/**
+	 * To be called for each message received from the server.
+	 */
+	public void messageReceived(Message message) {
+		if (message instanceof ResponseMessage response) {
+			final @Nullable String id = response.getId();
+			final PendingRequest request = id == null ? null : pending.remove(id);
+			if (request == null) {
+				return;
+			}
+			final long now = clock.getAsLong();
+			if (!checkTimeout(request, now)) {
+				getMethod(request.method).health.onTime();
+			}
+			if (response.getError() == null) {
+				getMethod(request.method).addLatency(now - request.sentAt);
+			}
+		}
+	}
+
+	/**
+	 * Flags the requests of the given method pending for longer than its
+	 * timeout, so a server which stopped answering is noticed.
+	 */
+	private void checkTimeouts(String method, long now) {
+		for (final PendingRequest request : pending.values()) {
+			if (request.method.equals(method)) {
+				checkTimeout(request, now);
+			}
+		}
+	}
+
+	/**
+	 * @return whether the request took longer than the timeout of its method
+	 */
+	private boolean checkTimeout(PendingRequest request, long now) {
+		final MethodStatistics statistics = methods.get(request.method);
+		if (statistics == null || statistics.defaultTimeout == 0) {
+			return false;
+		}
+		synchronized (request) {
+			if (request.timedOut) {
+				return true;
+			}
+			if (now - request.sentAt <= statistics.getTimeout(statistics.defaultTimeout)) {
+				return false;
+			}
+			request.timedOut = true;
+		}
+		statistics.addTimeout();
+		statistics.health.timedOut();
+		return true;
+	}
+
+	/**
+	 * @param method
+	 *            a JSON-RPC method, e.g. <code>textDocument/hover</code>
+	 * @param defaultTimeout
+	 *            the timeout to use until enough responses were observed
+	 * @return how long to wait for a response to a request of the given method:
+	 *         twice the {@value #PERCENTILE}th percentile of its recent
+	 *         latencies, between half and twice the default timeout
+	 */
+	public Duration getTimeout(String method, Duration defaultTimeout) {
+		final MethodStatistics statistics = getMethod(method);
+		final long defaultNanos = defaultTimeout.toNanos();
+		statistics.defaultTimeout = defaultNanos;
+		return Duration.ofNanos(statistics.getTimeout(defaultNanos));
+	}
+
+	/**
+	 * @return whether requests of the given method recently timed out
+	 *         {@value #DEGRADED_THRESHOLD} times in a row
+	 */
+	public boolean isDegraded(String method) {
+		final MethodStatistics statistics = methods.get(method);
+		return statistics != null && statistics.health.isDegraded();
+	}
+
+	public Statistics getStatistics(String method) {
+		return getMethod(method).getStatistics();
+	}
+
+	/**
+	 * Forgets the pending requests, e.g. when the server is stopped. The
+	 * latencies are kept for when it is restarted.
+	 */
+	public void clearPending() {
+		pending.clear();
+	}
+}
@@ -11,7 +11,10 @@
  *******************************************************************************/
 package org.eclipse.lsp4e.internal;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.commonmark.Extension;
 import org.commonmark.ext.gfm.tables.TablesExtension;
@@ -19,6 +22,13 @@
 import org.commonmark.renderer.Renderer;
 import org.commonmark.renderer.html.HtmlRenderer;
 
+/**
+ * Renders the markdown content of hovers and documentation to HTML.
+ * <p>
+ * The rendered HTML is cached, as the same content is often rendered again,
+ * e.g. when hovering the same symbol or scrolling a completion list. Large
+ * content can be rendered {@link #renderToHtmlIncrementally incrementally}.
+ */
 public class MarkdownUtil {
 
 	/**
@@ -33,11 +43,118 @@ public class MarkdownUtil {
 	private static final Parser PARSER = Parser.builder().extensions(EXTENSIONS).build();
 	private static final Renderer RENDERER = HtmlRenderer.builder().extensions(EXTENSIONS).build();
 
+	/** markdown content longer than this number of characters is rendered incrementally */
+	public static final int INCREMENTAL_THRESHOLD = 16 * 1024;
+	/** minimal number of characters of markdown content rendered first */
+	static final int FIRST_SCREEN_LENGTH = 4 * 1024;
+
+	private static final int CACHE_SIZE = 128;
+	/** maximal number of characters of markdown and HTML kept in the cache */
+	private static final long CACHE_WEIGHT = 4 * 1024 * 1024;
+
+	/** the rendered HTML by markdown content, least recently used first */
+	private static final Map<String, String> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+	private static long cacheWeight;
+
+	/**
+	 * The HTML of markdown content rendered incrementally.
+	 *
+	 * @param firstScreen
+	 *            the HTML of the beginning of the content, to show until the
+	 *            whole content is rendered
+	 * @param complete
+	 *            the HTML of the whole content
+	 */
+	public record IncrementalHtml(String firstScreen, CompletableFuture<String> complete) {
+	}
+
 	/**
 	 * Renders the given markdown content to HTML.
 	 */
 	public static String renderToHtml(String markdown) {
-		return RENDERER.render(PARSER.parse(markdown));
+		synchronized (CACHE) {
+			final String html = CACHE.get(markdown);
+			if (html != null) {
+				return html;
+			}
+		}
+		final String html = RENDERER.render(PARSER.parse(markdown));
+		cache(markdown, html);
+		return html;
+	}
+
+	/**
+	 * Renders the given markdown content to HTML. The beginning of content longer
+	 * than {@value #INCREMENTAL_THRESHOLD} characters is rendered first, up to a
+	 * blank line outside code blocks, and the whole content in the background.
+	 * The first screen may render references to link definitions made later in
+	 * the content as plain text.
+	 */
+	public static IncrementalHtml renderToHtmlIncrementally(String markdown) {
+		if (markdown.length() > INCREMENTAL_THRESHOLD) {
+			final String cached;
+			synchronized (CACHE) {
+				cached = CACHE.get(markdown);
+			}
+			if (cached == null) {
+				final int end = getFirstScreenEnd(markdown);
+				if (end < markdown.length()) {
+					final String firstScreen = RENDERER.render(PARSER.parse(markdown.substring(0, end)));
+					return new IncrementalHtml(firstScreen,
+							CompletableFuture.supplyAsync(() -> renderToHtml(markdown), ExecutorUtil.asyncExecutor()));
+				}
+			}
+		}
+		final String html = renderToHtml(markdown);
+		return new IncrementalHtml(html, CompletableFuture.completedFuture(html));
+	}
+
+	/**
+	 * @return the offset of the first blank line outside fenced code blocks after
+	 *         {@value #FIRST_SCREEN_LENGTH} characters, so the blocks of the first
+	 *         screen are rendered as in the whole content, or the length of the
+	 *         content if there is none
+	 */
+	static int getFirstScreenEnd(String markdown) {
+		boolean fenced = false;
+		int lineStart = 0;
+		while (lineStart < markdown.length()) {
+			int lineEnd = markdown.indexOf('\n', lineStart);
+			if (lineEnd < 0) {
+				lineEnd = markdown.length();
+			}
+			int textStart = lineStart;
+			while (textStart < lineEnd && Character.isWhitespace(markdown.charAt(textStart))) {
+				textStart++;
+			}
+			if (markdown.startsWith("```", textStart) || markdown.startsWith("~~~", textStart)) { //$NON-NLS-1$ //$NON-NLS-2$
+				fenced = !fenced;
+			} else if (!fenced && textStart == lineEnd && lineStart >= FIRST_SCREEN_LENGTH) {
+				return lineStart;
+			}
+			lineStart = lineEnd + 1;
+		}
+		return markdown.length();
+	}
+
+	private static void cache(String markdown, String html) {
+		final long weight = (long) markdown.length() + html.length();
+		if (weight > CACHE_WEIGHT / 4) {
+			return;
+		}
+		synchronized (CACHE) {
+			final String previous = CACHE.put(markdown, html);
+			if (previous != null) {
+				cacheWeight -= markdown.length() + previous.length();
+			}
+			cacheWeight += weight;
+			final var iterator = CACHE.entrySet().iterator();
+			while ((cacheWeight > CACHE_WEIGHT || CACHE.size() > CACHE_SIZE) && iterator.hasNext()) {
+				final var eldest = iterator.next();
+				cacheWeight -= eldest.getKey().length() + eldest.getValue().length();
+				iterator.remove();
+			}
+		}
 	}
 
 }
@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.internal;
+
+import static org.eclipse.lsp4e.internal.NullSafetyHelper.castNonNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+
+/**
+ * Shares the requests sent to one language server for the same document
+ * position between features, e.g. hover, hyperlink detection and highlighting
+ * all asking about the symbol under the mouse within a few milliseconds.
+ * <p>
+ * Requests are keyed by method, document version and parameters. A request
+ * still in flight is shared by all callers, and its result is reused for the
+ * time-to-live configured for its method. Methods without a time-to-live only
+ * share in-flight requests. Every caller gets its own future: cancelling it
+ * only cancels the request to the server once all callers have cancelled.
+ * Failed requests are never reused.
+ */
+public final class RequestCache {
+
+	public static final String HOVER = "textDocument/hover"; //$NON-NLS-1$
+	public static final String DOCUMENT_HIGHLIGHT = "textDocument/documentHighlight"; //$NON-NLS-1$
+	public static final String LINKED_EDITING_RANGE = "textDocument/linkedEditingRange"; //$NON-NLS-1$
+	public static final String DEFINITION = "textDocument/definition"; //$NON-NLS-1$
+	public static final String DECLARATION = "textDocument/declaration"; //$NON-NLS-1$
+	public static final String TYPE_DEFINITION = "textDocument/typeDefinition"; //$NON-NLS-1$
+	public static final String IMPLEMENTATION = "textDocument/implementation"; //$NON-NLS-1$
+
+	/** number of entries above which expired entries are evicted */
+	private static final int SWEEP_THRESHOLD = 256;
+
+	/**
+	 * Results of the requests triggered by mouse moves and caret changes are
+	 * reused for a short while; navigation targets change less often.
+	 */
+	private static final Map<String, Duration> DEFAULT_TIME_TO_LIVE = Map.of( //
+			HOVER, Duration.ofMillis(1000), //
+			DOCUMENT_HIGHLIGHT, Duration.ofMillis(1000), //
+			LINKED_EDITING_RANGE, Duration.ofMillis(1000), //
+			DEFINITION, Duration.ofMillis(2000), //
+			DECLARATION, Duration.ofMillis(2000), //
+			TYPE_DEFINITION, Duration.ofMillis(2000), //
+			IMPLEMENTATION, Duration.ofMillis(2000));
+
+	/**
+	 * Hits and misses of the requests of one method. Joining an in-flight request
+	 * counts as a hit.
+	 */
+	public record Statistics(long hits, long misses) {
+
+		public double hitRate() {
+			final long total = hits + misses;
+			return total == 0 ? 0 : (double) hits / total;
+		}
+	}
+
+	private record Key(String method, String uri, int version, Object params) {
+	}
+
+	private static final class Entry {
+		/** completed with the response, once the request has been sent */
+		final CompletableFuture<@Nullable Object> future = new CompletableFuture<>();
+		final AtomicInteger subscribers = new AtomicInteger(1);
+		/** {@link System#nanoTime()} when the response was received */
+		volatile long completedAt = Long.MAX_VALUE;
+
+		/**
+		 * Sends the request and completes the entry with its response. Cancelling the
+		 * entry cancels the request.
+		 */
+		void send(Supplier<? extends CompletableFuture<?>> request) {
+			final CompletableFuture<?> sent;
+			try {
+				sent = request.get();
+			} catch (RuntimeException ex) {
+				future.completeExceptionally(ex);
+				return;
+			}
+			sent.whenComplete((result, error) -> {
+				if (error != null) {
+					future.completeExceptionally(error);
+				} else {
+					future.complete(result);
+				}
+			});
+			future.whenComplete((result, error) -> {
+				if (error instanceof CancellationException) {
+					sent.cancel(true);
+				}
+			});
+		}
+
+		boolean isExpired(long now, long timeToLiveNanos) {
+			return future.isDone() && (future.isCompletedExceptionally() || now - completedAt > timeToLiveNanos);
+		}
+	}
+
+	private static final class Counters {
+		final LongAdder hits = new LongAdder();
+		final LongAdder misses = new LongAdder();
+	}
+
+	private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+	private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+	private final Map<String, Long> timeToLiveNanos = new ConcurrentHashMap<>();
+	private final ToIntFunction<String> documentVersions;
+
+	/**
+	 * @param documentVersions
+	 *            returns the version of the document with the given URI as last
+	 *            sent to the server, or -1 if it isn't synchronized
+	 */
+	public RequestCache(ToIntFunction<String> documentVersions) {
+		this.documentVersions = documentVersions;
+		DEFAULT_TIME_TO_LIVE.forEach(this::setTimeToLive);
+	}
+
+	/**
+	 * Sets for how long the results of the given method are reused after the
+	 * response has been received. {@link Duration#ZERO} only shares in-flight
+	 * requests.
+	 */
+	public void setTimeToLive(String method, Duration timeToLive) {
+		timeToLiveNanos.put(method, timeToLive.toNanos());
+	}
+
+	/**
+	 * @return a future completed with the result of a request for the same method
+	 *         and parameters on the current version of the document if there is
+	 *         one in flight or recent enough, otherwise with the result of the
+	 *         given request
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> get(String method, TextDocumentPositionParams params,
+			Supplier<? extends CompletableFuture<T>> request) {
+		final String uri = params.getTextDocument().getUri();
+		final var key = new Key(method, uri, documentVersions.applyAsInt(uri), params);
+		final long timeToLive = timeToLiveNanos.getOrDefault(method, 0L);
+		final long now = System.nanoTime();
+		final var created = new @Nullable Entry[1];
+		// the request is sent once the entry is published, not under the map lock
+		final Entry entry = castNonNull(entries.compute(key, (k, existing) -> {
+			if (existing != null && !existing.isExpired(now, timeToLive)) {
+				existing.subscribers.incrementAndGet();
+				return existing;
+			}
+			return created[0] = new Entry();
+		}));
+
+		final Counters methodCounters = counters.computeIfAbsent(method, m -> new Counters());
+		if (created[0] == null) {
+			methodCounters.hits.increment();
+		} else {
+			methodCounters.misses.increment();
+			entry.future.whenComplete((result, error) -> {
+				entry.completedAt = System.nanoTime();
+				if (error != null || timeToLive <= 0) {
+					entries.remove(key, entry);
+				}
+			});
+			if (entries.size() > SWEEP_THRESHOLD) {
+				evictExpired();
+			}
+			entry.send(request);
+		}
+
+		final CompletableFuture<T> shared = (CompletableFuture<T>) entry.future;
+		final CompletableFuture<T> result = shared.thenApply(Function.identity());
+		result.whenComplete((r, error) -> {
+			if (error instanceof CancellationException) {
+				unsubscribe(key, entry);
+			}
+		});
+		return result;
+	}
+
+	private void unsubscribe(Key key, Entry entry) {
+		// done under the map lock so no caller joins a request being cancelled
+		entries.computeIfPresent(key, (k, existing) -> {
+			if (existing != entry || entry.subscribers.decrementAndGet() > 0 || entry.future.isDone()) {
+				return existing;
+			}
+			entry.future.cancel(true);
+			return null;
+		});
+	}
+
+	private void evictExpired() {
+		final long now = System.nanoTime();
+		entries.entrySet().removeIf(
+				e -> e.getValue().isExpired(now, timeToLiveNanos.getOrDefault(e.getKey().method(), 0L)));
+	}
+
+	/**
+	 * Forgets all cached results, e.g. when the server is stopped.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	public Statistics getStatistics(String method) {
+		final Counters methodCounters = counters.get(method);
+		return methodCounters == null ? new Statistics(0, 0)
+				: new Statistics(methodCounters.hits.sum(), methodCounters.misses.sum());
+	}
+}
@@ -0,0 +1,360 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Connects to language servers and debug adapters over TCP or Unix domain
+ * sockets and provides the buffered streams of the connection.
+ * <p>
+ * The streams of a {@link Connection} are buffered, so that reading the JSON-RPC
+ * headers byte by byte does not result in a system call per byte. Interrupting
+ * a thread reading or writing them does not close the connection: TCP
+ * connections use the streams of a blocking {@link Socket}. Unix domain sockets
+ * are only available as a {@link SocketChannel}, which closes on interrupt in
+ * blocking mode, so their streams use the channel in non-blocking mode.
+ */
+public final class SocketStreams {
+
+	/** Default size of the read and write buffers, in bytes */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private static final long INITIAL_RETRY_DELAY_MS = 50;
+	private static final long MAX_RETRY_DELAY_MS = 1_000;
+
+	/**
+	 * The buffered streams of a socket connection. Closing the connection or one
+	 * of its streams closes the socket.
+	 */
+	public static final class Connection implements Closeable {
+		private final Closeable socket;
+		private final InputStream in;
+		private final OutputStream out;
+
+		private Connection(Closeable socket, InputStream in, OutputStream out) {
+			this.socket = socket;
+			this.in = in;
+			this.out = out;
+		}
+
+		public InputStream getInputStream() {
+			return in;
+		}
+
+		/**
+		 * @return the output stream, data is sent when its buffer is full or it is
+		 *         flushed
+		 */
+		public OutputStream getOutputStream() {
+			return out;
+		}
+
+		@Override
+		public void close() throws IOException {
+			final Closeable socket = this.socket;
+			final InputStream in = this.in;
+			final OutputStream out = this.out;
+			// closed in reverse order, so pending output is flushed first
+			try (socket; in; out) {
+				// nothing to do
+			}
+		}
+
+		@Override
+		public String toString() {
+			return socket.toString();
+		}
+	}
+
+	private SocketStreams() {
+	}
+
+	/**
+	 * Connects to the given address. Connection attempts which are refused (e.g.
+	 * because the server is still starting up and does not listen yet) are retried
+	 * with an exponential backoff until the timeout elapsed.
+	 *
+	 * @param address
+	 *            an {@link java.net.InetSocketAddress} or a
+	 *            {@link UnixDomainSocketAddress}
+	 * @param bufferSize
+	 *            the size of the stream buffers, and of the socket send and receive
+	 *            buffers (TCP only)
+	 * @param timeout
+	 *            how long to retry refused connections, {@link Duration#ZERO} to
+	 *            not retry
+	 * @throws IOException
+	 *             if no connection could be established within the timeout
+	 */
+	public static Connection connect(SocketAddress address, int bufferSize, Duration timeout) throws IOException {
+		final long deadline = System.nanoTime() + timeout.toNanos();
+		long delay = INITIAL_RETRY_DELAY_MS;
+		while (true) {
+			try {
+				return address instanceof UnixDomainSocketAddress //
+						? open(connectChannel(address), bufferSize)
+						: open(connectSocket(address, bufferSize), bufferSize);
+			} catch (IOException ex) {
+				final boolean retryable = ex instanceof ConnectException
+						|| address instanceof UnixDomainSocketAddress && ex instanceof SocketException;
+				final long remaining = deadline - System.nanoTime();
+				if (!retryable || remaining <= 0) {
+					throw ex;
+				}
+				try {
+					Thread.sleep(Math.min(delay, Duration.ofNanos(remaining).toMillis() + 1));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					final var interrupted = new InterruptedIOException("Interrupted while connecting to " + address); //$NON-NLS-1$
+					interrupted.addSuppressed(ex);
+					throw interrupted;
+				}
+				delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+			}
+		}
+	}
+
+	private static Socket connectSocket(SocketAddress address, int bufferSize) throws IOException {
+		final var socket = new Socket();
+		try {
+			// the receive buffer size must be set before connecting to take effect
+			configure(socket, bufferSize);
+			socket.connect(address);
+			return socket;
+		} catch (IOException ex) {
+			socket.close();
+			throw ex;
+		}
+	}
+
+	private static SocketChannel connectChannel(SocketAddress address) throws IOException {
+		final SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+		try {
+			channel.connect(address);
+			return channel;
+		} catch (IOException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Disables Nagle's algorithm and sets the socket buffer sizes of a TCP socket.
+	 */
+	public static void configure(Socket socket, int bufferSize) throws SocketException {
+		socket.setTcpNoDelay(true);
+		socket.setReceiveBufferSize(bufferSize);
+		socket.setSendBufferSize(bufferSize);
+	}
+
+	/**
+	 * @return the buffered streams of the given connected TCP socket
+	 */
+	public static Connection open(Socket socket, int bufferSize) throws IOException {
+		return new Connection(socket, new BufferedInputStream(socket.getInputStream(), bufferSize),
+				new BufferedOutputStream(socket.getOutputStream(), bufferSize));
+	}
+
+	/**
+	 * @return the buffered streams of the given connected channel, which is
+	 *         switched to non-blocking mode
+	 */
+	public static Connection open(SocketChannel channel, int bufferSize) throws IOException {
+		channel.configureBlocking(false);
+		return new Connection(channel, new ChannelInputStream(channel, bufferSize),
+				new ChannelOutputStream(channel, bufferSize));
+	}
+
+	@FunctionalInterface
+	private interface ChannelOperation {
+		int run() throws IOException;
+	}
+
+	/**
+	 * Runs the given non-blocking read or write until it transferred data, waiting
+	 * on the selector while the channel is not ready. An interrupt does not abort
+	 * the operation; the interrupt status of the thread is restored afterwards.
+	 */
+	private static int transfer(Selector selector, ChannelOperation operation) throws IOException {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				final int n = operation.run();
+				if (n != 0) {
+					return n;
+				}
+				// select returns immediately while the thread is interrupted
+				interrupted |= Thread.interrupted();
+				try {
+					selector.select();
+					selector.selectedKeys().clear();
+				} catch (ClosedSelectorException ex) {
+					throw new AsynchronousCloseException();
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static Selector register(SocketChannel channel, int operation) throws IOException {
+		final Selector selector = Selector.open();
+		try {
+			channel.register(selector, operation);
+			return selector;
+		} catch (IOException ex) {
+			selector.close();
+			throw ex;
+		}
+	}
+
+	private static final class ChannelInputStream extends InputStream {
+		private final SocketChannel channel;
+		private final Selector selector;
+		private final ByteBuffer buffer;
+
+		ChannelInputStream(SocketChannel channel, int bufferSize) throws IOException {
+			this.channel = channel;
+			this.selector = register(channel, SelectionKey.OP_READ);
+			this.buffer = ByteBuffer.allocateDirect(bufferSize);
+			this.buffer.flip();
+		}
+
+		/**
+		 * @return false if the end of the stream has been reached
+		 */
+		private boolean fill() throws IOException {
+			if (buffer.hasRemaining()) {
+				return true;
+			}
+			buffer.clear();
+			final int n = transfer(selector, () -> channel.read(buffer));
+			buffer.flip();
+			return n > 0;
+		}
+
+		@Override
+		public synchronized int read() throws IOException {
+			return fill() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len) throws IOException {
+			Objects.checkFromIndexSize(off, len, b.length);
+			if (len == 0) {
+				return 0;
+			}
+			if (!fill()) {
+				return -1;
+			}
+			final int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+
+		@Override
+		public void close() throws IOException {
+			// wakes up a blocked reader
+			try (channel) {
+				selector.close();
+			}
+		}
+	}
+
+	private static final class ChannelOutputStream extends OutputStream {
+		private final SocketChannel channel;
+		private final Selector selector;
+		private final ByteBuffer buffer;
+
+		ChannelOutputStream(SocketChannel channel, int bufferSize) throws IOException {
+			this.channel = channel;
+			this.selector = register(channel, SelectionKey.OP_WRITE);
+			this.buffer = ByteBuffer.allocateDirect(bufferSize);
+		}
+
+		@Override
+		public synchronized void write(int b) throws IOException {
+			if (!buffer.hasRemaining()) {
+				flushBuffer();
+			}
+			buffer.put((byte) b);
+		}
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) throws IOException {
+			Objects.checkFromIndexSize(off, len, b.length);
+			while (len > 0) {
+				if (!buffer.hasRemaining()) {
+					flushBuffer();
+				}
+				final int n = Math.min(len, buffer.remaining());
+				buffer.put(b, off, n);
+				off += n;
+				len -= n;
+			}
+		}
+
+		@Override
+		public synchronized void flush() throws IOException {
+			flushBuffer();
+		}
+
+		private void flushBuffer() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				transfer(selector, () -> channel.write(buffer));
+			}
+			buffer.clear();
+		}
+
+		@Override
+		public void close() throws IOException {
+			try (channel) {
+				synchronized (this) {
+					if (channel.isOpen() && selector.isOpen()) {
+						flushBuffer();
+					}
+				}
+			} finally {
+				selector.close();
+			}
+		}
+	}
+}
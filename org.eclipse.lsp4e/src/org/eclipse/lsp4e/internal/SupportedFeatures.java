@@ -182,6 +182,9 @@ public static WorkspaceClientCapabilities getWorkspaceClientCapabilities() {
 		fileOperationsWorkspaceCapabilities.setWillCreate(true);
 		fileOperationsWorkspaceCapabilities.setWillDelete(true);
 		fileOperationsWorkspaceCapabilities.setWillRename(true);
+		fileOperationsWorkspaceCapabilities.setDidCreate(true);
+		fileOperationsWorkspaceCapabilities.setDidDelete(true);
+		fileOperationsWorkspaceCapabilities.setDidRename(true);
 		workspaceClientCapabilities.setFileOperations(fileOperationsWorkspaceCapabilities);
 
 		return workspaceClientCapabilities;
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.operations.completion;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.lsp4j.CompletionItem;
+
+/**
+ * Index over the filter texts of completion items, used to quickly find the
+ * items still matching as the user keeps typing.
+ * <p>
+ * The filter texts are lower-cased once, and a bit mask of the characters they
+ * contain rejects most items without scanning them.
+ */
+public final class CompletionFilterIndex {
+
+	private final String[] filterTexts;
+	private final long[] masks;
+
+	public CompletionFilterIndex(List<CompletionItem> items) {
+		filterTexts = new String[items.size()];
+		masks = new long[items.size()];
+		for (int i = 0; i < filterTexts.length; i++) {
+			final String filterText = getFilterString(items.get(i)).toLowerCase();
+			filterTexts[i] = filterText;
+			masks[i] = mask(filterText);
+		}
+	}
+
+	/**
+	 * Same as {@link LSCompletionProposal#getFilterString()}
+	 */
+	private static String getFilterString(CompletionItem item) {
+		if (item.getFilterText() != null && !item.getFilterText().isEmpty()) {
+			return item.getFilterText();
+		}
+		return item.getLabel();
+	}
+
+	/**
+	 * @return a bit per character, characters sharing the same lower 6 bits share
+	 *         the same bit
+	 */
+	private static long mask(String lowerCaseText) {
+		long mask = 0;
+		for (int i = 0; i < lowerCaseText.length(); i++) {
+			mask |= 1L << lowerCaseText.charAt(i);
+		}
+		return mask;
+	}
+
+	public int size() {
+		return filterTexts.length;
+	}
+
+	/**
+	 * @param typed
+	 *            text typed since the items were computed
+	 * @return whether the characters of the typed text are found in order in the
+	 *         filter text of the item at the given index, ignoring case. Items for
+	 *         which this is <code>false</code> are not valid proposals anymore.
+	 */
+	public boolean matches(int index, String typed) {
+		final String lowerCaseTyped = typed.toLowerCase();
+		return matches(index, lowerCaseTyped, mask(lowerCaseTyped));
+	}
+
+	private boolean matches(int index, String lowerCaseTyped, long typedMask) {
+		if ((masks[index] & typedMask) != typedMask) {
+			return false;
+		}
+		final String filterText = filterTexts[index];
+		int from = 0;
+		for (int i = 0; i < lowerCaseTyped.length(); i++) {
+			final int found = filterText.indexOf(lowerCaseTyped.charAt(i), from);
+			if (found < 0) {
+				return false;
+			}
+			from = found + 1;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the indexes of the items {@link #matches(int, String) matching} the
+	 *         typed text, in ascending order
+	 */
+	public int[] filter(String typed) {
+		final String lowerCaseTyped = typed.toLowerCase();
+		final long typedMask = mask(lowerCaseTyped);
+		final var result = new int[filterTexts.length];
+		int count = 0;
+		for (int i = 0; i < filterTexts.length; i++) {
+			if (matches(i, lowerCaseTyped, typedMask)) {
+				result[count++] = i;
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+}
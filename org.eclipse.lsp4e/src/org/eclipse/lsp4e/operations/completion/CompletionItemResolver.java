@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.operations.completion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jface.internal.text.html.BrowserInformationControl;
+import org.eclipse.jface.text.AbstractReusableInformationControlCreator;
+import org.eclipse.jface.text.DefaultInformationControl;
+import org.eclipse.jface.text.IInformationControl;
+import org.eclipse.jface.text.IInformationControlCreator;
+import org.eclipse.jface.text.IInformationControlExtension2;
+import org.eclipse.jface.text.IInformationControlExtension5;
+import org.eclipse.lsp4e.operations.hover.FocusableBrowserInformationControl;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.swt.widgets.Shell;
+
+/**
+ * Resolves the items of a completion session with <code>completionItem/resolve</code>
+ * in the background.
+ * <p>
+ * When a proposal is selected in the popup, it and its neighbours among the
+ * proposals still shown are resolved ahead of the additional info being
+ * requested, and the resolves of the proposals which are no longer around the
+ * selection are cancelled. Resolved items are shared by all the proposals
+ * created for them during the session.
+ * <p>
+ * The proposals of a session share the control showing their additional info,
+ * which is refreshed when the item of the selected proposal gets resolved.
+ */
+final class CompletionItemResolver {
+
+	/** number of proposals resolved before and after the selected one */
+	static final int PREFETCH_NEIGHBOURS = 2;
+
+	/** keyed by identity, items are mutated when resolved */
+	private final Map<CompletionItem, CompletableFuture<CompletionItem>> resolves = Collections
+			.synchronizedMap(new IdentityHashMap<>());
+	private volatile List<LSCompletionProposal> proposals = List.of();
+	private volatile @Nullable LSCompletionProposal selectedProposal;
+	private volatile @Nullable IInformationControl informationControl;
+
+	private final IInformationControlCreator informationControlCreator = new AbstractReusableInformationControlCreator() {
+		@Override
+		protected IInformationControl doCreateInformationControl(Shell parent) {
+			final IInformationControl control = BrowserInformationControl.isAvailable(parent)
+					? new FocusableBrowserInformationControl(parent)
+					: new DefaultInformationControl(parent);
+			informationControl = control;
+			return control;
+		}
+
+		@Override
+		public boolean canReplace(@Nullable IInformationControlCreator creator) {
+			// a control created for another session is not known by this one
+			return creator == this;
+		}
+	};
+
+	/**
+	 * Sets the proposals as shown in the popup.
+	 */
+	void setProposals(List<LSCompletionProposal> proposals) {
+		this.proposals = List.copyOf(proposals);
+		for (int i = 0; i < proposals.size(); i++) {
+			proposals.get(i).setResolver(this, i);
+		}
+	}
+
+	/**
+	 * @return the pending or completed resolve of the item of the given proposal,
+	 *         started if needed
+	 */
+	CompletableFuture<CompletionItem> resolve(LSCompletionProposal proposal) {
+		final CompletionItem item = proposal.getItem();
+		synchronized (resolves) {
+			CompletableFuture<CompletionItem> resolve = resolves.get(item);
+			if (resolve == null || resolve.isCompletedExceptionally()) {
+				resolve = proposal.requestResolve();
+				resolves.put(item, resolve);
+			}
+			return resolve;
+		}
+	}
+
+	/**
+	 * @return the creator of the control showing the additional info of the
+	 *         proposals of the session
+	 */
+	IInformationControlCreator getInformationControlCreator() {
+		return informationControlCreator;
+	}
+
+	/**
+	 * Shows the resolved additional info of the given proposal in the control
+	 * still showing the info computed before its item was resolved, unless
+	 * another proposal got selected meanwhile. Must be called from the UI thread.
+	 */
+	void refreshInformationControl(LSCompletionProposal proposal) {
+		final IInformationControl control = informationControl;
+		if (proposal == selectedProposal && control instanceof IInformationControlExtension5 extension
+				&& extension.isVisible()) {
+			final Object info = proposal.getAdditionalProposalInfo(new NullProgressMonitor());
+			if (control instanceof IInformationControlExtension2 inputControl) {
+				inputControl.setInput(info);
+			} else {
+				control.setInformation(info.toString());
+			}
+		}
+	}
+
+	/**
+	 * Resolves the given proposal, shown at the given index, and its neighbours,
+	 * and cancels the pending resolves of the other proposals. Does not block.
+	 */
+	void selected(LSCompletionProposal selected, int index) {
+		selectedProposal = selected;
+		final List<LSCompletionProposal> proposals = this.proposals;
+		if (index < 0 || index >= proposals.size()) {
+			return;
+		}
+		// the popup hides the proposals filtered out while typing, the neighbours
+		// are the closest ones still shown
+		final var window = new ArrayList<LSCompletionProposal>(2 * PREFETCH_NEIGHBOURS + 1);
+		window.add(proposals.get(index));
+		for (int i = index - 1, found = 0; i >= 0 && found < PREFETCH_NEIGHBOURS; i--) {
+			if (proposals.get(i).isValid()) {
+				window.add(proposals.get(i));
+				found++;
+			}
+		}
+		for (int i = index + 1, found = 0; i < proposals.size() && found < PREFETCH_NEIGHBOURS; i++) {
+			if (proposals.get(i).isValid()) {
+				window.add(proposals.get(i));
+				found++;
+			}
+		}
+		final Set<CompletionItem> windowItems = Collections.newSetFromMap(new IdentityHashMap<>());
+		window.forEach(proposal -> windowItems.add(proposal.getItem()));
+		synchronized (resolves) {
+			resolves.entrySet().removeIf(entry -> {
+				if (entry.getValue().isDone() || windowItems.contains(entry.getKey())) {
+					return false;
+				}
+				entry.getValue().cancel(true);
+				return true;
+			});
+		}
+		for (LSCompletionProposal proposal : window) {
+			if (proposal.canResolve()) {
+				resolve(proposal);
+			}
+		}
+	}
+
+	void unselected(LSCompletionProposal unselected) {
+		if (selectedProposal == unselected) {
+			selectedProposal = null;
+		}
+	}
+}
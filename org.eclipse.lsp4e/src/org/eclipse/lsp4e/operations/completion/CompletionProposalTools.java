@@ -67,8 +67,8 @@ public static boolean isSubstringFoundOrderedInString(String subString, String s
 		int lastIndex = 0;
 		subString = subString.toLowerCase();
 		string = string.toLowerCase();
-		for (Character c : subString.toCharArray()) {
-			int index = string.indexOf(c, lastIndex);
+		for (int i = 0; i < subString.length(); i++) {
+			int index = string.indexOf(subString.charAt(i), lastIndex);
 			if (index < 0) {
 				return false;
 			} else {
@@ -152,50 +152,57 @@ public static int getCategoryOfFilterMatch(String documentFilter, String complet
 	 *         and -1 mean there was no match
 	 */
 	public static int getScoreOfFilterMatch(final String documentFilter, final String completionFilter) {
-		return getScoreOfFilterMatchHelper(0, documentFilter.toLowerCase(), completionFilter.toLowerCase());
+		return getScoreOfFilterMatchHelper(0, documentFilter.toLowerCase(), 0, completionFilter.toLowerCase(), 0);
 	}
 
+	/**
+	 * Scores the suffix of the document filter starting at
+	 * <code>documentStart</code> against the suffix of the completion filter
+	 * starting at <code>completionStart</code>. Works on offsets rather than
+	 * substrings as it is called for every proposal on every keystroke.
+	 */
 	private static int getScoreOfFilterMatchHelper(final int prefixLength, final String documentFilter,
-			final String completionFilter) {
-		if (documentFilter.isEmpty()) {
+			final int documentStart, final String completionFilter, final int completionStart) {
+		final int documentFilterLength = documentFilter.length() - documentStart;
+		if (documentFilterLength == 0) {
 			return 0;
 		}
 
-		final char searchChar = documentFilter.charAt(0);
-		int i = completionFilter.indexOf(searchChar);
-		if (i == -1) {
+		final char searchChar = documentFilter.charAt(documentStart);
+		int found = completionFilter.indexOf(searchChar, completionStart);
+		if (found == -1) {
 			return -1;
 		}
 
-		final int documentFilterLength = documentFilter.length();
 		if (documentFilterLength == 1) {
-			return i + prefixLength;
+			return found - completionStart + prefixLength;
 		}
 
 		int bestScore = Integer.MAX_VALUE;
 
-		while (i != -1) {
-			final int matchLength = commonPrefixLength(documentFilter, completionFilter.substring(i));
+		while (found != -1) {
+			final int i = found - completionStart;
+			final int matchLength = commonPrefixLength(documentFilter, documentStart, completionFilter, found);
 			if (matchLength == documentFilterLength) {
 				return i + prefixLength;
 			}
-			int score = i + getScoreOfFilterMatchHelper(prefixLength + i + matchLength,
-					documentFilter.substring(matchLength),
-					completionFilter.substring(i + matchLength));
+			int score = i + getScoreOfFilterMatchHelper(prefixLength + i + matchLength, documentFilter,
+					documentStart + matchLength, completionFilter, found + matchLength);
 			if (score == i - 1) {
 				break;
 			}
 			bestScore = Math.min(bestScore, score);
-			i = completionFilter.indexOf(searchChar, i + 1);
+			found = completionFilter.indexOf(searchChar, found + 1);
 		}
 		return prefixLength + bestScore;
 	}
 
-	private static int commonPrefixLength(final String first, final String second) {
+	private static int commonPrefixLength(final String first, final int firstStart, final String second,
+			final int secondStart) {
 		int i;
-		final var maxCommonLength = Math.min(first.length(), second.length());
+		final var maxCommonLength = Math.min(first.length() - firstStart, second.length() - secondStart);
 		for (i = 0; i < maxCommonLength; i++) {
-			if (first.charAt(i) != second.charAt(i))
+			if (first.charAt(firstStart + i) != second.charAt(secondStart + i))
 				break;
 		}
 		return i;
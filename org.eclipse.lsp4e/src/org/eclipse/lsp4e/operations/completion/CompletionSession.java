@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.operations.completion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.lsp4e.LanguageServerWrapper;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionItemDefaults;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+
+/**
+ * The complete completion lists returned by the language servers at an offset,
+ * reused for the following invocations while the user keeps typing the same
+ * word, instead of querying the servers again.
+ * <p>
+ * The session listens to the document until it is {@link #dispose() disposed}:
+ * any change other than an insertion at the end of the text typed since its
+ * offset invalidates it, as the items and their text edits were computed for a
+ * document which no longer exists.
+ */
+final class CompletionSession implements IDocumentListener {
+
+	/**
+	 * The completion items returned by one server.
+	 */
+	record ServerItems(LanguageServerWrapper wrapper, List<CompletionItem> items,
+			@Nullable CompletionItemDefaults defaults, CompletionFilterIndex index) {
+
+		ServerItems(LanguageServerWrapper wrapper, List<CompletionItem> items,
+				@Nullable CompletionItemDefaults defaults) {
+			this(wrapper, items, defaults, new CompletionFilterIndex(items));
+		}
+	}
+
+	private final IDocument document;
+	private final int offset;
+	private final List<ServerItems> serverItems;
+	private final CompletionItemResolver resolver;
+	/** the end of the text inserted at the session offset since the session started */
+	private int insertionEnd;
+	/** whether the document was changed otherwise than by typing at the session caret */
+	private boolean modified;
+
+	private CompletionSession(IDocument document, int offset, List<ServerItems> serverItems,
+			CompletionItemResolver resolver) {
+		this.document = document;
+		this.offset = offset;
+		this.insertionEnd = offset;
+		this.serverItems = serverItems;
+		this.resolver = resolver;
+	}
+
+	/**
+	 * @return the modification stamp of the document, to be passed to
+	 *         {@link #create(IDocument, int, long, List, CompletionItemResolver)}
+	 *         when the completion items were requested
+	 */
+	static long getModificationStamp(IDocument document) {
+		return document instanceof IDocumentExtension4 extension ? extension.getModificationStamp()
+				: IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+	}
+
+	/**
+	 * @param modificationStamp
+	 *            the {@link #getModificationStamp(IDocument) modification stamp}
+	 *            of the document when the items were requested
+	 * @return a session for the items computed at the given offset, or
+	 *         <code>null</code> if the document changed since they were requested
+	 */
+	static @Nullable CompletionSession create(IDocument document, int offset, long modificationStamp,
+			List<ServerItems> serverItems, CompletionItemResolver resolver) {
+		if (modificationStamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP || offset > document.getLength()) {
+			return null;
+		}
+		final var session = new CompletionSession(document, offset, List.copyOf(serverItems), resolver);
+		document.addDocumentListener(session);
+		// the changes made before the listener was added are not seen by the session
+		if (getModificationStamp(document) != modificationStamp) {
+			session.dispose();
+			return null;
+		}
+		return session;
+	}
+
+	/**
+	 * Stops listening to the document, the session cannot be continued anymore.
+	 */
+	void dispose() {
+		synchronized (this) {
+			modified = true;
+		}
+		document.removeDocumentListener(this);
+	}
+
+	@Override
+	public void documentAboutToBeChanged(DocumentEvent event) {
+		// only the applied changes matter
+	}
+
+	@Override
+	public void documentChanged(DocumentEvent event) {
+		final String text = event.getText();
+		synchronized (this) {
+			if (!modified && event.getOffset() == insertionEnd && event.getLength() == 0) {
+				insertionEnd += text.length();
+				return;
+			}
+		}
+		dispose();
+	}
+
+	/**
+	 * @return the resolver of the items, shared by all the proposals of the
+	 *         session so items are resolved only once
+	 */
+	CompletionItemResolver getResolver() {
+		return resolver;
+	}
+
+	/**
+	 * @return whether the only changes to the document since this session was
+	 *         created are insertions of identifier characters, none of them a
+	 *         trigger character, between the session offset and the given offset
+	 */
+	boolean canContinueAt(IDocument document, int offset, char[] triggerChars) {
+		synchronized (this) {
+			if (document != this.document || modified || offset <= this.offset || offset != insertionEnd) {
+				return false;
+			}
+		}
+		try {
+			final String typed = document.get(this.offset, offset - this.offset);
+			for (int i = 0; i < typed.length(); i++) {
+				final char c = typed.charAt(i);
+				if (!Character.isUnicodeIdentifierPart(c) || contains(triggerChars, c)) {
+					return false;
+				}
+			}
+			return true;
+		} catch (BadLocationException e) {
+			return false;
+		}
+	}
+
+	private static boolean contains(char[] chars, char c) {
+		for (char element : chars) {
+			if (element == c) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Creates the proposals still valid at the given offset, as they would be
+	 * after typing in the completion popup opened at the offset of this session.
+	 * Only the items {@link CompletionFilterIndex matching} the typed text are
+	 * turned into proposals.
+	 */
+	List<LSCompletionProposal> getProposals(int offset, CancelChecker cancelChecker) throws BadLocationException {
+		final String typed = document.get(this.offset, offset - this.offset);
+		final var proposals = new ArrayList<LSCompletionProposal>();
+		for (final ServerItems server : serverItems) {
+			for (final int i : server.index().filter(typed)) {
+				cancelChecker.checkCanceled();
+				final var proposal = new LSCompletionProposal(document, this.offset, server.items().get(i),
+						server.defaults(), server.wrapper(), false);
+				// compute the filter at the session offset, the typed text is appended to it
+				proposal.getDocumentFilter();
+				if (proposal.validate(document, offset, null)) {
+					proposals.add(proposal);
+				}
+			}
+		}
+		return proposals;
+	}
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.operations.completion;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.contentassist.CompletionProposal;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.link.LinkedPosition;
+import org.eclipse.jface.text.link.ProposalPosition;
+
+/**
+ * A completion insert text in
+ * <a href="https://microsoft.github.io/language-server-protocol/specifications/lsp/3.17/specification/#snippet_syntax">snippet syntax</a>,
+ * as parsed by {@link CompletionSnippetParser}.
+ * <p>
+ * The parsed snippet does not depend on the document, so it can be computed in
+ * the background when the completion proposals are created. Variables are only
+ * resolved when the snippet is {@link #insert inserted}, as their values depend
+ * on the caret and selection at that time.
+ *
+ * @param source
+ *            the parsed text
+ */
+record CompletionSnippet(String source, List<CompletionSnippet.Segment> segments) {
+
+	sealed interface Segment {
+	}
+
+	/**
+	 * Literal text, with the escapes removed.
+	 */
+	record Text(String text) implements Segment {
+	}
+
+	/**
+	 * A variable like <code>$TM_FILENAME</code> or
+	 * <code>${TM_SELECTED_TEXT:default}</code>. The default value is used when the
+	 * variable value is empty.
+	 */
+	record Variable(String name, List<Segment> defaultValue) implements Segment {
+	}
+
+	/**
+	 * A tab stop like <code>$1</code>, a placeholder like <code>${1:value}</code>
+	 * or a choice like <code>${1|first,second|}</code>, the first value being the
+	 * one inserted. The values only contain {@link Text} and {@link Variable}
+	 * segments.
+	 */
+	record TabStop(String key, List<List<Segment>> values) implements Segment {
+	}
+
+	/**
+	 * The result of the insertion of a snippet.
+	 *
+	 * @param text
+	 *            the text to apply to the editor
+	 * @param linkedPositions
+	 *            the linked positions defined by the snippet, by tab stop key
+	 */
+	record Insertion(String text, Map<String, List<LinkedPosition>> linkedPositions) {
+	}
+
+	/**
+	 * Resolves the variables and computes the linked positions of the snippet
+	 * inserted at the given offset.
+	 *
+	 * @param document
+	 *            the document that this completion will be applied to
+	 * @param insertionOffset
+	 *            the document offset this completion will be applied to
+	 * @param newLine
+	 *            the text replacing the line feeds of the snippet text, to indent
+	 *            the inserted lines
+	 * @param getVariableValue
+	 *            a function that resolves variable values
+	 */
+	Insertion insert(IDocument document, int insertionOffset, String newLine,
+			Function<String, String> getVariableValue) {
+		final var text = new StringBuilder(source.length());
+		final var linkedPositions = new LinkedHashMap<String, List<LinkedPosition>>();
+		for (final Segment segment : segments) {
+			if (segment instanceof TabStop tabStop) {
+				final int offset = insertionOffset + text.length();
+				final LinkedPosition position;
+				if (tabStop.values().isEmpty()) {
+					position = new LinkedPosition(document, offset, 0);
+				} else {
+					final List<String> values = tabStop.values().stream()
+							.map(value -> resolve(value, newLine, getVariableValue)).toList();
+					final String defaultProposal = values.get(0);
+					final ICompletionProposal[] proposals = values.stream()
+							.map(value -> new CompletionProposal(value, offset, defaultProposal.length(),
+									offset + value.length()))
+							.toArray(ICompletionProposal[]::new);
+					position = new ProposalPosition(document, offset, defaultProposal.length(), proposals);
+					text.append(defaultProposal);
+				}
+				linkedPositions.computeIfAbsent(tabStop.key(), whatever -> new ArrayList<>()).add(position);
+			} else {
+				append(text, segment, newLine, getVariableValue);
+			}
+		}
+		return new Insertion(text.toString(), linkedPositions);
+	}
+
+	private static String resolve(List<Segment> segments, String newLine, Function<String, String> getVariableValue) {
+		final var text = new StringBuilder();
+		for (final Segment segment : segments) {
+			append(text, segment, newLine, getVariableValue);
+		}
+		return text.toString();
+	}
+
+	private static void append(StringBuilder text, Segment segment, String newLine,
+			Function<String, String> getVariableValue) {
+		if (segment instanceof Text literal) {
+			text.append(literal.text().replace("\n", newLine)); //$NON-NLS-1$
+		} else if (segment instanceof Variable variable) {
+			final String value = getVariableValue.apply(variable.name());
+			text.append(value.isEmpty() ? resolve(variable.defaultValue(), newLine, getVariableValue) : value);
+		} else if (segment instanceof TabStop tabStop && !tabStop.values().isEmpty()) {
+			text.append(resolve(tabStop.values().get(0), newLine, getVariableValue));
+		}
+	}
+}
@@ -13,107 +13,84 @@
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
 
-import org.eclipse.jface.text.IDocument;
-import org.eclipse.jface.text.contentassist.CompletionProposal;
-import org.eclipse.jface.text.contentassist.ICompletionProposal;
-import org.eclipse.jface.text.link.LinkedPosition;
-import org.eclipse.jface.text.link.ProposalPosition;
+import org.eclipse.lsp4e.operations.completion.CompletionSnippet.Segment;
+import org.eclipse.lsp4e.operations.completion.CompletionSnippet.TabStop;
+import org.eclipse.lsp4e.operations.completion.CompletionSnippet.Text;
+import org.eclipse.lsp4e.operations.completion.CompletionSnippet.Variable;
 
 /**
  * A parser for the completion insert text in
  * <a href="https://microsoft.github.io/language-server-protocol/specifications/lsp/3.17/specification/#snippet_syntax">snippet syntax</a>
  */
 class CompletionSnippetParser {
-	private final IDocument document;
 	private final String snippetText;
-	private final int insertionOffset;
-	private final LinkedHashMap<String, List<LinkedPosition>> linkedPositions = new LinkedHashMap<>();
-	private final Function<String, String> getVariableValue;
 	private int snippetOffset = 0;
-	private int snippetToDocumentOffset = 0;
-	private boolean dontAddLinkedPositions = false;
 
 
 	/**
 	 * Creates a new snippet parser
-	 * @param document the document that this completion will be applied to
 	 * @param snippetText the text to parse
-	 * @param insertionOffset the document offset this completion will be applied to
-	 * @param getVariableValue a function that resolves variable values
 	 */
-	public CompletionSnippetParser(IDocument document, String snippetText, int insertionOffset, Function<String, String> getVariableValue) {
-		this.document = document;
+	public CompletionSnippetParser(String snippetText) {
 		this.snippetText = snippetText;
-		this.insertionOffset = insertionOffset;
-		this.getVariableValue = getVariableValue;
 	}
 
 	/**
 	 * Parses the insertText
-	 * @return the text to apply to the editor
+	 * @return the parsed snippet, to be {@link CompletionSnippet#insert inserted} in the editor
 	 */
-	public String parse() {
-		final var insertTextBuilder = new StringBuilder(snippetText.length());
+	public CompletionSnippet parse() {
+		final var segments = new ArrayList<Segment>();
+		final var textBuilder = new StringBuilder(snippetText.length());
 		while (hasRemaining()) {
 			char current = readChar();
 			switch (current) {
-				default -> insertTextBuilder.append(current);
+				default -> textBuilder.append(current);
 				case '\\' -> {
 					if (!hasRemaining()) {
-						insertTextBuilder.append(current);
+						textBuilder.append(current);
 					} else {
-						insertTextBuilder.append(readChar());
-						snippetToDocumentOffset++;
+						textBuilder.append(readChar());
 					}
 				}
 				case '$' -> {
 					int _snippetOffset = snippetOffset;
-					int _snippetToDocumentOffset = snippetToDocumentOffset;
 					try {
-						String value = parseDollarExpression();
-						insertTextBuilder.append(value);
+						Segment segment = parseDollarExpression();
+						addText(segments, textBuilder);
+						segments.add(segment);
 					} catch (DollarExpressionParseException e) {
 						// unparseable expression is handled 'as-is'
 						snippetOffset = _snippetOffset;
-						snippetToDocumentOffset = _snippetToDocumentOffset;
-						insertTextBuilder.append('$');
+						textBuilder.append('$');
 					}
 				}
 			}
 		}
-		return insertTextBuilder.toString();
+		addText(segments, textBuilder);
+		return new CompletionSnippet(snippetText, List.copyOf(segments));
 	}
 
-	/**
-	 * @return a map of LinkedPositions that were defined by the snippet
-	 */
-	public Map<String, List<LinkedPosition>> getLinkedPositions() {
-		return linkedPositions;
+	private static void addText(List<Segment> segments, StringBuilder textBuilder) {
+		if (!textBuilder.isEmpty()) {
+			segments.add(new Text(textBuilder.toString()));
+			textBuilder.setLength(0);
+		}
 	}
 
-	private String parseDollarExpression() throws DollarExpressionParseException {
+	private Segment parseDollarExpression() throws DollarExpressionParseException {
 		if (!hasRemaining()) {
 			throw new DollarExpressionParseException();
 		}
 		char firstChar = peekChar();
 		if (Character.isDigit(firstChar)) {
 			// A tabstop position like $1
-			String key = readNumberKey();
-			snippetToDocumentOffset += key.length() + 1;
-			final var position = new LinkedPosition(document, insertionOffset + snippetOffset - snippetToDocumentOffset, 0);
-			addLinkedPosition(key, position);
-			return ""; //$NON-NLS-1$
+			return new TabStop(readNumberKey(), Collections.emptyList());
 		} else if (isCharacterForVariableName(firstChar)) {
 			// A Variable like $TM_LINE_NUMBER
-			String key = readVariableKey();
-			String value = getVariableValue.apply(key);
-			snippetToDocumentOffset += key.length() + 1 - value.length();
-			return value;
+			return new Variable(readVariableKey(), Collections.emptyList());
 		} else if (firstChar == '{') {
 			return parseDollarExpressionInBrackets();
 		} else {
@@ -124,7 +101,7 @@ private String parseDollarExpression() throws DollarExpressionParseException {
 	/**
 	 * Parses an expression in brackets like ${1|value} or ${TM_SELECTED_TEXT:default}
 	 */
-	private String parseDollarExpressionInBrackets() throws DollarExpressionParseException {
+	private Segment parseDollarExpressionInBrackets() throws DollarExpressionParseException {
 		if (readChar() != '{') {
 			// This method must be called on a bracket character
 			throw new IllegalStateException();
@@ -144,14 +121,13 @@ private String parseDollarExpressionInBrackets() throws DollarExpressionParseExc
 		}
 	}
 
-	private String parseVariableExpressionInBrackets() throws DollarExpressionParseException {
-		int dollarOffset = snippetOffset - 2;
+	private Segment parseVariableExpressionInBrackets() throws DollarExpressionParseException {
 		String key = readVariableKey();
 		if (!hasRemaining()) {
 			throw new DollarExpressionParseException();
 		}
 		char postKeyChar = readChar();
-		String defaultValue = ""; //$NON-NLS-1$
+		List<Segment> defaultValue = Collections.emptyList();
 
 		switch (postKeyChar) {
 			case '}' -> {
@@ -168,22 +144,16 @@ private String parseVariableExpressionInBrackets() throws DollarExpressionParseE
 				throw new DollarExpressionParseException();
 			}
 		}
-		String value = getVariableValue.apply(key);
-		if (value.isEmpty()) {
-			value = defaultValue;
-		}
-		snippetToDocumentOffset += snippetOffset - dollarOffset - value.length();
-		return value;
+		return new Variable(key, defaultValue);
 	}
 
-	private String parseTabStopInBrackets() throws DollarExpressionParseException {
-		int dollarOffset = snippetOffset - 2;
+	private Segment parseTabStopInBrackets() throws DollarExpressionParseException {
 		String key = readNumberKey();
 		if (!hasRemaining()) {
 			throw new DollarExpressionParseException();
 		}
 		char postKeyChar = readChar();
-		List<String> valueList;
+		List<List<Segment>> valueList;
 		switch (postKeyChar) {
 			case '}' -> {
 				valueList = Collections.emptyList();
@@ -192,28 +162,13 @@ private String parseTabStopInBrackets() throws DollarExpressionParseException {
 				valueList = List.of(readTextValue());
 			}
 			case '|' -> {
-				valueList = readChoiceValues();
+				valueList = readChoiceValues().stream().map(value -> List.<Segment>of(new Text(value))).toList();
 			}
 			default -> {
 				throw new DollarExpressionParseException();
 			}
 		}
-		LinkedPosition position;
-		String defaultProposal;
-		if (!valueList.isEmpty()) {
-			defaultProposal = valueList.get(0);
-			int replacementOffset = insertionOffset + dollarOffset - snippetToDocumentOffset;
-			ICompletionProposal[] proposals = valueList.stream().map(string ->
-					new CompletionProposal(string, replacementOffset, defaultProposal.length(), replacementOffset + string.length())
-			).toArray(ICompletionProposal[]::new);
-			position = new ProposalPosition(document, insertionOffset + dollarOffset - snippetToDocumentOffset, defaultProposal.length(), proposals);
-		} else {
-			defaultProposal = ""; //$NON-NLS-1$
-			position = new LinkedPosition(document, insertionOffset + dollarOffset - snippetToDocumentOffset, 0);
-		}
-		addLinkedPosition(key, position);
-		snippetToDocumentOffset += snippetOffset - dollarOffset - defaultProposal.length();
-		return defaultProposal;
+		return new TabStop(key, valueList);
 	}
 
 	private List<String> readChoiceValues() throws DollarExpressionParseException {
@@ -251,7 +206,8 @@ private List<String> readChoiceValues() throws DollarExpressionParseException {
 		}
 	}
 
-	private String readTextValue() throws DollarExpressionParseException {
+	private List<Segment> readTextValue() throws DollarExpressionParseException {
+		final var segments = new ArrayList<Segment>();
 		final var valueBuilder = new StringBuilder();
 		while (true) {
 			if (!hasRemaining()) {
@@ -268,35 +224,31 @@ private String readTextValue() throws DollarExpressionParseException {
 				}
 				case '$' -> {
 					int _snippetOffset = snippetOffset;
-					int _snippetToDocumentOffset = snippetToDocumentOffset;
-					boolean _dontAddLinkedPositions = dontAddLinkedPositions;
-					// For now, we don't support nested linked positions
-					dontAddLinkedPositions = true;
 					try {
-						String value = parseDollarExpression();
-						valueBuilder.append(value);
+						Segment segment = parseDollarExpression();
+						addText(segments, valueBuilder);
+						if (segment instanceof TabStop tabStop) {
+							// For now, we don't support nested linked positions, only their value is inserted
+							if (!tabStop.values().isEmpty()) {
+								segments.addAll(tabStop.values().get(0));
+							}
+						} else {
+							segments.add(segment);
+						}
 					} catch (DollarExpressionParseException e) {
 						// unparseable expression is handled 'as-is'
 						snippetOffset = _snippetOffset;
 						valueBuilder.append('$');
-					} finally {
-						dontAddLinkedPositions = _dontAddLinkedPositions;
-						snippetToDocumentOffset = _snippetToDocumentOffset; // Reset the snippetToDocumentOffset, since the value was not added to the insertText yet
 					}
 				}
 				case '}' -> {
-					return valueBuilder.toString();
+					addText(segments, valueBuilder);
+					return List.copyOf(segments);
 				}
 			}
 		}
 	}
 
-	private void addLinkedPosition(String key, LinkedPosition position) {
-		if (!dontAddLinkedPositions) {
-			linkedPositions.computeIfAbsent(key, whatever -> new ArrayList<>()).add(position);
-		}
-	}
-
 	private boolean hasRemaining() {
 		return snippetOffset < snippetText.length();
 	}
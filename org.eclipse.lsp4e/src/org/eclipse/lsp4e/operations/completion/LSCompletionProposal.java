@@ -18,11 +18,14 @@
 
 import static org.eclipse.lsp4e.internal.NullSafetyHelper.castNonNull;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -33,13 +36,9 @@
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.annotation.Nullable;
-import org.eclipse.jface.internal.text.html.BrowserInformationControl;
-import org.eclipse.jface.text.AbstractReusableInformationControlCreator;
 import org.eclipse.jface.text.BadLocationException;
-import org.eclipse.jface.text.DefaultInformationControl;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
-import org.eclipse.jface.text.IInformationControl;
 import org.eclipse.jface.text.IInformationControlCreator;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextViewer;
@@ -65,9 +64,10 @@
 import org.eclipse.lsp4e.LanguageServerPlugin;
 import org.eclipse.lsp4e.LanguageServerWrapper;
 import org.eclipse.lsp4e.command.CommandExecutor;
+import org.eclipse.lsp4e.internal.LatencyTracker;
 import org.eclipse.lsp4e.internal.StyleUtil;
-import org.eclipse.lsp4e.operations.hover.FocusableBrowserInformationControl;
 import org.eclipse.lsp4e.ui.LSPImages;
+import org.eclipse.lsp4e.ui.UI;
 import org.eclipse.lsp4j.Command;
 import org.eclipse.lsp4j.CompletionItem;
 import org.eclipse.lsp4j.CompletionItemDefaults;
@@ -86,7 +86,7 @@
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.TextStyle;
-import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.texteditor.link.EditorLinkedModeUI;
 
 @SuppressWarnings("restriction")
@@ -95,7 +95,8 @@
 		ICompletionProposalExtension5, ICompletionProposalExtension6, ICompletionProposalExtension7,
 		IContextInformation {
 
-	private static final int RESOLVE_TIMEOUT = 500;
+	private static final Duration RESOLVE_TIMEOUT = Duration.ofMillis(500);
+	private static final int RESOLVE_POLL_INTERVAL = 50;
 	// Those variables should be defined in LSP4J and reused here whenever done there
 	// See https://github.com/eclipse/lsp4j/issues/149
 	/** The currently selected text or the empty string */
@@ -132,6 +133,19 @@
 	private @Nullable String documentFilter;
 	private String documentFilterAddition = ""; //$NON-NLS-1$
 	private final LanguageServerWrapper languageServerWrapper;
+	private @Nullable CompletionItemResolver resolver;
+	private int resolverIndex = -1;
+	/** whether the last validation kept this proposal in the popup */
+	private volatile boolean valid = true;
+	private @Nullable CompletionSnippet snippet;
+	private @Nullable DisplayString displayString;
+
+	/**
+	 * The display string of a label, computed once as it is rendered each time
+	 * the popup is painted.
+	 */
+	private record DisplayString(String label, StyledString styled, String lowerCase) {
+	}
 
 	public LSCompletionProposal(IDocument document, int offset, CompletionItem item,
 			LanguageServerWrapper languageServerWrapper) {
@@ -179,9 +193,44 @@ protected LSCompletionProposal(LSCompletionProposal p) {
 		this.selection = p.selection;
 		this.firstPosition = p.firstPosition;
 		this.rankCategory = p.rankCategory;
-		this.rankCategory = p.rankScore;
+		this.rankScore = p.rankScore;
 		this.documentFilter = p.documentFilter;
 		this.documentFilterAddition = p.documentFilterAddition;
+		this.resolver = p.resolver;
+		this.resolverIndex = p.resolverIndex;
+		this.valid = p.valid;
+		this.snippet = p.snippet;
+		this.displayString = p.displayString;
+	}
+
+	/**
+	 * Computes ahead what is needed to render and apply this proposal, so it
+	 * does not need to be done on the UI thread: the display string and the
+	 * parsed snippet. Called in the background for the proposals shown when the
+	 * popup opens, the others compute it when rendered or applied.
+	 */
+	void prepare() {
+		getDisplayStringData();
+		if (item.getInsertTextFormat() == InsertTextFormat.Snippet) {
+			getSnippet(getInsertText());
+		}
+	}
+
+	/**
+	 * Sets the resolver of the completion session and the index of this proposal
+	 * in the popup.
+	 */
+	void setResolver(CompletionItemResolver resolver, int index) {
+		this.resolver = resolver;
+		this.resolverIndex = index;
+	}
+
+	private CompletionItemResolver getResolver() {
+		CompletionItemResolver resolver = this.resolver;
+		if (resolver == null) {
+			resolver = this.resolver = new CompletionItemResolver();
+		}
+		return resolver;
 	}
 
 	/**
@@ -286,29 +335,31 @@ private boolean isDeprecated() {
 
 	@Override
 	public StyledString getStyledDisplayString(IDocument document, int offset, BoldStylerProvider boldStylerProvider) {
-		String rawString = getDisplayString();
-		StyledString res = getStyledDisplayString();
+		final DisplayString displayString = getDisplayStringData();
+		StyledString res = copy(displayString.styled());
 		if (offset > bestOffset) {
 			try {
 				String subString = getDocumentFilter(offset).toLowerCase();
 				int lastIndex = 0;
-				String lowerRawString = rawString.toLowerCase();
-				for (Character c : subString.toCharArray()) {
-					int index = lowerRawString.indexOf(c, lastIndex);
+				String lowerRawString = displayString.lowerCase();
+				final boolean deprecated = isDeprecated();
+				final var styler = new Styler() {
+
+					@Override
+					public void applyStyles(TextStyle textStyle) {
+						if (deprecated) {
+							StyleUtil.DEPRECATE.applyStyles(textStyle);
+						}
+						boldStylerProvider.getBoldStyler().applyStyles(textStyle);
+					}
+
+				};
+				for (int i = 0; i < subString.length(); i++) {
+					int index = lowerRawString.indexOf(subString.charAt(i), lastIndex);
 					if (index < 0) {
 						return res;
 					} else {
-						res.setStyle(index, 1, new Styler() {
-
-							@Override
-							public void applyStyles(TextStyle textStyle) {
-								if (isDeprecated()) {
-									StyleUtil.DEPRECATE.applyStyles(textStyle);
-								}
-								boldStylerProvider.getBoldStyler().applyStyles(textStyle);
-							}
-
-						});
+						res.setStyle(index, 1, styler);
 						lastIndex = index + 1;
 					}
 				}
@@ -326,19 +377,36 @@ public String getDisplayString() {
 
 	@Override
 	public StyledString getStyledDisplayString() {
-		StyledString ss = isDeprecated()
-				? new StyledString(getDisplayString(), StyleUtil.DEPRECATE)
-				: new StyledString(getDisplayString());
-		CompletionItemLabelDetails labelDetails = item.getLabelDetails();
-		if (labelDetails != null) {
-			if (labelDetails.getDetail() != null) {
-				ss.append(new StyledString(labelDetails.getDetail(), StyledString.QUALIFIER_STYLER));
-			}
-			if (labelDetails.getDescription() != null) {
-				ss.append(' ' + labelDetails.getDescription(), StyledString.DECORATIONS_STYLER);
+		return copy(getDisplayStringData().styled());
+	}
+
+	private static StyledString copy(StyledString styledString) {
+		return new StyledString().append(styledString);
+	}
+
+	/**
+	 * @return the display string of the current label, computed again if the
+	 *         label was changed by <code>completionItem/resolve</code>
+	 */
+	private DisplayString getDisplayStringData() {
+		DisplayString displayString = this.displayString;
+		final String label = getDisplayString();
+		if (displayString == null || !displayString.label().equals(label)) {
+			StyledString ss = isDeprecated()
+					? new StyledString(label, StyleUtil.DEPRECATE)
+					: new StyledString(label);
+			CompletionItemLabelDetails labelDetails = item.getLabelDetails();
+			if (labelDetails != null) {
+				if (labelDetails.getDetail() != null) {
+					ss.append(new StyledString(labelDetails.getDetail(), StyledString.QUALIFIER_STYLER));
+				}
+				if (labelDetails.getDescription() != null) {
+					ss.append(' ' + labelDetails.getDescription(), StyledString.DECORATIONS_STYLER);
+				}
 			}
+			displayString = this.displayString = new DisplayString(label, ss, label.toLowerCase());
 		}
-		return ss;
+		return displayString;
 	}
 
 	@Override
@@ -349,22 +417,13 @@ public boolean isAutoInsertable() {
 
 	@Override
 	public @Nullable IInformationControlCreator getInformationControlCreator() {
-		return new AbstractReusableInformationControlCreator() {
-			@Override
-			protected IInformationControl doCreateInformationControl(Shell parent) {
-				if (BrowserInformationControl.isAvailable(parent)) {
-					return new FocusableBrowserInformationControl(parent);
-				} else {
-					return new DefaultInformationControl(parent);
-				}
-			}
-		};
+		return getResolver().getInformationControlCreator();
 	}
 
 	@Override
 	public Object getAdditionalProposalInfo(IProgressMonitor monitor) {
-		if (languageServerWrapper.isActive() && resolvesCompletionItem(languageServerWrapper.getServerCapabilities())) {
-			resolveItem();
+		if (canResolve()) {
+			resolveItem(monitor);
 		}
 
 		final var res = new StringBuilder();
@@ -395,17 +454,67 @@ private boolean resolvesCompletionItem(final @Nullable ServerCapabilities capabi
 		return false;
 	}
 
-	private void resolveItem() {
+	boolean canResolve() {
+		return languageServerWrapper.isActive() && resolvesCompletionItem(languageServerWrapper.getServerCapabilities());
+	}
+
+	/**
+	 * Sends <code>completionItem/resolve</code> for the item and updates it with
+	 * the response. Cancelling the returned future cancels the request.
+	 */
+	CompletableFuture<CompletionItem> requestResolve() {
+		final CompletableFuture<@Nullable CompletionItem> request = languageServerWrapper
+				.execute(ls -> ls.getTextDocumentService().resolveCompletionItem(item));
+		final CompletableFuture<CompletionItem> resolved = request.thenApply(resolvedItem -> {
+			updateCompletionItem(resolvedItem);
+			return item;
+		});
+		resolved.whenComplete((i, t) -> {
+			if (t instanceof CancellationException) {
+				request.cancel(true);
+			}
+		});
+		return resolved;
+	}
+
+	/**
+	 * Waits for the item to be resolved, unless called from the UI thread: the
+	 * information resolved so far is then used, the resolve having been started
+	 * in the background when this proposal got selected.
+	 */
+	private void resolveItem(IProgressMonitor monitor) {
+		final CompletableFuture<CompletionItem> resolve = getResolver().resolve(this);
+		if (Display.getCurrent() != null) {
+			if (!resolve.isDone()) {
+				final CompletionItemResolver resolver = getResolver();
+				resolve.thenRun(() -> UI.getDisplay().asyncExec(() -> resolver.refreshInformationControl(this)));
+			}
+			return;
+		}
+		final Duration timeout = languageServerWrapper.getLatencyTracker().getTimeout(LatencyTracker.COMPLETION_RESOLVE,
+				RESOLVE_TIMEOUT);
+		final long deadline = System.nanoTime() + timeout.toNanos();
 		try {
-			languageServerWrapper.execute(ls -> ls.getTextDocumentService().resolveCompletionItem(item).thenAccept(this::updateCompletionItem))
-					.get(RESOLVE_TIMEOUT, TimeUnit.MILLISECONDS);
+			while (!resolve.isDone() && !monitor.isCanceled()) {
+				final long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					LanguageServerPlugin.logWarning("Could not resolve completion items due to timeout after " + timeout.toMillis() + " milliseconds in `completionItem/resolve`");  //$NON-NLS-1$//$NON-NLS-2$
+					return;
+				}
+				try {
+					resolve.get(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(RESOLVE_POLL_INTERVAL)),
+							TimeUnit.NANOSECONDS);
+				} catch (TimeoutException e) {
+					// check the monitor again
+				}
+			}
 		} catch (ExecutionException e) {
 			LanguageServerPlugin.logError(e);
 		} catch (InterruptedException e) {
 			LanguageServerPlugin.logError(e);
 			Thread.currentThread().interrupt();
-		} catch (TimeoutException e) {
-			LanguageServerPlugin.logWarning("Could not resolve completion items due to timeout after " + RESOLVE_TIMEOUT + " milliseconds in `completionItem/resolve`");  //$NON-NLS-1$//$NON-NLS-2$
+		} catch (CancellationException e) {
+			// the selection moved to another proposal
 		}
 	}
 
@@ -523,17 +632,19 @@ protected void apply(IDocument document, char trigger, int stateMask, int offset
 			insertText = textEdit.getNewText();
 			Map<String, List<LinkedPosition>> regions = Collections.emptyMap();
 			int insertionOffset = LSPEclipseUtils.toOffset(textEdit.getRange().getStart(), document);
-			if (item.getInsertTextMode() == InsertTextMode.AdjustIndentation || item.getInsertTextMode() == null) {
-				insertText = adjustIndentation(document, insertText, insertionOffset);
-			}
+			final String newLine = item.getInsertTextMode() == InsertTextMode.AdjustIndentation || item.getInsertTextMode() == null
+					? getIndentedNewLine(document, insertionOffset)
+					: "\n"; //$NON-NLS-1$
 			insertionOffset = computeNewOffset(item.getAdditionalTextEdits(), insertionOffset, document);
 			if (item.getInsertTextFormat() == InsertTextFormat.Snippet) {
-				final var completionSnippetParser = new CompletionSnippetParser(document, insertText, insertionOffset, this::getVariableValue);
-				insertText = completionSnippetParser.parse();
-				regions = completionSnippetParser.getLinkedPositions();
+				final var insertion = getSnippet(insertText).insert(document, insertionOffset, newLine, this::getVariableValue);
+				insertText = insertion.text();
+				regions = insertion.linkedPositions();
 				if (!regions.isEmpty() && firstPosition == null) {
 					firstPosition = regions.values().iterator().next().get(0);
 				}
+			} else {
+				insertText = insertText.replace("\n", newLine); //$NON-NLS-1$
 			}
 			textEdit.setNewText(insertText); // insertText now has placeholder removed
 			List<TextEdit> additionalEdits = item.getAdditionalTextEdits();
@@ -606,7 +717,11 @@ protected void apply(IDocument document, char trigger, int stateMask, int offset
 		}
 	}
 
-	private String adjustIndentation(IDocument document, String insertText, int insertionOffset) throws BadLocationException {
+	/**
+	 * @return a line feed followed by the indentation of the line of the given
+	 *         offset, to indent the inserted lines like this one
+	 */
+	private String getIndentedNewLine(IDocument document, int insertionOffset) throws BadLocationException {
 		int line = document.getLineOfOffset(insertionOffset);
 		int whitespaceOffset = document.getLineOffset(line);
 		final var whitespacesBeforeInsertion = new StringBuilder();
@@ -615,7 +730,19 @@ private String adjustIndentation(IDocument document, String insertText, int inse
 			whitespacesBeforeInsertion.append(document.getChar(whitespaceOffset));
 			whitespaceOffset++;
 		}
-		return insertText.replace("\n", whitespacesBeforeInsertion); //$NON-NLS-1$
+		return whitespacesBeforeInsertion.toString();
+	}
+
+	/**
+	 * @return the parsed snippet, reusing the one {@link #prepare() prepared} in
+	 *         the background if the text did not change since
+	 */
+	private CompletionSnippet getSnippet(String snippetText) {
+		CompletionSnippet snippet = this.snippet;
+		if (snippet == null || !snippet.source().equals(snippetText)) {
+			snippet = this.snippet = new CompletionSnippetParser(snippetText).parse();
+		}
+		return snippet;
 	}
 
 	private int computeNewOffset(@Nullable List<TextEdit> additionalTextEdits, int insertionOffset, IDocument doc) {
@@ -841,14 +968,27 @@ public boolean isValidFor(IDocument document, int offset) {
 	@Override
 	public void selected(ITextViewer viewer, boolean smartToggle) {
 		this.viewer = viewer;
+		getResolver().selected(this, resolverIndex);
 	}
 
 	@Override
 	public void unselected(ITextViewer viewer) {
+		getResolver().unselected(this);
 	}
 
 	@Override
 	public boolean validate(IDocument document, int offset, @Nullable DocumentEvent event) {
+		return valid = isValidAt(document, offset);
+	}
+
+	/**
+	 * @return whether the last validation kept this proposal in the popup
+	 */
+	boolean isValid() {
+		return valid;
+	}
+
+	private boolean isValidAt(IDocument document, int offset) {
 		if (item.getLabel() == null || item.getLabel().isEmpty()) {
 			return false;
 		}
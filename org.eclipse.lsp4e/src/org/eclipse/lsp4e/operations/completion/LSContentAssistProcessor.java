@@ -17,6 +17,7 @@
 import static org.eclipse.lsp4e.internal.NullSafetyHelper.castNonNull;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -49,6 +50,7 @@
 import org.eclipse.lsp4e.LanguageServers;
 import org.eclipse.lsp4e.internal.CancellationSupport;
 import org.eclipse.lsp4e.internal.CancellationUtil;
+import org.eclipse.lsp4e.internal.LatencyTracker;
 import org.eclipse.lsp4e.ui.Messages;
 import org.eclipse.lsp4e.ui.UI;
 import org.eclipse.lsp4j.CompletionContext;
@@ -71,7 +73,9 @@ public class LSContentAssistProcessor implements IContentAssistProcessor {
 
 	private static final ICompletionProposal[] NO_COMPLETION_PROPOSALS = new ICompletionProposal[0];
 	private static final long TRIGGERS_TIMEOUT = 50;
-	private static final long CONTEXT_INFORMATION_TIMEOUT = 1000;
+	private static final Duration CONTEXT_INFORMATION_TIMEOUT = Duration.ofMillis(1000);
+	/** number of proposals prepared in the background, more than the popup shows at first */
+	private static final int PREPARED_ROWS = 50;
 
 	private @Nullable IDocument currentDocument;
 	private @Nullable String errorMessage;
@@ -94,6 +98,12 @@ public class LSContentAssistProcessor implements IContentAssistProcessor {
 	 */
 	private CancellationSupport triggerCharsCancellationSupport;
 
+	/**
+	 * The complete completion lists of the last invocation, reused while the user
+	 * keeps typing the same word
+	 */
+	private volatile @Nullable CompletionSession completionSession;
+
 	public LSContentAssistProcessor() {
 		this(true);
 	}
@@ -138,11 +148,35 @@ public ICompletionProposal[] computeCompletionProposals(ITextViewer viewer, int
 
 		initiateLanguageServers(document);
 
+		final CompletionSession session = this.completionSession;
+		if (session != null && session.canContinueAt(document, offset, completionTriggerChars)) {
+			this.completionCancellationSupport.cancel();
+			final var cancellationSupport = new CancellationSupport();
+			this.completionCancellationSupport = cancellationSupport;
+			try {
+				final List<LSCompletionProposal> sessionProposals = session.getProposals(offset, cancellationSupport);
+				sessionProposals.sort(proposalComparator);
+				prepareFirstRows(sessionProposals);
+				session.getResolver().setProposals(sessionProposals);
+				return sessionProposals.toArray(ICompletionProposal[]::new);
+			} catch (BadLocationException | CancellationException e) {
+				return NO_COMPLETION_PROPOSALS;
+			}
+		}
+		if (session != null) {
+			session.dispose();
+			this.completionSession = null;
+		}
+
+		final long modificationStamp = CompletionSession.getModificationStamp(document);
 		final CompletionContext context = LSPEclipseUtils.toCompletionContext(triggerChar, completionTriggerChars);
 		final CompletionParams param = LSPEclipseUtils.toCompletionParams(uri, completionPosition, context);
 
 		final var proposals = Collections.synchronizedList(new ArrayList<ICompletionProposal>());
 		final var anyIncomplete = new AtomicBoolean(false);
+		final var anyFailed = new AtomicBoolean(false);
+		final var resolver = new CompletionItemResolver();
+		final var serverItems = Collections.synchronizedList(new ArrayList<CompletionSession.ServerItems>());
 		try {
 			// Cancel the previous LSP requests 'textDocument/completions' and
 			// completionLanguageServersFuture
@@ -162,8 +196,14 @@ public ICompletionProposal[] computeCompletionProposals(ITextViewer viewer, int
 										isIncomplete));
 								if (isIncomplete) {
 									anyIncomplete.set(true);
+								} else if (completion != null) {
+									serverItems.add(new CompletionSession.ServerItems(w,
+											completion.map(Functions.identity(), CompletionList::getItems).stream()
+													.filter(Objects::nonNull).toList(),
+											completion.map(o -> null, CompletionList::getItemDefaults)));
 								}
 							}).exceptionally(t -> {
+								anyFailed.set(true);
 								if (!CancellationUtil.isRequestCancelledException(t)) {
 									LanguageServerPlugin.logError("'%s' LS failed to compute completion items." //$NON-NLS-1$
 											.formatted(w.serverDefinition.label), t);
@@ -175,6 +215,13 @@ public ICompletionProposal[] computeCompletionProposals(ITextViewer viewer, int
 			// Wait for the result of all LSP requests 'textDocument/completions', this
 			// future will be canceled with the next completion
 			completionLanguageServersFuture.get();
+
+			// Servers must be queried again for incomplete lists as the user types, and
+			// for the lists which could not be computed
+			if (!anyIncomplete.get() && !anyFailed.get() && cancellationSupport == this.completionCancellationSupport) {
+				this.completionSession = CompletionSession.create(document, offset, modificationStamp, serverItems,
+						resolver);
+			}
 		} catch (ExecutionException e) {
 			// Ideally exceptions from each LS are handled above and we shouldn't be getting
 			// into this block
@@ -198,6 +245,8 @@ public ICompletionProposal[] computeCompletionProposals(ITextViewer viewer, int
 			completeProposals.add(completeProposal);
 		}
 		completeProposals.sort(proposalComparator);
+		prepareFirstRows(completeProposals);
+		resolver.setProposals(completeProposals);
 		final ICompletionProposal incompleteProposal = createIncompleteProposal(offset, anyIncomplete.get());
 		if (incompleteProposal != null && !completeProposals.isEmpty()) {
 			// Only add the incompleteProposal if the list is not empty.
@@ -211,6 +260,16 @@ public ICompletionProposal[] computeCompletionProposals(ITextViewer viewer, int
 		return completeProposals.toArray(ICompletionProposal[]::new);
 	}
 
+	/**
+	 * Prepares the proposals shown when the popup opens in the background, rather
+	 * than on the UI thread when they are rendered. The other proposals are only
+	 * prepared if they get rendered or applied.
+	 */
+	private static void prepareFirstRows(List<LSCompletionProposal> sortedProposals) {
+		sortedProposals.subList(0, Math.min(PREPARED_ROWS, sortedProposals.size()))
+				.forEach(LSCompletionProposal::prepare);
+	}
+
 	private ICompletionProposal[] createErrorProposal(int offset, Exception ex) {
 		if (errorAsCompletionItem) {
 			return new ICompletionProposal[] {
@@ -306,16 +365,18 @@ private static List<ICompletionProposal> toProposals(IDocument document, int off
 			return new IContextInformation[] { /* TODO? show error in context information */ };
 		}
 		List<IContextInformation> contextInformations = Collections.synchronizedList(new ArrayList<>());
+		final Duration timeout = LanguageServers.getTimeout(LatencyTracker.SIGNATURE_HELP, CONTEXT_INFORMATION_TIMEOUT);
 		try {
 			this.contextInformationLanguageServersFuture = LanguageServers.forDocument(document)
 					.withFilter(capabilities -> capabilities.getSignatureHelpProvider() != null)
+					.withRoutingAroundDegraded(LatencyTracker.SIGNATURE_HELP)
 					.collectAll(ls -> ls.getTextDocumentService().signatureHelp(param).thenAccept(signatureHelp -> {
 						if (signatureHelp != null) {
 							signatureHelp.getSignatures().stream().map(LSContentAssistProcessor::toContextInformation)
 									.forEach(contextInformations::add);
 						}
 					}));
-			this.contextInformationLanguageServersFuture.get(CONTEXT_INFORMATION_TIMEOUT, TimeUnit.MILLISECONDS);
+			this.contextInformationLanguageServersFuture.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
 		} catch (ResponseErrorException | ExecutionException e) {
 			if (!CancellationUtil.isRequestCancelledException(e)) { // do not report error if the server has cancelled
 																	// the request
@@ -328,7 +389,7 @@ private static List<ICompletionProposal> toProposals(IDocument document, int off
 			return new IContextInformation[] { /* TODO? show error in context information */ };
 		} catch (TimeoutException e) {
 			LanguageServerPlugin.logWarning("Could not compute  context information due to timeout after " //$NON-NLS-1$
-					+ CONTEXT_INFORMATION_TIMEOUT + " milliseconds"); //$NON-NLS-1$
+					+ timeout.toMillis() + " milliseconds"); //$NON-NLS-1$
 			return new IContextInformation[] { /* TODO? show error in context information */ };
 		}
 		return contextInformations.toArray(IContextInformation[]::new);
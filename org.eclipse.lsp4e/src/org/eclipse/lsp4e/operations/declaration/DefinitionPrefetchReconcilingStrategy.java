@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.operations.declaration;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.core.runtime.ICoreRunnable;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.preferences.AbstractPreferenceInitializer;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.PreferenceChangeEvent;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITextSelection;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.ITextViewerLifecycle;
+import org.eclipse.jface.text.reconciler.DirtyRegion;
+import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
+import org.eclipse.jface.text.source.ISourceViewer;
+import org.eclipse.jface.viewers.IPostSelectionProvider;
+import org.eclipse.jface.viewers.ISelectionChangedListener;
+import org.eclipse.jface.viewers.ISelectionProvider;
+import org.eclipse.jface.viewers.SelectionChangedEvent;
+import org.eclipse.lsp4e.LanguageServerPlugin;
+import org.eclipse.lsp4e.internal.DocumentUtil;
+
+/**
+ * Speculatively requests the definitions of the identifier under the caret once
+ * the caret stays idle, so a following Ctrl+click on it resolves from cache.
+ * The speculative request is cancelled when the caret moves to another position.
+ * <p>
+ * Disabled by default, see {@link #DEFINITION_PREFETCH_PREFERENCE}.
+ */
+public class DefinitionPrefetchReconcilingStrategy
+		implements IReconcilingStrategy, ITextViewerLifecycle, ISelectionChangedListener, IPreferenceChangeListener {
+
+	public static final String DEFINITION_PREFETCH_PREFERENCE = "org.eclipse.lsp4e.definitionPrefetch"; //$NON-NLS-1$
+	private static final boolean DEFINITION_PREFETCH_DEFAULT = false;
+
+	/** how long the caret must stay on a position before the definitions are requested */
+	private static final int IDLE_DELAY_MS = 500;
+
+	public static final class PreferenceInitializer extends AbstractPreferenceInitializer {
+		@Override
+		public void initializeDefaultPreferences() {
+			final var store = LanguageServerPlugin.getDefault().getPreferenceStore();
+			store.setDefault(DEFINITION_PREFETCH_PREFERENCE, DEFINITION_PREFETCH_DEFAULT);
+		}
+	}
+
+	/**
+	 * @return whether definitions are prefetched, as configured by
+	 *         {@link #DEFINITION_PREFETCH_PREFERENCE}
+	 */
+	static boolean isEnabled() {
+		return LanguageServerPlugin.getDefault().getPreferenceStore().getBoolean(DEFINITION_PREFETCH_PREFERENCE);
+	}
+
+	private boolean enabled;
+	private @Nullable ISourceViewer sourceViewer;
+	private @Nullable IDocument document;
+	private @Nullable Job prefetchJob;
+	private volatile CompletableFuture<?> prefetch = CompletableFuture.completedFuture(null);
+	private int prefetchOffset = -1;
+
+	@Override
+	public void install(ITextViewer viewer) {
+		if (viewer instanceof ISourceViewer thisViewer) {
+			IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(LanguageServerPlugin.PLUGIN_ID);
+			preferences.addPreferenceChangeListener(this);
+			this.enabled = isEnabled();
+			this.sourceViewer = thisViewer;
+			final ISelectionProvider selectionProvider = thisViewer.getSelectionProvider();
+			if (selectionProvider instanceof IPostSelectionProvider provider) {
+				provider.addPostSelectionChangedListener(this);
+			} else {
+				selectionProvider.addSelectionChangedListener(this);
+			}
+		}
+	}
+
+	@Override
+	public void uninstall() {
+		final var sourceViewer = this.sourceViewer;
+		if (sourceViewer != null) {
+			final ISelectionProvider selectionProvider = sourceViewer.getSelectionProvider();
+			if (selectionProvider instanceof IPostSelectionProvider provider) {
+				provider.removePostSelectionChangedListener(this);
+			} else {
+				selectionProvider.removeSelectionChangedListener(this);
+			}
+		}
+		IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(LanguageServerPlugin.PLUGIN_ID);
+		preferences.removePreferenceChangeListener(this);
+		cancel();
+	}
+
+	@Override
+	public void preferenceChange(PreferenceChangeEvent event) {
+		if (event.getKey().equals(DEFINITION_PREFETCH_PREFERENCE)) {
+			this.enabled = Boolean.parseBoolean(String.valueOf(event.getNewValue()));
+			if (!enabled) {
+				cancel();
+			}
+		}
+	}
+
+	@Override
+	public void selectionChanged(SelectionChangedEvent event) {
+		final var document = this.document;
+		if (!enabled || document == null || !(event.getSelection() instanceof ITextSelection selection)) {
+			return;
+		}
+		final int offset = selection.getOffset();
+		if (offset == prefetchOffset) {
+			return;
+		}
+		cancel();
+		prefetchOffset = offset;
+		final long stamp = DocumentUtil.getDocumentModificationStamp(document);
+		final Job job = prefetchJob = Job.createSystem("LSP4E Definition Prefetch", //$NON-NLS-1$
+				(ICoreRunnable) monitor -> {
+					if ((monitor == null || !monitor.isCanceled()) && stamp == DocumentUtil.getDocumentModificationStamp(document)) {
+						final CompletableFuture<?> request = prefetch = OpenDeclarationHyperlinkDetector
+								.prefetchDefinitions(document, offset);
+						// the caret may have moved in the meantime
+						if (monitor != null && monitor.isCanceled()) {
+							request.cancel(true);
+						}
+					}
+				});
+		// speculative work, must not delay anything the user is waiting for
+		job.setPriority(Job.DECORATE);
+		job.schedule(IDLE_DELAY_MS);
+	}
+
+	private void cancel() {
+		final var job = prefetchJob;
+		if (job != null) {
+			job.cancel();
+			prefetchJob = null;
+		}
+		prefetch.cancel(true);
+		prefetchOffset = -1;
+	}
+
+	@Override
+	public void setDocument(@Nullable IDocument document) {
+		this.document = document;
+		cancel();
+	}
+
+	@Override
+	public void reconcile(DirtyRegion dirtyRegion, @Nullable IRegion subRegion) {
+		// the prefetched definitions are tied to the document version
+	}
+
+	@Override
+	public void reconcile(IRegion partition) {
+		// the prefetched definitions are tied to the document version
+	}
+}
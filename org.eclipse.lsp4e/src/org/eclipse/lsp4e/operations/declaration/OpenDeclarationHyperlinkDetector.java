@@ -15,13 +15,17 @@
 package org.eclipse.lsp4e.operations.declaration;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -34,9 +38,13 @@
 import org.eclipse.jface.text.hyperlink.IHyperlink;
 import org.eclipse.lsp4e.LSPEclipseUtils;
 import org.eclipse.lsp4e.LanguageServerPlugin;
+import org.eclipse.lsp4e.LanguageServerWrapper;
 import org.eclipse.lsp4e.LanguageServers;
 import org.eclipse.lsp4e.internal.DocumentOffsetAsyncCache;
+import org.eclipse.lsp4e.internal.DocumentUtil;
+import org.eclipse.lsp4e.internal.RequestCache;
 import org.eclipse.lsp4e.ui.Messages;
+import org.eclipse.lsp4j.DefinitionParams;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.LocationLink;
 import org.eclipse.lsp4j.Range;
@@ -56,6 +64,10 @@ private static record LabeledLocations(String label,
 	private static final DocumentOffsetAsyncCache<List<LSBasedHyperlink>> CACHE = new DocumentOffsetAsyncCache<>(
 			Duration.ofSeconds(10));
 
+	/** Definitions resolved ahead of time by {@link #prefetchDefinitions(IDocument, int)}. */
+	private static final DocumentOffsetAsyncCache<List<LSBasedHyperlink>> PREFETCHED = new DocumentOffsetAsyncCache<>(
+			Duration.ofSeconds(10));
+
 	@Override
 	public IHyperlink @Nullable [] detectHyperlinks(ITextViewer textViewer, IRegion region,
 			boolean canShowMultipleHyperlinks) {
@@ -63,40 +75,47 @@ private static record LabeledLocations(String label,
 		if (document == null) {
 			return null;
 		}
+		// Normalize cache key to the start of the word to avoid cache misses when the
+		// mouse moves within the same symbol.
+		final int cacheKeyOffset = findWord(document, region).getOffset();
+
 		TextDocumentPositionParams params;
+		TextDocumentPositionParams definitionParams;
 		try {
 			params = LSPEclipseUtils.toTextDocumentPosistionParams(region.getOffset(), document);
+			// when prefetching, definitions are requested at the start of the word to
+			// share the prefetched request
+			definitionParams = DefinitionPrefetchReconcilingStrategy.isEnabled()
+					? LSPEclipseUtils.toTextDocumentPosistionParams(cacheKeyOffset, document)
+					: params;
 		} catch (BadLocationException e) {
 			LanguageServerPlugin.logError(e);
 			return null;
 		}
 
-		// Normalize cache key to the start of the word to avoid cache misses when the
-		// mouse moves within the same symbol.
-		final int cacheKeyOffset = findWord(document, region).getOffset();
-
 		final CompletableFuture<List<LSBasedHyperlink>> request = CACHE.computeIfAbsent(document, cacheKeyOffset, () -> {
 			final var definitions = LanguageServers.forDocument(document)
 					.withCapability(ServerCapabilities::getDefinitionProvider)
-					.collectAll(ls -> ls.getTextDocumentService().definition(LSPEclipseUtils.toDefinitionParams(params))
+					.collectAll((w, ls) -> cached(w, RequestCache.DEFINITION, LSPEclipseUtils.toDefinitionParams(definitionParams),
+							p -> ls.getTextDocumentService().definition(p))
 							.thenApply(l -> new LabeledLocations(Messages.definitionHyperlinkLabel, l))
 							.exceptionally(err -> new LabeledLocations(Messages.definitionHyperlinkLabel, null)));
 			final var declarations = LanguageServers.forDocument(document)
 					.withCapability(ServerCapabilities::getDeclarationProvider)
-					.collectAll(ls -> ls.getTextDocumentService()
-							.declaration(LSPEclipseUtils.toDeclarationParams(params))
+					.collectAll((w, ls) -> cached(w, RequestCache.DECLARATION, LSPEclipseUtils.toDeclarationParams(params),
+							p -> ls.getTextDocumentService().declaration(p))
 							.thenApply(l -> new LabeledLocations(Messages.declarationHyperlinkLabel, l))
 							.exceptionally(err -> new LabeledLocations(Messages.declarationHyperlinkLabel, null)));
 			final var typeDefinitions = LanguageServers.forDocument(document)
 					.withCapability(ServerCapabilities::getTypeDefinitionProvider)
-					.collectAll(ls -> ls.getTextDocumentService()
-							.typeDefinition(LSPEclipseUtils.toTypeDefinitionParams(params))
+					.collectAll((w, ls) -> cached(w, RequestCache.TYPE_DEFINITION, LSPEclipseUtils.toTypeDefinitionParams(params),
+							p -> ls.getTextDocumentService().typeDefinition(p))
 							.thenApply(l -> new LabeledLocations(Messages.typeDefinitionHyperlinkLabel, l))
 							.exceptionally(err -> new LabeledLocations(Messages.typeDefinitionHyperlinkLabel, null)));
 			final var implementations = LanguageServers.forDocument(document)
 					.withCapability(ServerCapabilities::getImplementationProvider)
-					.collectAll(ls -> ls.getTextDocumentService()
-							.implementation(LSPEclipseUtils.toImplementationParams(params))
+					.collectAll((w, ls) -> cached(w, RequestCache.IMPLEMENTATION, LSPEclipseUtils.toImplementationParams(params),
+							p -> ls.getTextDocumentService().implementation(p))
 							.thenApply(l -> new LabeledLocations(Messages.implementationHyperlinkLabel, l))
 							.exceptionally(err -> new LabeledLocations(Messages.implementationHyperlinkLabel, null)));
 
@@ -106,6 +125,23 @@ private static record LabeledLocations(String label,
 			return combined.thenApply(locations -> toHyperlinks(document, region, locations));
 		});
 
+		final List<LSBasedHyperlink> prefetched = PREFETCHED.getNow(document, cacheKeyOffset);
+		if (prefetched != null && !request.isDone()) {
+			// Do not wait for the other kinds of locations when the definitions are known,
+			// they are offered by a deferred link instead
+			if (!canShowMultipleHyperlinks) {
+				return new IHyperlink[] { prefetched.get(0) };
+			}
+			final Set<Either<Location, LocationLink>> known = prefetched.stream().map(LSBasedHyperlink::getLocation)
+					.collect(Collectors.toSet());
+			final CompletableFuture<List<LSBasedHyperlink>> others = request
+					.thenApply(links -> links.stream().filter(link -> !known.contains(link.getLocation())).toList());
+			final var links = new ArrayList<IHyperlink>(prefetched);
+			links.add(new DeferredOpenMultiDeclarationHyperlink(textViewer, document, findWord(document, region),
+					others));
+			return links.toArray(IHyperlink[]::new);
+		}
+
 		try {
 			// Try to get a quick result within the UI budget; keep UI responsive.
 			final List<LSBasedHyperlink> links = request.get(UI_BLOCKING_BUDGET_MS, TimeUnit.MILLISECONDS);
@@ -130,6 +166,52 @@ private static record LabeledLocations(String label,
 		return null;
 	}
 
+	/**
+	 * Requests the definitions of the identifier at the given offset ahead of a
+	 * hyperlink detection on it, so navigating to them does not wait for the
+	 * server. Found definitions are cached until the document changes.
+	 *
+	 * @return the pending request, to be cancelled when the definitions are no
+	 *         longer of interest. Cancelling it does not affect a detection which
+	 *         joined the request in the meantime.
+	 */
+	public static CompletableFuture<?> prefetchDefinitions(IDocument document, int offset) {
+		final IRegion word = findWord(document, new Region(offset, 0));
+		if (word.getLength() == 0 || PREFETCHED.getNow(document, word.getOffset()) != null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		final DefinitionParams params;
+		try {
+			params = LSPEclipseUtils.toDefinitionParams(
+					LSPEclipseUtils.toTextDocumentPosistionParams(word.getOffset(), document));
+		} catch (BadLocationException e) {
+			LanguageServerPlugin.logError(e);
+			return CompletableFuture.completedFuture(null);
+		}
+		final long stamp = DocumentUtil.getDocumentModificationStamp(document);
+		final CompletableFuture<List<LabeledLocations>> definitions = LanguageServers.forDocument(document)
+				.withCapability(ServerCapabilities::getDefinitionProvider)
+				.collectAll((w, ls) -> cached(w, RequestCache.DEFINITION, params,
+						p -> ls.getTextDocumentService().definition(p))
+						.thenApply(l -> new LabeledLocations(Messages.definitionHyperlinkLabel, l)));
+		definitions.thenAccept(locations -> {
+			final List<LSBasedHyperlink> links = toHyperlinks(document, word, locations);
+			if (!links.isEmpty() && stamp == DocumentUtil.getDocumentModificationStamp(document)) {
+				PREFETCHED.put(document, word.getOffset(), links);
+			}
+		});
+		return definitions;
+	}
+
+	/**
+	 * Shares the request with the other features asking about the same position,
+	 * e.g. the hover or a previous detection on the same symbol.
+	 */
+	private static <P extends TextDocumentPositionParams, T> CompletableFuture<T> cached(LanguageServerWrapper wrapper,
+			String method, P params, Function<P, CompletableFuture<T>> request) {
+		return wrapper.getRequestCache().get(method, params, () -> request.apply(params));
+	}
+
 	/**
 	 * Returns a list of {@link LSBasedHyperlink} using the given LSP locations
 	 *
@@ -31,6 +31,8 @@
 import org.eclipse.lsp4e.LSPEclipseUtils;
 import org.eclipse.lsp4e.LanguageServerPlugin;
 import org.eclipse.lsp4e.LanguageServers;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler.Priority;
 import org.eclipse.lsp4j.DocumentLink;
 import org.eclipse.lsp4j.DocumentLinkParams;
 import org.eclipse.swt.custom.StyleRange;
@@ -84,9 +86,13 @@ private void underline() {
 		final Control control = theViewer.getTextWidget();
 		if (control != null && !control.isDisposed()) {
 			Display display = control.getDisplay();
-			request = LanguageServers.forDocument(document)
-					.withFilter(capabilities -> capabilities.getDocumentLinkProvider() != null)
-					.collectAll(languageServer -> languageServer.getTextDocumentService().documentLink(params))
+			// a newer refresh of this strategy cancels the request to the servers
+			request = DocumentRefreshScheduler.DEFAULT
+					.schedule(document, control, this, Priority.TEXT_PRESENTATION,
+							() -> LanguageServers.forDocument(document)
+									.withFilter(capabilities -> capabilities.getDocumentLinkProvider() != null)
+									.collectAll(languageServer -> languageServer.getTextDocumentService()
+											.documentLink(params)))
 					.thenAcceptAsync(links -> links.forEach(this::underline), display);
 		}
 	}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.lsp4e.operations.folding;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.lsp4e.internal.DocumentUtil;
+import org.eclipse.lsp4j.FoldingRange;
+
+/**
+ * Caches the folding ranges of a document. The lines added and removed by the
+ * document modifications are recorded, so folding ranges computed by the
+ * language servers for a previous version of the document, e.g. when the user
+ * kept typing while the request was pending, can be shifted to the lines of the
+ * current version instead of folding the wrong lines until the next response.
+ * <p>
+ * Internal class, only public to be accessible by test cases.
+ *
+ * @noreference
+ */
+public final class FoldingRangeCache implements IDocumentListener {
+
+	/** maximal number of document modifications recorded to shift stale folding ranges */
+	private static final int MAX_LINE_SHIFTS = 1_000;
+
+	/**
+	 * The lines replaced by a document modification.
+	 *
+	 * @param version
+	 *            the modification stamp of the document before the modification
+	 * @param line
+	 *            the line of the modified offset
+	 * @param atLineStart
+	 *            whether the modification starts at the beginning of the line, so
+	 *            the line itself is moved
+	 * @param removed
+	 *            the number of line delimiters removed
+	 * @param added
+	 *            the number of line delimiters added
+	 */
+	private record LineShift(long version, int line, boolean atLineStart, int removed, int added) {
+
+		int apply(final int otherLine) {
+			if (otherLine < line || otherLine == line && !atLineStart)
+				return otherLine;
+			// the end of the last modified line is kept after the inserted lines
+			if (otherLine >= line + removed)
+				return otherLine + added - removed;
+			// the line was removed, keep it within the inserted lines
+			return Math.min(otherLine, line + added);
+		}
+	}
+
+	private final IDocument document;
+	private final Deque<LineShift> lineShifts = new ArrayDeque<>();
+	private @Nullable LineShift pendingShift;
+
+	/** the folding ranges of the last response */
+	private @Nullable List<FoldingRange> ranges;
+	/** whether the document was modified since the last response */
+	private boolean shifted;
+
+	public FoldingRangeCache(final IDocument document) {
+		this.document = document;
+		document.addDocumentListener(this);
+	}
+
+	public void dispose() {
+		document.removeDocumentListener(this);
+	}
+
+	/**
+	 * @return the folding ranges of the last response if the document was not
+	 *         modified since, <code>null</code> otherwise
+	 */
+	public synchronized @Nullable List<FoldingRange> get() {
+		return shifted ? null : ranges;
+	}
+
+	/**
+	 * Caches the folding ranges computed by the language servers.
+	 *
+	 * @param version
+	 *            the modification stamp of the document the ranges were computed
+	 *            for
+	 * @param newRanges
+	 *            the folding ranges of all the language servers
+	 * @return the given folding ranges shifted to the current version of the
+	 *         document, or <code>null</code> if they cannot be shifted because
+	 *         too many modifications were made since
+	 */
+	public synchronized @Nullable List<FoldingRange> put(final long version, final List<FoldingRange> newRanges) {
+		final long currentVersion = DocumentUtil.getDocumentModificationStamp(document);
+		List<FoldingRange> result = newRanges;
+		if (version != currentVersion) {
+			final List<LineShift> shifts = getLineShiftsSince(version);
+			if (shifts == null)
+				return null;
+			result = shift(newRanges, shifts);
+		}
+		ranges = result;
+		shifted = false;
+		return result;
+	}
+
+	private @Nullable List<LineShift> getLineShiftsSince(final long version) {
+		final var shifts = new ArrayList<LineShift>();
+		final Iterator<LineShift> iterator = lineShifts.descendingIterator();
+		while (iterator.hasNext()) {
+			final LineShift shift = iterator.next();
+			shifts.add(0, shift);
+			if (shift.version == version)
+				return shifts;
+		}
+		return null;
+	}
+
+	private static List<FoldingRange> shift(final List<FoldingRange> ranges, final List<LineShift> shifts) {
+		final var result = new ArrayList<FoldingRange>(ranges.size());
+		for (final FoldingRange range : ranges) {
+			int startLine = range.getStartLine();
+			int endLine = range.getEndLine();
+			for (final LineShift shift : shifts) {
+				startLine = shift.apply(startLine);
+				endLine = shift.apply(endLine);
+			}
+			if (startLine >= endLine)
+				continue;
+			if (startLine == range.getStartLine() && endLine == range.getEndLine()) {
+				result.add(range);
+			} else {
+				final var shiftedRange = new FoldingRange(startLine, endLine);
+				shiftedRange.setKind(range.getKind());
+				shiftedRange.setCollapsedText(range.getCollapsedText());
+				result.add(shiftedRange);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void documentAboutToBeChanged(final DocumentEvent event) {
+		try {
+			final int line = document.getLineOfOffset(event.getOffset());
+			final boolean atLineStart = document.getLineOffset(line) == event.getOffset();
+			final int removed = document.getNumberOfLines(event.getOffset(), event.getLength()) - 1;
+			synchronized (this) {
+				pendingShift = new LineShift(DocumentUtil.getDocumentModificationStamp(document), line, atLineStart,
+						removed, 0);
+			}
+		} catch (final BadLocationException ex) {
+			synchronized (this) {
+				pendingShift = null;
+			}
+		}
+	}
+
+	@Override
+	public void documentChanged(final DocumentEvent event) {
+		final String text = event.getText();
+		int added = 0;
+		if (!text.isEmpty()) {
+			try {
+				added = document.getNumberOfLines(event.getOffset(), text.length()) - 1;
+			} catch (final BadLocationException ex) {
+				added = -1;
+			}
+		}
+		synchronized (this) {
+			final LineShift pending = pendingShift;
+			pendingShift = null;
+			if (pending == null || added < 0) {
+				// the ranges of the previous versions cannot be shifted anymore
+				lineShifts.clear();
+				shifted = true;
+				return;
+			}
+			lineShifts.addLast(new LineShift(pending.version, pending.line, pending.atLineStart, pending.removed, added));
+			if (lineShifts.size() > MAX_LINE_SHIFTS) {
+				lineShifts.removeFirst();
+			}
+			shifted = true;
+		}
+	}
+}
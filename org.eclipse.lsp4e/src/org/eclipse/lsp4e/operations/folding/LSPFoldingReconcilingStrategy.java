@@ -17,9 +17,11 @@
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 
@@ -45,6 +47,8 @@
 import org.eclipse.lsp4e.LSPEclipseUtils;
 import org.eclipse.lsp4e.LanguageServerPlugin;
 import org.eclipse.lsp4e.LanguageServers;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler.Priority;
 import org.eclipse.lsp4e.internal.DocumentUtil;
 import org.eclipse.lsp4e.ui.FoldingPreferencePage;
 import org.eclipse.lsp4j.FoldingRange;
@@ -68,9 +72,10 @@
 			.compile("(?i)(copyright|licensed under|all rights reserved|SPDX-License-Identifier)"); //$NON-NLS-1$
 
 	private @Nullable IDocument document;
+	private @Nullable FoldingRangeCache cache;
 	private @Nullable ProjectionAnnotationModel projectionAnnotationModel;
 	private @Nullable ProjectionViewer viewer;
-	private List<CompletableFuture<@Nullable List<FoldingRange>>> requests = List.of();
+	private CompletableFuture<@Nullable Void> request = CompletableFuture.completedFuture(null);
 	private volatile long timestamp = 0;
 
 	private final IPreferenceStore prefStore = LanguageServerPlugin.getDefault().getPreferenceStore();
@@ -174,14 +179,53 @@ public void reconcile(@Nullable IRegion subRegion) {
 		if (uri == null) {
 			return;
 		}
+		// cancel previous requests
+		request.cancel(true);
+		final var cache = this.cache;
+		final @Nullable List<FoldingRange> cachedRanges = cache == null ? null : cache.get();
+		if (cachedRanges != null) {
+			// e.g. folding was enabled again, the document did not change since the last response
+			applyFolding(cachedRanges);
+			return;
+		}
 		final var identifier = LSPEclipseUtils.toTextDocumentIdentifier(uri);
 		final var params = new FoldingRangeRequestParams(identifier);
-		// cancel previous requests
-		requests.forEach(request -> request.cancel(true));
-		requests = LanguageServers.forDocument(document)
-				.withCapability(ServerCapabilities::getFoldingRangeProvider)
-				.computeAll(server -> server.getTextDocumentService().foldingRange(params));
-		requests.forEach(ranges -> ranges.thenAccept(this::applyFolding));
+		final var viewer = this.viewer;
+		request = DocumentRefreshScheduler.DEFAULT.schedule(document, viewer == null ? null : viewer.getTextWidget(),
+				this, Priority.ANNOTATIONS, () -> {
+					final long version = DocumentUtil.getDocumentModificationStamp(document);
+					final var requests = LanguageServers.forDocument(document)
+							.withCapability(ServerCapabilities::getFoldingRangeProvider)
+							.computeAll(server -> server.getTextDocumentService().foldingRange(params));
+					// a failing server must not prevent the folding of the others
+					final List<CompletableFuture<@Nullable List<FoldingRange>>> results = requests.stream()
+							.map(ranges -> ranges.exceptionally(ex -> null)).toList();
+					final CompletableFuture<@Nullable Void> all = CompletableFuture
+							.allOf(results.toArray(CompletableFuture[]::new))
+							.thenRun(() -> applyFolding(version, results.stream() //
+									.map(ranges -> ranges.getNow(null)) //
+									.filter(Objects::nonNull) //
+									.flatMap(List::stream) //
+									.toList()));
+					all.whenComplete((result, error) -> {
+						if (all.isCancelled()) {
+							requests.forEach(ranges -> ranges.cancel(true));
+						}
+					});
+					return all;
+				});
+	}
+
+	/**
+	 * Applies the folding ranges of all the language servers at once, shifted by
+	 * the lines modified since they were requested.
+	 */
+	private void applyFolding(final long version, final List<FoldingRange> ranges) {
+		final var cache = this.cache;
+		final List<FoldingRange> currentRanges = cache == null ? ranges : cache.put(version, ranges);
+		if (currentRanges != null) {
+			applyFolding(currentRanges);
+		}
 	}
 
 	private void applyFolding(@Nullable List<FoldingRange> ranges) {
@@ -195,33 +239,37 @@ private void applyFolding(@Nullable List<FoldingRange> ranges) {
 		markInvalidAnnotationsForDeletion(deletions, existing);
 
 		if (ranges != null) {
-			boolean[] isFirstFoldingRange = { true };
-			ranges.stream() //
-					.sorted(Comparator.comparing(FoldingRange::getEndLine)) //
-					.forEach(foldingRange -> {
-						try {
-							final var collapsByDefault = foldingRange.getKind() != null
-									&& switch (foldingRange.getKind()) {
-									case FoldingRangeKind.Comment -> {
-										if (isFirstFoldingRange[0]
-												&& LICENSE_KEYWORDS.matcher(getTextOfFoldingRange(foldingRange)).find())
-											yield collapseLicenseHeader || collapseComments;
-										yield collapseComments;
-									}
-									case FoldingRangeKind.Imports -> collapseImports;
-									case FoldingRangeKind.Region -> collapseFoldingRegions;
-									default -> false;
-									};
-							updateAnnotation(deletions, existing, additions, foldingRange.getStartLine(),
-									foldingRange.getEndLine(), collapsByDefault);
-						} catch (BadLocationException ex) {
-							// This is an expected state, only log when tracing is enabled.
-							if (LanguageServerPlugin.isLogTraceEnabled()) {
-								LanguageServerPlugin.logError(ex);
+			// a license header can only be the first folding range
+			final FoldingRange first = ranges.stream().min(Comparator.comparing(FoldingRange::getEndLine))
+					.orElse(null);
+			// several language servers may fold the same lines
+			final var foldedLines = new HashSet<Long>();
+			for (final FoldingRange foldingRange : ranges) {
+				if (!foldedLines.add(((long) foldingRange.getStartLine() << 32) | foldingRange.getEndLine())) {
+					continue;
+				}
+				try {
+					final var collapsByDefault = foldingRange.getKind() != null
+							&& switch (foldingRange.getKind()) {
+							case FoldingRangeKind.Comment -> {
+								if (foldingRange == first
+										&& LICENSE_KEYWORDS.matcher(getTextOfFoldingRange(foldingRange)).find())
+									yield collapseLicenseHeader || collapseComments;
+								yield collapseComments;
 							}
-						}
-						isFirstFoldingRange[0] = false;
-					});
+							case FoldingRangeKind.Imports -> collapseImports;
+							case FoldingRangeKind.Region -> collapseFoldingRegions;
+							default -> false;
+							};
+					updateAnnotation(deletions, existing, additions, foldingRange.getStartLine(),
+							foldingRange.getEndLine(), collapsByDefault);
+				} catch (BadLocationException ex) {
+					// This is an expected state, only log when tracing is enabled.
+					if (LanguageServerPlugin.isLogTraceEnabled()) {
+						LanguageServerPlugin.logError(ex);
+					}
+				}
+			}
 		}
 
 		// be sure projection has not been disabled
@@ -230,10 +278,12 @@ && switch (foldingRange.getKind()) {
 			if (!existing.isEmpty()) {
 				deletions.addAll(existing.values());
 			}
-			// send the calculated updates to the annotations to the
-			// annotation model
-			theProjectionAnnotationModel.modifyAnnotations(deletions.toArray(Annotation[]::new), additions,
-					NO_ANNOTATIONS);
+			// the annotations of unchanged folding ranges are kept as is, the model is
+			// only modified if a folding range was added or removed
+			if (!deletions.isEmpty() || !additions.isEmpty()) {
+				theProjectionAnnotationModel.modifyAnnotations(deletions.toArray(Annotation[]::new), additions,
+						NO_ANNOTATIONS);
+			}
 		}
 	}
 
@@ -277,6 +327,11 @@ public void uninstall() {
 
 	@Override
 	public void setDocument(@Nullable IDocument document) {
+		final var previousCache = this.cache;
+		if (previousCache != null) {
+			previousCache.dispose();
+		}
+		this.cache = document == null ? null : new FoldingRangeCache(document);
 		this.document = document;
 	}
 
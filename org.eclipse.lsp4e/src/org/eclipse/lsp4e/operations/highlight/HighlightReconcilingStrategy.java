@@ -55,6 +55,7 @@
 import org.eclipse.lsp4e.LanguageServers;
 import org.eclipse.lsp4e.internal.DocumentOffsetAsyncCache;
 import org.eclipse.lsp4e.internal.DocumentUtil;
+import org.eclipse.lsp4e.internal.RequestCache;
 import org.eclipse.lsp4j.DocumentHighlight;
 import org.eclipse.lsp4j.DocumentHighlightKind;
 import org.eclipse.lsp4j.DocumentHighlightParams;
@@ -245,7 +246,8 @@ private void collectHighlights(int caretOffset, long timestamp, @Nullable IProgr
 				cacheKeyOffset, () -> {
 					final var reqs = requests = LanguageServers.forDocument(document)
 							.withCapability(ServerCapabilities::getDocumentHighlightProvider)
-							.computeAll(ls -> ls.getTextDocumentService().documentHighlight(params));
+							.computeAll((w, ls) -> w.getRequestCache().get(RequestCache.DOCUMENT_HIGHLIGHT, params,
+									() -> ls.getTextDocumentService().documentHighlight(params)));
 					return CompletableFuture.supplyAsync(() -> reqs.stream().map(CompletableFuture::join) //
 							.filter(Objects::nonNull).flatMap(List::stream).toList());
 				});
@@ -27,11 +27,19 @@
 final class AsyncHtmlHoverInput {
 
 	final UUID token = UUID.randomUUID();
-	final CompletableFuture<@Nullable String> future;
+	final CompletableFuture<? extends @Nullable String> future;
 	final String placeholderHtml;
+	/** the HTML of the beginning of large content, replacing the placeholder until the final HTML is available */
+	final @Nullable CompletableFuture<? extends @Nullable String> firstScreenFuture;
 
-	AsyncHtmlHoverInput(CompletableFuture<@Nullable String> future, String placeholderHtml) {
+	AsyncHtmlHoverInput(CompletableFuture<? extends @Nullable String> future, String placeholderHtml) {
+		this(future, placeholderHtml, null);
+	}
+
+	AsyncHtmlHoverInput(CompletableFuture<? extends @Nullable String> future, String placeholderHtml,
+			@Nullable CompletableFuture<? extends @Nullable String> firstScreenFuture) {
 		this.future = future;
 		this.placeholderHtml = placeholderHtml;
+		this.firstScreenFuture = firstScreenFuture;
 	}
 }
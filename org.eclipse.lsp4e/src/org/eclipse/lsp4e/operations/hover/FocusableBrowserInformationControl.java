@@ -164,6 +164,18 @@ public void setInput(@Nullable Object input) {
 		if (input instanceof AsyncHtmlHoverInput async) {
 			this.currentAsyncToken = async.token;
 			super.setInput(styleHtml(async.placeholderHtml));
+			final var firstScreenFuture = async.firstScreenFuture;
+			if (firstScreenFuture != null) {
+				firstScreenFuture.thenAccept(html -> UI.runOnUIThread(() -> {
+					if (getShell() == null || getShell().isDisposed() || async.future.isDone()
+							|| !async.token.equals(this.currentAsyncToken)) {
+						return; // the final HTML or another input is shown
+					}
+					if (html != null && !html.isBlank()) {
+						super.setInput(styleHtml(html));
+					}
+				}));
+			}
 			async.future.whenComplete((html, ex) -> UI.runOnUIThread(() -> {
 				if (getShell() == null || getShell().isDisposed()) {
 					return;
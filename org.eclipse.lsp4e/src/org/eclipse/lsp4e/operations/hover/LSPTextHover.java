@@ -47,6 +47,8 @@
 import org.eclipse.lsp4e.internal.CancellationUtil;
 import org.eclipse.lsp4e.internal.IdentifierUtil;
 import org.eclipse.lsp4e.internal.MarkdownUtil;
+import org.eclipse.lsp4e.internal.MarkdownUtil.IncrementalHtml;
+import org.eclipse.lsp4e.internal.RequestCache;
 import org.eclipse.lsp4j.Hover;
 import org.eclipse.lsp4j.HoverParams;
 import org.eclipse.lsp4j.MarkedString;
@@ -79,13 +81,26 @@ public class LSPTextHover implements ITextHover, ITextHoverExtension, ITextHover
 
 	@Override
 	public @Nullable Object getHoverInfo2(ITextViewer textViewer, IRegion hoverRegion) {
-		final var hoverInfoFuture = getHoverInfoFuture(textViewer, hoverRegion);
-		if (hoverInfoFuture.isDone()) {
+		final var markdownFuture = getHoverMarkdownFuture(hoverRegion);
+		if (markdownFuture.isDone()) {
 			// Result is already available, no need to load async.
-			return getResult(hoverInfoFuture);
+			final String markdown = getResult(markdownFuture);
+			if (markdown == null) {
+				return null;
+			}
+			// large content, e.g. the documentation of a whole module, shows its beginning while the rest is rendered
+			final IncrementalHtml html = MarkdownUtil.renderToHtmlIncrementally(markdown);
+			if (html.complete().isDone()) {
+				return html.firstScreen();
+			}
+			return new AsyncHtmlHoverInput(html.complete(), html.firstScreen());
 		}
 		final String placeholder = "<html><body>Loading…</body></html>"; //$NON-NLS-1$
-		return new AsyncHtmlHoverInput(hoverInfoFuture, placeholder);
+		final CompletableFuture<@Nullable IncrementalHtml> htmlFuture = markdownFuture
+				.thenApply(markdown -> markdown == null ? null : MarkdownUtil.renderToHtmlIncrementally(markdown));
+		return new AsyncHtmlHoverInput(
+				htmlFuture.thenCompose(html -> html == null ? CompletableFuture.completedFuture(null) : html.complete()),
+				placeholder, htmlFuture.thenApply(html -> html == null ? null : html.firstScreen()));
 	}
 
 	private @Nullable String getResult(CompletableFuture<@Nullable String> hoverInfoFuture) {
@@ -101,6 +116,14 @@ public class LSPTextHover implements ITextHover, ITextHoverExtension, ITextHover
 	}
 
 	public CompletableFuture<@Nullable String> getHoverInfoFuture(ITextViewer textViewer, IRegion hoverRegion) {
+		return getHoverMarkdownFuture(hoverRegion).thenApply(LSPTextHover::renderToHtml);
+	}
+
+	private static @Nullable String renderToHtml(@Nullable String markdown) {
+		return markdown == null ? null : MarkdownUtil.renderToHtml(markdown);
+	}
+
+	private CompletableFuture<@Nullable String> getHoverMarkdownFuture(IRegion hoverRegion) {
 		if (hoverRegion instanceof LSPHoverRegion region) {
 			return region.getRequest().thenApply(hoversList -> {
 				String result = hoversList.stream() //
@@ -109,11 +132,7 @@ public class LSPTextHover implements ITextHover, ITextHoverExtension, ITextHover
 						.filter(Objects::nonNull) //
 						.collect(Collectors.joining("\n\n")) //$NON-NLS-1$
 						.trim();
-				if (!result.isEmpty()) {
-					return MarkdownUtil.renderToHtml(result);
-				} else {
-					return null;
-				}
+				return result.isEmpty() ? null : result;
 			});
 		}
 		return CompletableFuture.completedFuture(null);
@@ -230,7 +249,8 @@ private void cancel() {
 			// Store request so we can cancel it when a new request is created.
 			this.request = LanguageServers.forDocument(document) //
 					.withCapability(ServerCapabilities::getHoverProvider) //
-					.collectAll(server -> server.getTextDocumentService().hover(params));
+					.collectAll((wrapper, server) -> wrapper.getRequestCache().get(RequestCache.HOVER, params,
+							() -> server.getTextDocumentService().hover(params)));
 		} catch (BadLocationException e) {
 			LanguageServerPlugin.logError(e);
 		}
@@ -27,6 +27,7 @@
 import org.eclipse.lsp4e.LSPEclipseUtils;
 import org.eclipse.lsp4e.LanguageServerPlugin;
 import org.eclipse.lsp4e.LanguageServers;
+import org.eclipse.lsp4e.internal.RequestCache;
 import org.eclipse.lsp4j.LinkedEditingRanges;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.ServerCapabilities;
@@ -69,8 +70,11 @@ protected CompletableFuture<Optional<LinkedEditingRanges>> collectLinkedEditingR
 		try {
 			TextDocumentPositionParams params = LSPEclipseUtils.toTextDocumentPosistionParams(offset, document);
 			request = LanguageServers.forDocument(document).withCapability(ServerCapabilities::getLinkedEditingRangeProvider)
-					.collectAll(languageServer -> languageServer.getTextDocumentService()
-							.linkedEditingRange(LSPEclipseUtils.toLinkedEditingRangeParams(params)));
+					.collectAll((wrapper, languageServer) -> {
+						final var linkedEditingRangeParams = LSPEclipseUtils.toLinkedEditingRangeParams(params);
+						return wrapper.getRequestCache().get(RequestCache.LINKED_EDITING_RANGE, linkedEditingRangeParams,
+								() -> languageServer.getTextDocumentService().linkedEditingRange(linkedEditingRangeParams));
+					});
 			return request.thenApply(linkedEditRanges -> linkedEditRanges.stream().filter(Objects::nonNull)
 							.filter(linkedEditRange -> rangesContainOffset(linkedEditRange, offset, document)).findFirst());
 		} catch (BadLocationException e) {
@@ -11,8 +11,6 @@
  *******************************************************************************/
 package org.eclipse.lsp4e.operations.rename;
 
-import static org.eclipse.lsp4e.internal.NullSafetyHelper.lateNonNull;
-
 import java.net.URI;
 
 import org.eclipse.core.resources.IFile;
@@ -23,18 +21,20 @@
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.lsp4e.LSPEclipseUtils;
-import org.eclipse.lsp4j.CreateFilesParams;
+import org.eclipse.lsp4e.operations.rename.LSPFileOperationParticipantSupport.Batch;
 import org.eclipse.lsp4j.FileCreate;
 import org.eclipse.lsp4j.FileOperationsServerCapabilities;
 import org.eclipse.ltk.core.refactoring.Change;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 import org.eclipse.ltk.core.refactoring.participants.CheckConditionsContext;
 import org.eclipse.ltk.core.refactoring.participants.CreateParticipant;
+import org.eclipse.ltk.core.refactoring.participants.ISharableParticipant;
+import org.eclipse.ltk.core.refactoring.participants.RefactoringArguments;
 
-public class LSPCreateParticipant extends CreateParticipant {
+public class LSPCreateParticipant extends CreateParticipant implements ISharableParticipant {
 
-	private URI newURI = lateNonNull();
-	private IResource resource = lateNonNull();
+	/** the resources created together, e.g. by a refactoring on several files */
+	private final Batch<FileCreate> batch = new Batch<>();
 
 	@Override
 	public String getName() {
@@ -43,17 +43,23 @@ public String getName() {
 
 	@Override
 	protected boolean initialize(final Object element) {
+		return add(element) && batch.anyMatching(FileOperationsServerCapabilities::getWillCreate,
+				FileOperationsServerCapabilities::getDidCreate);
+	}
+
+	@Override
+	public void addElement(final @Nullable Object element, final @Nullable RefactoringArguments arguments) {
+		add(element);
+	}
+
+	private boolean add(final @Nullable Object element) {
 		if (element instanceof final IResource res && (res instanceof IFile || res instanceof IFolder)) {
-			resource = res;
 			final URI uri = LSPEclipseUtils.toUri(res);
 			if (uri == null)
 				return false;
-			newURI = uri;
-
-			return LSPFileOperationParticipantSupport
-					.createFileOperationExecutor(res, FileOperationsServerCapabilities::getWillCreate).anyMatching();
+			batch.add(res, new FileCreate(uri.toString()));
+			return true;
 		}
-
 		return false;
 	}
 
@@ -66,15 +72,12 @@ public RefactoringStatus checkConditions(final IProgressMonitor monitor, final C
 	@Override
 	public @Nullable Change createChange(final IProgressMonitor monitor)
 			throws CoreException, OperationCanceledException {
-		return null;
+		return LSPFileOperationParticipantSupport.createCreateNotificationChange(getName(), batch);
 	}
 
 	@Override
 	public @Nullable Change createPreChange(final IProgressMonitor monitor)
 			throws CoreException, OperationCanceledException {
-		final var params = new CreateFilesParams();
-		params.getFiles().add(new FileCreate(newURI.toString()));
-		return LSPFileOperationParticipantSupport.computePreChange(getName(), params, resource,
-				FileOperationsServerCapabilities::getWillCreate, (ws, p) -> ws.willCreateFiles(p));
+		return LSPFileOperationParticipantSupport.createCreatePreChange(getName(), batch, monitor);
 	}
 }
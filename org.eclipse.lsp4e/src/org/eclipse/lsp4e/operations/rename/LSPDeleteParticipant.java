@@ -11,8 +11,6 @@
  *******************************************************************************/
 package org.eclipse.lsp4e.operations.rename;
 
-import static org.eclipse.lsp4e.internal.NullSafetyHelper.lateNonNull;
-
 import java.net.URI;
 
 import org.eclipse.core.resources.IFile;
@@ -23,18 +21,20 @@
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.lsp4e.LSPEclipseUtils;
-import org.eclipse.lsp4j.DeleteFilesParams;
+import org.eclipse.lsp4e.operations.rename.LSPFileOperationParticipantSupport.Batch;
 import org.eclipse.lsp4j.FileDelete;
 import org.eclipse.lsp4j.FileOperationsServerCapabilities;
 import org.eclipse.ltk.core.refactoring.Change;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 import org.eclipse.ltk.core.refactoring.participants.CheckConditionsContext;
 import org.eclipse.ltk.core.refactoring.participants.DeleteParticipant;
+import org.eclipse.ltk.core.refactoring.participants.ISharableParticipant;
+import org.eclipse.ltk.core.refactoring.participants.RefactoringArguments;
 
-public class LSPDeleteParticipant extends DeleteParticipant {
+public class LSPDeleteParticipant extends DeleteParticipant implements ISharableParticipant {
 
-	private URI oldURI = lateNonNull();
-	private IResource resource = lateNonNull();
+	/** the resources deleted together, e.g. by a refactoring on several files */
+	private final Batch<FileDelete> batch = new Batch<>();
 
 	@Override
 	public String getName() {
@@ -43,14 +43,22 @@ public String getName() {
 
 	@Override
 	protected boolean initialize(final Object element) {
+		return add(element) && batch.anyMatching(FileOperationsServerCapabilities::getWillDelete,
+				FileOperationsServerCapabilities::getDidDelete);
+	}
+
+	@Override
+	public void addElement(final @Nullable Object element, final @Nullable RefactoringArguments arguments) {
+		add(element);
+	}
+
+	private boolean add(final @Nullable Object element) {
 		if (element instanceof final IResource res && (res instanceof IFile || res instanceof IFolder)) {
-			resource = res;
 			final URI uri = LSPEclipseUtils.toUri(res);
 			if (uri == null)
 				return false;
-			oldURI = uri;
-			return LSPFileOperationParticipantSupport
-					.createFileOperationExecutor(res, FileOperationsServerCapabilities::getWillDelete).anyMatching();
+			batch.add(res, new FileDelete(uri.toString()));
+			return true;
 		}
 		return false;
 	}
@@ -64,15 +72,12 @@ public RefactoringStatus checkConditions(final IProgressMonitor monitor, final C
 	@Override
 	public @Nullable Change createChange(final IProgressMonitor monitor)
 			throws CoreException, OperationCanceledException {
-		return null;
+		return LSPFileOperationParticipantSupport.createDeleteNotificationChange(getName(), batch);
 	}
 
 	@Override
 	public @Nullable Change createPreChange(final IProgressMonitor monitor)
 			throws CoreException, OperationCanceledException {
-		final var params = new DeleteFilesParams();
-		params.getFiles().add(new FileDelete(oldURI.toString()));
-		return LSPFileOperationParticipantSupport.computePreChange(getName(), params, resource,
-				FileOperationsServerCapabilities::getWillDelete, (ws, p) -> ws.willDeleteFiles(p));
+		return LSPFileOperationParticipantSupport.createDeletePreChange(getName(), batch, monitor);
 	}
 }
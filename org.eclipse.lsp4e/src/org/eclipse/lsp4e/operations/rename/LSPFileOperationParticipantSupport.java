@@ -11,34 +11,52 @@
  *******************************************************************************/
 package org.eclipse.lsp4e.operations.rename;
 
+import java.net.URI;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.WeakHashMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.lsp4e.LSPEclipseUtils;
 import org.eclipse.lsp4e.LanguageServerPlugin;
+import org.eclipse.lsp4e.LanguageServerWrapper;
 import org.eclipse.lsp4e.LanguageServers;
 import org.eclipse.lsp4e.LanguageServers.LanguageServerProjectExecutor;
 import org.eclipse.lsp4e.internal.files.PathPatternMatcher;
+import org.eclipse.lsp4j.CreateFilesParams;
+import org.eclipse.lsp4j.DeleteFilesParams;
+import org.eclipse.lsp4j.FileCreate;
+import org.eclipse.lsp4j.FileDelete;
 import org.eclipse.lsp4j.FileOperationFilter;
 import org.eclipse.lsp4j.FileOperationOptions;
 import org.eclipse.lsp4j.FileOperationPatternKind;
 import org.eclipse.lsp4j.FileOperationsServerCapabilities;
+import org.eclipse.lsp4j.FileRename;
+import org.eclipse.lsp4j.RenameFilesParams;
+import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.services.WorkspaceService;
 import org.eclipse.ltk.core.refactoring.Change;
 import org.eclipse.ltk.core.refactoring.CompositeChange;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 
 /**
  * Internal class, only public to be accessible by test cases.
@@ -53,6 +71,100 @@ public final class LSPFileOperationParticipantSupport {
 	 */
 	private static final long FILE_OP_TIMEOUT_SECONDS = 10;
 
+	/** interval at which the progress monitor is checked for cancellation while waiting for the servers */
+	private static final long CANCELLATION_CHECK_MILLIS = 100;
+
+	/**
+	 * The filters of the file operation options of the servers, with their glob
+	 * pattern compiled once instead of for each resource.
+	 */
+	private static final Map<FileOperationOptions, List<CompiledFilter>> COMPILED_FILTERS = Collections
+			.synchronizedMap(new WeakHashMap<>());
+
+	private record CompiledFilter(@Nullable String matches, PathPatternMatcher matcher) {
+
+		boolean matches(final Path path, final boolean isFolder) {
+			if (FileOperationPatternKind.File.equals(matches) && isFolder)
+				return false;
+			if (FileOperationPatternKind.Folder.equals(matches) && !isFolder)
+				return false;
+			return matcher.matches(path);
+		}
+	}
+
+	/**
+	 * The resources of one refactoring, e.g. several files moved at once, whose
+	 * file operation is sent to each server in a single request or notification.
+	 *
+	 * @param <F>
+	 *            the type of the file operation, e.g. {@link org.eclipse.lsp4j.FileRename}
+	 */
+	static final class Batch<F> {
+
+		private record Entry<F>(IResource resource, @Nullable Path path, F file) {
+		}
+
+		private final List<Entry<F>> entries = new ArrayList<>();
+
+		void add(final IResource resource, final F file) {
+			final URI uri = LSPEclipseUtils.toUri(resource);
+			entries.add(new Entry<>(resource, uri == null ? null : Path.of(uri), file));
+		}
+
+		/**
+		 * @return the file operations whose resource matches the given options, in
+		 *         the order they were added
+		 */
+		List<F> getMatchingFiles(final @Nullable FileOperationOptions options) {
+			if (options == null)
+				return List.of();
+			final var files = new ArrayList<F>();
+			for (final Entry<F> entry : entries) {
+				final Path path = entry.path;
+				if (path != null && matches(options, path, entry.resource.getType() == IResource.FOLDER)) {
+					files.add(entry.file);
+				}
+			}
+			return files;
+		}
+
+		/**
+		 * @return a batch of the same resources with the given file operation for
+		 *         each of them, e.g. the reverse one; the resources are still matched
+		 *         against the filters of the servers by their original location
+		 */
+		<G> Batch<G> map(final Function<F, G> mapper) {
+			final var mapped = new Batch<G>();
+			for (final Entry<F> entry : entries) {
+				mapped.entries.add(new Entry<>(entry.resource, entry.path, mapper.apply(entry.file)));
+			}
+			return mapped;
+		}
+
+		/**
+		 * @return whether a server is interested in the file operation of one of the
+		 *         resources, before or after it is performed
+		 */
+		boolean anyMatching(
+				final Function<FileOperationsServerCapabilities, @Nullable FileOperationOptions> willOptionsProvider,
+				final Function<FileOperationsServerCapabilities, @Nullable FileOperationOptions> didOptionsProvider) {
+			return createExecutor(willOptionsProvider).anyMatching() || createExecutor(didOptionsProvider).anyMatching();
+		}
+
+		/**
+		 * @return an executor on the servers of the resources whose given options
+		 *         match at least one of them
+		 */
+		LanguageServerProjectExecutor createExecutor(
+				final Function<FileOperationsServerCapabilities, @Nullable FileOperationOptions> optionsProvider) {
+			final IProject project = entries.stream().map(entry -> entry.resource.getProject()).distinct().count() == 1
+					? entries.get(0).resource.getProject()
+					: null;
+			return LanguageServers.forProject(project).withFilter(
+					capabilities -> !getMatchingFiles(getOptions(capabilities, optionsProvider)).isEmpty());
+		}
+	}
+
 	static <P> @Nullable Change computePreChange(final String changeName, final P params, final IResource resource,
 			final Function<FileOperationsServerCapabilities, @Nullable FileOperationOptions> optionsProvider,
 			final BiFunction<WorkspaceService, P, CompletableFuture<@Nullable WorkspaceEdit>> request)
@@ -64,30 +176,59 @@ public final class LSPFileOperationParticipantSupport {
 			final LanguageServerProjectExecutor executor,
 			final BiFunction<WorkspaceService, P, CompletableFuture<@Nullable WorkspaceEdit>> request)
 			throws CoreException {
+		return computePreChange(changeName, executor, wrapper -> params, request, null);
+	}
+
+	/**
+	 * Sends a single request per server for the resources of the given batch
+	 * matching the server's file operation filters.
+	 */
+	static <F, P> @Nullable Change computePreChange(final String changeName, final Batch<F> batch,
+			final Function<List<F>, P> paramsFactory,
+			final Function<FileOperationsServerCapabilities, @Nullable FileOperationOptions> optionsProvider,
+			final BiFunction<WorkspaceService, P, CompletableFuture<@Nullable WorkspaceEdit>> request,
+			final IProgressMonitor monitor) throws CoreException {
+		return computePreChange(changeName, batch.createExecutor(optionsProvider), wrapper -> {
+			final List<F> files = batch
+					.getMatchingFiles(getOptions(wrapper.getServerCapabilities(), optionsProvider));
+			return files.isEmpty() ? null : paramsFactory.apply(files);
+		}, request, monitor);
+	}
+
+	private static <P> @Nullable Change computePreChange(final String changeName,
+			final LanguageServerProjectExecutor executor,
+			final Function<LanguageServerWrapper, @Nullable P> paramsProvider,
+			final BiFunction<WorkspaceService, P, CompletableFuture<@Nullable WorkspaceEdit>> request,
+			final @Nullable IProgressMonitor monitor) throws CoreException {
 
 		final CompletableFuture<List<CompositeChange>> future = executor //
-				.collectAll((wrapper, ls) -> request //
-						.apply(ls.getWorkspaceService(), params) //
-						.thenApply(edits -> edits == null || isEmptyEdit(edits) //
-								? (@Nullable CompositeChange) null
-								: LSPEclipseUtils.toCompositeChange(edits, wrapper.serverDefinition.label)) //
-						.orTimeout(FILE_OP_TIMEOUT_SECONDS, TimeUnit.SECONDS) //
-						.exceptionally(ex -> {
-							final String logHeader = "File operation pre-change '" + changeName; //$NON-NLS-1$
-							if (ex instanceof TimeoutException) {
-								LanguageServerPlugin.logWarning(logHeader + "' timed out for server: " //$NON-NLS-1$
-										+ wrapper.serverDefinition.label + " after " + FILE_OP_TIMEOUT_SECONDS //$NON-NLS-1$
-										+ " seconds"); //$NON-NLS-1$
-							} else {
-								LanguageServerPlugin.logError(logHeader + "' failed for server: " //$NON-NLS-1$
-										+ wrapper.serverDefinition.label, ex);
-							}
-							return null;
-						}));
+				.collectAll((wrapper, ls) -> {
+					final @Nullable P params = paramsProvider.apply(wrapper);
+					if (params == null)
+						return CompletableFuture.completedFuture((@Nullable CompositeChange) null);
+					return request //
+							.apply(ls.getWorkspaceService(), params) //
+							.thenApply(edits -> edits == null || isEmptyEdit(edits) //
+									? (@Nullable CompositeChange) null
+									: LSPEclipseUtils.toCompositeChange(edits, wrapper.serverDefinition.label)) //
+							.orTimeout(FILE_OP_TIMEOUT_SECONDS, TimeUnit.SECONDS) //
+							.exceptionally(ex -> {
+								final String logHeader = "File operation pre-change '" + changeName; //$NON-NLS-1$
+								if (ex instanceof TimeoutException) {
+									LanguageServerPlugin.logWarning(logHeader + "' timed out for server: " //$NON-NLS-1$
+											+ wrapper.serverDefinition.label + " after " + FILE_OP_TIMEOUT_SECONDS //$NON-NLS-1$
+											+ " seconds"); //$NON-NLS-1$
+								} else {
+									LanguageServerPlugin.logError(logHeader + "' failed for server: " //$NON-NLS-1$
+											+ wrapper.serverDefinition.label, ex);
+								}
+								return null;
+							});
+				});
 
 		final CompositeChange[] changes;
 		try {
-			changes = future.get() //
+			changes = waitFor(future, monitor) //
 					.stream() //
 					.filter(Objects::nonNull) //
 					.toArray(CompositeChange[]::new);
@@ -107,6 +248,202 @@ public final class LSPFileOperationParticipantSupport {
 		};
 	}
 
+	/**
+	 * Waits for the given future, cancelling it when the user cancels the
+	 * refactoring instead of only giving up after the timeout.
+	 */
+	private static <T> T waitFor(final CompletableFuture<T> future, final @Nullable IProgressMonitor monitor)
+			throws InterruptedException, ExecutionException {
+		while (true) {
+			if (monitor != null && monitor.isCanceled()) {
+				future.cancel(true);
+				throw new OperationCanceledException();
+			}
+			try {
+				return future.get(CANCELLATION_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (final TimeoutException ex) {
+				// check for cancellation again
+			}
+		}
+	}
+
+	/**
+	 * @return a change sending <code>workspace/didRenameFiles</code> once the
+	 *         resources of the given batch were renamed or moved, or
+	 *         <code>null</code> if no server is interested
+	 */
+	static @Nullable Change createRenameNotificationChange(final String changeName, final Batch<FileRename> batch) {
+		if (!batch.createExecutor(FileOperationsServerCapabilities::getDidRename).anyMatching())
+			return null;
+		return renameNotificationChange(changeName, batch, true);
+	}
+
+	/**
+	 * @return a change sending <code>workspace/didCreateFiles</code> once the
+	 *         resources of the given batch were created, or <code>null</code> if
+	 *         no server is interested
+	 */
+	static @Nullable Change createCreateNotificationChange(final String changeName, final Batch<FileCreate> batch) {
+		if (!batch.createExecutor(FileOperationsServerCapabilities::getDidCreate).anyMatching())
+			return null;
+		return createNotificationChange(changeName, batch, true);
+	}
+
+	/**
+	 * @return a change sending <code>workspace/didDeleteFiles</code> once the
+	 *         resources of the given batch were deleted, or <code>null</code> if
+	 *         no server is interested
+	 */
+	static @Nullable Change createDeleteNotificationChange(final String changeName, final Batch<FileDelete> batch) {
+		if (!batch.createExecutor(FileOperationsServerCapabilities::getDidDelete).anyMatching())
+			return null;
+		return deleteNotificationChange(changeName, batch, true);
+	}
+
+	/**
+	 * @return the changes requested by the servers before the resources of the
+	 *         given batch are renamed or moved, along with a change whose undo
+	 *         sends the reverse renames, or <code>null</code> if there are none
+	 */
+	static @Nullable Change createRenamePreChange(final String changeName, final Batch<FileRename> batch,
+			final IProgressMonitor monitor) throws CoreException {
+		final Batch<FileRename> reverse = batch.map(rename -> new FileRename(rename.getNewUri(), rename.getOldUri()));
+		return withUndoNotification(changeName,
+				computePreChange(changeName, batch, RenameFilesParams::new,
+						FileOperationsServerCapabilities::getWillRename, WorkspaceService::willRenameFiles, monitor),
+				reverse.createExecutor(FileOperationsServerCapabilities::getDidRename).anyMatching()
+						? renameNotificationChange(changeName, reverse, false)
+						: null);
+	}
+
+	/**
+	 * @return the changes requested by the servers before the resources of the
+	 *         given batch are created, along with a change whose undo sends their
+	 *         deletion, or <code>null</code> if there are none
+	 */
+	static @Nullable Change createCreatePreChange(final String changeName, final Batch<FileCreate> batch,
+			final IProgressMonitor monitor) throws CoreException {
+		final Batch<FileDelete> reverse = batch.map(create -> new FileDelete(create.getUri()));
+		return withUndoNotification(changeName,
+				computePreChange(changeName, batch, CreateFilesParams::new,
+						FileOperationsServerCapabilities::getWillCreate, WorkspaceService::willCreateFiles, monitor),
+				reverse.createExecutor(FileOperationsServerCapabilities::getDidDelete).anyMatching()
+						? deleteNotificationChange(changeName, reverse, false)
+						: null);
+	}
+
+	/**
+	 * @return the changes requested by the servers before the resources of the
+	 *         given batch are deleted, along with a change whose undo sends their
+	 *         creation, or <code>null</code> if there are none
+	 */
+	static @Nullable Change createDeletePreChange(final String changeName, final Batch<FileDelete> batch,
+			final IProgressMonitor monitor) throws CoreException {
+		final Batch<FileCreate> reverse = batch.map(delete -> new FileCreate(delete.getUri()));
+		return withUndoNotification(changeName,
+				computePreChange(changeName, batch, DeleteFilesParams::new,
+						FileOperationsServerCapabilities::getWillDelete, WorkspaceService::willDeleteFiles, monitor),
+				reverse.createExecutor(FileOperationsServerCapabilities::getDidCreate).anyMatching()
+						? createNotificationChange(changeName, reverse, false)
+						: null);
+	}
+
+	/**
+	 * The undo of a refactoring performs the undo changes in reverse order: the
+	 * pre-changes are undone last, after the resources were changed back. The
+	 * reverse did* notification is therefore sent by the undo of a pre-change.
+	 */
+	private static @Nullable Change withUndoNotification(final String changeName, final @Nullable Change preChange,
+			final @Nullable Change undoNotificationChange) {
+		if (undoNotificationChange == null)
+			return preChange;
+		if (preChange == null)
+			return undoNotificationChange;
+		// undone after the pre-change, so the servers are notified last
+		return new CompositeChange(changeName, new Change[] { undoNotificationChange, preChange });
+	}
+
+	private static Change renameNotificationChange(final String changeName, final Batch<FileRename> batch,
+			final boolean send) {
+		return new NotificationChange<>(changeName, batch, RenameFilesParams::new,
+				FileOperationsServerCapabilities::getDidRename, WorkspaceService::didRenameFiles, send);
+	}
+
+	private static Change createNotificationChange(final String changeName, final Batch<FileCreate> batch,
+			final boolean send) {
+		return new NotificationChange<>(changeName, batch, CreateFilesParams::new,
+				FileOperationsServerCapabilities::getDidCreate, WorkspaceService::didCreateFiles, send);
+	}
+
+	private static Change deleteNotificationChange(final String changeName, final Batch<FileDelete> batch,
+			final boolean send) {
+		return new NotificationChange<>(changeName, batch, DeleteFilesParams::new,
+				FileOperationsServerCapabilities::getDidDelete, WorkspaceService::didDeleteFiles, send);
+	}
+
+	/**
+	 * Sends the did* file operation notifications to the interested servers, in a
+	 * single notification per server for the resources of the batch, without
+	 * waiting for them. A change which does not send them only sends them once
+	 * undone; conversely, the undo of a change sending them sends nothing, as it
+	 * is performed before the resources are changed back.
+	 */
+	private static final class NotificationChange<F, P> extends Change {
+
+		private final String name;
+		private final Batch<F> batch;
+		private final Function<List<F>, P> paramsFactory;
+		private final Function<FileOperationsServerCapabilities, @Nullable FileOperationOptions> optionsProvider;
+		private final BiConsumer<WorkspaceService, P> notification;
+		private final boolean send;
+
+		NotificationChange(final String name, final Batch<F> batch, final Function<List<F>, P> paramsFactory,
+				final Function<FileOperationsServerCapabilities, @Nullable FileOperationOptions> optionsProvider,
+				final BiConsumer<WorkspaceService, P> notification, final boolean send) {
+			this.name = name;
+			this.batch = batch;
+			this.paramsFactory = paramsFactory;
+			this.optionsProvider = optionsProvider;
+			this.notification = notification;
+			this.send = send;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public void initializeValidationData(final IProgressMonitor pm) {
+		}
+
+		@Override
+		public RefactoringStatus isValid(final IProgressMonitor pm) throws CoreException, OperationCanceledException {
+			return new RefactoringStatus();
+		}
+
+		@Override
+		public @Nullable Change perform(final IProgressMonitor pm) throws CoreException {
+			if (send) {
+				batch.createExecutor(optionsProvider).computeAll((wrapper, ls) -> {
+					final List<F> files = batch
+							.getMatchingFiles(getOptions(wrapper.getServerCapabilities(), optionsProvider));
+					if (!files.isEmpty()) {
+						notification.accept(ls.getWorkspaceService(), paramsFactory.apply(files));
+					}
+					return CompletableFuture.completedFuture(null);
+				});
+			}
+			// the same change in the undo or redo of the refactoring, sending the notifications the other way
+			return new NotificationChange<>(name, batch, paramsFactory, optionsProvider, notification, !send);
+		}
+
+		@Override
+		public @Nullable Object getModifiedElement() {
+			return null;
+		}
+	}
+
 	public static LanguageServerProjectExecutor createFileOperationExecutor(final IResource res,
 			final Function<FileOperationsServerCapabilities, @Nullable FileOperationOptions> optionsProvider) {
 		final var uri = LSPEclipseUtils.toUri(res);
@@ -118,17 +455,21 @@ public static LanguageServerProjectExecutor createFileOperationExecutor(final IR
 		}
 
 		final var path = Path.of(uri);
-		return LanguageServers.forProject(project).withFilter(capabilities -> {
-			final var workspace = capabilities.getWorkspace();
-			if (workspace == null)
-				return false;
-			final var fileOps = workspace.getFileOperations();
-			if (fileOps == null)
-				return false;
+		return LanguageServers.forProject(project).withFilter(capabilities -> matches(
+				getOptions(capabilities, optionsProvider), path, res.getType() == IResource.FOLDER));
+	}
 
-			final var options = optionsProvider.apply(fileOps);
-			return matches(options, path, res.getType() == IResource.FOLDER);
-		});
+	private static @Nullable FileOperationOptions getOptions(final @Nullable ServerCapabilities capabilities,
+			final Function<FileOperationsServerCapabilities, @Nullable FileOperationOptions> optionsProvider) {
+		if (capabilities == null)
+			return null;
+		final var workspace = capabilities.getWorkspace();
+		if (workspace == null)
+			return null;
+		final var fileOps = workspace.getFileOperations();
+		if (fileOps == null)
+			return null;
+		return optionsProvider.apply(fileOps);
 	}
 
 	private static boolean isEmptyEdit(final WorkspaceEdit edits) {
@@ -141,29 +482,30 @@ private static boolean matches(final @Nullable FileOperationOptions options, fin
 		if (options == null)
 			return false;
 
-		final var filters = options.getFilters();
-		return filters.isEmpty() || filters.stream().anyMatch(filter -> matchesFilter(filter, path, isFolder));
+		if (options.getFilters().isEmpty())
+			return true;
+		for (final CompiledFilter filter : COMPILED_FILTERS.computeIfAbsent(options,
+				LSPFileOperationParticipantSupport::compileFilters)) {
+			if (filter.matches(path, isFolder))
+				return true;
+		}
+		return false;
 	}
 
-	private static boolean matchesFilter(final FileOperationFilter filter, final Path path, final boolean isFolder) {
-		final var scheme = filter.getScheme();
-		if (scheme != null && !"file".equalsIgnoreCase(scheme)) //$NON-NLS-1$
-			return false;
-
-		final var pattern = filter.getPattern();
-		if (pattern.getGlob().isBlank())
-			return false;
-
-		final var matches = pattern.getMatches();
-		if (FileOperationPatternKind.File.equals(matches) && isFolder)
-			return false;
+	private static List<CompiledFilter> compileFilters(final FileOperationOptions options) {
+		final var compiled = new ArrayList<CompiledFilter>(options.getFilters().size());
+		for (final FileOperationFilter filter : options.getFilters()) {
+			final var scheme = filter.getScheme();
+			if (scheme != null && !"file".equalsIgnoreCase(scheme)) //$NON-NLS-1$
+				continue;
 
-		if (FileOperationPatternKind.Folder.equals(matches) && !isFolder)
-			return false;
+			final var pattern = filter.getPattern();
+			if (pattern.getGlob().isBlank())
+				continue;
 
-		final String glob = pattern.getGlob();
-		final var matcher = new PathPatternMatcher(glob, null);
-		return matcher.matches(path);
+			compiled.add(new CompiledFilter(pattern.getMatches(), new PathPatternMatcher(pattern.getGlob(), null)));
+		}
+		return compiled;
 	}
 
 	private LSPFileOperationParticipantSupport() {
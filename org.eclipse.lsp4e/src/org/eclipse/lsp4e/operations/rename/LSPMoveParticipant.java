@@ -11,8 +11,6 @@
  *******************************************************************************/
 package org.eclipse.lsp4e.operations.rename;
 
-import static org.eclipse.lsp4e.internal.NullSafetyHelper.lateNonNull;
-
 import java.net.URI;
 
 import org.eclipse.core.resources.IFile;
@@ -24,19 +22,21 @@
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.lsp4e.LSPEclipseUtils;
+import org.eclipse.lsp4e.operations.rename.LSPFileOperationParticipantSupport.Batch;
 import org.eclipse.lsp4j.FileOperationsServerCapabilities;
 import org.eclipse.lsp4j.FileRename;
-import org.eclipse.lsp4j.RenameFilesParams;
 import org.eclipse.ltk.core.refactoring.Change;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 import org.eclipse.ltk.core.refactoring.participants.CheckConditionsContext;
+import org.eclipse.ltk.core.refactoring.participants.ISharableParticipant;
+import org.eclipse.ltk.core.refactoring.participants.MoveArguments;
 import org.eclipse.ltk.core.refactoring.participants.MoveParticipant;
+import org.eclipse.ltk.core.refactoring.participants.RefactoringArguments;
 
-public class LSPMoveParticipant extends MoveParticipant {
+public class LSPMoveParticipant extends MoveParticipant implements ISharableParticipant {
 
-	private URI oldURI = lateNonNull();
-	private URI newURI = lateNonNull();
-	private IResource resource = lateNonNull();
+	/** the resources moved together, e.g. by a refactoring moving several files */
+	private final Batch<FileRename> batch = new Batch<>();
 
 	@Override
 	public String getName() {
@@ -45,15 +45,25 @@ public String getName() {
 
 	@Override
 	protected boolean initialize(final Object element) {
+		return add(element, getArguments()) && batch.anyMatching(FileOperationsServerCapabilities::getWillRename,
+				FileOperationsServerCapabilities::getDidRename);
+	}
+
+	@Override
+	public void addElement(final @Nullable Object element, final @Nullable RefactoringArguments arguments) {
+		if (arguments instanceof final MoveArguments moveArguments) {
+			add(element, moveArguments);
+		}
+	}
+
+	private boolean add(final @Nullable Object element, final MoveArguments arguments) {
 		if (element instanceof final IResource res && (res instanceof IFile || res instanceof IFolder)) {
-			resource = res;
-			final URI uri = LSPEclipseUtils.toUri(res);
-			if (uri == null)
+			final URI oldURI = LSPEclipseUtils.toUri(res);
+			if (oldURI == null)
 				return false;
-			oldURI = uri;
 
 			// Compute destination from MoveArguments destination (container path)
-			final Object dest = getArguments().getDestination();
+			final Object dest = arguments.getDestination();
 			IPath destLoc = null;
 			if (dest instanceof IResource destRes) {
 				destLoc = destRes.getRawLocation();
@@ -64,10 +74,9 @@ protected boolean initialize(final Object element) {
 				return false;
 
 			final String targetName = res.getName();
-			newURI = LSPEclipseUtils.toUri(destLoc.append(targetName));
-
-			return LSPFileOperationParticipantSupport
-					.createFileOperationExecutor(res, FileOperationsServerCapabilities::getWillRename).anyMatching();
+			final URI newURI = LSPEclipseUtils.toUri(destLoc.append(targetName));
+			batch.add(res, new FileRename(oldURI.toString(), newURI.toString()));
+			return true;
 		}
 
 		return false;
@@ -82,15 +91,12 @@ public RefactoringStatus checkConditions(final IProgressMonitor monitor, final C
 	@Override
 	public @Nullable Change createChange(final IProgressMonitor monitor)
 			throws CoreException, OperationCanceledException {
-		return null;
+		return LSPFileOperationParticipantSupport.createRenameNotificationChange(getName(), batch);
 	}
 
 	@Override
 	public @Nullable Change createPreChange(final IProgressMonitor monitor)
 			throws CoreException, OperationCanceledException {
-		final var params = new RenameFilesParams();
-		params.getFiles().add(new FileRename(oldURI.toString(), newURI.toString()));
-		return LSPFileOperationParticipantSupport.computePreChange(getName(), params, resource,
-				FileOperationsServerCapabilities::getWillRename, (ws, p) -> ws.willRenameFiles(p));
+		return LSPFileOperationParticipantSupport.createRenamePreChange(getName(), batch, monitor);
 	}
 }
@@ -33,6 +33,8 @@
 import org.eclipse.lsp4e.LSPEclipseUtils;
 import org.eclipse.lsp4e.LanguageServerPlugin;
 import org.eclipse.lsp4e.internal.CancellationUtil;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler.Priority;
 import org.eclipse.lsp4e.internal.DocumentUtil;
 import org.eclipse.lsp4e.internal.Pair;
 import org.eclipse.lsp4j.Position;
@@ -235,21 +237,23 @@ private void fullReconcile() {
 		cancelSemanticTokensFull();
 		if (document != null) {
 			long modificationStamp = DocumentUtil.getDocumentModificationStamp(document);
-			try {
-				final var semanticTokensFullFuture = SemanticTokensClient.DEFAULT.requestFullSemanticTokens(document,
-						(legend, semanticTokens) -> new VersionedSemanticTokens(modificationStamp, Pair.of(semanticTokens, legend), document));
-				this.semanticTokensFullFuture = semanticTokensFullFuture;
-				semanticTokensFullFuture.get() // background thread with cancellation support, no timeout needed
-						.ifPresent(versionedSemanticTokens ->
-								versionedSemanticTokens.apply(this::saveStyle, this::invalidateTextPresentation));
-			} catch (InterruptedException e) {
-				LanguageServerPlugin.logError(e);
-				Thread.currentThread().interrupt();
-			} catch (Exception e) {
-				if (!CancellationUtil.isRequestCancelledException(e)) { // do not report error if the server has cancelled the request
-					LanguageServerPlugin.logError(e);
+			final var semanticTokensFullFuture = DocumentRefreshScheduler.DEFAULT.schedule(document,
+					viewer.getTextWidget(), this, Priority.TEXT_PRESENTATION,
+					() -> SemanticTokensClient.DEFAULT.requestFullSemanticTokens(document,
+							(legend, semanticTokens) -> new VersionedSemanticTokens(modificationStamp,
+									Pair.of(semanticTokens, legend), document)));
+			this.semanticTokensFullFuture = semanticTokensFullFuture;
+			// the request may be deferred until the editor is visible, the reconciler thread must not wait for it
+			semanticTokensFullFuture.whenComplete((result, error) -> {
+				if (error != null) {
+					if (!CancellationUtil.isRequestCancelledException(error)) { // do not report error if the server has cancelled the request
+						LanguageServerPlugin.logError(error);
+					}
+				} else {
+					result.ifPresent(versionedSemanticTokens ->
+							versionedSemanticTokens.apply(this::saveStyle, this::invalidateTextPresentation));
 				}
-			}
+			});
 		}
 	}
 
@@ -11,25 +11,63 @@
 package org.eclipse.lsp4e.operations.semanticTokens;
 
 import java.net.URI;
+import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.lsp4e.LSPEclipseUtils;
 import org.eclipse.lsp4e.LanguageServerWrapper;
 import org.eclipse.lsp4e.LanguageServers;
+import org.eclipse.lsp4e.internal.DocumentUtil;
+import org.eclipse.lsp4e.internal.RequestCache;
 import org.eclipse.lsp4j.SemanticTokens;
 import org.eclipse.lsp4j.SemanticTokensLegend;
 import org.eclipse.lsp4j.SemanticTokensParams;
 import org.eclipse.lsp4j.SemanticTokensWithRegistrationOptions;
 import org.eclipse.lsp4j.ServerCapabilities;
 
+/**
+ * Requests the semantic tokens of documents, for all the features showing
+ * them, e.g. the semantic highlighting of the generic editor and the JDT
+ * semantic tokens provider.
+ * <p>
+ * The tokens are cached by document version: a caller asking for the tokens of
+ * a document version already requested joins the request in flight, or reuses
+ * its result once received, so the server computes the tokens once per
+ * version. Every caller gets its own future: cancelling it only cancels the
+ * request to the server once all callers have cancelled. Failed requests are
+ * never reused.
+ */
 public final class SemanticTokensClient {
 
 	public static final SemanticTokensClient DEFAULT = new SemanticTokensClient();
 
+	private record Tokens(SemanticTokens semanticTokens, @Nullable SemanticTokensLegend legend) {
+	}
+
+	private static final class Entry {
+		final long version;
+		final CompletableFuture<Optional<Tokens>> future;
+		int subscribers = 1;
+
+		Entry(long version, CompletableFuture<Optional<Tokens>> future) {
+			this.version = version;
+			this.future = future;
+		}
+	}
+
+	/** the tokens of the last requested version of each document */
+	private final Map<IDocument, Entry> entries = new WeakHashMap<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
 	private SemanticTokensClient() {
 
 	}
@@ -41,12 +79,59 @@ public <T> CompletableFuture<Optional<T>> requestFullSemanticTokens(IDocument do
 			return CompletableFuture.completedFuture(Optional.empty());
 		}
 
+		final long version = DocumentUtil.getDocumentModificationStamp(document);
+		final Entry entry;
+		synchronized (entries) {
+			final Entry existing = entries.get(document);
+			if (existing != null && existing.version == version && !existing.future.isCompletedExceptionally()) {
+				existing.subscribers++;
+				entry = existing;
+				hits.increment();
+			} else {
+				entry = new Entry(version, requestFullSemanticTokens(document, uri));
+				if (version != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+					entries.put(document, entry);
+				}
+				misses.increment();
+			}
+		}
+
+		final CompletableFuture<Optional<T>> result = entry.future
+				.thenApply(tokens -> tokens.map(t -> callback.apply(t.legend(), t.semanticTokens())));
+		result.whenComplete((r, error) -> {
+			if (error instanceof CancellationException) {
+				unsubscribe(document, entry);
+			}
+		});
+		return result;
+	}
+
+	private CompletableFuture<Optional<Tokens>> requestFullSemanticTokens(IDocument document, URI uri) {
 		return LanguageServers.forDocument(document)
 				.withFilter(serverCapabilities -> serverCapabilities.getSemanticTokensProvider() != null
 						&& LSPEclipseUtils.hasCapability(serverCapabilities.getSemanticTokensProvider().getFull())) //
 				.computeFirst((w, ls) -> ls.getTextDocumentService()
 						.semanticTokensFull(new SemanticTokensParams(LSPEclipseUtils.toTextDocumentIdentifier(uri)))
-						.thenApply(semanticTokens -> callback.apply(getSemanticTokensLegend(w), semanticTokens)));
+						.thenApply(semanticTokens -> new Tokens(semanticTokens, getSemanticTokensLegend(w))));
+	}
+
+	private void unsubscribe(IDocument document, Entry entry) {
+		synchronized (entries) {
+			// done under the lock so no caller joins a request being cancelled
+			if (--entry.subscribers > 0 || entry.future.isDone()) {
+				return;
+			}
+			entries.remove(document, entry);
+		}
+		entry.future.cancel(true);
+	}
+
+	/**
+	 * @return how often the tokens of a document version were reused (hits) or
+	 *         requested from the servers (misses)
+	 */
+	public RequestCache.Statistics getStatistics() {
+		return new RequestCache.Statistics(hits.sum(), misses.sum());
 	}
 
 	// public for testing
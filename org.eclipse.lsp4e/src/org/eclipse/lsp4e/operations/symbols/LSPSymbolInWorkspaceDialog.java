@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.lsp4e.operations.symbols;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -38,6 +39,7 @@
 import org.eclipse.jface.viewers.StyledString;
 import org.eclipse.lsp4e.LanguageServerPlugin;
 import org.eclipse.lsp4e.LanguageServers;
+import org.eclipse.lsp4e.internal.LatencyTracker;
 import org.eclipse.lsp4e.outline.CNFOutlinePage;
 import org.eclipse.lsp4e.outline.SymbolsLabelProvider;
 import org.eclipse.lsp4e.ui.Messages;
@@ -56,6 +58,7 @@
 public class LSPSymbolInWorkspaceDialog extends FilteredItemsSelectionDialog {
 
 	private static final String DIALOG_SETTINGS = LSPSymbolInWorkspaceDialog.class.getName();
+	private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(1);
 
 	private static final class InternalSymbolsLabelProvider extends SymbolsLabelProvider {
 
@@ -149,8 +152,10 @@ protected void fillContentProvider(AbstractContentProvider contentProvider, Item
 			return;
 		}
 		final var params = new WorkspaceSymbolParams(itemsFilter.getPattern());
+		final Duration timeout = LanguageServers.getTimeout(LatencyTracker.WORKSPACE_SYMBOL, DEFAULT_TIMEOUT);
 		request = LanguageServers.forProject(project) //
 				.withCapability(ServerCapabilities::getWorkspaceSymbolProvider) //
+				.withRoutingAroundDegraded(LatencyTracker.WORKSPACE_SYMBOL) //
 				.computeAll((w, ls) -> ls.getWorkspaceService().symbol(params));
 		request.stream().map((
 				CompletableFuture<@Nullable Either<List<? extends SymbolInformation>, List<@Nullable ? extends WorkspaceSymbol>>> f) -> f
@@ -160,7 +165,7 @@ protected void fillContentProvider(AbstractContentProvider contentProvider, Item
 						return;
 					}
 					try {
-						for (Object item : cf.get(1, TimeUnit.SECONDS)) {
+						for (Object item : cf.get(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
 							contentProvider.add(item, itemsFilter);
 						}
 					} catch (ExecutionException e) {
@@ -170,7 +175,8 @@ protected void fillContentProvider(AbstractContentProvider contentProvider, Item
 						Thread.currentThread().interrupt();
 					} catch (TimeoutException e) {
 						LanguageServerPlugin.logWarning(
-								"Could not get workspace symbols due to timeout after 1 seconds in `workspace/symbol`"); //$NON-NLS-1$
+								"Could not get workspace symbols due to timeout after " + timeout.toMillis() //$NON-NLS-1$
+										+ " milliseconds in `workspace/symbol`"); //$NON-NLS-1$
 					}
 				});
 	}
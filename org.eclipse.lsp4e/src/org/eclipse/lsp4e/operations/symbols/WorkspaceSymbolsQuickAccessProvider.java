@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.lsp4e.operations.symbols;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -25,7 +26,9 @@
 import org.eclipse.lsp4e.LSPEclipseUtils;
 import org.eclipse.lsp4e.LanguageServerPlugin;
 import org.eclipse.lsp4e.LanguageServerWrapper;
+import org.eclipse.lsp4e.LanguageServers;
 import org.eclipse.lsp4e.LanguageServiceAccessor;
+import org.eclipse.lsp4e.internal.LatencyTracker;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.WorkspaceSymbol;
 import org.eclipse.lsp4j.WorkspaceSymbolParams;
@@ -37,6 +40,7 @@
 public class WorkspaceSymbolsQuickAccessProvider implements IQuickAccessComputer, IQuickAccessComputerExtension {
 
 	private static final QuickAccessElement[] NO_QUICK_ACCESS_ELEMENTS = new QuickAccessElement[0];
+	private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(1);
 
 	private @Nullable List<LanguageServerWrapper> usedLanguageServerWrappers;
 
@@ -65,6 +69,8 @@ public QuickAccessElement[] computeElements(String query, IProgressMonitor monit
 		}
 		final var params = new WorkspaceSymbolParams(query);
 		final var res = Collections.synchronizedList(new ArrayList<QuickAccessElement>());
+		final Duration timeout = LanguageServers.getTimeout(usedLanguageServerWrappers, LatencyTracker.WORKSPACE_SYMBOL,
+				DEFAULT_TIMEOUT);
 
 		try {
 			CompletableFuture.allOf(usedLanguageServerWrappers.stream()
@@ -73,12 +79,13 @@ public QuickAccessElement[] computeElements(String query, IProgressMonitor monit
 							res.addAll(LSPSymbolInWorkspaceDialog.eitherToWorkspaceSymbols(symbols).stream().filter(Objects::nonNull).map(WorkspaceSymbolQuickAccessElement::new)
 									.toList());
 						}
-					}))).toArray(CompletableFuture[]::new)).get(1, TimeUnit.SECONDS);
+					}))).toArray(CompletableFuture[]::new)).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
 		}
 		catch (ExecutionException | InterruptedException e) {
 			LanguageServerPlugin.logError(e);
 		} catch (TimeoutException e) {
-			LanguageServerPlugin.logWarning("Could not get workspace symbols due to timeout after 1 second in `workspace/symbol`"); //$NON-NLS-1$
+			LanguageServerPlugin.logWarning("Could not get workspace symbols due to timeout after " + timeout.toMillis() //$NON-NLS-1$
+					+ " milliseconds in `workspace/symbol`"); //$NON-NLS-1$
 		}
 
 		return res.toArray(QuickAccessElement[]::new);
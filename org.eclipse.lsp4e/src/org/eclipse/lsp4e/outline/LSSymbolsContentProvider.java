@@ -58,6 +58,8 @@
 import org.eclipse.lsp4e.LanguageServerWrapper;
 import org.eclipse.lsp4e.internal.ArrayUtil;
 import org.eclipse.lsp4e.internal.CancellationUtil;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler;
+import org.eclipse.lsp4e.internal.DocumentRefreshScheduler.Priority;
 import org.eclipse.lsp4e.outline.SymbolsModel.DocumentSymbolWithURI;
 import org.eclipse.lsp4e.ui.UI;
 import org.eclipse.lsp4j.DocumentSymbol;
@@ -383,7 +385,9 @@ protected void refreshTreeContentFromLS() {
 		}
 
 		final var params = new DocumentSymbolParams(LSPEclipseUtils.toTextDocumentIdentifier(documentURI));
-		final var symbols = this.symbols = outlineViewerInput.wrapper.execute(ls -> ls.getTextDocumentService().documentSymbol(params));
+		final var symbols = this.symbols = DocumentRefreshScheduler.DEFAULT.schedule(outlineViewerInput.document,
+				viewer.getControl(), this, Priority.OUTLINE,
+				() -> outlineViewerInput.wrapper.execute(ls -> ls.getTextDocumentService().documentSymbol(params)));
 		symbols.thenAcceptAsync(response -> {
 			final boolean changed = symbolsModel.update(response);
 			if (!changed) {
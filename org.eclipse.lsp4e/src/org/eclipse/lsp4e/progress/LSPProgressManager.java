@@ -11,25 +11,23 @@
  *******************************************************************************/
 package org.eclipse.lsp4e.progress;
 
-import static org.eclipse.lsp4e.internal.NullSafetyHelper.castNullable;
-
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ConcurrentSkipListSet;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import org.eclipse.core.runtime.ICoreRunnable;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.NullProgressMonitor;
-import org.eclipse.core.runtime.OperationCanceledException;
-import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.lsp4e.LanguageServerPlugin;
 import org.eclipse.lsp4e.LanguageServersRegistry.LanguageServerDefinition;
@@ -39,30 +37,132 @@
 import org.eclipse.lsp4j.WorkDoneProgressCancelParams;
 import org.eclipse.lsp4j.WorkDoneProgressCreateParams;
 import org.eclipse.lsp4j.WorkDoneProgressEnd;
-import org.eclipse.lsp4j.WorkDoneProgressKind;
 import org.eclipse.lsp4j.WorkDoneProgressNotification;
 import org.eclipse.lsp4j.WorkDoneProgressReport;
 import org.eclipse.lsp4j.services.LanguageServer;
 
+/**
+ * Shows the work done progresses created by one language server as jobs.
+ * <p>
+ * The notifications of all the progress tokens of the server are dispatched
+ * by a single job of this manager: each notification only updates the state
+ * of its progress, so rapid reports are coalesced, and the dispatcher applies
+ * the latest states to the monitors of the progresses at most every
+ * {@value #UPDATE_INTERVAL_MILLIS}ms. The job showing a progress only provides
+ * its monitor: it finishes asynchronously, without holding a worker thread,
+ * and is reused for the next progress once its progress ended. A progress
+ * ending before its job started is never shown.
+ */
 public class LSPProgressManager {
-	private final ConcurrentMap<String, BlockingQueue<ProgressParams>> progressMap;
-	private final ConcurrentMap<IProgressMonitor, Integer> percentageMap;
+
+	/** minimal interval between two updates of the monitor of a progress */
+	static final long UPDATE_INTERVAL_MILLIS = 100;
+
+	/**
+	 * The state of one progress, guarded by the manager lock.
+	 */
+	private static final class Progress {
+		final String token;
+		@Nullable String title;
+		@Nullable String message;
+		@Nullable Integer percentage;
+		boolean ended;
+		/** whether the user cancelled the progress, which is still ended by the server */
+		boolean cancelled;
+		/** whether the state changed since it was last applied to the monitor */
+		boolean changed;
+
+		Progress(String token) {
+			this.token = token;
+		}
+	}
+
+	/**
+	 * Shows one progress. Its monitor is updated by the dispatcher, which
+	 * finishes the job when the progress ends.
+	 */
+	private final class ProgressJob extends Job {
+		private @Nullable Progress progress;
+		/** the monitor of the running job, guarded by the manager lock */
+		private @Nullable IProgressMonitor monitor;
+		/** only accessed by the dispatcher */
+		private boolean started;
+		private int worked;
+
+		ProgressJob(String name) {
+			super(name);
+		}
+
+		@Override
+		public boolean belongsTo(@Nullable Object family) {
+			return LanguageServerPlugin.FAMILY_PROGRESS == family;
+		}
+
+		@Override
+		protected void canceling() {
+			synchronized (lock) {
+				final Progress progress = this.progress;
+				if (progress != null && monitor != null) {
+					progress.cancelled = true;
+					progress.changed = true;
+					scheduleDispatch();
+				}
+			}
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			synchronized (lock) {
+				final Progress progress = this.progress;
+				if (progress == null) {
+					return Status.OK_STATUS;
+				}
+				if (progress.ended) {
+					release(this);
+					return Status.OK_STATUS;
+				}
+				this.monitor = monitor;
+				started = false;
+				worked = 0;
+				progress.changed = true;
+				scheduleDispatch();
+			}
+			return ASYNC_FINISH;
+		}
+	}
+
+	/**
+	 * The state of a progress to apply to the monitor of its job.
+	 */
+	private record Update(ProgressJob job, IProgressMonitor monitor, String token, @Nullable String title,
+			@Nullable String message, @Nullable Integer percentage, boolean ended, boolean cancelled) {
+	}
+
+	private final Object lock = new Object();
+	/** the progresses not ended yet, by token */
+	private final Map<String, Progress> progresses = new HashMap<>();
+	/** the jobs showing a progress, by token */
+	private final Map<String, ProgressJob> jobs = new HashMap<>();
+	/** the jobs showing a progress, including the ones of progresses discarded by a new one with the same token */
+	private final Set<ProgressJob> activeJobs = new LinkedHashSet<>();
+	/** the jobs done with their progress, to be reused */
+	private final Deque<ProgressJob> idleJobs = new ArrayDeque<>();
+	/** tokens ended before being created */
+	private final Set<String> done = new HashSet<>();
+	private final Job dispatcher = Job.createSystem("LSP4E Progress Dispatcher", (ICoreRunnable) monitor -> dispatch()); //$NON-NLS-1$
+	/** whether the dispatcher is scheduled to apply the changes, guarded by the lock */
+	private boolean dispatchScheduled;
 	private @Nullable LanguageServer languageServer;
 	private @Nullable LanguageServerDefinition languageServerDefinition;
-	private final Set<String> done;
-	private final Set<Job> jobs;
 
 	public LSPProgressManager() {
-		this.progressMap = new ConcurrentHashMap<>();
-		this.percentageMap = new ConcurrentHashMap<>();
-		this.done = new ConcurrentSkipListSet<>();
-		this.jobs = new ConcurrentSkipListSet<>();
 	}
 
 	public void connect(final LanguageServer languageServer, LanguageServerDefinition languageServerDefinition) {
 		this.languageServer = languageServer;
 		this.languageServerDefinition = languageServerDefinition;
 	}
+
 	/**
 	 * Creates the progress.
 	 *
@@ -71,131 +171,175 @@ public void connect(final LanguageServer languageServer, LanguageServerDefinitio
 	 * @return the completable future
 	 */
 	public CompletableFuture<Void> createProgress(final WorkDoneProgressCreateParams params) {
-		final var queue = new LinkedBlockingDeque<ProgressParams>();
-
-		String jobIdentifier = params.getToken().map(Function.identity(), Object::toString);
-		BlockingQueue<ProgressParams> oldQueue = progressMap.put(jobIdentifier, queue);
-		if (oldQueue != null) {
-			LanguageServerPlugin.logInfo(
-					"Old progress with identifier " + jobIdentifier + " discarded due to new create progress request"); //$NON-NLS-1$//$NON-NLS-2$
+		String token = params.getToken().map(Function.identity(), Object::toString);
+		final var progress = new Progress(token);
+		synchronized (lock) {
+			if (done.remove(token)) {
+				return CompletableFuture.completedFuture(null);
+			}
+			Progress oldProgress = progresses.put(token, progress);
+			if (oldProgress != null) {
+				LanguageServerPlugin.logInfo(
+						"Old progress with identifier " + token + " discarded due to new create progress request"); //$NON-NLS-1$//$NON-NLS-2$
+				oldProgress.ended = true;
+				oldProgress.changed = true;
+				scheduleDispatch();
+			}
+			ProgressJob job = idleJobs.poll();
+			if (job == null) {
+				job = new ProgressJob(getJobName());
+			}
+			job.progress = progress;
+			jobs.put(token, job);
+			activeJobs.add(job);
+			// short-lived progresses end before their job is shown
+			job.schedule(UPDATE_INTERVAL_MILLIS);
 		}
-		createJob(queue, jobIdentifier);
 		return CompletableFuture.completedFuture(null);
 	}
 
-	private void createJob(final LinkedBlockingDeque<ProgressParams> queue, final String jobIdentifier) {
-		final var languageServer = this.languageServer;
+	private String getJobName() {
 		final var languageServerDefinition = this.languageServerDefinition;
-
-		final var jobName = languageServerDefinition == null //
-				|| languageServerDefinition.label.isBlank() //
+		return languageServerDefinition == null || languageServerDefinition.label.isBlank()
 				? Messages.LSPProgressManager_BackgroundJobName
 				: languageServerDefinition.label;
-		Job job = Job.create(jobName, (ICoreRunnable) mon -> {
-			final var monitor = mon == null ? new NullProgressMonitor() : mon;
-			try {
-				while (true) {
-					if (monitor.isCanceled()) {
-						progressMap.remove(jobIdentifier);
-						percentageMap.remove(monitor);
-						if (languageServer != null) {
-							final var workDoneProgressCancelParams = new WorkDoneProgressCancelParams();
-							workDoneProgressCancelParams.setToken(jobIdentifier);
-							languageServer.cancelProgress(workDoneProgressCancelParams);
-						}
-						throw new OperationCanceledException();
-					}
-					ProgressParams nextProgressNotification = castNullable(queue.pollFirst(1, TimeUnit.SECONDS));
-					if (nextProgressNotification != null ) {
-						WorkDoneProgressNotification progressNotification = nextProgressNotification.getValue().getLeft();
-						if (progressNotification != null) {
-							WorkDoneProgressKind kind = progressNotification.getKind();
-							if (kind == WorkDoneProgressKind.begin) {
-								begin((WorkDoneProgressBegin) progressNotification, monitor);
-							} else if (kind == WorkDoneProgressKind.report) {
-								report((WorkDoneProgressReport) progressNotification, monitor);
-							} else if (kind == WorkDoneProgressKind.end) {
-								end((WorkDoneProgressEnd) progressNotification, monitor);
-								progressMap.remove(jobIdentifier);
-								percentageMap.remove(monitor);
-								return;
-							}
-						}
-					} else if (done.remove(jobIdentifier)) {
-						monitor.done();
-					}
-				}
-			} catch (InterruptedException e) {
-				LanguageServerPlugin.logError(e);
-				Thread.currentThread().interrupt();
-			}
-		});
-		jobs.add(job);
-		Job.getJobManager().addJobChangeListener(new JobChangeAdapter()  {
-			@Override
-			public void done(IJobChangeEvent event) {
-				jobs.remove(event.getJob());
-			}
-		});
-		job.schedule();
 	}
 
-	private void begin(final WorkDoneProgressBegin begin, final IProgressMonitor monitor) {
-		Integer percentage = begin.getPercentage();
-		if (percentage != null) {
-			if (percentage == 0) {
-				monitor.beginTask(begin.getTitle(), 100);
-			} else {
-				monitor.beginTask(begin.getTitle(), percentage);
-			}
-			percentageMap.put(monitor, 0);
-		} else {
-			monitor.beginTask(begin.getTitle(), IProgressMonitor.UNKNOWN);
+	/**
+	 * Notify progress.
+	 *
+	 * @param params
+	 *            the {@link ProgressParams} used for the progress notification
+	 */
+	public void notifyProgress(final ProgressParams params) {
+		String token = params.getToken().map(Function.identity(), Object::toString);
+		WorkDoneProgressNotification notification = params.getValue().getLeft();
+		if (notification == null) {
+			return;
 		}
-
-		String message = begin.getMessage();
-		if (message != null && !message.isBlank()) {
-			monitor.subTask(message);
+		synchronized (lock) {
+			final Progress progress = progresses.get(token);
+			if (progress == null) {
+				// may happen if the server does not wait on the return value of the future of createProgress
+				if (notification instanceof WorkDoneProgressEnd) {
+					done.add(token);
+				}
+				return;
+			}
+			if (notification instanceof WorkDoneProgressBegin begin) {
+				progress.title = begin.getTitle();
+				progress.message = begin.getMessage();
+				progress.percentage = begin.getPercentage();
+			} else if (notification instanceof WorkDoneProgressReport report) {
+				if (report.getMessage() != null) {
+					progress.message = report.getMessage();
+				}
+				if (report.getPercentage() != null) {
+					progress.percentage = report.getPercentage();
+				}
+			} else if (notification instanceof WorkDoneProgressEnd end) {
+				if (end.getMessage() != null) {
+					progress.message = end.getMessage();
+				}
+				progress.ended = true;
+				progresses.remove(token);
+				final ProgressJob job = jobs.get(token);
+				if (job != null && job.progress == progress && job.getState() == Job.SLEEPING && job.cancel()) {
+					release(job);
+				}
+			}
+			progress.changed = true;
+			scheduleDispatch();
 		}
 	}
 
-	private void end(final WorkDoneProgressEnd end, final IProgressMonitor monitor) {
-		monitor.subTask(end.getMessage());
-		monitor.done();
+	/**
+	 * Schedules the dispatcher, unless it is already scheduled. Must be called
+	 * with the lock held.
+	 */
+	private void scheduleDispatch() {
+		if (!dispatchScheduled) {
+			dispatchScheduled = true;
+			// the changes received meanwhile are coalesced
+			dispatcher.schedule(UPDATE_INTERVAL_MILLIS);
+		}
 	}
 
-	private void report(final WorkDoneProgressReport report, final IProgressMonitor monitor) {
-		final var reportMessage = report.getMessage();
-		if (reportMessage != null && !reportMessage.isBlank()) {
-			monitor.subTask(reportMessage);
+	/**
+	 * Applies the changed progresses to the monitors of their running jobs, and
+	 * finishes the jobs of the progresses which ended or were cancelled.
+	 */
+	private void dispatch() {
+		final var updates = new ArrayList<Update>();
+		synchronized (lock) {
+			dispatchScheduled = false;
+			for (final ProgressJob job : List.copyOf(activeJobs)) {
+				final Progress progress = job.progress;
+				final IProgressMonitor monitor = job.monitor;
+				if (progress == null || monitor == null || !progress.changed) {
+					continue;
+				}
+				progress.changed = false;
+				updates.add(new Update(job, monitor, progress.token, progress.title, progress.message,
+						progress.percentage, progress.ended, progress.cancelled));
+				if (progress.ended || progress.cancelled) {
+					release(job);
+				}
+			}
 		}
-
-		final var progressPercentage = report.getPercentage();
-		if (progressPercentage != null) {
-			percentageMap.compute(monitor, (key, existingPercentage) -> {
-				final int worked = (existingPercentage != null) ? Math.min(existingPercentage, progressPercentage) : 0;
-				monitor.worked(progressPercentage - worked);
-				return progressPercentage;
-			});
+		for (final Update update : updates) {
+			final ProgressJob job = update.job();
+			final IProgressMonitor monitor = update.monitor();
+			if (update.cancelled()) {
+				cancelProgress(update.token());
+				monitor.done();
+				job.done(Status.CANCEL_STATUS);
+				continue;
+			}
+			final String title = update.title();
+			final Integer percentage = update.percentage();
+			final String message = update.message();
+			if (!job.started && title != null) {
+				monitor.beginTask(title, percentage == null ? IProgressMonitor.UNKNOWN : 100);
+				job.started = true;
+			}
+			if (message != null && !message.isBlank()) {
+				monitor.subTask(message);
+			}
+			if (percentage != null && percentage > job.worked) {
+				monitor.worked(percentage - job.worked);
+				job.worked = percentage;
+			}
+			if (update.ended()) {
+				monitor.done();
+				job.done(Status.OK_STATUS);
+			}
 		}
 	}
 
 	/**
-	 * Notify progress.
-	 *
-	 * @param params
-	 *            the {@link ProgressParams} used for the progress notification
+	 * Makes the job available to show the next progress. Must be called with the
+	 * lock held. A progress cancelled by the user is kept until the server ends
+	 * it.
 	 */
-	public void notifyProgress(final ProgressParams params) {
-		String jobIdentifier = params.getToken().map(Function.identity(), Object::toString);
-		BlockingQueue<ProgressParams> progress = progressMap.get(jobIdentifier);
-		if (progress != null) { // may happen if the server does not wait on the return value of the future of createProgress
-			progress.add(params);
-		} else {
-			WorkDoneProgressNotification progressNotification = params.getValue().getLeft();
-			if (progressNotification != null && progressNotification.getKind() == WorkDoneProgressKind.end) {
-				done.add(jobIdentifier);
-			}
+	private void release(ProgressJob job) {
+		final Progress progress = job.progress;
+		if (progress == null) {
+			return;
+		}
+		job.progress = null;
+		job.monitor = null;
+		jobs.remove(progress.token, job);
+		activeJobs.remove(job);
+		idleJobs.push(job);
+	}
+
+	private void cancelProgress(String token) {
+		final var languageServer = this.languageServer;
+		if (languageServer != null) {
+			final var workDoneProgressCancelParams = new WorkDoneProgressCancelParams();
+			workDoneProgressCancelParams.setToken(token);
+			languageServer.cancelProgress(workDoneProgressCancelParams);
 		}
 	}
 
@@ -203,9 +347,32 @@ public void notifyProgress(final ProgressParams params) {
 	 * Dispose the progress manager.
 	 */
 	public void dispose() {
-		jobs.forEach(Job::cancel);
-		percentageMap.clear();
-		progressMap.clear();
-		done.clear();
+		final var toCancel = new ArrayList<ProgressJob>();
+		final var toFinish = new ArrayList<Update>();
+		synchronized (lock) {
+			for (final ProgressJob job : activeJobs) {
+				final Progress progress = job.progress;
+				final IProgressMonitor monitor = job.monitor;
+				if (progress != null && monitor != null) {
+					toFinish.add(new Update(job, monitor, progress.token, null, null, null, true, false));
+				} else {
+					toCancel.add(job);
+				}
+				job.progress = null;
+				job.monitor = null;
+			}
+			progresses.values().forEach(progress -> progress.ended = true);
+			progresses.clear();
+			jobs.clear();
+			activeJobs.clear();
+			idleJobs.clear();
+			done.clear();
+		}
+		dispatcher.cancel();
+		toCancel.forEach(Job::cancel);
+		for (final Update update : toFinish) {
+			update.monitor().done();
+			update.job().done(Status.CANCEL_STATUS);
+		}
 	}
 }
@@ -14,6 +14,8 @@
 import static org.eclipse.lsp4e.internal.NullSafetyHelper.*;
 
 import java.net.URI;
+import java.util.Comparator;
+import java.util.List;
 
 import org.eclipse.core.filebuffers.FileBuffers;
 import org.eclipse.core.filebuffers.ITextFileBuffer;
@@ -26,6 +28,7 @@
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.annotation.Nullable;
@@ -33,42 +36,63 @@
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.lsp4e.LSPEclipseUtils;
 import org.eclipse.lsp4e.LanguageServerPlugin;
-import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.TextEdit;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.ltk.core.refactoring.Change;
 import org.eclipse.ltk.core.refactoring.DocumentChange;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 import org.eclipse.ltk.core.refactoring.TextChange;
+import org.eclipse.ltk.core.refactoring.TextEditChangeGroup;
 import org.eclipse.ltk.core.refactoring.TextFileChange;
 import org.eclipse.ltk.internal.core.refactoring.Changes;
 import org.eclipse.text.edits.MalformedTreeException;
+import org.eclipse.text.edits.MultiTextEdit;
 import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEditGroup;
 import org.eclipse.text.edits.UndoEdit;
 
 @SuppressWarnings("restriction")
 public class LSPTextChange extends TextChange {
 
+	private static final Comparator<TextEdit> BY_START = Comparator.comparing((TextEdit edit) -> edit.getRange().getStart(),
+			Comparator.comparingInt(Position::getLine).thenComparingInt(Position::getCharacter));
+
 	private final URI fileUri;
 
 	private Either<IFile, IFileStore> file = lateNonNull();
 	private int fAcquireCount;
 	private @Nullable ITextFileBuffer fBuffer;
 	private String newText;
-	private @Nullable Range range;
+	/** sorted by start position, or <code>null</code> to replace the whole content by {@link #newText} */
+	private final @Nullable List<TextEdit> textEdits;
 
 	public LSPTextChange(String name, URI fileUri, TextEdit textEdit) {
+		this(name, fileUri, List.of(textEdit));
+	}
+
+	/**
+	 * A change applying all the given edits to the file at once, in a single
+	 * {@link MultiTextEdit}, so the file buffer is acquired only once however
+	 * many edits there are.
+	 *
+	 * @param textEdits
+	 *            non overlapping edits of the file, the edits inserting at the
+	 *            same position being applied in the given order
+	 */
+	public LSPTextChange(String name, URI fileUri, List<TextEdit> textEdits) {
 		super(name);
 		this.fileUri = fileUri;
-		this.newText = textEdit.getNewText();
-		this.range = textEdit.getRange();
+		this.newText = ""; //$NON-NLS-1$
+		// stable sort, so insertions at the same position keep their order
+		this.textEdits = textEdits.stream().sorted(BY_START).toList();
 	}
 
 	public LSPTextChange(String name, URI fileUri, String newText) {
 		super(name);
 		this.fileUri = fileUri;
 		this.newText = newText;
-		this.range = null;
+		this.textEdits = null;
 	}
 
 	@Override
@@ -109,14 +133,10 @@ protected IDocument acquireDocument(IProgressMonitor pm) throws CoreException {
 		// since we need the document to translate line offsets into character offset. Strictly this would not work then
 		// if the platform called getEdit() prior to this method being traversed, but it seems to be OK in practice.
 		final IDocument document = castNonNull(this.fBuffer).getDocument();
-		int offset = 0;
-		final var range = this.range;
-		if (range != null && getEdit() == null) {
+		if (textEdits != null && getEdit() == null) {
 			try {
-				offset = LSPEclipseUtils.toOffset(range.getStart(), document);
-				int length = LSPEclipseUtils.toOffset(range.getEnd(), document) - offset;
-				this.setEdit(new ReplaceEdit(offset, length, newText));
-			} catch (BadLocationException e) {
+				this.setEdit(createEdit(document, true));
+			} catch (BadLocationException | MalformedTreeException e) {
 				// Should not happen
 				LanguageServerPlugin.logError(e);
 			}
@@ -124,6 +144,77 @@ protected IDocument acquireDocument(IProgressMonitor pm) throws CoreException {
 		return document;
 	}
 
+	/**
+	 * @param withGroups
+	 *            whether to add a change group for each edit, for the preview to
+	 *            list the edits
+	 * @return the edit applying all the text edits to the given document
+	 */
+	private MultiTextEdit createEdit(IDocument document, boolean withGroups) throws BadLocationException {
+		final var edit = new MultiTextEdit();
+		final List<TextEdit> textEdits = this.textEdits;
+		if (textEdits == null) {
+			edit.addChild(new ReplaceEdit(0, document.getLength(), newText));
+			return edit;
+		}
+		final var lines = new LineIndex(document);
+		for (final TextEdit textEdit : textEdits) {
+			final Position start = textEdit.getRange().getStart();
+			final int offset = lines.toOffset(start);
+			final int length = lines.toOffset(textEdit.getRange().getEnd()) - offset;
+			if (length < 0) {
+				throw new BadLocationException("Invalid location information found applying edits"); //$NON-NLS-1$
+			}
+			final var replaceEdit = new ReplaceEdit(offset, length, textEdit.getNewText());
+			edit.addChild(replaceEdit);
+			if (withGroups) {
+				addTextEditChangeGroup(new TextEditChangeGroup(this,
+						new TextEditGroup("Line: %d".formatted(start.getLine() + 1), replaceEdit))); //$NON-NLS-1$
+			}
+		}
+		return edit;
+	}
+
+	/**
+	 * The line offsets of a document, read once to convert the positions of all
+	 * the edits of a file. Converts positions like
+	 * {@link LSPEclipseUtils#toOffset(Position, IDocument)}.
+	 */
+	private static final class LineIndex {
+
+		private final int[] lineOffsets;
+		private final int documentLength;
+
+		LineIndex(IDocument document) throws BadLocationException {
+			lineOffsets = new int[Math.max(1, document.getNumberOfLines())];
+			for (int line = 1; line < lineOffsets.length; line++) {
+				lineOffsets[line] = document.getLineOffset(line);
+			}
+			documentLength = document.getLength();
+		}
+
+		int toOffset(Position position) throws BadLocationException {
+			final int lastLine = lineOffsets.length - 1;
+			int line = position.getLine();
+			if (line < 0) {
+				throw new BadLocationException();
+			}
+			final int character;
+			if (line > lastLine) {
+				line = lastLine;
+				character = getLineLength(line);
+			} else {
+				character = Math.min(getLineLength(line), position.getCharacter());
+			}
+			return lineOffsets[line] + character;
+		}
+
+		private int getLineLength(int line) {
+			final int end = line + 1 < lineOffsets.length ? lineOffsets[line + 1] : documentLength;
+			return end - lineOffsets[line];
+		}
+	}
+
 	@Override
 	protected void commit(IDocument document, IProgressMonitor pm) throws CoreException {
 		castNonNull(this.fBuffer).commit(pm, true);
@@ -174,19 +265,16 @@ public RefactoringStatus isValid(IProgressMonitor pm) throws CoreException {
 	@Override
 	public @Nullable Change perform(IProgressMonitor pm) throws CoreException {
 		pm.beginTask("", 3); //$NON-NLS-1$
+		pm.subTask(getName());
+		if (pm.isCanceled()) {
+			pm.done();
+			throw new OperationCanceledException();
+		}
 		IDocument document = null;
 
 		try {
 			document = acquireDocument(SubMonitor.convert(pm, 1));
 
-			int offset = 0;
-			int length = document.getLength();
-			final var range = this.range;
-			if (range != null) {
-				offset = LSPEclipseUtils.toOffset(range.getStart(), document);
-				length = LSPEclipseUtils.toOffset(range.getEnd(), document) - offset;
-			}
-
 			final TextChange delegate;
 			if (this.file.isRight()) {
 				delegate = new DocumentChange("Change in document " + fileUri.getPath(), document); //$NON-NLS-1$
@@ -199,7 +287,7 @@ protected boolean needsSaving() {
 				};
 			}
 			delegate.initializeValidationData(new NullProgressMonitor());
-			delegate.setEdit(new ReplaceEdit(offset, length, newText));
+			delegate.setEdit(createEdit(document, false));
 
 			return delegate.perform(pm);
 
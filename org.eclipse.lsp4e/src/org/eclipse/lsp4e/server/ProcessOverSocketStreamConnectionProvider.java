@@ -13,49 +13,97 @@
  *******************************************************************************/
 package org.eclipse.lsp4e.server;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.lsp4e.LanguageServerPlugin;
+import org.eclipse.lsp4e.internal.SocketStreams;
+import org.eclipse.lsp4e.internal.SocketStreams.Connection;
 
 /**
+ * Starts a language server process and accepts its connection on a TCP port or,
+ * for lower latency with local servers, on a Unix domain socket.
  *
  * @since 0.1.0
  */
 public abstract class ProcessOverSocketStreamConnectionProvider extends ProcessStreamConnectionProvider {
 
 	private final int port;
-	private @Nullable Socket socket;
-	private @Nullable InputStream inputStream;
-	private @Nullable OutputStream outputStream;
+	private final @Nullable Path socketFile;
+	private @Nullable Connection connection;
 
 	protected ProcessOverSocketStreamConnectionProvider(List<String> commands, int port) {
 		super(commands);
 		this.port = port;
+		this.socketFile = null;
 	}
 
 	protected ProcessOverSocketStreamConnectionProvider(List<String> commands, String workingDir, int port) {
 		super(commands, workingDir);
 		this.port = port;
+		this.socketFile = null;
+	}
+
+	/**
+	 * @param socketFile
+	 *            path of the Unix domain socket the language server is expected to
+	 *            connect to. An existing file at this path is deleted on start.
+	 */
+	protected ProcessOverSocketStreamConnectionProvider(List<String> commands, Path socketFile) {
+		super(commands);
+		this.port = -1;
+		this.socketFile = socketFile;
+	}
+
+	/**
+	 * @param socketFile
+	 *            path of the Unix domain socket the language server is expected to
+	 *            connect to. An existing file at this path is deleted on start.
+	 */
+	protected ProcessOverSocketStreamConnectionProvider(List<String> commands, String workingDir, Path socketFile) {
+		super(commands, workingDir);
+		this.port = -1;
+		this.socketFile = socketFile;
+	}
+
+	/**
+	 * @return the size of the socket and stream buffers
+	 */
+	protected int getBufferSize() {
+		return SocketStreams.DEFAULT_BUFFER_SIZE;
 	}
 
 	@Override
 	public void start() throws IOException {
-		final var serverSocket = new ServerSocket(port);
+		final int bufferSize = getBufferSize();
+		final Closeable server = openServer(bufferSize);
 		final var socketThread = new Thread(() -> {
 			try {
-				this.socket = serverSocket.accept();
+				if (server instanceof ServerSocketChannel serverChannel) {
+					this.connection = SocketStreams.open(serverChannel.accept(), bufferSize);
+				} else if (server instanceof ServerSocket serverSocket) {
+					final Socket socket = serverSocket.accept();
+					SocketStreams.configure(socket, bufferSize);
+					this.connection = SocketStreams.open(socket, bufferSize);
+				}
 			} catch (IOException e) {
 				LanguageServerPlugin.logError(e);
 			} finally {
 				try {
-					serverSocket.close();
+					server.close();
 				} catch (IOException e) {
 					LanguageServerPlugin.logError(e);
 				}
@@ -69,33 +117,58 @@ public void start() throws IOException {
 		} catch (InterruptedException e) {
 			LanguageServerPlugin.logError(e);
 			Thread.currentThread().interrupt();
+		} finally {
+			deleteSocketFile();
 		}
 
-		final var socket = this.socket;
-		if (socket == null) {
+		if (this.connection == null) {
 			throw new IOException("Unable to make socket connection: " + this); //$NON-NLS-1$
 		}
+	}
 
-		inputStream = socket.getInputStream();
-		outputStream = socket.getOutputStream();
+	private Closeable openServer(int bufferSize) throws IOException {
+		final Path socketFile = this.socketFile;
+		if (socketFile == null) {
+			final var serverSocket = new ServerSocket();
+			// the receive buffer size of accepted sockets must be set before binding
+			serverSocket.setReceiveBufferSize(bufferSize);
+			serverSocket.bind(new InetSocketAddress(port));
+			return serverSocket;
+		}
+		deleteSocketFile();
+		return ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(UnixDomainSocketAddress.of(socketFile));
+	}
+
+	private void deleteSocketFile() {
+		final Path socketFile = this.socketFile;
+		if (socketFile != null) {
+			try {
+				Files.deleteIfExists(socketFile);
+			} catch (IOException e) {
+				LanguageServerPlugin.logError(e);
+			}
+		}
 	}
 
 	@Override
 	public @Nullable InputStream getInputStream() {
-		return inputStream;
+		final var connection = this.connection;
+		return connection == null ? null : connection.getInputStream();
 	}
 
 	@Override
 	public @Nullable OutputStream getOutputStream() {
-		return outputStream;
+		final var connection = this.connection;
+		return connection == null ? null : connection.getOutputStream();
 	}
 
 	@Override
 	public void stop() {
 		super.stop();
-		if (socket != null) {
+		final var connection = this.connection;
+		if (connection != null) {
 			try {
-				socket.close();
+				connection.close();
 			} catch (IOException e) {
 				LanguageServerPlugin.logError(e);
 			}
@@ -105,7 +178,7 @@ public void stop() {
 	@Override
 	public int hashCode() {
 		int result = super.hashCode();
-		return result ^ Objects.hashCode(this.port);
+		return result ^ Objects.hash(this.port, this.socketFile);
 	}
 
 	@Override
@@ -116,12 +189,14 @@ public boolean equals(@Nullable Object obj) {
 		return obj instanceof ProcessOverSocketStreamConnectionProvider other //
 				&& Objects.equals(this.getCommands(), other.getCommands())
 				&& Objects.equals(this.getWorkingDirectory(), other.getWorkingDirectory())
-				&& Objects.equals(this.socket, other.socket);
+				&& Objects.equals(this.socketFile, other.socketFile)
+				&& Objects.equals(this.connection, other.connection);
 	}
 
 	@Override
 	public String toString() {
-		return "ProcessOverSocketStreamConnectionProvider [socket=" + socket + ", commands=" + this.getCommands() //$NON-NLS-1$//$NON-NLS-2$
+		return "ProcessOverSocketStreamConnectionProvider [socket=" + (socketFile != null ? socketFile : connection) //$NON-NLS-1$
+				+ ", commands=" + this.getCommands() //$NON-NLS-1$
 				+ ", workingDir=" + this.getWorkingDirectory() + "]"; //$NON-NLS-1$//$NON-NLS-2$
 	}
 